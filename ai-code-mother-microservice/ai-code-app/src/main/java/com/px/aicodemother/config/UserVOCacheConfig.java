@@ -0,0 +1,49 @@
+package com.px.aicodemother.config;
+
+import com.px.aicodemother.innerservice.InnerUserService;
+import com.px.aicodemother.manager.UserVOLoader;
+import lombok.Data;
+import org.apache.dubbo.config.annotation.DubboReference;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+/**
+ * packageName: com.px.aicodemother.config
+ *
+ * @author: idpeng
+ * @version: 1.0
+ * @className: UserVOCacheConfig
+ * @date: 2026/10/18 19:50
+ * @description: 用户视图对象缓存配置
+ */
+@Data
+@Configuration
+@ConfigurationProperties(prefix = "user.vo-cache")
+public class UserVOCacheConfig {
+
+    @DubboReference
+    private InnerUserService innerUserService;
+
+    /**
+     * 本地缓存过期时间；用户信息在用户服务中更新，本服务收不到变更通知，过期时间不宜过长
+     */
+    private Duration ttl = Duration.ofMinutes(1);
+
+    /**
+     * 本地缓存最大条目数
+     */
+    private Long maxSize = 10000L;
+
+    /**
+     * 创建用户视图对象批量加载器
+     *
+     * @return 用户视图对象批量加载器
+     */
+    @Bean
+    public UserVOLoader userVOLoader() {
+        return new UserVOLoader(innerUserService::listUserVOByIds, ttl, maxSize);
+    }
+}
@@ -0,0 +1,148 @@
+package com.px.aicodemother.manager;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.px.aicodemother.model.vo.user.UserVO;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+
+/**
+ * packageName: com.px.aicodemother.manager
+ *
+ * @author: idpeng
+ * @version: 1.0
+ * @className: UserVOLoader
+ * @date: 2026/10/18 19:40
+ * @description: 用户视图对象批量加载器。一次调用收集所有用户ID，依次查请求内已加载的结果、
+ * 跨请求的本地缓存，剩余的ID合并为一次批量查询；同一请求内重复的ID只加载一次（包括不存在的用户）。
+ * 用户服务通过 Dubbo 远程调用，一次批量加载只发起一次 RPC
+ */
+public class UserVOLoader {
+
+    /**
+     * 请求内已加载结果在请求属性中的名称
+     */
+    private static final String REQUEST_ATTRIBUTE = UserVOLoader.class.getName() + ".LOADED";
+
+    /**
+     * 批量查询函数：用户ID集合 -> 存在的用户视图对象
+     */
+    private final Function<Collection<Long>, List<UserVO>> batchLoader;
+
+    private final Cache<Long, UserVO> cache;
+
+    /**
+     * 创建用户视图对象批量加载器
+     *
+     * @param batchLoader 批量查询函数
+     * @param ttl         本地缓存过期时间
+     * @param maxSize     本地缓存最大条目数
+     */
+    public UserVOLoader(Function<Collection<Long>, List<UserVO>> batchLoader, Duration ttl, long maxSize) {
+        this.batchLoader = batchLoader;
+        this.cache = Caffeine.newBuilder()
+                .expireAfterWrite(ttl)
+                .maximumSize(maxSize)
+                .build();
+    }
+
+    /**
+     * 加载单个用户
+     *
+     * @param userId 用户ID
+     * @return 用户视图对象，不存在时返回null
+     */
+    public UserVO load(Long userId) {
+        if (userId == null) {
+            return null;
+        }
+        return loadMany(List.of(userId)).get(userId);
+    }
+
+    /**
+     * 批量加载用户，未命中的ID合并为一次查询
+     *
+     * @param userIds 用户ID，可重复、可包含null
+     * @return 用户ID -> 用户视图对象，不存在的用户不在结果中
+     */
+    public Map<Long, UserVO> loadMany(Collection<Long> userIds) {
+        Map<Long, UserVO> requestLoaded = getRequestLoaded();
+        Map<Long, UserVO> result = new HashMap<>();
+        Set<Long> missing = new LinkedHashSet<>();
+        for (Long userId : userIds) {
+            if (userId == null || result.containsKey(userId) || missing.contains(userId)) {
+                continue;
+            }
+            if (requestLoaded != null && requestLoaded.containsKey(userId)) {
+                putIfPresent(result, userId, requestLoaded.get(userId));
+                continue;
+            }
+            UserVO userVO = cache.getIfPresent(userId);
+            if (userVO != null) {
+                result.put(userId, userVO);
+                if (requestLoaded != null) {
+                    requestLoaded.put(userId, userVO);
+                }
+                continue;
+            }
+            missing.add(userId);
+        }
+        if (missing.isEmpty()) {
+            return result;
+        }
+        for (UserVO userVO : batchLoader.apply(missing)) {
+            cache.put(userVO.getId(), userVO);
+            result.put(userVO.getId(), userVO);
+        }
+        if (requestLoaded != null) {
+            // 不存在的用户也记录下来，同一请求内不再重复查询
+            for (Long userId : missing) {
+                requestLoaded.put(userId, result.get(userId));
+            }
+        }
+        return result;
+    }
+
+    /**
+     * 用户信息变更后清除缓存
+     *
+     * @param userId 用户ID
+     */
+    public void invalidate(Long userId) {
+        if (userId != null) {
+            cache.invalidate(userId);
+        }
+    }
+
+    private static void putIfPresent(Map<Long, UserVO> result, Long userId, UserVO userVO) {
+        if (userVO != null) {
+            result.put(userId, userVO);
+        }
+    }
+
+    /**
+     * 当前请求内已加载的结果，不在请求线程中时返回null；请求内由同一线程访问
+     */
+    @SuppressWarnings("unchecked")
+    private static Map<Long, UserVO> getRequestLoaded() {
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        if (attributes == null) {
+            return null;
+        }
+        Object loaded = attributes.getAttribute(REQUEST_ATTRIBUTE, RequestAttributes.SCOPE_REQUEST);
+        if (loaded == null) {
+            loaded = new HashMap<Long, UserVO>();
+            attributes.setAttribute(REQUEST_ATTRIBUTE, loaded, RequestAttributes.SCOPE_REQUEST);
+        }
+        return (Map<Long, UserVO>) loaded;
+    }
+}
@@ -17,7 +17,7 @@ import com.px.aicodemother.exception.BusinessException;
 import com.px.aicodemother.exception.ErrorCode;
 import com.px.aicodemother.exception.ThrowUtils;
 import com.px.aicodemother.innerservice.InnerScreenshotService;
-import com.px.aicodemother.innerservice.InnerUserService;
+import com.px.aicodemother.manager.UserVOLoader;
 import com.px.aicodemother.mapper.AppMapper;
 import com.px.aicodemother.model.dto.app.AppAddRequest;
 import com.px.aicodemother.model.dto.app.AppQueryRequest;
@@ -41,7 +41,6 @@ import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
-import java.util.Set;
 import java.util.stream.Collectors;
 
 /**
@@ -53,8 +52,8 @@ import java.util.stream.Collectors;
 @Slf4j
 public class AppServiceImpl extends ServiceImpl<AppMapper, App>  implements AppService{
 
-    @DubboReference
-    private InnerUserService userService;
+    @Resource
+    private UserVOLoader userVOLoader;
 
     @Resource
     private AiCodeGeneratorFacade aiCodeGeneratorFacade;
@@ -112,15 +111,21 @@ public class AppServiceImpl extends ServiceImpl<AppMapper, App>  implements AppS
         if (app == null) {
             return null;
         }
+        // 获取关联的 User
+        return toAppVO(app, userVOLoader.load(app.getUserId()));
+    }
+
+    /**
+     * 组装应用VO，用户信息由调用方预先加载
+     *
+     * @param app    实体
+     * @param userVO 关联的用户
+     * @return VO
+     */
+    private AppVO toAppVO(App app, UserVO userVO) {
         AppVO appVO = new AppVO();
         BeanUtil.copyProperties(app, appVO);
-        Long userId = app.getUserId();
-        // 获取关联的 User
-        if (userId != null) {
-            User user = userService.getById(userId);
-            UserVO userVO = userService.getUserVO(user);
-            appVO.setUser(userVO);
-        }
+        appVO.setUser(userVO);
         return appVO;
     }
 
@@ -174,21 +179,13 @@ public class AppServiceImpl extends ServiceImpl<AppMapper, App>  implements AppS
             return new ArrayList<>();
         }
 
-        // 提取应用列表中所有用户ID
-        Set<Long> userIds = appList.stream()
-                .map(App::getUserId)
-                .collect(Collectors.toSet());
-        // 批量获取用户信息并转换为用户VO映射
-        Map<Long, UserVO> userVOMap = userService.listByIds(userIds).stream()
-                .collect(Collectors.toMap(User::getId, userService::getUserVO));
-        
+        // 一次性批量加载所有用户（一次 RPC，请求内去重、缓存命中的不再查询）
+        Map<Long, UserVO> userVOMap = userVOLoader.loadMany(appList.stream().map(App::getUserId).toList());
+
         // 将应用实体转换为应用VO，并设置对应的用户信息
-        return appList.stream().map(app -> {
-            AppVO appVO = getAppVO(app);
-            UserVO userVO = userVOMap.get(app.getUserId());
-            appVO.setUser(userVO);
-            return appVO;
-        }).collect(Collectors.toList());
+        return appList.stream()
+                .map(app -> toAppVO(app, userVOMap.get(app.getUserId())))
+                .collect(Collectors.toList());
     }
 
     /**
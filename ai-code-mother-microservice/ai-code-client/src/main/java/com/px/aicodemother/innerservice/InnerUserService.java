@@ -46,6 +46,14 @@ public interface InnerUserService {
      */
     UserVO getUserVO(User user);
 
+    /**
+     * 根据 id 列表批量获取用户视图对象，一次调用完成查询和转换
+     *
+     * @param ids id 列表
+     * @return 存在的用户的视图对象列表
+     */
+    List<UserVO> listUserVOByIds(Collection<Long> ids);
+
     /**
      * 获取当前登录用户
      * @param request HTTP请求对象
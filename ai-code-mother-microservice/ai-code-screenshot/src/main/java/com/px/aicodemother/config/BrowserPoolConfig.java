@@ -0,0 +1,71 @@
+package com.px.aicodemother.config;
+
+import com.px.aicodemother.manager.BrowserPoolManager;
+import com.px.aicodemother.utils.WebScreenshotUtils;
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+/**
+ * packageName: com.px.aicodemother.config
+ *
+ * @author: idpeng
+ * @version: 1.0
+ * @className: BrowserPoolConfig
+ * @date: 2026/10/18 15:12
+ * @description: 截图用无头浏览器会话池配置
+ */
+@Data
+@Configuration
+@ConfigurationProperties(prefix = "screenshot.browser-pool")
+public class BrowserPoolConfig {
+
+    /**
+     * 最大会话数，每个会话是一个独立的 Chrome 进程
+     */
+    private Integer maxSessions = 2;
+
+    /**
+     * 单个会话最多使用次数，达到后销毁重建，避免浏览器内存持续增长
+     */
+    private Integer maxUsesPerSession = 50;
+
+    /**
+     * 最大等待任务数
+     */
+    private Integer maxWaiting = 20;
+
+    /**
+     * 等待会话的最长时间
+     */
+    private Duration borrowTimeout = Duration.ofSeconds(60);
+
+    /**
+     * 单次渲染（打开页面、等待加载、截图）的最长时间
+     */
+    private Duration renderTimeout = Duration.ofSeconds(45);
+
+    /**
+     * 浏览器窗口宽度
+     */
+    private Integer windowWidth = 1600;
+
+    /**
+     * 浏览器窗口高度
+     */
+    private Integer windowHeight = 900;
+
+    /**
+     * 创建无头浏览器会话池
+     *
+     * @return 无头浏览器会话池
+     */
+    @Bean(destroyMethod = "shutdown")
+    public BrowserPoolManager browserPoolManager() {
+        return new BrowserPoolManager(() -> WebScreenshotUtils.initChromeDriver(windowWidth, windowHeight),
+                maxSessions, maxUsesPerSession, maxWaiting, borrowTimeout.toMillis(), renderTimeout.toMillis());
+    }
+}
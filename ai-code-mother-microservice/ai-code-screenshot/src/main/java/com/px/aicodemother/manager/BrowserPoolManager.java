@@ -0,0 +1,324 @@
+package com.px.aicodemother.manager;
+
+import com.px.aicodemother.exception.BusinessException;
+import com.px.aicodemother.exception.ErrorCode;
+import lombok.extern.slf4j.Slf4j;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebDriverException;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * packageName: com.px.aicodemother.manager
+ *
+ * @author: idpeng
+ * @version: 1.0
+ * @className: BrowserPoolManager
+ * @date: 2026/10/18 15:05
+ * @description: 无头浏览器会话池。每个会话同一时间只被一个截图任务使用，借出前做健康检查，
+ * 使用达到上限或崩溃后销毁重建；等待队列有界，超出时直接拒绝；单次渲染超时会强制关闭会话，避免一个卡死页面拖住所有请求
+ */
+@Slf4j
+public class BrowserPoolManager {
+
+    private final Supplier<WebDriver> driverFactory;
+
+    private final int maxSessions;
+
+    private final int maxUsesPerSession;
+
+    private final int maxWaiting;
+
+    private final long borrowTimeoutMillis;
+
+    private final long renderTimeoutMillis;
+
+    /**
+     * 会话许可，数量即池容量
+     */
+    private final Semaphore permits;
+
+    /**
+     * 空闲会话，后进先出，优先复用刚用过的会话
+     */
+    private final Deque<PooledSession> idleSessions = new ArrayDeque<>();
+
+    /**
+     * 渲染超时看门狗
+     */
+    private final ScheduledExecutorService watchdog = Executors.newSingleThreadScheduledExecutor(
+            Thread.ofPlatform().name("browser-pool-watchdog").daemon().factory());
+
+    private final AtomicInteger waiting = new AtomicInteger();
+
+    private final AtomicInteger openSessions = new AtomicInteger();
+
+    private final AtomicLong createdSessions = new AtomicLong();
+
+    private final AtomicLong recycledSessions = new AtomicLong();
+
+    private final AtomicLong brokenSessions = new AtomicLong();
+
+    private final AtomicLong renders = new AtomicLong();
+
+    private final AtomicLong failedRenders = new AtomicLong();
+
+    private final AtomicLong rejected = new AtomicLong();
+
+    private final AtomicLong totalRenderMillis = new AtomicLong();
+
+    private final AtomicLong maxRenderMillis = new AtomicLong();
+
+    private final AtomicLong totalWaitMillis = new AtomicLong();
+
+    private volatile boolean shutdown;
+
+    /**
+     * 创建浏览器会话池，会话在首次使用时才创建
+     *
+     * @param driverFactory       浏览器会话工厂
+     * @param maxSessions         最大会话数
+     * @param maxUsesPerSession   单个会话最多使用次数，达到后销毁重建
+     * @param maxWaiting          最大等待数，超出后直接拒绝
+     * @param borrowTimeoutMillis 等待会话的最长时间
+     * @param renderTimeoutMillis 单次渲染最长时间，超时强制关闭会话
+     */
+    public BrowserPoolManager(Supplier<WebDriver> driverFactory, int maxSessions, int maxUsesPerSession,
+                              int maxWaiting, long borrowTimeoutMillis, long renderTimeoutMillis) {
+        this.driverFactory = driverFactory;
+        this.maxSessions = maxSessions;
+        this.maxUsesPerSession = maxUsesPerSession;
+        this.maxWaiting = maxWaiting;
+        this.borrowTimeoutMillis = borrowTimeoutMillis;
+        this.renderTimeoutMillis = renderTimeoutMillis;
+        this.permits = new Semaphore(maxSessions, true);
+    }
+
+    /**
+     * 借出一个浏览器会话执行操作，完成后自动归还
+     *
+     * @param action 使用浏览器的操作
+     * @param <T>    返回值类型
+     * @return 操作结果
+     */
+    public <T> T execute(Function<WebDriver, T> action) {
+        if (shutdown) {
+            throw new BusinessException(ErrorCode.SYSTEM_ERROR, "浏览器会话池已关闭");
+        }
+        long waitStart = System.currentTimeMillis();
+        acquirePermit();
+        totalWaitMillis.addAndGet(System.currentTimeMillis() - waitStart);
+        PooledSession session = null;
+        boolean broken = false;
+        long renderStart = System.currentTimeMillis();
+        try {
+            // 等待期间会话池可能已关闭，不再新建会话
+            if (shutdown) {
+                throw new BusinessException(ErrorCode.SYSTEM_ERROR, "浏览器会话池已关闭");
+            }
+            session = borrowSession();
+            PooledSession current = session;
+            AtomicBoolean timedOut = new AtomicBoolean();
+            ScheduledFuture<?> timeout;
+            try {
+                timeout = watchdog.schedule(() -> {
+                    timedOut.set(true);
+                    log.warn("浏览器渲染超时（{}ms），强制关闭会话", renderTimeoutMillis);
+                    current.quit();
+                }, renderTimeoutMillis, TimeUnit.MILLISECONDS);
+            } catch (RejectedExecutionException e) {
+                // 借出会话后会话池被关闭，看门狗已停止；会话在 finally 中归还时关闭
+                throw new BusinessException(ErrorCode.SYSTEM_ERROR, "浏览器会话池已关闭");
+            }
+            try {
+                return action.apply(session.driver);
+            } catch (WebDriverException e) {
+                broken = true;
+                failedRenders.incrementAndGet();
+                throw e;
+            } catch (RuntimeException e) {
+                failedRenders.incrementAndGet();
+                throw e;
+            } finally {
+                timeout.cancel(false);
+                broken |= timedOut.get();
+            }
+        } finally {
+            recordRender(System.currentTimeMillis() - renderStart);
+            if (session != null) {
+                returnSession(session, broken);
+            }
+            permits.release();
+        }
+    }
+
+    /**
+     * 获取会话池统计信息
+     *
+     * @return 统计信息
+     */
+    public BrowserPoolStats getStats() {
+        long renderCount = renders.get();
+        int idle;
+        synchronized (idleSessions) {
+            idle = idleSessions.size();
+        }
+        return BrowserPoolStats.builder()
+                .maxSessions(maxSessions)
+                .openSessions(openSessions.get())
+                .idleSessions(idle)
+                .activeSessions(maxSessions - permits.availablePermits())
+                .waiting(waiting.get())
+                .maxWaiting(maxWaiting)
+                .createdSessions(createdSessions.get())
+                .recycledSessions(recycledSessions.get())
+                .brokenSessions(brokenSessions.get())
+                .renders(renderCount)
+                .failedRenders(failedRenders.get())
+                .rejected(rejected.get())
+                .avgRenderMillis(renderCount == 0 ? 0 : totalRenderMillis.get() / renderCount)
+                .maxRenderMillis(maxRenderMillis.get())
+                .avgWaitMillis(renderCount == 0 ? 0 : totalWaitMillis.get() / renderCount)
+                .build();
+    }
+
+    /**
+     * 关闭所有空闲会话，正在使用的会话归还时关闭
+     */
+    public void shutdown() {
+        shutdown = true;
+        watchdog.shutdownNow();
+        synchronized (idleSessions) {
+            idleSessions.forEach(this::destroy);
+            idleSessions.clear();
+        }
+    }
+
+    private void acquirePermit() {
+        if (permits.tryAcquire()) {
+            return;
+        }
+        if (waiting.incrementAndGet() > maxWaiting) {
+            waiting.decrementAndGet();
+            rejected.incrementAndGet();
+            throw new BusinessException(ErrorCode.TOO_MANY_REQUEST, "截图任务过多，请稍后再试");
+        }
+        try {
+            if (!permits.tryAcquire(borrowTimeoutMillis, TimeUnit.MILLISECONDS)) {
+                rejected.incrementAndGet();
+                throw new BusinessException(ErrorCode.TOO_MANY_REQUEST, "等待浏览器会话超时，请稍后再试");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new BusinessException(ErrorCode.SYSTEM_ERROR, "等待浏览器会话被中断");
+        } finally {
+            waiting.decrementAndGet();
+        }
+    }
+
+    /**
+     * 取出健康的空闲会话，没有则新建
+     */
+    private PooledSession borrowSession() {
+        while (true) {
+            PooledSession session;
+            synchronized (idleSessions) {
+                session = idleSessions.pollFirst();
+            }
+            if (session == null) {
+                return createSession();
+            }
+            if (isHealthy(session)) {
+                return session;
+            }
+            log.warn("浏览器会话健康检查失败，重建会话");
+            brokenSessions.incrementAndGet();
+            destroy(session);
+        }
+    }
+
+    private PooledSession createSession() {
+        WebDriver driver = driverFactory.get();
+        openSessions.incrementAndGet();
+        createdSessions.incrementAndGet();
+        return new PooledSession(driver);
+    }
+
+    private boolean isHealthy(PooledSession session) {
+        if (session.closed) {
+            return false;
+        }
+        try {
+            session.driver.getWindowHandle();
+            return true;
+        } catch (WebDriverException e) {
+            return false;
+        }
+    }
+
+    private void returnSession(PooledSession session, boolean broken) {
+        session.uses++;
+        if (broken) {
+            brokenSessions.incrementAndGet();
+            destroy(session);
+        } else if (shutdown || session.uses >= maxUsesPerSession) {
+            recycledSessions.incrementAndGet();
+            destroy(session);
+        } else {
+            synchronized (idleSessions) {
+                idleSessions.offerFirst(session);
+            }
+        }
+    }
+
+    private void destroy(PooledSession session) {
+        session.quit();
+        openSessions.decrementAndGet();
+    }
+
+    private void recordRender(long millis) {
+        renders.incrementAndGet();
+        totalRenderMillis.addAndGet(millis);
+        maxRenderMillis.accumulateAndGet(millis, Math::max);
+    }
+
+    /**
+     * 池中的单个浏览器会话
+     */
+    private static class PooledSession {
+
+        private final WebDriver driver;
+
+        private int uses;
+
+        private volatile boolean closed;
+
+        PooledSession(WebDriver driver) {
+            this.driver = driver;
+        }
+
+        synchronized void quit() {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            try {
+                driver.quit();
+            } catch (Exception e) {
+                log.warn("关闭浏览器会话失败: {}", e.getMessage());
+            }
+        }
+    }
+}
@@ -16,8 +16,8 @@ import cn.hutool.core.util.RandomUtil;
 import cn.hutool.core.util.StrUtil;
 import com.px.aicodemother.exception.BusinessException;
 import com.px.aicodemother.exception.ErrorCode;
+import com.px.aicodemother.manager.BrowserPoolManager;
 import io.github.bonigarcia.wdm.WebDriverManager;
-import jakarta.annotation.PreDestroy;
 import lombok.extern.slf4j.Slf4j;
 import org.openqa.selenium.JavascriptExecutor;
 import org.openqa.selenium.OutputType;
@@ -34,23 +34,6 @@ import java.util.UUID;
 @Slf4j
 public class WebScreenshotUtils {
 
-    private static final WebDriver webDriver;
-
-    // 全局静态初始化，避免重复初始化驱动程序：
-    static {
-        final int DEFAULT_WIDTH = 1600;
-        final int DEFAULT_HEIGHT = 900;
-        webDriver = initChromeDriver(DEFAULT_WIDTH, DEFAULT_HEIGHT);
-    }
-
-    /**
-     * 退出时销毁
-     */
-    @PreDestroy
-    public void destroy() {
-        webDriver.quit();
-    }
-
     /**
      * 生成网页截图
      *
@@ -71,12 +54,13 @@ public class WebScreenshotUtils {
             final String IMAGE_SUFFIX = ".png";
             // 原始图片保存路径
             String imageSavePath = rootPath + File.separator + RandomUtil.randomNumbers(5) + IMAGE_SUFFIX;
-            // 访问网页
-            webDriver.get(webUrl);
-            // 等待网页加载
-            waitForPageLoad(webDriver);
-            // 截图
-            byte[] screenshotBytes = ((TakesScreenshot) webDriver).getScreenshotAs(OutputType.BYTES);
+            // 从会话池借出浏览器，访问网页并截图
+            byte[] screenshotBytes = SpringContextUtil.getBean(BrowserPoolManager.class).execute(webDriver -> {
+                webDriver.get(webUrl);
+                // 等待网页加载
+                waitForPageLoad(webDriver);
+                return ((TakesScreenshot) webDriver).getScreenshotAs(OutputType.BYTES);
+            });
             // 保存原始图片
             saveImage(screenshotBytes, imageSavePath);
             log.info("原始截图保存成功：{}", imageSavePath);
@@ -95,9 +79,13 @@ public class WebScreenshotUtils {
     }
 
     /**
-     * 初始化 Chrome 浏览器驱动
+     * 初始化 Chrome 浏览器驱动，由浏览器会话池调用
+     *
+     * @param width  窗口宽度
+     * @param height 窗口高度
+     * @return 浏览器驱动
      */
-    private static WebDriver initChromeDriver(int width, int height) {
+    public static WebDriver initChromeDriver(int width, int height) {
         try {
             // 手动指定 ChromeDriver 路径，避免网络下载问题
             String chromeDriverPath = System.getProperty("webdriver.chrome.driver");
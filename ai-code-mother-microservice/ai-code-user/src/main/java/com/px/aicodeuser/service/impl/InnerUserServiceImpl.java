@@ -41,4 +41,12 @@ public class InnerUserServiceImpl implements InnerUserService {
     public UserVO getUserVO(User user) {
         return userService.getUserVO(user);
     }
+
+    @Override
+    public List<UserVO> listUserVOByIds(Collection<Long> ids) {
+        if (ids == null || ids.isEmpty()) {
+            return List.of();
+        }
+        return userService.getUserVOList(userService.listByIds(ids));
+    }
 }
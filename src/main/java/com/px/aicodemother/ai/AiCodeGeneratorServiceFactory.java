@@ -3,13 +3,13 @@ package com.px.aicodemother.ai;
 import com.github.benmanes.caffeine.cache.Cache;
 import com.github.benmanes.caffeine.cache.Caffeine;
 import com.px.aicodemother.ai.guardrail.PromptSafetyInputGuardrail;
+import com.px.aicodemother.ai.memory.CompactRedisChatMemoryStore;
 import com.px.aicodemother.ai.tools.ToolManager;
 import com.px.aicodemother.exception.BusinessException;
 import com.px.aicodemother.exception.ErrorCode;
+import com.px.aicodemother.manager.ChatMemoryHydrator;
 import com.px.aicodemother.model.enums.CodeGenTypeEnum;
-import com.px.aicodemother.service.ChatHistoryService;
 import com.px.aicodemother.utils.SpringContextUtil;
-import dev.langchain4j.community.store.memory.chat.redis.RedisChatMemoryStore;
 import dev.langchain4j.data.message.ToolExecutionResultMessage;
 import dev.langchain4j.memory.chat.MessageWindowChatMemory;
 import dev.langchain4j.model.chat.ChatModel;
@@ -39,10 +39,10 @@ public class AiCodeGeneratorServiceFactory {
     private ChatModel chatModel;
 
     @Resource
-    private RedisChatMemoryStore redisChatMemoryStore;
+    private CompactRedisChatMemoryStore redisChatMemoryStore;
 
     @Resource
-    private ChatHistoryService chatHistoryService;
+    private ChatMemoryHydrator chatMemoryHydrator;
 
     @Resource
     private ToolManager toolManager;
@@ -91,12 +91,12 @@ public class AiCodeGeneratorServiceFactory {
                 .builder()
                 .id(appId)
                 .chatMemoryStore(redisChatMemoryStore)
-                .maxMessages(50)
+                .maxMessages(chatMemoryHydrator.getWindowSize())
                 .build();
         
-        // 只为非工具调用类型从数据库加载历史消息
+        // 只为非工具调用类型从数据库加载历史消息，Redis 中的记忆仍有效时直接复用
         if (codeGenType != CodeGenTypeEnum.VUE_PROJECT) {
-            chatHistoryService.loadChatHistoryToMemory(appId, chatMemory, 50);
+            chatMemoryHydrator.hydrate(appId);
         }
         
         return switch (codeGenType) {
@@ -0,0 +1,379 @@
+package com.px.aicodemother.ai.concurrency;
+
+import cn.hutool.core.util.IdUtil;
+import com.px.aicodemother.ai.model.message.QueueStatusMessage;
+import com.px.aicodemother.ai.model.message.StreamMessage;
+import com.px.aicodemother.exception.BusinessException;
+import com.px.aicodemother.exception.ErrorCode;
+import com.px.aicodemother.model.enums.CodeGenTypeEnum;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * packageName: com.px.aicodemother.ai.concurrency
+ *
+ * @author: idpeng
+ * @version: 1.0
+ * @className: LlmConcurrencyLimiter
+ * @date: 2026/10/18 21:10
+ * @description: 模型生成并发限制器（基于 Redis 的分布式租约）。同时限制全局、每种生成类型和每个用户进行中的生成数，
+ * 每个生成流持有一个租约（Redis 有序集合成员，分数为过期时间），流存活期间由后台心跳续期，完成、出错或取消时释放，
+ * 节点宕机时租约在过期后自动回收。用户自身的并发数超限时直接拒绝；全局或类型名额不足时按类型排队，
+ * 轮询获取名额并通过 SSE 推送估算的排队位置
+ */
+@Slf4j
+public class LlmConcurrencyLimiter {
+
+    /**
+     * 键前缀，所有键使用同一哈希标签，集群模式下落在同一槽位
+     */
+    private static final String KEY_PREFIX = "llm:concurrency:{gen}:";
+
+    private static final int ACQUIRED = 1;
+
+    private static final int QUEUED = 0;
+
+    private static final int USER_LIMITED = -1;
+
+    /**
+     * 获取名额脚本。KEYS: 全局租约、类型租约、用户租约、类型排队队列、排队者存活时间；
+     * ARGV: 租约ID、租约有效期毫秒、全局上限、类型上限、用户上限、排队者存活毫秒。
+     * 返回 {1, 0} 获取成功；{0, 排队位置}；{-1, 用户进行中的生成数}
+     */
+    private static final RedisScript<List> ACQUIRE_SCRIPT = new DefaultRedisScript<>("""
+            local time = redis.call('TIME')
+            local now = tonumber(time[1]) * 1000 + math.floor(tonumber(time[2]) / 1000)
+            local id = ARGV[1]
+            local leaseTtl = tonumber(ARGV[2])
+            local waiterTtl = tonumber(ARGV[6])
+            for i = 1, 3 do
+                redis.call('ZREMRANGEBYSCORE', KEYS[i], '-inf', now)
+            end
+            local dead = redis.call('ZRANGEBYSCORE', KEYS[5], '-inf', now)
+            if #dead > 0 then
+                redis.call('ZREM', KEYS[4], unpack(dead))
+                redis.call('ZREM', KEYS[5], unpack(dead))
+            end
+            if redis.call('ZSCORE', KEYS[1], id) then
+                return {1, 0}
+            end
+            local userActive = redis.call('ZCARD', KEYS[3])
+            if userActive >= tonumber(ARGV[5]) then
+                redis.call('ZREM', KEYS[4], id)
+                redis.call('ZREM', KEYS[5], id)
+                return {-1, userActive}
+            end
+            local free = math.min(tonumber(ARGV[3]) - redis.call('ZCARD', KEYS[1]),
+                    tonumber(ARGV[4]) - redis.call('ZCARD', KEYS[2]))
+            local rank = redis.call('ZRANK', KEYS[4], id)
+            local ahead = rank or redis.call('ZCARD', KEYS[4])
+            if free > ahead then
+                for i = 1, 3 do
+                    redis.call('ZADD', KEYS[i], now + leaseTtl, id)
+                    redis.call('PEXPIRE', KEYS[i], leaseTtl * 2)
+                end
+                redis.call('ZREM', KEYS[4], id)
+                redis.call('ZREM', KEYS[5], id)
+                return {1, 0}
+            end
+            if not rank then
+                redis.call('ZADD', KEYS[4], now, id)
+            end
+            redis.call('ZADD', KEYS[5], now + waiterTtl, id)
+            redis.call('PEXPIRE', KEYS[4], waiterTtl * 2)
+            redis.call('PEXPIRE', KEYS[5], waiterTtl * 2)
+            return {0, ahead + 1}
+            """, List.class);
+
+    /**
+     * 续期脚本。KEYS: 全局租约、类型租约、用户租约；ARGV: 租约ID、租约有效期毫秒。
+     * 只延长仍然有效的租约（ZADD XX），已释放或已过期的租约不会被重新加入，否则名额可能超出上限；
+     * 返回 1 表示已续期，0 表示租约已丢失
+     */
+    private static final RedisScript<Long> RENEW_SCRIPT = new DefaultRedisScript<>("""
+            local time = redis.call('TIME')
+            local now = tonumber(time[1]) * 1000 + math.floor(tonumber(time[2]) / 1000)
+            local leaseTtl = tonumber(ARGV[2])
+            local score = redis.call('ZSCORE', KEYS[1], ARGV[1])
+            if not score or tonumber(score) <= now then
+                for i = 1, 3 do
+                    redis.call('ZREM', KEYS[i], ARGV[1])
+                end
+                return 0
+            end
+            for i = 1, 3 do
+                redis.call('ZADD', KEYS[i], 'XX', now + leaseTtl, ARGV[1])
+                redis.call('PEXPIRE', KEYS[i], leaseTtl * 2)
+            end
+            return 1
+            """, Long.class);
+
+    /**
+     * 释放脚本。KEYS: 全局租约、类型租约、用户租约、类型排队队列、排队者存活时间；ARGV: 租约ID
+     */
+    private static final RedisScript<Long> RELEASE_SCRIPT = new DefaultRedisScript<>("""
+            for i = 1, 5 do
+                redis.call('ZREM', KEYS[i], ARGV[1])
+            end
+            return 1
+            """, Long.class);
+
+    /**
+     * 一个生成流的租约
+     *
+     * @param id   租约ID
+     * @param type 生成类型
+     * @param keys 脚本使用的键
+     */
+    private record Lease(String id, CodeGenTypeEnum type, List<String> keys) {
+    }
+
+    /**
+     * 获取名额结果
+     *
+     * @param status 状态
+     * @param value  排队位置或用户进行中的生成数
+     */
+    private record AcquireResult(int status, long value) {
+    }
+
+    private final StringRedisTemplate stringRedisTemplate;
+
+    private final int globalMaxConcurrent;
+
+    private final int userMaxConcurrent;
+
+    /**
+     * 生成类型值 -> 并发上限，未配置的类型只受全局上限约束
+     */
+    private final Map<String, Integer> typeMaxConcurrent;
+
+    private final Duration leaseTtl;
+
+    private final Duration pollInterval;
+
+    private final Duration waiterTtl;
+
+    private final Duration maxWait;
+
+    /**
+     * 本节点进行中的租约，由心跳续期
+     */
+    private final ConcurrentHashMap<String, Lease> activeLeases = new ConcurrentHashMap<>();
+
+    private final ScheduledExecutorService heartbeatExecutor;
+
+    private final LongAdder acquired = new LongAdder();
+
+    private final LongAdder queued = new LongAdder();
+
+    private final LongAdder userRejected = new LongAdder();
+
+    private final LongAdder queueTimeouts = new LongAdder();
+
+    private final LongAdder released = new LongAdder();
+
+    private final LongAdder lostLeases = new LongAdder();
+
+    private final LongAdder redisErrors = new LongAdder();
+
+    private final LongAdder waitNanos = new LongAdder();
+
+    private final AtomicLong maxWaitNanos = new AtomicLong();
+
+    /**
+     * 创建模型生成并发限制器
+     *
+     * @param stringRedisTemplate Redis 访问模板
+     * @param globalMaxConcurrent 全局并发上限
+     * @param userMaxConcurrent   每个用户并发上限
+     * @param typeMaxConcurrent   生成类型值 -> 并发上限
+     * @param leaseTtl            租约有效期，节点宕机时租约在该时间后回收
+     * @param heartbeatInterval   心跳续期间隔，应明显小于租约有效期
+     * @param pollInterval        排队时获取名额的轮询间隔
+     * @param maxWait             最长排队时间
+     */
+    public LlmConcurrencyLimiter(StringRedisTemplate stringRedisTemplate, int globalMaxConcurrent, int userMaxConcurrent,
+                                 Map<String, Integer> typeMaxConcurrent, Duration leaseTtl, Duration heartbeatInterval,
+                                 Duration pollInterval, Duration maxWait) {
+        this.stringRedisTemplate = stringRedisTemplate;
+        this.globalMaxConcurrent = globalMaxConcurrent;
+        this.userMaxConcurrent = userMaxConcurrent;
+        this.typeMaxConcurrent = Map.copyOf(typeMaxConcurrent);
+        this.leaseTtl = leaseTtl;
+        this.pollInterval = pollInterval;
+        // 连续错过三次轮询的排队者视为已离开
+        this.waiterTtl = pollInterval.multipliedBy(3);
+        this.maxWait = maxWait;
+        this.heartbeatExecutor = Executors.newSingleThreadScheduledExecutor(Thread.ofPlatform()
+                .name("llm-lease-heartbeat")
+                .daemon(true)
+                .factory());
+        long heartbeatMillis = heartbeatInterval.toMillis();
+        heartbeatExecutor.scheduleAtFixedRate(this::renewAll, heartbeatMillis, heartbeatMillis, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * 在获得生成名额后执行生成。名额充足时立即执行；用户自身并发超限时抛出异常；
+     * 全局或类型名额不足时先推送排队状态，获得名额后再执行
+     *
+     * @param userId     用户ID
+     * @param type       生成类型
+     * @param generation 生成流，获得名额后才会调用
+     * @return 排队状态消息 + 生成流，生成流结束、出错或被取消时释放名额
+     */
+    public Flux<StreamMessage> withLease(Long userId, CodeGenTypeEnum type, Supplier<Flux<StreamMessage>> generation) {
+        Lease lease = new Lease(IdUtil.fastSimpleUUID(), type, List.of(
+                KEY_PREFIX + "lease:global",
+                KEY_PREFIX + "lease:type:" + type.getValue(),
+                KEY_PREFIX + "lease:user:" + userId,
+                KEY_PREFIX + "queue:" + type.getValue(),
+                KEY_PREFIX + "queue-alive:" + type.getValue()));
+        AcquireResult first = tryAcquire(lease);
+        if (first.status() == USER_LIMITED) {
+            userRejected.increment();
+            throw new BusinessException(ErrorCode.TOO_MANY_REQUEST,
+                    "已有 " + first.value() + " 个生成任务进行中，请等待完成后再试");
+        }
+        if (first.status() == ACQUIRED) {
+            return run(lease, generation, 0);
+        }
+        queued.increment();
+        long startNanos = System.nanoTime();
+        AtomicLong lastPosition = new AtomicLong(first.value());
+        Flux<StreamMessage> waiting = Flux.interval(pollInterval, Schedulers.boundedElastic())
+                .onBackpressureDrop()
+                .concatMap(tick -> Mono.fromCallable(() -> tryAcquire(lease)))
+                .takeUntil(result -> result.status() != QUEUED)
+                .<StreamMessage>concatMap(result -> switch (result.status()) {
+                    case ACQUIRED -> run(lease, generation, System.nanoTime() - startNanos);
+                    case USER_LIMITED -> Flux.error(new BusinessException(ErrorCode.TOO_MANY_REQUEST,
+                            "已有 " + result.value() + " 个生成任务进行中，请等待完成后再试"));
+                    default -> {
+                        if (System.nanoTime() - startNanos > maxWait.toNanos()) {
+                            queueTimeouts.increment();
+                            yield Flux.error(new BusinessException(ErrorCode.TOO_MANY_REQUEST, "排队超时，请稍后再试"));
+                        }
+                        // 位置变化时才推送
+                        yield lastPosition.getAndSet(result.value()) == result.value()
+                                ? Flux.empty()
+                                : Flux.just(new QueueStatusMessage(result.value()));
+                    }
+                });
+        return Flux.<StreamMessage>just(new QueueStatusMessage(first.value()))
+                .concatWith(waiting)
+                // 排队期间断开连接或超时时离开队列
+                .doFinally(signal -> release(lease));
+    }
+
+    /**
+     * 获取统计信息
+     *
+     * @return 统计信息
+     */
+    public LlmConcurrencyStats getStats() {
+        long acquiredCount = acquired.sum();
+        return LlmConcurrencyStats.builder()
+                .globalMaxConcurrent(globalMaxConcurrent)
+                .userMaxConcurrent(userMaxConcurrent)
+                .typeMaxConcurrent(typeMaxConcurrent)
+                .localActive(activeLeases.size())
+                .acquired(acquiredCount)
+                .queued(queued.sum())
+                .userRejected(userRejected.sum())
+                .queueTimeouts(queueTimeouts.sum())
+                .released(released.sum())
+                .lostLeases(lostLeases.sum())
+                .redisErrors(redisErrors.sum())
+                .avgWaitMillis(acquiredCount == 0 ? 0 : waitNanos.sum() / 1_000_000.0 / acquiredCount)
+                .maxWaitMillis(maxWaitNanos.get() / 1_000_000)
+                .build();
+    }
+
+    /**
+     * 停止心跳并释放本节点持有的租约
+     */
+    public void shutdown() {
+        heartbeatExecutor.shutdownNow();
+        activeLeases.values().forEach(this::release);
+    }
+
+    /**
+     * 获得名额后执行生成，订阅时开始心跳续期
+     */
+    private Flux<StreamMessage> run(Lease lease, Supplier<Flux<StreamMessage>> generation, long waitedNanos) {
+        acquired.increment();
+        waitNanos.add(waitedNanos);
+        maxWaitNanos.accumulateAndGet(waitedNanos, Math::max);
+        return Flux.defer(() -> {
+                    activeLeases.put(lease.id(), lease);
+                    return generation.get();
+                })
+                .doFinally(signal -> release(lease));
+    }
+
+    /**
+     * 尝试获取名额，Redis 不可用时放行，避免限制组件故障导致生成不可用
+     */
+    private AcquireResult tryAcquire(Lease lease) {
+        try {
+            int typeMax = typeMaxConcurrent.getOrDefault(lease.type().getValue(), globalMaxConcurrent);
+            List<?> result = stringRedisTemplate.execute(ACQUIRE_SCRIPT, lease.keys(), lease.id(),
+                    String.valueOf(leaseTtl.toMillis()), String.valueOf(globalMaxConcurrent), String.valueOf(typeMax),
+                    String.valueOf(userMaxConcurrent), String.valueOf(waiterTtl.toMillis()));
+            if (result == null || result.size() < 2) {
+                return new AcquireResult(ACQUIRED, 0);
+            }
+            return new AcquireResult(((Number) result.get(0)).intValue(), ((Number) result.get(1)).longValue());
+        } catch (Exception e) {
+            redisErrors.increment();
+            log.warn("获取生成名额失败，直接放行: {}", lease.id(), e);
+            return new AcquireResult(ACQUIRED, 0);
+        }
+    }
+
+    private void renewAll() {
+        for (Lease lease : activeLeases.values()) {
+            try {
+                Long renewed = stringRedisTemplate.execute(RENEW_SCRIPT, lease.keys().subList(0, 3), lease.id(),
+                        String.valueOf(leaseTtl.toMillis()));
+                if (renewed != null && renewed == 0 && activeLeases.remove(lease.id(), lease)) {
+                    // 租约已被释放或回收，不再续期；生成流继续执行，结束时的释放是空操作
+                    lostLeases.increment();
+                    log.warn("生成租约已丢失，停止续期: {}", lease.id());
+                }
+            } catch (Exception e) {
+                redisErrors.increment();
+                log.warn("生成租约续期失败: {}", lease.id(), e);
+            }
+        }
+    }
+
+    private void release(Lease lease) {
+        if (activeLeases.remove(lease.id()) != null) {
+            released.increment();
+        }
+        try {
+            stringRedisTemplate.execute(RELEASE_SCRIPT, lease.keys(), lease.id());
+        } catch (Exception e) {
+            redisErrors.increment();
+            log.warn("释放生成租约失败，将在过期后回收: {}", lease.id(), e);
+        }
+    }
+}
@@ -0,0 +1,66 @@
+package com.px.aicodemother.ai.concurrency;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Builder;
+import lombok.Data;
+
+import java.io.Serial;
+import java.io.Serializable;
+import java.util.Map;
+
+/**
+ * packageName: com.px.aicodemother.ai.concurrency
+ *
+ * @author: idpeng
+ * @version: 1.0
+ * @className: LlmConcurrencyStats
+ * @date: 2026/10/18 21:15
+ * @description: 模型生成并发限制统计信息
+ */
+@Data
+@Builder
+@Schema(description = "模型生成并发限制统计信息")
+public class LlmConcurrencyStats implements Serializable {
+
+    @Schema(description = "全局并发上限")
+    private int globalMaxConcurrent;
+
+    @Schema(description = "每个用户并发上限")
+    private int userMaxConcurrent;
+
+    @Schema(description = "各生成类型并发上限")
+    private Map<String, Integer> typeMaxConcurrent;
+
+    @Schema(description = "本节点进行中的生成数")
+    private int localActive;
+
+    @Schema(description = "累计获得名额次数")
+    private long acquired;
+
+    @Schema(description = "累计进入排队次数")
+    private long queued;
+
+    @Schema(description = "因用户并发超限被拒绝次数")
+    private long userRejected;
+
+    @Schema(description = "排队超时次数")
+    private long queueTimeouts;
+
+    @Schema(description = "累计释放租约次数")
+    private long released;
+
+    @Schema(description = "续期时发现租约已丢失（已释放或已过期）的次数")
+    private long lostLeases;
+
+    @Schema(description = "Redis 调用失败次数")
+    private long redisErrors;
+
+    @Schema(description = "获得名额前的平均等待时间（毫秒，含未排队的请求）")
+    private double avgWaitMillis;
+
+    @Schema(description = "获得名额前的最长等待时间（毫秒）")
+    private long maxWaitMillis;
+
+    @Serial
+    private static final long serialVersionUID = 1L;
+}
@@ -0,0 +1,150 @@
+package com.px.aicodemother.ai.http;
+
+import cn.hutool.core.util.StrUtil;
+import dev.langchain4j.http.client.HttpClient;
+import dev.langchain4j.http.client.HttpClientBuilder;
+import dev.langchain4j.http.client.jdk.JdkHttpClient;
+import lombok.extern.slf4j.Slf4j;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * packageName: com.px.aicodemother.ai.http
+ *
+ * @author: idpeng
+ * @version: 1.0
+ * @className: LlmHttpClientPool
+ * @date: 2026/10/18 10:26
+ * @description: 模型 HTTP 客户端池，每个 baseUrl 只创建一个支持 HTTP/2 的共享客户端，供所有多例模型复用
+ */
+@Slf4j
+public class LlmHttpClientPool {
+
+    /**
+     * 未配置 baseUrl 时模型使用的默认地址
+     */
+    private static final String DEFAULT_BASE_URL = "https://api.openai.com/v1";
+
+    /**
+     * baseUrl -> 共享客户端
+     */
+    private final Map<String, PooledLlmHttpClient> clients = new ConcurrentHashMap<>();
+
+    /**
+     * 处理响应回调和 SSE 读取的执行器，流式读取是阻塞的，使用虚拟线程避免占用平台线程
+     */
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+
+    private final int maxConcurrentStreams;
+
+    private final int maxQueuedRequests;
+
+    private final Duration connectTimeout;
+
+    private final Duration readTimeout;
+
+    public LlmHttpClientPool(int maxConcurrentStreams, int maxQueuedRequests, Duration connectTimeout, Duration readTimeout) {
+        this.maxConcurrentStreams = maxConcurrentStreams;
+        this.maxQueuedRequests = maxQueuedRequests;
+        this.connectTimeout = connectTimeout;
+        this.readTimeout = readTimeout;
+    }
+
+    /**
+     * 获取指定 baseUrl 的共享客户端构建器，传给模型的 httpClientBuilder
+     *
+     * @param baseUrl 模型服务地址
+     * @return 始终返回同一个共享客户端的构建器
+     */
+    public HttpClientBuilder builderFor(String baseUrl) {
+        String key = StrUtil.blankToDefault(baseUrl, DEFAULT_BASE_URL);
+        PooledLlmHttpClient client = clients.computeIfAbsent(key, this::createClient);
+        return new SharedHttpClientBuilder(client);
+    }
+
+    /**
+     * 获取所有共享客户端的统计信息
+     *
+     * @return 统计信息列表
+     */
+    public List<LlmHttpClientPoolStats> getStats() {
+        return clients.values().stream()
+                .map(PooledLlmHttpClient::getStats)
+                .toList();
+    }
+
+    /**
+     * 关闭执行器
+     */
+    public void shutdown() {
+        executor.shutdown();
+    }
+
+    /**
+     * 为 baseUrl 创建共享客户端
+     *
+     * @param baseUrl 模型服务地址
+     * @return 共享客户端
+     */
+    private PooledLlmHttpClient createClient(String baseUrl) {
+        log.info("创建共享模型 HTTP 客户端，baseUrl: {}, 最大并发流: {}, 最大排队: {}", baseUrl, maxConcurrentStreams, maxQueuedRequests);
+        java.net.http.HttpClient.Builder jdkBuilder = java.net.http.HttpClient.newBuilder()
+                .version(java.net.http.HttpClient.Version.HTTP_2)
+                .executor(executor);
+        HttpClient delegate = JdkHttpClient.builder()
+                .httpClientBuilder(jdkBuilder)
+                .connectTimeout(connectTimeout)
+                .readTimeout(readTimeout)
+                .build();
+        return new PooledLlmHttpClient(baseUrl, delegate, maxConcurrentStreams, maxQueuedRequests);
+    }
+
+    /**
+     * 共享客户端构建器，模型设置的超时不会重建客户端，以池配置为准
+     */
+    private static class SharedHttpClientBuilder implements HttpClientBuilder {
+
+        private final PooledLlmHttpClient client;
+
+        private Duration connectTimeout;
+
+        private Duration readTimeout;
+
+        SharedHttpClientBuilder(PooledLlmHttpClient client) {
+            this.client = client;
+        }
+
+        @Override
+        public Duration connectTimeout() {
+            return connectTimeout;
+        }
+
+        @Override
+        public HttpClientBuilder connectTimeout(Duration timeout) {
+            this.connectTimeout = timeout;
+            return this;
+        }
+
+        @Override
+        public Duration readTimeout() {
+            return readTimeout;
+        }
+
+        @Override
+        public HttpClientBuilder readTimeout(Duration timeout) {
+            this.readTimeout = timeout;
+            return this;
+        }
+
+        @Override
+        public HttpClient build() {
+            client.bindModel();
+            return client;
+        }
+    }
+}
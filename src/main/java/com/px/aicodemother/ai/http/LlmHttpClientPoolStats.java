@@ -0,0 +1,59 @@
+package com.px.aicodemother.ai.http;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Builder;
+import lombok.Data;
+
+import java.io.Serial;
+import java.io.Serializable;
+
+/**
+ * packageName: com.px.aicodemother.ai.http
+ *
+ * @author: idpeng
+ * @version: 1.0
+ * @className: LlmHttpClientPoolStats
+ * @date: 2026/10/18 10:20
+ * @description: 模型 HTTP 连接池统计信息
+ */
+@Data
+@Builder
+@Schema(description = "模型 HTTP 连接池统计信息")
+public class LlmHttpClientPoolStats implements Serializable {
+
+    @Schema(description = "模型服务地址")
+    private String baseUrl;
+
+    @Schema(description = "最大并发流数量")
+    private int maxConcurrentStreams;
+
+    @Schema(description = "最大排队请求数量")
+    private int maxQueuedRequests;
+
+    @Schema(description = "当前活跃流数量")
+    private int activeStreams;
+
+    @Schema(description = "活跃流峰值")
+    private int peakActiveStreams;
+
+    @Schema(description = "当前排队请求数量")
+    private int queuedRequests;
+
+    @Schema(description = "累计流式请求数")
+    private long totalStreams;
+
+    @Schema(description = "累计请求数")
+    private long totalRequests;
+
+    @Schema(description = "因排队已满被拒绝的请求数")
+    private long rejectedRequests;
+
+    @Schema(description = "共享该客户端的模型实例数")
+    private long boundModels;
+
+    @Schema(description = "避免的独立客户端握手次数（估算）")
+    private long handshakesAvoided;
+
+    @Serial
+    private static final long serialVersionUID = 1L;
+}
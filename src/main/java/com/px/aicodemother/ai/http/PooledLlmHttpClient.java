@@ -0,0 +1,243 @@
+package com.px.aicodemother.ai.http;
+
+import dev.langchain4j.exception.HttpException;
+import dev.langchain4j.http.client.HttpClient;
+import dev.langchain4j.http.client.HttpRequest;
+import dev.langchain4j.http.client.SuccessfulHttpResponse;
+import dev.langchain4j.http.client.sse.ServerSentEvent;
+import dev.langchain4j.http.client.sse.ServerSentEventListener;
+import dev.langchain4j.http.client.sse.ServerSentEventParser;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * packageName: com.px.aicodemother.ai.http
+ *
+ * @author: idpeng
+ * @version: 1.0
+ * @className: PooledLlmHttpClient
+ * @date: 2026/10/18 10:12
+ * @description: 同一 baseUrl 共享的 HTTP 客户端，限制并发流数量并在超出时排队
+ */
+@Slf4j
+public class PooledLlmHttpClient implements HttpClient {
+
+    /**
+     * 模型服务地址
+     */
+    private final String baseUrl;
+
+    /**
+     * 实际执行请求的共享客户端（底层持有连接池）
+     */
+    private final HttpClient delegate;
+
+    /**
+     * 并发流许可
+     */
+    private final Semaphore streamPermits;
+
+    /**
+     * 最大并发流数量
+     */
+    private final int maxConcurrentStreams;
+
+    /**
+     * 最大排队请求数量
+     */
+    private final int maxQueuedRequests;
+
+    /**
+     * 等待许可的流式请求
+     */
+    private final Queue<Runnable> pendingStreams = new ConcurrentLinkedQueue<>();
+
+    private final AtomicInteger queuedRequests = new AtomicInteger();
+
+    private final AtomicInteger peakActiveStreams = new AtomicInteger();
+
+    private final AtomicLong totalStreams = new AtomicLong();
+
+    private final AtomicLong totalRequests = new AtomicLong();
+
+    private final AtomicLong rejectedRequests = new AtomicLong();
+
+    /**
+     * 绑定到该客户端的模型实例数量
+     */
+    private final AtomicLong boundModels = new AtomicLong();
+
+    public PooledLlmHttpClient(String baseUrl, HttpClient delegate, int maxConcurrentStreams, int maxQueuedRequests) {
+        this.baseUrl = baseUrl;
+        this.delegate = delegate;
+        this.maxConcurrentStreams = maxConcurrentStreams;
+        this.maxQueuedRequests = maxQueuedRequests;
+        this.streamPermits = new Semaphore(maxConcurrentStreams, true);
+    }
+
+    /**
+     * 同步请求（非流式），耗时短，不占用流许可
+     *
+     * @param request 请求
+     * @return 响应
+     */
+    @Override
+    public SuccessfulHttpResponse execute(HttpRequest request) throws HttpException, RuntimeException {
+        totalRequests.incrementAndGet();
+        return delegate.execute(request);
+    }
+
+    /**
+     * 流式请求：有许可时立即发起，否则进入等待队列，队列已满则直接拒绝
+     *
+     * @param request  请求
+     * @param parser   SSE 解析器
+     * @param listener SSE 监听器
+     */
+    @Override
+    public void execute(HttpRequest request, ServerSentEventParser parser, ServerSentEventListener listener) {
+        Runnable task = () -> startStream(request, parser, listener);
+        // 已有请求在排队时不插队，保证先到先得
+        if (pendingStreams.isEmpty() && streamPermits.tryAcquire()) {
+            task.run();
+            return;
+        }
+        if (queuedRequests.incrementAndGet() > maxQueuedRequests) {
+            queuedRequests.decrementAndGet();
+            rejectedRequests.incrementAndGet();
+            log.warn("模型连接池排队已满，拒绝请求，baseUrl: {}, 排队上限: {}", baseUrl, maxQueuedRequests);
+            listener.onError(new RejectedExecutionException("模型连接池繁忙，请稍后再试"));
+            return;
+        }
+        pendingStreams.offer(task);
+        // 入队期间可能已有流结束归还许可，这里再尝试调度一次，避免任务滞留
+        drainPendingStreams();
+    }
+
+    /**
+     * 在已获取许可的前提下发起流式请求，结束（完成或出错）时归还许可
+     */
+    private void startStream(HttpRequest request, ServerSentEventParser parser, ServerSentEventListener listener) {
+        totalRequests.incrementAndGet();
+        totalStreams.incrementAndGet();
+        peakActiveStreams.accumulateAndGet(getActiveStreams(), Math::max);
+        ReleasingListener releasingListener = new ReleasingListener(listener);
+        try {
+            delegate.execute(request, parser, releasingListener);
+        } catch (RuntimeException e) {
+            releasingListener.onError(e);
+        }
+    }
+
+    /**
+     * 归还许可并调度排队中的请求
+     */
+    private void releasePermit() {
+        streamPermits.release();
+        drainPendingStreams();
+    }
+
+    /**
+     * 只要还有许可和排队任务，就持续取出执行
+     */
+    private void drainPendingStreams() {
+        while (!pendingStreams.isEmpty() && streamPermits.tryAcquire()) {
+            Runnable task = pendingStreams.poll();
+            if (task == null) {
+                streamPermits.release();
+                return;
+            }
+            queuedRequests.decrementAndGet();
+            task.run();
+        }
+    }
+
+    /**
+     * 记录一次模型实例绑定
+     */
+    void bindModel() {
+        boundModels.incrementAndGet();
+    }
+
+    public int getActiveStreams() {
+        return maxConcurrentStreams - streamPermits.availablePermits();
+    }
+
+    /**
+     * 获取连接池统计信息
+     *
+     * @return 统计信息
+     */
+    public LlmHttpClientPoolStats getStats() {
+        long models = boundModels.get();
+        return LlmHttpClientPoolStats.builder()
+                .baseUrl(baseUrl)
+                .maxConcurrentStreams(maxConcurrentStreams)
+                .maxQueuedRequests(maxQueuedRequests)
+                .activeStreams(getActiveStreams())
+                .peakActiveStreams(peakActiveStreams.get())
+                .queuedRequests(queuedRequests.get())
+                .totalStreams(totalStreams.get())
+                .totalRequests(totalRequests.get())
+                .rejectedRequests(rejectedRequests.get())
+                .boundModels(models)
+                // 每个多例模型原本都会创建独立客户端并各自握手，共享后只有一个客户端
+                .handshakesAvoided(Math.max(0, models - 1))
+                .build();
+    }
+
+    /**
+     * 流结束时归还许可的监听器包装，保证只归还一次
+     */
+    private class ReleasingListener implements ServerSentEventListener {
+
+        private final ServerSentEventListener target;
+
+        private final AtomicBoolean released = new AtomicBoolean(false);
+
+        ReleasingListener(ServerSentEventListener target) {
+            this.target = target;
+        }
+
+        @Override
+        public void onOpen(SuccessfulHttpResponse response) {
+            target.onOpen(response);
+        }
+
+        @Override
+        public void onEvent(ServerSentEvent event) {
+            target.onEvent(event);
+        }
+
+        @Override
+        public void onError(Throwable throwable) {
+            try {
+                target.onError(throwable);
+            } finally {
+                release();
+            }
+        }
+
+        @Override
+        public void onClose() {
+            try {
+                target.onClose();
+            } finally {
+                release();
+            }
+        }
+
+        private void release() {
+            if (released.compareAndSet(false, true)) {
+                releasePermit();
+            }
+        }
+    }
+}
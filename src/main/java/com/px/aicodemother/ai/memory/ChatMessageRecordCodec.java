@@ -0,0 +1,142 @@
+package com.px.aicodemother.ai.memory;
+
+import dev.langchain4j.data.message.ChatMessage;
+import dev.langchain4j.data.message.ChatMessageDeserializer;
+import dev.langchain4j.data.message.ChatMessageSerializer;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * packageName: com.px.aicodemother.ai.memory
+ *
+ * @author: idpeng
+ * @version: 1.0
+ * @className: ChatMessageRecordCodec
+ * @date: 2026/10/18 22:55
+ * @description: 对话消息记录编解码器。每条消息单独编码为一条记录：首字节为格式标记，
+ * 0 表示后面是原始 JSON，1 表示后面是 4 字节原始长度 + Deflate 压缩后的 JSON；
+ * 短消息或压缩后没有变小的消息保持原样
+ */
+public class ChatMessageRecordCodec {
+
+    private static final byte RAW = 0;
+
+    private static final byte DEFLATED = 1;
+
+    /**
+     * 编码后的记录
+     *
+     * @param bytes   记录字节
+     * @param rawSize 原始 JSON 字节数
+     */
+    public record Encoded(byte[] bytes, int rawSize) {
+    }
+
+    /**
+     * 解码后的消息
+     *
+     * @param message 消息
+     * @param rawSize 原始 JSON 字节数
+     */
+    public record Decoded(ChatMessage message, int rawSize) {
+    }
+
+    private final int compressThreshold;
+
+    /**
+     * 创建对话消息记录编解码器
+     *
+     * @param compressThreshold 原始 JSON 达到该字节数才压缩
+     */
+    public ChatMessageRecordCodec(int compressThreshold) {
+        this.compressThreshold = compressThreshold;
+    }
+
+    /**
+     * 编码
+     *
+     * @param message 消息
+     * @return 记录
+     */
+    public Encoded encode(ChatMessage message) {
+        byte[] json = ChatMessageSerializer.messageToJson(message).getBytes(StandardCharsets.UTF_8);
+        if (json.length >= compressThreshold) {
+            byte[] deflated = deflate(json);
+            if (deflated.length + 4 < json.length) {
+                ByteBuffer buffer = ByteBuffer.allocate(1 + 4 + deflated.length);
+                buffer.put(DEFLATED).putInt(json.length).put(deflated);
+                return new Encoded(buffer.array(), json.length);
+            }
+        }
+        byte[] bytes = new byte[1 + json.length];
+        bytes[0] = RAW;
+        System.arraycopy(json, 0, bytes, 1, json.length);
+        return new Encoded(bytes, json.length);
+    }
+
+    /**
+     * 解码
+     *
+     * @param bytes 记录
+     * @return 消息
+     */
+    public Decoded decode(byte[] bytes) {
+        byte[] json;
+        if (bytes[0] == DEFLATED) {
+            int rawSize = ByteBuffer.wrap(bytes).getInt(1);
+            json = inflate(bytes, 1 + 4, rawSize);
+        } else if (bytes[0] == RAW) {
+            json = new byte[bytes.length - 1];
+            System.arraycopy(bytes, 1, json, 0, json.length);
+        } else {
+            throw new IllegalArgumentException("未知的消息记录格式: " + bytes[0]);
+        }
+        return new Decoded(ChatMessageDeserializer.messageFromJson(new String(json, StandardCharsets.UTF_8)), json.length);
+    }
+
+    private static byte[] deflate(byte[] input) {
+        // 代码内容重复度高，最快档位的压缩率已足够，写入路径上不值得多花 CPU
+        Deflater deflater = new Deflater(Deflater.BEST_SPEED);
+        try {
+            deflater.setInput(input);
+            deflater.finish();
+            ByteArrayOutputStream out = new ByteArrayOutputStream(input.length / 3 + 16);
+            byte[] buffer = new byte[8192];
+            while (!deflater.finished()) {
+                out.write(buffer, 0, deflater.deflate(buffer));
+            }
+            return out.toByteArray();
+        } finally {
+            deflater.end();
+        }
+    }
+
+    private static byte[] inflate(byte[] input, int offset, int rawSize) {
+        Inflater inflater = new Inflater();
+        try {
+            inflater.setInput(input, offset, input.length - offset);
+            byte[] output = new byte[rawSize];
+            int length = 0;
+            while (length < rawSize) {
+                int n = inflater.inflate(output, length, rawSize - length);
+                if (n == 0 && (inflater.finished() || inflater.needsInput() || inflater.needsDictionary())) {
+                    break;
+                }
+                length += n;
+            }
+            if (length != rawSize) {
+                throw new IllegalArgumentException("消息记录已损坏");
+            }
+            return output;
+        } catch (DataFormatException e) {
+            throw new IllegalArgumentException("消息记录已损坏", e);
+        } finally {
+            inflater.end();
+        }
+    }
+}
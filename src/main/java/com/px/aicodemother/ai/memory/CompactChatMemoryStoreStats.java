@@ -0,0 +1,65 @@
+package com.px.aicodemother.ai.memory;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Builder;
+import lombok.Data;
+
+import java.io.Serial;
+import java.io.Serializable;
+
+/**
+ * packageName: com.px.aicodemother.ai.memory
+ *
+ * @author: idpeng
+ * @version: 1.0
+ * @className: CompactChatMemoryStoreStats
+ * @date: 2026/10/18 23:10
+ * @description: 对话记忆存储统计信息，包含每轮写入字节数与原存储方式（整个窗口的 JSON）的对比
+ */
+@Data
+@Builder
+@Schema(description = "对话记忆存储统计信息")
+public class CompactChatMemoryStoreStats implements Serializable {
+
+    @Schema(description = "本地缓存的记忆数")
+    private long localEntries;
+
+    @Schema(description = "读取次数")
+    private long reads;
+
+    @Schema(description = "版本号一致、直接使用本地副本的读取比例")
+    private double localHitRate;
+
+    @Schema(description = "累计从 Redis 读取的记录字节数")
+    private long bytesRead;
+
+    @Schema(description = "写入次数（轮次）")
+    private long turns;
+
+    @Schema(description = "累计追加的记录数")
+    private long appendedRecords;
+
+    @Schema(description = "累计在 Redis 端删除的记录数")
+    private long droppedRecords;
+
+    @Schema(description = "整体重写次数")
+    private long fullRewrites;
+
+    @Schema(description = "因其他节点写入导致的版本冲突次数")
+    private long conflicts;
+
+    @Schema(description = "累计写入 Redis 的记录字节数")
+    private long bytesWritten;
+
+    @Schema(description = "平均每轮写入字节数")
+    private double avgBytesPerTurn;
+
+    @Schema(description = "原存储方式平均每轮需要写入的字节数（整个窗口的 JSON，估算）")
+    private double avgFullJsonBytesPerTurn;
+
+    @Schema(description = "写入量相比原存储方式减少的比例")
+    private double writeReduction;
+
+    @Serial
+    private static final long serialVersionUID = 1L;
+}
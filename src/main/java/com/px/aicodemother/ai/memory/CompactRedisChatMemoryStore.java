@@ -0,0 +1,344 @@
+package com.px.aicodemother.ai.memory;
+
+import cn.hutool.core.util.IdUtil;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import dev.langchain4j.data.message.ChatMessage;
+import dev.langchain4j.store.memory.chat.ChatMemoryStore;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.data.redis.serializer.RedisSerializer;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * packageName: com.px.aicodemother.ai.memory
+ *
+ * @author: idpeng
+ * @version: 1.0
+ * @className: CompactRedisChatMemoryStore
+ * @date: 2026/10/18 23:05
+ * @description: 紧凑的 Redis 对话记忆存储。每条消息是 Redis 列表中的一条压缩记录，另有一个版本号键；
+ * 本地缓存每个记忆最近读写的消息和版本号。更新时与本地副本比较，只追加新消息，
+ * 被窗口淘汰的消息在 Redis 端原地删除，写入量与新消息大小相关，不再每次重写整个窗口。
+ * 版本号不一致（其他节点写过）时退化为整体重写；读取时版本号一致则直接返回本地副本
+ */
+public class CompactRedisChatMemoryStore implements ChatMemoryStore {
+
+    /**
+     * 读取：版本号与 ARGV[1] 一致时只返回版本号，否则返回版本号和全部记录
+     */
+    private static final RedisScript<List> READ_SCRIPT = new DefaultRedisScript<>("""
+            local version = redis.call('GET', KEYS[2])
+            if not version then
+                return {}
+            end
+            if version == ARGV[1] then
+                return {version}
+            end
+            local result = redis.call('LRANGE', KEYS[1], 0, -1)
+            table.insert(result, 1, version)
+            return result
+            """, List.class);
+
+    /**
+     * 增量写入：版本号与 ARGV[1] 一致时，保留前 ARGV[4] 条，删除其后的 ARGV[5] 条，再追加 ARGV[6..]；
+     * 版本号不一致返回 0
+     */
+    private static final RedisScript<Long> APPEND_SCRIPT = new DefaultRedisScript<>("""
+            local version = redis.call('GET', KEYS[2]) or ''
+            if version ~= ARGV[1] then
+                return 0
+            end
+            local keep = tonumber(ARGV[4])
+            local drop = tonumber(ARGV[5])
+            if drop > 0 then
+                if keep == 0 then
+                    redis.call('LTRIM', KEYS[1], drop, -1)
+                else
+                    local head = redis.call('LRANGE', KEYS[1], 0, keep - 1)
+                    redis.call('LTRIM', KEYS[1], keep + drop, -1)
+                    for i = #head, 1, -1 do
+                        redis.call('LPUSH', KEYS[1], head[i])
+                    end
+                end
+            end
+            if #ARGV >= 6 then
+                redis.call('RPUSH', KEYS[1], unpack(ARGV, 6))
+            end
+            redis.call('SET', KEYS[2], ARGV[2], 'PX', ARGV[3])
+            redis.call('PEXPIRE', KEYS[1], ARGV[3])
+            return 1
+            """, Long.class);
+
+    /**
+     * 整体重写
+     */
+    private static final RedisScript<Long> REPLACE_SCRIPT = new DefaultRedisScript<>("""
+            redis.call('DEL', KEYS[1])
+            if #ARGV >= 3 then
+                redis.call('RPUSH', KEYS[1], unpack(ARGV, 3))
+                redis.call('PEXPIRE', KEYS[1], ARGV[2])
+            end
+            redis.call('SET', KEYS[2], ARGV[1], 'PX', ARGV[2])
+            return 1
+            """, Long.class);
+
+    /**
+     * 本地副本
+     *
+     * @param version  对应的 Redis 版本号
+     * @param messages 消息
+     * @param rawSizes 每条消息的原始 JSON 字节数
+     */
+    private record Entry(String version, List<ChatMessage> messages, int[] rawSizes) {
+    }
+
+    /**
+     * 与本地副本的差异：保留前 keep 条，删除其后的 drop 条，本地其余消息保留，新消息追加在末尾
+     */
+    private record Diff(int keep, int drop) {
+    }
+
+    private final RedisTemplate<String, byte[]> redisTemplate;
+
+    private final ChatMessageRecordCodec codec;
+
+    private final String keyPrefix;
+
+    private final Duration ttl;
+
+    private final Cache<String, Entry> localEntries;
+
+    private final LongAdder reads = new LongAdder();
+
+    private final LongAdder localHits = new LongAdder();
+
+    private final LongAdder bytesRead = new LongAdder();
+
+    private final LongAdder turns = new LongAdder();
+
+    private final LongAdder appendedRecords = new LongAdder();
+
+    private final LongAdder droppedRecords = new LongAdder();
+
+    private final LongAdder fullRewrites = new LongAdder();
+
+    private final LongAdder conflicts = new LongAdder();
+
+    private final LongAdder bytesWritten = new LongAdder();
+
+    private final LongAdder fullJsonBytes = new LongAdder();
+
+    /**
+     * 创建紧凑的 Redis 对话记忆存储
+     *
+     * @param redisTemplate     Redis 访问模板（值为字节数组）
+     * @param keyPrefix         Redis 键前缀
+     * @param ttl               记忆过期时间，每次写入顺延
+     * @param compressThreshold 消息 JSON 达到该字节数才压缩
+     * @param localMaxSize      本地最多缓存的记忆数
+     * @param localTtl          本地副本在无访问后保留的时间
+     */
+    public CompactRedisChatMemoryStore(RedisTemplate<String, byte[]> redisTemplate, String keyPrefix, Duration ttl,
+                                       int compressThreshold, long localMaxSize, Duration localTtl) {
+        this.redisTemplate = redisTemplate;
+        this.codec = new ChatMessageRecordCodec(compressThreshold);
+        this.keyPrefix = keyPrefix;
+        this.ttl = ttl;
+        this.localEntries = Caffeine.newBuilder()
+                .maximumSize(localMaxSize)
+                .expireAfterAccess(localTtl)
+                .build();
+    }
+
+    @Override
+    public List<ChatMessage> getMessages(Object memoryId) {
+        String id = String.valueOf(memoryId);
+        Entry local = localEntries.getIfPresent(id);
+        reads.increment();
+        @SuppressWarnings("unchecked")
+        List<byte[]> result = (List<byte[]>) execute(READ_SCRIPT, id, bytes(local == null ? "" : local.version()));
+        if (result == null || result.isEmpty()) {
+            localEntries.invalidate(id);
+            return new ArrayList<>();
+        }
+        String version = new String(result.get(0), StandardCharsets.UTF_8);
+        if (local != null && result.size() == 1 && version.equals(local.version())) {
+            localHits.increment();
+            return new ArrayList<>(local.messages());
+        }
+        List<ChatMessage> messages = new ArrayList<>(result.size() - 1);
+        int[] rawSizes = new int[result.size() - 1];
+        for (int i = 1; i < result.size(); i++) {
+            byte[] record = result.get(i);
+            bytesRead.add(record.length);
+            ChatMessageRecordCodec.Decoded decoded = codec.decode(record);
+            messages.add(decoded.message());
+            rawSizes[i - 1] = decoded.rawSize();
+        }
+        localEntries.put(id, new Entry(version, List.copyOf(messages), rawSizes));
+        return messages;
+    }
+
+    @Override
+    public void updateMessages(Object memoryId, List<ChatMessage> messages) {
+        String id = String.valueOf(memoryId);
+        Entry local = localEntries.getIfPresent(id);
+        String newVersion = IdUtil.fastSimpleUUID();
+        turns.increment();
+        if (local != null) {
+            Diff diff = diff(local.messages(), messages);
+            // 新列表 = 本地[0, keep) + 本地[keep + drop, size) + 追加的消息
+            int prefix = local.messages().size() - diff.drop();
+            List<ChatMessage> appended = messages.subList(prefix, messages.size());
+            List<ChatMessageRecordCodec.Encoded> records = encode(appended);
+            Object[] args = new Object[5 + records.size()];
+            args[0] = bytes(local.version());
+            args[1] = bytes(newVersion);
+            args[2] = bytes(String.valueOf(ttl.toMillis()));
+            args[3] = bytes(String.valueOf(diff.keep()));
+            args[4] = bytes(String.valueOf(diff.drop()));
+            for (int i = 0; i < records.size(); i++) {
+                args[5 + i] = records.get(i).bytes();
+            }
+            Object applied = execute(APPEND_SCRIPT, id, args);
+            if (Long.valueOf(1).equals(applied)) {
+                int[] rawSizes = new int[messages.size()];
+                System.arraycopy(local.rawSizes(), 0, rawSizes, 0, diff.keep());
+                System.arraycopy(local.rawSizes(), diff.keep() + diff.drop(), rawSizes, diff.keep(), prefix - diff.keep());
+                for (int i = 0; i < records.size(); i++) {
+                    rawSizes[prefix + i] = records.get(i).rawSize();
+                }
+                appendedRecords.add(records.size());
+                droppedRecords.add(diff.drop());
+                recordWrite(records, rawSizes);
+                localEntries.put(id, new Entry(newVersion, List.copyOf(messages), rawSizes));
+                return;
+            }
+            // 其他节点写过，以本次的完整列表为准
+            conflicts.increment();
+        }
+        replace(id, messages, newVersion);
+    }
+
+    @Override
+    public void deleteMessages(Object memoryId) {
+        String id = String.valueOf(memoryId);
+        redisTemplate.delete(List.of(listKey(id), versionKey(id)));
+        localEntries.invalidate(id);
+    }
+
+    /**
+     * 获取存储统计信息
+     *
+     * @return 统计信息
+     */
+    public CompactChatMemoryStoreStats getStats() {
+        long turnCount = turns.sum();
+        long written = bytesWritten.sum();
+        long fullJson = fullJsonBytes.sum();
+        long readCount = reads.sum();
+        return CompactChatMemoryStoreStats.builder()
+                .localEntries(localEntries.estimatedSize())
+                .reads(readCount)
+                .localHitRate(readCount == 0 ? 0 : (double) localHits.sum() / readCount)
+                .bytesRead(bytesRead.sum())
+                .turns(turnCount)
+                .appendedRecords(appendedRecords.sum())
+                .droppedRecords(droppedRecords.sum())
+                .fullRewrites(fullRewrites.sum())
+                .conflicts(conflicts.sum())
+                .bytesWritten(written)
+                .avgBytesPerTurn(turnCount == 0 ? 0 : (double) written / turnCount)
+                .avgFullJsonBytesPerTurn(turnCount == 0 ? 0 : (double) fullJson / turnCount)
+                .writeReduction(fullJson == 0 ? 0 : 1 - (double) written / fullJson)
+                .build();
+    }
+
+    private void replace(String id, List<ChatMessage> messages, String newVersion) {
+        List<ChatMessageRecordCodec.Encoded> records = encode(messages);
+        Object[] args = new Object[2 + records.size()];
+        args[0] = bytes(newVersion);
+        args[1] = bytes(String.valueOf(ttl.toMillis()));
+        int[] rawSizes = new int[records.size()];
+        for (int i = 0; i < records.size(); i++) {
+            args[2 + i] = records.get(i).bytes();
+            rawSizes[i] = records.get(i).rawSize();
+        }
+        execute(REPLACE_SCRIPT, id, args);
+        fullRewrites.increment();
+        appendedRecords.add(records.size());
+        recordWrite(records, rawSizes);
+        localEntries.put(id, new Entry(newVersion, List.copyOf(messages), rawSizes));
+    }
+
+    /**
+     * 计算新列表相对本地副本的差异。窗口淘汰只删除旧消息（系统消息保留在最前），新消息总是追加在末尾，
+     * 因此取最长公共前缀 keep，再找最小的 drop 使本地剩余部分是新列表 keep 之后的前缀
+     */
+    private static Diff diff(List<ChatMessage> previous, List<ChatMessage> next) {
+        int keep = 0;
+        while (keep < previous.size() && keep < next.size() && previous.get(keep).equals(next.get(keep))) {
+            keep++;
+        }
+        int remaining = previous.size() - keep;
+        for (int drop = 0; drop < remaining; drop++) {
+            int length = remaining - drop;
+            if (keep + length <= next.size()
+                    && previous.subList(keep + drop, previous.size()).equals(next.subList(keep, keep + length))) {
+                return new Diff(keep, drop);
+            }
+        }
+        return new Diff(keep, remaining);
+    }
+
+    private List<ChatMessageRecordCodec.Encoded> encode(List<ChatMessage> messages) {
+        List<ChatMessageRecordCodec.Encoded> records = new ArrayList<>(messages.size());
+        for (ChatMessage message : messages) {
+            records.add(codec.encode(message));
+        }
+        return records;
+    }
+
+    /**
+     * 统计写入量，同时按原存储方式（整个窗口的 JSON 数组）估算本次需要写入的字节数用于对比
+     */
+    private void recordWrite(List<ChatMessageRecordCodec.Encoded> records, int[] rawSizes) {
+        long written = 0;
+        for (ChatMessageRecordCodec.Encoded record : records) {
+            written += record.bytes().length;
+        }
+        bytesWritten.add(written);
+        long fullJson = 2 + Math.max(0, rawSizes.length - 1) + Arrays.stream(rawSizes).asLongStream().sum();
+        fullJsonBytes.add(fullJson);
+    }
+
+    /**
+     * 执行脚本，参数均为字节数组；列表结果中的元素保持为字节数组
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private Object execute(RedisScript<?> script, String id, Object... args) {
+        return redisTemplate.execute((RedisScript) script, RedisSerializer.byteArray(), RedisSerializer.byteArray(),
+                List.of(listKey(id), versionKey(id)), args);
+    }
+
+    private String listKey(String id) {
+        // 两个键使用相同的哈希标签，集群模式下位于同一槽位
+        return keyPrefix + "{" + id + "}:messages";
+    }
+
+    private String versionKey(String id) {
+        return keyPrefix + "{" + id + "}:version";
+    }
+
+    private static byte[] bytes(String value) {
+        return value.getBytes(StandardCharsets.UTF_8);
+    }
+}
@@ -16,7 +16,7 @@ import lombok.NoArgsConstructor;
 @EqualsAndHashCode(callSuper = true)
 @Data
 @NoArgsConstructor
-public class AiResponseMessage extends StreamMessage{
+public final class AiResponseMessage extends StreamMessage {
     private String data;
 
     public AiResponseMessage(String data) {
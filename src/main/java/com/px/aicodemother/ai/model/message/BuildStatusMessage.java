@@ -0,0 +1,28 @@
+package com.px.aicodemother.ai.model.message;
+
+import com.px.aicodemother.model.vo.app.VueBuildStatusVO;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.NoArgsConstructor;
+
+/**
+ * packageName: com.px.aicodemother.ai.model.message
+ *
+ * @author: idpeng
+ * @version: 1.0
+ * @className: BuildStatusMessage
+ * @date: 2026/10/18 13:56
+ * @description: 项目构建状态消息，不计入对话历史，在 SSE 出口作为 build_status 事件发送
+ */
+@Data
+@EqualsAndHashCode(callSuper = true)
+@NoArgsConstructor
+public final class BuildStatusMessage extends StreamMessage {
+
+    private VueBuildStatusVO buildStatus;
+
+    public BuildStatusMessage(VueBuildStatusVO buildStatus) {
+        super(StreamMessageTypeEnum.BUILD_STATUS.getValue());
+        this.buildStatus = buildStatus;
+    }
+}
@@ -0,0 +1,30 @@
+package com.px.aicodemother.ai.model.message;
+
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.NoArgsConstructor;
+
+/**
+ * packageName: com.px.aicodemother.ai.model.message
+ *
+ * @author: idpeng
+ * @version: 1.0
+ * @className: QueueStatusMessage
+ * @date: 2026/10/18 21:05
+ * @description: 生成排队状态消息，并发生成数达到上限时发送，不计入对话历史，在 SSE 出口作为 queue_status 事件发送
+ */
+@Data
+@EqualsAndHashCode(callSuper = true)
+@NoArgsConstructor
+public final class QueueStatusMessage extends StreamMessage {
+
+    /**
+     * 当前排队位置（估算），从 1 开始
+     */
+    private long position;
+
+    public QueueStatusMessage(long position) {
+        super(StreamMessageTypeEnum.QUEUE_STATUS.getValue());
+        this.position = position;
+    }
+}
@@ -11,11 +11,12 @@ import lombok.NoArgsConstructor;
  * @version: 1.0
  * @className: StreamMessage
  * @date: 2025/9/23 10:34
- * @description: 流式消息响应基类
+ * @description: 流式消息响应基类，子类固定，进程内以对象形式传递，仅在 SSE 出口序列化
  */
 @Data
 @AllArgsConstructor
 @NoArgsConstructor
-public class StreamMessage {
+public abstract sealed class StreamMessage permits AiResponseMessage, ToolRequestMessage, ToolExecutedMessage, BuildStatusMessage,
+        QueueStatusMessage {
     private String type;
 }
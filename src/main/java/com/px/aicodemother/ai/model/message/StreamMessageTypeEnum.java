@@ -15,7 +15,9 @@ import lombok.Getter;
 public enum StreamMessageTypeEnum {
     AI_RESPONSE("ai_response", "AI响应"),
     TOOL_REQUEST("tool_request", "工具请求"),
-    TOOL_EXECUTED("tool_executed", "工具执行结果");
+    TOOL_EXECUTED("tool_executed", "工具执行结果"),
+    BUILD_STATUS("build_status", "构建状态"),
+    QUEUE_STATUS("queue_status", "排队状态");
 
     private final String value;
     private final String text;
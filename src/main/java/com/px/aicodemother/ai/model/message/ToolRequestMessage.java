@@ -17,7 +17,7 @@ import lombok.NoArgsConstructor;
 @Data
 @EqualsAndHashCode(callSuper = true)
 @NoArgsConstructor
-public class ToolRequestMessage extends StreamMessage{
+public final class ToolRequestMessage extends StreamMessage {
 
     private String id;
 
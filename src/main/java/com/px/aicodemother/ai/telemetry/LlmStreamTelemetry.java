@@ -0,0 +1,223 @@
+package com.px.aicodemother.ai.telemetry;
+
+import dev.langchain4j.model.openai.OpenAiStreamingTelemetry;
+import dev.langchain4j.model.output.FinishReason;
+
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * packageName: com.px.aicodemother.ai.telemetry
+ *
+ * @author: idpeng
+ * @version: 1.0
+ * @className: LlmStreamTelemetry
+ * @date: 2026/10/18 21:45
+ * @description: 模型流式响应采集。安装到 OpenAiStreamingTelemetry 后记录首 token 耗时、token 间隔、
+ * 工具调用增量和结束原因；计数器与直方图桶都预先分配，记录时不产生对象。未启用时不安装，流式路径不做任何额外工作
+ */
+public class LlmStreamTelemetry implements OpenAiStreamingTelemetry.Listener {
+
+    private final boolean enabled;
+
+    private final Histogram timeToFirstToken = new Histogram();
+
+    private final Histogram interTokenGap = new Histogram();
+
+    private final LongAdder completedStreams = new LongAdder();
+
+    private final LongAdder failedStreams = new LongAdder();
+
+    private final LongAdder streamNanos = new LongAdder();
+
+    private final LongAdder toolCallDeltas = new LongAdder();
+
+    private final LongAdder toolCallArgumentBytes = new LongAdder();
+
+    private final EnumMap<FinishReason, LongAdder> finishReasons = new EnumMap<>(FinishReason.class);
+
+    private final LongAdder noFinishReason = new LongAdder();
+
+    /**
+     * 创建模型流式响应采集
+     *
+     * @param enabled 是否启用，未启用时 install 不生效
+     */
+    public LlmStreamTelemetry(boolean enabled) {
+        this.enabled = enabled;
+        for (FinishReason reason : FinishReason.values()) {
+            finishReasons.put(reason, new LongAdder());
+        }
+    }
+
+    /**
+     * 启用时安装为全局流式响应监听器
+     */
+    public void install() {
+        if (enabled) {
+            OpenAiStreamingTelemetry.install(this);
+        }
+    }
+
+    /**
+     * 卸载全局流式响应监听器
+     */
+    public void uninstall() {
+        if (OpenAiStreamingTelemetry.listener() == this) {
+            OpenAiStreamingTelemetry.install(null);
+        }
+    }
+
+    @Override
+    public void onFirstToken(long nanos) {
+        timeToFirstToken.record(nanos);
+    }
+
+    @Override
+    public void onInterTokenGap(long nanos) {
+        interTokenGap.record(nanos);
+    }
+
+    @Override
+    public void onToolCallDelta(int argumentBytes) {
+        toolCallDeltas.increment();
+        toolCallArgumentBytes.add(argumentBytes);
+    }
+
+    @Override
+    public void onStreamCompleted(FinishReason finishReason, long nanos) {
+        completedStreams.increment();
+        streamNanos.add(nanos);
+        (finishReason == null ? noFinishReason : finishReasons.get(finishReason)).increment();
+    }
+
+    @Override
+    public void onStreamFailed(long nanos) {
+        failedStreams.increment();
+        streamNanos.add(nanos);
+    }
+
+    /**
+     * 获取统计信息
+     *
+     * @return 统计信息
+     */
+    public LlmStreamTelemetryStats getStats() {
+        long completed = completedStreams.sum();
+        long failed = failedStreams.sum();
+        long streams = completed + failed;
+        Map<String, Long> reasons = new LinkedHashMap<>();
+        finishReasons.forEach((reason, count) -> {
+            long sum = count.sum();
+            if (sum > 0) {
+                reasons.put(reason.name(), sum);
+            }
+        });
+        if (noFinishReason.sum() > 0) {
+            reasons.put("NONE", noFinishReason.sum());
+        }
+        return LlmStreamTelemetryStats.builder()
+                .enabled(enabled)
+                .completedStreams(completed)
+                .failedStreams(failed)
+                .avgStreamMillis(streams == 0 ? 0 : streamNanos.sum() / 1_000_000.0 / streams)
+                .avgTimeToFirstTokenMillis(timeToFirstToken.avgMillis())
+                .p50TimeToFirstTokenMillis(timeToFirstToken.percentileMillis(0.5))
+                .p99TimeToFirstTokenMillis(timeToFirstToken.percentileMillis(0.99))
+                .maxTimeToFirstTokenMillis(timeToFirstToken.maxMillis())
+                .interTokenGaps(interTokenGap.count())
+                .avgInterTokenGapMillis(interTokenGap.avgMillis())
+                .p50InterTokenGapMillis(interTokenGap.percentileMillis(0.5))
+                .p99InterTokenGapMillis(interTokenGap.percentileMillis(0.99))
+                .maxInterTokenGapMillis(interTokenGap.maxMillis())
+                .toolCallDeltas(toolCallDeltas.sum())
+                .toolCallArgumentBytes(toolCallArgumentBytes.sum())
+                .finishReasons(reasons)
+                .build();
+    }
+
+    /**
+     * 固定桶耗时直方图，桶上界按毫秒近似指数增长，最后一个桶收纳所有更长的耗时
+     */
+    private static final class Histogram {
+
+        private static final long[] BOUNDS_MILLIS = {
+                1, 2, 5, 10, 20, 50, 100, 200, 500, 1_000, 2_000, 5_000, 10_000, 30_000, 60_000
+        };
+
+        private static final long[] BOUNDS_NANOS = new long[BOUNDS_MILLIS.length];
+
+        static {
+            for (int i = 0; i < BOUNDS_MILLIS.length; i++) {
+                BOUNDS_NANOS[i] = TimeUnit.MILLISECONDS.toNanos(BOUNDS_MILLIS[i]);
+            }
+        }
+
+        private final LongAdder[] buckets = new LongAdder[BOUNDS_MILLIS.length + 1];
+
+        private final LongAdder totalNanos = new LongAdder();
+
+        private final AtomicLong maxNanos = new AtomicLong();
+
+        private Histogram() {
+            for (int i = 0; i < buckets.length; i++) {
+                buckets[i] = new LongAdder();
+            }
+        }
+
+        private void record(long nanos) {
+            int index = 0;
+            while (index < BOUNDS_NANOS.length && nanos > BOUNDS_NANOS[index]) {
+                index++;
+            }
+            buckets[index].increment();
+            totalNanos.add(nanos);
+            // 先读再比较，大多数样本不会更新最大值，避免 CAS 竞争
+            if (nanos > maxNanos.get()) {
+                maxNanos.accumulateAndGet(nanos, Math::max);
+            }
+        }
+
+        private long count() {
+            long count = 0;
+            for (LongAdder bucket : buckets) {
+                count += bucket.sum();
+            }
+            return count;
+        }
+
+        private double avgMillis() {
+            long count = count();
+            return count == 0 ? 0 : totalNanos.sum() / 1_000_000.0 / count;
+        }
+
+        private long maxMillis() {
+            return TimeUnit.NANOSECONDS.toMillis(maxNanos.get());
+        }
+
+        private long percentileMillis(double quantile) {
+            long[] counts = new long[buckets.length];
+            long total = 0;
+            for (int i = 0; i < buckets.length; i++) {
+                counts[i] = buckets[i].sum();
+                total += counts[i];
+            }
+            if (total == 0) {
+                return 0;
+            }
+            long rank = (long) Math.ceil(quantile * total);
+            long seen = 0;
+            for (int i = 0; i < BOUNDS_MILLIS.length; i++) {
+                seen += counts[i];
+                if (seen >= rank) {
+                    return Math.min(BOUNDS_MILLIS[i], maxMillis());
+                }
+            }
+            return maxMillis();
+        }
+    }
+}
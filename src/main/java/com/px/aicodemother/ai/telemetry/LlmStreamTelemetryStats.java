@@ -0,0 +1,75 @@
+package com.px.aicodemother.ai.telemetry;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Builder;
+import lombok.Data;
+
+import java.io.Serial;
+import java.io.Serializable;
+import java.util.Map;
+
+/**
+ * packageName: com.px.aicodemother.ai.telemetry
+ *
+ * @author: idpeng
+ * @version: 1.0
+ * @className: LlmStreamTelemetryStats
+ * @date: 2026/10/18 21:40
+ * @description: 模型流式响应统计信息，分位数按固定桶估算（取所在桶的上界）
+ */
+@Data
+@Builder
+@Schema(description = "模型流式响应统计信息")
+public class LlmStreamTelemetryStats implements Serializable {
+
+    @Schema(description = "是否启用采集")
+    private boolean enabled;
+
+    @Schema(description = "正常结束的流数量")
+    private long completedStreams;
+
+    @Schema(description = "失败的流数量")
+    private long failedStreams;
+
+    @Schema(description = "流的平均持续时间（毫秒）")
+    private double avgStreamMillis;
+
+    @Schema(description = "首个 token 平均耗时（毫秒）")
+    private double avgTimeToFirstTokenMillis;
+
+    @Schema(description = "首个 token 耗时 P50（毫秒）")
+    private long p50TimeToFirstTokenMillis;
+
+    @Schema(description = "首个 token 耗时 P99（毫秒）")
+    private long p99TimeToFirstTokenMillis;
+
+    @Schema(description = "首个 token 最长耗时（毫秒）")
+    private long maxTimeToFirstTokenMillis;
+
+    @Schema(description = "token 间隔采样数")
+    private long interTokenGaps;
+
+    @Schema(description = "token 平均间隔（毫秒）")
+    private double avgInterTokenGapMillis;
+
+    @Schema(description = "token 间隔 P50（毫秒）")
+    private long p50InterTokenGapMillis;
+
+    @Schema(description = "token 间隔 P99（毫秒）")
+    private long p99InterTokenGapMillis;
+
+    @Schema(description = "token 最长间隔（毫秒）")
+    private long maxInterTokenGapMillis;
+
+    @Schema(description = "工具调用增量数")
+    private long toolCallDeltas;
+
+    @Schema(description = "工具调用参数累计字节数")
+    private long toolCallArgumentBytes;
+
+    @Schema(description = "各结束原因的流数量，未返回结束原因的记为 NONE")
+    private Map<String, Long> finishReasons;
+
+    @Serial
+    private static final long serialVersionUID = 1L;
+}
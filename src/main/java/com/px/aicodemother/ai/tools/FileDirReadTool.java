@@ -4,6 +4,7 @@ import cn.hutool.core.io.FileUtil;
 import cn.hutool.core.util.StrUtil;
 import cn.hutool.json.JSONObject;
 import com.px.aicodemother.constants.AppConstant;
+import com.px.aicodemother.core.builder.VueBuildManifest;
 import dev.langchain4j.agent.tool.P;
 import dev.langchain4j.agent.tool.Tool;
 import dev.langchain4j.agent.tool.ToolMemoryId;
@@ -34,7 +35,8 @@ public class FileDirReadTool extends BaseTool{
      */
     private static final Set<String> IGNORED_NAMES = Set.of(
             "node_modules", ".git", "dist", "build", ".DS_Store",
-            ".env", "target", ".mvn", ".idea", ".vscode", "coverage"
+            ".env", "target", ".mvn", ".idea", ".vscode", "coverage",
+            VueBuildManifest.FILE_NAME
     );
 
     /**
@@ -2,6 +2,7 @@ package com.px.aicodemother.common;
 
 import com.px.aicodemother.exception.ErrorCode;
 import lombok.Data;
+import lombok.NoArgsConstructor;
 import io.swagger.v3.oas.annotations.media.Schema;
 
 import java.io.Serializable;
@@ -16,6 +17,7 @@ import java.io.Serializable;
  * @description: 封装通用响应结果类
  */
 @Data
+@NoArgsConstructor
 @Schema(description = "通用响应结果类")
 public class BaseResponse<T> implements Serializable {
 
@@ -0,0 +1,67 @@
+package com.px.aicodemother.config;
+
+import com.px.aicodemother.manager.ChatHistoryWriteBehindManager;
+import com.px.aicodemother.mapper.ChatHistoryMapper;
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+/**
+ * packageName: com.px.aicodemother.config
+ *
+ * @author: idpeng
+ * @version: 1.0
+ * @className: ChatHistoryWriteBehindConfig
+ * @date: 2026/10/18 12:14
+ * @description: 对话历史异步批量写入配置
+ */
+@Data
+@Configuration
+@ConfigurationProperties(prefix = "chat-history.write-behind")
+public class ChatHistoryWriteBehindConfig {
+
+    /**
+     * 是否开启异步批量写入，关闭时每条消息同步写入
+     */
+    private Boolean enabled = true;
+
+    /**
+     * 每批最大消息数
+     */
+    private Integer batchSize = 100;
+
+    /**
+     * 攒批最长等待时间
+     */
+    private Duration flushInterval = Duration.ofMillis(500);
+
+    /**
+     * 溢写文件重试间隔
+     */
+    private Duration spillRetryInterval = Duration.ofSeconds(10);
+
+    /**
+     * 队列最大消息数，超出后退化为同步写入
+     */
+    private Integer maxQueuedMessages = 10000;
+
+    /**
+     * 溢写文件目录
+     */
+    private String spillDir = System.getProperty("user.dir") + "/tmp/chat_history_spill";
+
+    /**
+     * 创建对话历史异步批量写入管理器
+     *
+     * @param chatHistoryMapper 对话历史映射层
+     * @return 对话历史异步批量写入管理器
+     */
+    @Bean(initMethod = "start", destroyMethod = "shutdown")
+    public ChatHistoryWriteBehindManager chatHistoryWriteBehindManager(ChatHistoryMapper chatHistoryMapper) {
+        return new ChatHistoryWriteBehindManager(chatHistoryMapper, batchSize, flushInterval.toMillis(),
+                spillRetryInterval.toMillis(), maxQueuedMessages, spillDir);
+    }
+}
@@ -0,0 +1,55 @@
+package com.px.aicodemother.config;
+
+import com.px.aicodemother.ai.memory.CompactRedisChatMemoryStore;
+import com.px.aicodemother.manager.ChatMemoryHydrator;
+import com.px.aicodemother.service.ChatHistoryService;
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+/**
+ * packageName: com.px.aicodemother.config
+ *
+ * @author: idpeng
+ * @version: 1.0
+ * @className: ChatMemoryHydratorConfig
+ * @date: 2026/10/18 22:40
+ * @description: 对话记忆装载配置
+ */
+@Data
+@Configuration
+@ConfigurationProperties(prefix = "chat-memory.hydration")
+public class ChatMemoryHydratorConfig {
+
+    /**
+     * 记忆窗口大小（消息条数）
+     */
+    private Integer windowSize = 50;
+
+    /**
+     * 本地窗口保留时间，应长于 Redis 中对话记忆的过期时间，记忆过期后才能按高水位增量加载
+     */
+    private Duration snapshotTtl = Duration.ofHours(2);
+
+    /**
+     * 本地最多保留的窗口数
+     */
+    private Long maxSize = 10000L;
+
+    /**
+     * 创建对话记忆装载器
+     *
+     * @param redisChatMemoryStore 对话记忆存储
+     * @param chatHistoryService   对话历史服务
+     * @return 对话记忆装载器
+     */
+    @Bean
+    public ChatMemoryHydrator chatMemoryHydrator(CompactRedisChatMemoryStore redisChatMemoryStore,
+                                                 ChatHistoryService chatHistoryService) {
+        return new ChatMemoryHydrator(redisChatMemoryStore, chatHistoryService::listChatHistoryForMemory,
+                windowSize, snapshotTtl, maxSize);
+    }
+}
@@ -0,0 +1,74 @@
+package com.px.aicodemother.config;
+
+import com.px.aicodemother.ai.concurrency.LlmConcurrencyLimiter;
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * packageName: com.px.aicodemother.config
+ *
+ * @author: idpeng
+ * @version: 1.0
+ * @className: LlmConcurrencyConfig
+ * @date: 2026/10/18 21:18
+ * @description: 模型生成并发限制配置
+ */
+@Data
+@Configuration
+@ConfigurationProperties(prefix = "langchain4j.generation-concurrency")
+public class LlmConcurrencyConfig {
+
+    /**
+     * 全局进行中的生成数上限
+     */
+    private Integer globalMaxConcurrent = 32;
+
+    /**
+     * 每个用户进行中的生成数上限
+     */
+    private Integer userMaxConcurrent = 2;
+
+    /**
+     * 各生成类型进行中的生成数上限，键为生成类型值，未配置的类型只受全局上限约束
+     */
+    private Map<String, Integer> typeMaxConcurrent = new HashMap<>(Map.of("vue_project", 8));
+
+    /**
+     * 租约有效期
+     */
+    private Duration leaseTtl = Duration.ofSeconds(30);
+
+    /**
+     * 心跳续期间隔
+     */
+    private Duration heartbeatInterval = Duration.ofSeconds(10);
+
+    /**
+     * 排队时的轮询间隔
+     */
+    private Duration pollInterval = Duration.ofSeconds(1);
+
+    /**
+     * 最长排队时间
+     */
+    private Duration maxWait = Duration.ofMinutes(5);
+
+    /**
+     * 创建模型生成并发限制器
+     *
+     * @param stringRedisTemplate Redis 访问模板
+     * @return 模型生成并发限制器
+     */
+    @Bean(destroyMethod = "shutdown")
+    public LlmConcurrencyLimiter llmConcurrencyLimiter(StringRedisTemplate stringRedisTemplate) {
+        return new LlmConcurrencyLimiter(stringRedisTemplate, globalMaxConcurrent, userMaxConcurrent, typeMaxConcurrent,
+                leaseTtl, heartbeatInterval, pollInterval, maxWait);
+    }
+}
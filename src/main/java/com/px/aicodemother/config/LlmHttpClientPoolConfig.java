@@ -0,0 +1,54 @@
+package com.px.aicodemother.config;
+
+import com.px.aicodemother.ai.http.LlmHttpClientPool;
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+/**
+ * packageName: com.px.aicodemother.config
+ *
+ * @author: idpeng
+ * @version: 1.0
+ * @className: LlmHttpClientPoolConfig
+ * @date: 2026/10/18 10:34
+ * @description: 模型 HTTP 连接池配置
+ */
+@Data
+@Configuration
+@ConfigurationProperties(prefix = "langchain4j.http-client-pool")
+public class LlmHttpClientPoolConfig {
+
+    /**
+     * 每个 baseUrl 最大并发流数量
+     */
+    private Integer maxConcurrentStreams = 64;
+
+    /**
+     * 每个 baseUrl 最大排队请求数量
+     */
+    private Integer maxQueuedRequests = 256;
+
+    /**
+     * 连接超时时间
+     */
+    private Duration connectTimeout = Duration.ofSeconds(15);
+
+    /**
+     * 读取超时时间（流式生成耗时较长）
+     */
+    private Duration readTimeout = Duration.ofMinutes(10);
+
+    /**
+     * 创建模型 HTTP 客户端池
+     *
+     * @return 模型 HTTP 客户端池
+     */
+    @Bean(destroyMethod = "shutdown")
+    public LlmHttpClientPool llmHttpClientPool() {
+        return new LlmHttpClientPool(maxConcurrentStreams, maxQueuedRequests, connectTimeout, readTimeout);
+    }
+}
@@ -0,0 +1,37 @@
+package com.px.aicodemother.config;
+
+import com.px.aicodemother.ai.telemetry.LlmStreamTelemetry;
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * packageName: com.px.aicodemother.config
+ *
+ * @author: idpeng
+ * @version: 1.0
+ * @className: LlmStreamTelemetryConfig
+ * @date: 2026/10/18 21:50
+ * @description: 模型流式响应采集配置
+ */
+@Data
+@Configuration
+@ConfigurationProperties(prefix = "langchain4j.stream-telemetry")
+public class LlmStreamTelemetryConfig {
+
+    /**
+     * 是否启用采集，关闭时流式路径不做计时
+     */
+    private Boolean enabled = true;
+
+    /**
+     * 创建模型流式响应采集
+     *
+     * @return 模型流式响应采集
+     */
+    @Bean(initMethod = "install", destroyMethod = "uninstall")
+    public LlmStreamTelemetry llmStreamTelemetry() {
+        return new LlmStreamTelemetry(enabled);
+    }
+}
@@ -0,0 +1,57 @@
+package com.px.aicodemother.config;
+
+import com.px.aicodemother.manager.LoginUserCache;
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+
+import java.time.Duration;
+
+/**
+ * packageName: com.px.aicodemother.config
+ *
+ * @author: idpeng
+ * @version: 1.0
+ * @className: LoginUserCacheConfig
+ * @date: 2026/10/18 20:10
+ * @description: 登录用户缓存配置
+ */
+@Data
+@Configuration
+@ConfigurationProperties(prefix = "user.login-cache")
+public class LoginUserCacheConfig {
+
+    /**
+     * 版本变更通知频道
+     */
+    private String channel = "user:login-version";
+
+    /**
+     * 缓存过期时间
+     */
+    private Duration ttl = Duration.ofMinutes(5);
+
+    /**
+     * 缓存最大条目数
+     */
+    private Long maxSize = 10000L;
+
+    /**
+     * 创建登录用户缓存，并订阅其他节点的版本变更通知
+     *
+     * @param stringRedisTemplate                Redis 访问模板
+     * @param cacheInvalidationListenerContainer 缓存失效通知监听容器
+     * @return 登录用户缓存
+     */
+    @Bean
+    public LoginUserCache loginUserCache(StringRedisTemplate stringRedisTemplate,
+                                         RedisMessageListenerContainer cacheInvalidationListenerContainer) {
+        LoginUserCache loginUserCache = new LoginUserCache(stringRedisTemplate, channel, ttl, maxSize);
+        cacheInvalidationListenerContainer.addMessageListener(loginUserCache, new ChannelTopic(channel));
+        return loginUserCache;
+    }
+}
@@ -0,0 +1,44 @@
+package com.px.aicodemother.config;
+
+import com.px.aicodemother.manager.PageReadinessDetector;
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+/**
+ * packageName: com.px.aicodemother.config
+ *
+ * @author: idpeng
+ * @version: 1.0
+ * @className: PageReadinessConfig
+ * @date: 2026/10/18 15:46
+ * @description: 截图前页面就绪检测配置
+ */
+@Data
+@Configuration
+@ConfigurationProperties(prefix = "screenshot.readiness")
+public class PageReadinessConfig {
+
+    /**
+     * 网络和 DOM 需要保持静默的时间
+     */
+    private Duration quietPeriod = Duration.ofMillis(300);
+
+    /**
+     * 最长等待时间，超过后直接截图
+     */
+    private Duration ceiling = Duration.ofSeconds(8);
+
+    /**
+     * 创建页面就绪检测器
+     *
+     * @return 页面就绪检测器
+     */
+    @Bean
+    public PageReadinessDetector pageReadinessDetector() {
+        return new PageReadinessDetector(quietPeriod.toMillis(), ceiling.toMillis());
+    }
+}
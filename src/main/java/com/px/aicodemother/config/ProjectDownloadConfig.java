@@ -0,0 +1,42 @@
+package com.px.aicodemother.config;
+
+import com.px.aicodemother.manager.ProjectArchiveCache;
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * packageName: com.px.aicodemother.config
+ *
+ * @author: idpeng
+ * @version: 1.0
+ * @className: ProjectDownloadConfig
+ * @date: 2026/10/18 18:15
+ * @description: 项目代码下载配置
+ */
+@Data
+@Configuration
+@ConfigurationProperties(prefix = "download.archive-cache")
+public class ProjectDownloadConfig {
+
+    /**
+     * 压缩包缓存目录
+     */
+    private String cacheDir = System.getProperty("user.dir") + "/tmp/download_cache";
+
+    /**
+     * 最多保留的压缩包数
+     */
+    private Integer maxEntries = 100;
+
+    /**
+     * 创建项目下载 ZIP 缓存
+     *
+     * @return 项目下载 ZIP 缓存
+     */
+    @Bean
+    public ProjectArchiveCache projectArchiveCache() {
+        return new ProjectArchiveCache(cacheDir, maxEntries);
+    }
+}
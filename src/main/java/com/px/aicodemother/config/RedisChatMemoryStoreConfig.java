@@ -1,11 +1,15 @@
 package com.px.aicodemother.config;
 
-import cn.hutool.core.util.StrUtil;
-import dev.langchain4j.community.store.memory.chat.redis.RedisChatMemoryStore;
+import com.px.aicodemother.ai.memory.CompactRedisChatMemoryStore;
 import lombok.Data;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.serializer.RedisSerializer;
+
+import java.time.Duration;
 
 /**
  * packageName: com.px.aicodemother.config
@@ -18,27 +22,41 @@ import org.springframework.context.annotation.Configuration;
  */
 @Data
 @Configuration
-@ConfigurationProperties(prefix = "spring.data.redis")
+@ConfigurationProperties(prefix = "chat-memory.store")
 public class RedisChatMemoryStoreConfig {
 
-    private String host;
+    /**
+     * Redis 键前缀
+     */
+    private String keyPrefix = "chat_memory:";
+
+    /**
+     * 记忆过期时间，每次写入顺延
+     */
+    private Duration ttl = Duration.ofHours(1);
 
-    private int port;
+    /**
+     * 消息 JSON 达到该字节数才压缩
+     */
+    private Integer compressThreshold = 512;
 
-    private String password;
+    /**
+     * 本地最多缓存的记忆数
+     */
+    private Long localMaxSize = 2000L;
 
-    private long ttl;
+    /**
+     * 本地副本在无访问后保留的时间
+     */
+    private Duration localTtl = Duration.ofMinutes(10);
 
     @Bean
-    public RedisChatMemoryStore redisChatMemoryStore() {
-        RedisChatMemoryStore.Builder builder = RedisChatMemoryStore.builder()
-                .host(host)
-                .port(port)
-                .password(password)
-                .ttl(ttl);
-        if (StrUtil.isNotBlank(password)) {
-            builder.user("default");
-        }
-        return builder.build();
+    public CompactRedisChatMemoryStore redisChatMemoryStore(RedisConnectionFactory redisConnectionFactory) {
+        RedisTemplate<String, byte[]> redisTemplate = new RedisTemplate<>();
+        redisTemplate.setConnectionFactory(redisConnectionFactory);
+        redisTemplate.setKeySerializer(RedisSerializer.string());
+        redisTemplate.setValueSerializer(RedisSerializer.byteArray());
+        redisTemplate.afterPropertiesSet();
+        return new CompactRedisChatMemoryStore(redisTemplate, keyPrefix, ttl, compressThreshold, localMaxSize, localTtl);
     }
 }
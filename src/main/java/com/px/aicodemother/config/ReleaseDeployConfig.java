@@ -0,0 +1,38 @@
+package com.px.aicodemother.config;
+
+import com.px.aicodemother.constants.AppConstant;
+import com.px.aicodemother.core.deploy.ReleaseDeployer;
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * packageName: com.px.aicodemother.config
+ *
+ * @author: idpeng
+ * @version: 1.0
+ * @className: ReleaseDeployConfig
+ * @date: 2026/10/18 17:35
+ * @description: 版本化部署配置
+ */
+@Data
+@Configuration
+@ConfigurationProperties(prefix = "deploy")
+public class ReleaseDeployConfig {
+
+    /**
+     * 每个站点保留的版本数（包含当前版本），超出的旧版本在部署后删除
+     */
+    private Integer keepReleases = 5;
+
+    /**
+     * 创建版本化部署器
+     *
+     * @return 版本化部署器
+     */
+    @Bean
+    public ReleaseDeployer releaseDeployer() {
+        return new ReleaseDeployer(AppConstant.CODE_DEPLOY_ROOT_DIR, keepReleases);
+    }
+}
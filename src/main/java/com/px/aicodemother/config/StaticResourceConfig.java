@@ -0,0 +1,141 @@
+package com.px.aicodemother.config;
+
+import com.px.aicodemother.manager.StaticFileCache;
+import com.px.aicodemother.manager.StaticFileDelivery;
+import jakarta.servlet.Filter;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.Data;
+import org.apache.catalina.connector.Connector;
+import org.apache.coyote.AbstractProtocol;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.web.embedded.tomcat.TomcatServletWebServerFactory;
+import org.springframework.boot.web.server.WebServerFactoryCustomizer;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+
+/**
+ * packageName: com.px.aicodemother.config
+ *
+ * @author: idpeng
+ * @version: 1.0
+ * @className: StaticResourceConfig
+ * @date: 2026/10/18 16:25
+ * @description: 静态资源访问配置（预览与部署站点）
+ */
+@Data
+@Configuration
+@ConfigurationProperties(prefix = "static-resource")
+public class StaticResourceConfig {
+
+    /**
+     * 是否启用热点文件内存缓存
+     */
+    private Boolean cacheEnabled = true;
+
+    /**
+     * 可缓存的单个文件大小上限，更大的文件直接从磁盘输出
+     */
+    private DataSize cacheMaxFileSize = DataSize.ofKilobytes(512);
+
+    /**
+     * 缓存总大小上限
+     */
+    private DataSize cacheMaxTotalSize = DataSize.ofMegabytes(64);
+
+    /**
+     * 是否优先返回预压缩的 .br / .gz 同名文件
+     */
+    private Boolean precompressed = true;
+
+    /**
+     * 带内容哈希文件名的构建产物（如 assets/index-3f9a1c2b.js）的缓存时间，其余文件每次协商缓存
+     */
+    private Duration hashedAssetMaxAge = Duration.ofDays(365);
+
+    /**
+     * 不在内存缓存中的文件达到该大小时交给 Tomcat sendfile 零拷贝输出
+     */
+    private DataSize sendfileMinSize = DataSize.ofKilobytes(48);
+
+    /**
+     * 静态资源独立端口，配置后额外开启一个只提供 /static、/deployed 的 Tomcat 连接器，
+     * 使用独立的线程池，避免与 SSE 代码生成流争用 Servlet 线程；为空时不开启
+     */
+    private Integer port;
+
+    /**
+     * 静态资源独立端口的最大线程数
+     */
+    private Integer maxThreads = 50;
+
+    /**
+     * 创建静态资源热点文件缓存
+     *
+     * @return 静态资源热点文件缓存
+     */
+    @Bean
+    public StaticFileCache staticFileCache() {
+        return new StaticFileCache(cacheEnabled, cacheMaxFileSize.toBytes(), cacheMaxTotalSize.toBytes());
+    }
+
+    /**
+     * 创建静态文件输出器
+     *
+     * @param staticFileCache 静态资源热点文件缓存
+     * @return 静态文件输出器
+     */
+    @Bean
+    public StaticFileDelivery staticFileDelivery(StaticFileCache staticFileCache) {
+        return new StaticFileDelivery(staticFileCache, precompressed, hashedAssetMaxAge, sendfileMinSize.toBytes());
+    }
+
+    /**
+     * 为静态资源增加独立的 Tomcat 连接器
+     *
+     * @return Tomcat 定制器
+     */
+    @Bean
+    @ConditionalOnProperty(prefix = "static-resource", name = "port")
+    public WebServerFactoryCustomizer<TomcatServletWebServerFactory> staticResourceConnectorCustomizer() {
+        return factory -> {
+            Connector connector = new Connector(TomcatServletWebServerFactory.DEFAULT_PROTOCOL);
+            connector.setPort(port);
+            // 每个连接器有自己的线程池，NIO 连接器默认开启 sendfile
+            if (connector.getProtocolHandler() instanceof AbstractProtocol<?> protocol) {
+                protocol.setMaxThreads(maxThreads);
+            }
+            factory.addAdditionalTomcatConnectors(connector);
+        };
+    }
+
+    /**
+     * 静态资源独立端口只允许访问静态资源路径，其他请求返回 404
+     *
+     * @return 过滤器注册
+     */
+    @Bean
+    @ConditionalOnProperty(prefix = "static-resource", name = "port")
+    public FilterRegistrationBean<Filter> staticResourcePortFilter() {
+        Filter filter = (request, response, chain) -> {
+            HttpServletRequest httpRequest = (HttpServletRequest) request;
+            if (httpRequest.getLocalPort() == port) {
+                String path = httpRequest.getRequestURI().substring(httpRequest.getContextPath().length());
+                if (!path.startsWith("/static/") && !path.startsWith("/deployed/")) {
+                    ((HttpServletResponse) response).sendError(HttpServletResponse.SC_NOT_FOUND);
+                    return;
+                }
+            }
+            chain.doFilter(request, response);
+        };
+        FilterRegistrationBean<Filter> registration = new FilterRegistrationBean<>(filter);
+        registration.addUrlPatterns("/*");
+        registration.setOrder(Integer.MIN_VALUE);
+        return registration;
+    }
+}
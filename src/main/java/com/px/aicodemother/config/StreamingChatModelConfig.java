@@ -1,7 +1,9 @@
 package com.px.aicodemother.config;
 
+import com.px.aicodemother.ai.http.LlmHttpClientPool;
 import dev.langchain4j.model.chat.StreamingChatModel;
 import dev.langchain4j.model.openai.OpenAiStreamingChatModel;
+import jakarta.annotation.Resource;
 import lombok.Data;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 import org.springframework.context.annotation.Bean;
@@ -22,6 +24,9 @@ import org.springframework.context.annotation.Scope;
 @Data
 public class StreamingChatModelConfig {
 
+    @Resource
+    private LlmHttpClientPool llmHttpClientPool;
+
     private String baseUrl;
 
     private String apiKey;
@@ -46,6 +51,8 @@ public class StreamingChatModelConfig {
         return OpenAiStreamingChatModel.builder()
                 .apiKey(apiKey)
                 .baseUrl(baseUrl)
+                // 复用同一 baseUrl 的共享连接池，每个应用只持有独立的模型对象
+                .httpClientBuilder(llmHttpClientPool.builderFor(baseUrl))
                 .modelName(modelName)
                 .maxTokens(maxTokens)
                 .temperature(temperature)
@@ -0,0 +1,111 @@
+package com.px.aicodemother.config;
+
+import com.px.aicodemother.manager.cache.CacheValueCodec;
+import com.px.aicodemother.manager.cache.TwoLevelCacheManager;
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.data.redis.serializer.RedisSerializer;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * packageName: com.px.aicodemother.config
+ *
+ * @author: idpeng
+ * @version: 1.0
+ * @className: TwoLevelCacheConfig
+ * @date: 2026/10/18 18:55
+ * @description: 二级缓存（Caffeine + Redis）配置，替代原 Redis 缓存管理器
+ */
+@Data
+@Configuration
+@ConfigurationProperties(prefix = "cache.two-level")
+public class TwoLevelCacheConfig {
+
+    /**
+     * Redis 键前缀，与原 Redis 缓存（JDK 序列化）的键区分开
+     */
+    private String keyPrefix = "cache:";
+
+    /**
+     * 失效通知频道
+     */
+    private String channel = "cache:invalidation";
+
+    /**
+     * 默认本地缓存过期时间，应明显短于 Redis 过期时间
+     */
+    private Duration localTtl = Duration.ofSeconds(30);
+
+    /**
+     * 默认本地缓存最大条目数
+     */
+    private Long localMaxSize = 1000L;
+
+    /**
+     * 默认 Redis 缓存过期时间
+     */
+    private Duration remoteTtl = Duration.ofMinutes(30);
+
+    /**
+     * 按缓存名覆盖的配置，未设置的项使用默认值
+     */
+    private Map<String, CacheProperties> caches = new HashMap<>();
+
+    @Data
+    public static class CacheProperties {
+
+        private Duration localTtl;
+
+        private Long localMaxSize;
+
+        private Duration remoteTtl;
+    }
+
+    /**
+     * 配置并创建二级缓存管理器
+     *
+     * @param redisConnectionFactory Redis 连接工厂
+     * @return 二级缓存管理器
+     */
+    @Bean
+    public TwoLevelCacheManager cacheManager(RedisConnectionFactory redisConnectionFactory) {
+        RedisTemplate<String, byte[]> redisTemplate = new RedisTemplate<>();
+        redisTemplate.setConnectionFactory(redisConnectionFactory);
+        redisTemplate.setKeySerializer(RedisSerializer.string());
+        redisTemplate.setValueSerializer(RedisSerializer.byteArray());
+        redisTemplate.afterPropertiesSet();
+
+        TwoLevelCacheManager.CacheSpec defaultSpec = new TwoLevelCacheManager.CacheSpec(localTtl, localMaxSize, remoteTtl);
+        Map<String, TwoLevelCacheManager.CacheSpec> specs = new HashMap<>();
+        caches.forEach((name, properties) -> specs.put(name, new TwoLevelCacheManager.CacheSpec(
+                properties.getLocalTtl() != null ? properties.getLocalTtl() : localTtl,
+                properties.getLocalMaxSize() != null ? properties.getLocalMaxSize() : localMaxSize,
+                properties.getRemoteTtl() != null ? properties.getRemoteTtl() : remoteTtl)));
+        return new TwoLevelCacheManager(redisTemplate, new CacheValueCodec(), keyPrefix, channel, defaultSpec, specs);
+    }
+
+    /**
+     * 订阅缓存失效通知
+     *
+     * @param redisConnectionFactory Redis 连接工厂
+     * @param cacheManager           二级缓存管理器
+     * @return 消息监听容器
+     */
+    @Bean
+    public RedisMessageListenerContainer cacheInvalidationListenerContainer(RedisConnectionFactory redisConnectionFactory,
+                                                                            TwoLevelCacheManager cacheManager) {
+        RedisMessageListenerContainer container = new RedisMessageListenerContainer();
+        container.setConnectionFactory(redisConnectionFactory);
+        container.addMessageListener(cacheManager, new ChannelTopic(cacheManager.getChannel()));
+        return container;
+    }
+}
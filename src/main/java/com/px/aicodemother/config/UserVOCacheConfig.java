@@ -0,0 +1,46 @@
+package com.px.aicodemother.config;
+
+import com.px.aicodemother.manager.UserVOLoader;
+import com.px.aicodemother.service.UserService;
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+/**
+ * packageName: com.px.aicodemother.config
+ *
+ * @author: idpeng
+ * @version: 1.0
+ * @className: UserVOCacheConfig
+ * @date: 2026/10/18 19:45
+ * @description: 用户视图对象缓存配置
+ */
+@Data
+@Configuration
+@ConfigurationProperties(prefix = "user.vo-cache")
+public class UserVOCacheConfig {
+
+    /**
+     * 本地缓存过期时间，用户信息更新时会主动清除
+     */
+    private Duration ttl = Duration.ofMinutes(10);
+
+    /**
+     * 本地缓存最大条目数
+     */
+    private Long maxSize = 10000L;
+
+    /**
+     * 创建用户视图对象批量加载器
+     *
+     * @param userService 用户服务
+     * @return 用户视图对象批量加载器
+     */
+    @Bean
+    public UserVOLoader userVOLoader(UserService userService) {
+        return new UserVOLoader(userIds -> userService.getUserVOList(userService.listByIds(userIds)), ttl, maxSize);
+    }
+}
@@ -0,0 +1,55 @@
+package com.px.aicodemother.config;
+
+import com.px.aicodemother.core.builder.VueBuildScheduler;
+import com.px.aicodemother.core.builder.VueProjectBuilder;
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+/**
+ * packageName: com.px.aicodemother.config
+ *
+ * @author: idpeng
+ * @version: 1.0
+ * @className: VueBuildSchedulerConfig
+ * @date: 2026/10/18 13:50
+ * @description: Vue 项目构建调度器配置
+ */
+@Data
+@Configuration
+@ConfigurationProperties(prefix = "vue-build.scheduler")
+public class VueBuildSchedulerConfig {
+
+    /**
+     * 最大并发构建数，小于等于 0 时按 CPU 核数的一半计算（至少 1）
+     */
+    private Integer maxConcurrentBuilds = 0;
+
+    /**
+     * 最大排队构建数
+     */
+    private Integer maxQueuedBuilds = 100;
+
+    /**
+     * 构建状态保留时间
+     */
+    private Duration statusRetention = Duration.ofHours(24);
+
+    /**
+     * 创建 Vue 项目构建调度器
+     *
+     * @param vueProjectBuilder Vue 项目构建器
+     * @return Vue 项目构建调度器
+     */
+    @Bean(destroyMethod = "shutdown")
+    public VueBuildScheduler vueBuildScheduler(VueProjectBuilder vueProjectBuilder) {
+        // npm 构建是 CPU 密集型任务，并发数与核数挂钩
+        int concurrency = maxConcurrentBuilds > 0
+                ? maxConcurrentBuilds
+                : Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+        return new VueBuildScheduler(vueProjectBuilder, concurrency, maxQueuedBuilds, statusRetention);
+    }
+}
@@ -0,0 +1,66 @@
+package com.px.aicodemother.config;
+
+import com.px.aicodemother.core.builder.NodeModulesCache;
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+/**
+ * packageName: com.px.aicodemother.config
+ *
+ * @author: idpeng
+ * @version: 1.0
+ * @className: VueDependencyCacheConfig
+ * @date: 2026/10/18 14:15
+ * @description: Vue 工程共享依赖缓存配置
+ */
+@Data
+@Configuration
+@ConfigurationProperties(prefix = "vue-build.dependency-cache")
+public class VueDependencyCacheConfig {
+
+    /**
+     * 是否启用共享依赖缓存，关闭时每个工程单独执行 npm install
+     */
+    private Boolean enabled = true;
+
+    /**
+     * 缓存根目录
+     */
+    private String cacheDir = System.getProperty("user.dir") + "/tmp/vue_dependency_cache";
+
+    /**
+     * npm 下载缓存目录，同时作为离线镜像；为空时放在缓存根目录下。
+     * 无网络的机器可预先拷贝一份已填充的目录
+     */
+    private String npmCacheDir;
+
+    /**
+     * node_modules 挂载方式
+     */
+    private NodeModulesCache.LinkMode linkMode = NodeModulesCache.LinkMode.SYMLINK;
+
+    /**
+     * 最多保留的依赖组数
+     */
+    private Integer maxEntries = 20;
+
+    /**
+     * 单次安装超时时间
+     */
+    private Duration installTimeout = Duration.ofMinutes(5);
+
+    /**
+     * 创建共享依赖缓存
+     *
+     * @return 共享依赖缓存
+     */
+    @Bean
+    public NodeModulesCache nodeModulesCache() {
+        return new NodeModulesCache(enabled, cacheDir, npmCacheDir, linkMode, maxEntries,
+                (int) installTimeout.toSeconds());
+    }
+}
@@ -21,6 +21,11 @@ public interface AppConstant {
      */
     Integer DEFAULT_APP_PRIORITY = 0;
 
+    /**
+     * 精选应用分页缓存名称
+     */
+    String GOOD_APP_PAGE_CACHE = "good_app_page";
+
     /**
      * 应用生成目录
      */
@@ -5,12 +5,20 @@ import cn.hutool.core.util.StrUtil;
 import cn.hutool.json.JSONUtil;
 import com.mybatisflex.core.paginate.Page;
 import com.mybatisflex.core.query.QueryWrapper;
+import com.px.aicodemother.ai.model.message.AiResponseMessage;
+import com.px.aicodemother.ai.model.message.BuildStatusMessage;
+import com.px.aicodemother.ai.model.message.QueueStatusMessage;
+import com.px.aicodemother.ai.model.message.StreamMessage;
+import com.px.aicodemother.ai.model.message.StreamMessageTypeEnum;
 import com.px.aicodemother.annotation.AuthCheck;
 import com.px.aicodemother.common.BaseResponse;
 import com.px.aicodemother.common.DeleteRequest;
 import com.px.aicodemother.common.ResultUtils;
 import com.px.aicodemother.constants.AppConstant;
 import com.px.aicodemother.constants.UserConstant;
+import com.px.aicodemother.core.builder.VueBuildScheduler;
+import com.px.aicodemother.core.deploy.DeployRelease;
+import com.px.aicodemother.event.AppChangeEvent;
 import com.px.aicodemother.exception.BusinessException;
 import com.px.aicodemother.exception.ErrorCode;
 import com.px.aicodemother.exception.ThrowUtils;
@@ -18,6 +26,7 @@ import com.px.aicodemother.model.dto.app.*;
 import com.px.aicodemother.model.entity.App;
 import com.px.aicodemother.model.entity.User;
 import com.px.aicodemother.model.vo.app.AppVO;
+import com.px.aicodemother.model.vo.app.VueBuildStatusVO;
 import com.px.aicodemother.service.AppService;
 import com.px.aicodemother.service.ProjectDownloadService;
 import com.px.aicodemother.service.UserService;
@@ -28,6 +37,7 @@ import jakarta.annotation.Resource;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import org.springframework.cache.annotation.Cacheable;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.http.MediaType;
 import org.springframework.http.codec.ServerSentEvent;
 import org.springframework.web.bind.annotation.*;
@@ -58,6 +68,12 @@ public class AppController {
     @Resource
     private ProjectDownloadService projectDownloadService;
 
+    @Resource
+    private VueBuildScheduler vueBuildScheduler;
+
+    @Resource
+    private ApplicationEventPublisher eventPublisher;
+
     /**
      * 添加应用
      *
@@ -116,6 +132,7 @@ public class AppController {
                 .build();
         boolean result = appService.updateById(app);
         ThrowUtils.throwIf(!result, ErrorCode.OPERATION_ERROR);
+        eventPublisher.publishEvent(new AppChangeEvent(id, AppChangeEvent.Type.INFO_UPDATED, isGoodApp(oldApp)));
         return ResultUtils.success(true);
     }
 
@@ -152,6 +169,7 @@ public class AppController {
         // 执行删除操作
         boolean result = appService.removeById(id);
         ThrowUtils.throwIf(!result, ErrorCode.OPERATION_ERROR);
+        eventPublisher.publishEvent(new AppChangeEvent(id, AppChangeEvent.Type.DELETED, isGoodApp(oldApp)));
         return ResultUtils.success(true);
     }
 
@@ -181,11 +199,6 @@ public class AppController {
      * @return 分页的应用VO列表
      */
     @PostMapping("/my/list/page/vo")
-    @Cacheable(
-            value = "good_app_page",
-            key = "T(com.px.aicodemother.utils.CacheKeyUtils).generateKey(#appQueryRequest)",
-            condition = "#appQueryRequest.pageNum <= 10"
-    )
     @Operation(summary = "获取用户应用列表（分页）", description = "获取用户应用列表（分页）",
             parameters = {
                 @Parameter(name = "appQueryRequest", description = "应用查询请求参数"),
@@ -221,6 +234,12 @@ public class AppController {
      * @return 分页的精选应用VO列表
      */
     @PostMapping("/good/list/page/vo")
+    @Cacheable(
+            value = AppConstant.GOOD_APP_PAGE_CACHE,
+            key = "T(com.px.aicodemother.utils.CacheKeyUtils).generateKey(#appQueryRequest)",
+            condition = "#appQueryRequest.pageNum <= 10",
+            sync = true
+    )
     @Operation(summary = "获取精选应用列表（分页）", description = "获取精选应用列表（分页）",
             parameters = {
                 @Parameter(name = "appQueryRequest", description = "精选应用查询请求参数"),
@@ -266,6 +285,9 @@ public class AppController {
         App oldApp = appService.getById(id);
         ThrowUtils.throwIf(oldApp == null, ErrorCode.NOT_FOUND_ERROR);
         boolean result = appService.removeById(id);
+        if (result) {
+            eventPublisher.publishEvent(new AppChangeEvent(id, AppChangeEvent.Type.DELETED, isGoodApp(oldApp)));
+        }
         return ResultUtils.success(result);
     }
 
@@ -302,6 +324,9 @@ public class AppController {
         // 执行更新操作
         boolean result = appService.updateById(app);
         ThrowUtils.throwIf(!result, ErrorCode.OPERATION_ERROR);
+        // 设为精选或取消精选都会改变精选列表
+        boolean featured = isGoodApp(oldApp) || AppConstant.GOOD_APP_PRIORITY.equals(app.getPriority());
+        eventPublisher.publishEvent(new AppChangeEvent(id, AppChangeEvent.Type.INFO_UPDATED, featured));
         return ResultUtils.success(true);
     }
 
@@ -382,18 +407,32 @@ public class AppController {
         // 获取登录用户
         User loginUser = userService.getLoginUser(request);
         // 调用服务层方法生成代码
-        Flux<String> contentFlux = appService.chatToGenCode(appId, message, loginUser);
+        Flux<StreamMessage> contentFlux = appService.chatToGenCode(appId, message, loginUser);
 
         return contentFlux
-                .map(chunk -> {
-                    // 包装数据成json
-                            Map<String, String> wrapper = Map.of("d", chunk);
-                            String jsonData = JSONUtil.toJsonStr(wrapper);
-                            return ServerSentEvent.<String>builder()
-                                    .data(jsonData)
-                                    .build();
-                        }
-                )
+                .map(streamMessage -> {
+                    // Vue 工程构建状态以独立事件推送，前端无需等待构建即可展示生成结果
+                    if (streamMessage instanceof BuildStatusMessage buildStatusMessage) {
+                        return ServerSentEvent.<String>builder()
+                                .event(StreamMessageTypeEnum.BUILD_STATUS.getValue())
+                                .data(JSONUtil.toJsonStr(buildStatusMessage.getBuildStatus()))
+                                .build();
+                    }
+                    // 并发生成数达到上限时推送排队位置
+                    if (streamMessage instanceof QueueStatusMessage queueStatusMessage) {
+                        return ServerSentEvent.<String>builder()
+                                .event(StreamMessageTypeEnum.QUEUE_STATUS.getValue())
+                                .data(JSONUtil.toJsonStr(Map.of("position", queueStatusMessage.getPosition())))
+                                .build();
+                    }
+                    // 包装数据成json（整条生成链路中唯一的 JSON 序列化位置）
+                    String chunk = ((AiResponseMessage) streamMessage).getData();
+                    Map<String, String> wrapper = Map.of("d", chunk);
+                    String jsonData = JSONUtil.toJsonStr(wrapper);
+                    return ServerSentEvent.<String>builder()
+                            .data(jsonData)
+                            .build();
+                })
                 .concatWith(Mono.just(
                         // 发送一个done事件，表示生成完成
                         ServerSentEvent.<String>builder()
@@ -405,6 +444,30 @@ public class AppController {
 
 
 
+    /**
+     * 查询应用最近一次 Vue 工程构建状态
+     *
+     * @param appId   应用ID
+     * @param request HTTP请求对象，用于获取当前登录用户信息
+     * @return 构建状态，未提交过构建时返回 null
+     */
+    @GetMapping("/build/status")
+    @Operation(summary = "查询构建状态", description = "查询应用最近一次 Vue 工程构建状态",
+            parameters = {
+                    @Parameter(name = "appId", description = "应用ID"),
+                    @Parameter(name = "request", description = "请求")})
+    public BaseResponse<VueBuildStatusVO> getBuildStatus(@RequestParam Long appId, HttpServletRequest request) {
+        ThrowUtils.throwIf(appId == null || appId <= 0, ErrorCode.PARAMS_ERROR, "appId错误");
+        App app = appService.getById(appId);
+        ThrowUtils.throwIf(app == null, ErrorCode.NOT_FOUND_ERROR, "应用不存在");
+        // 仅本人或管理员可查询
+        User loginUser = userService.getLoginUser(request);
+        if (!app.getUserId().equals(loginUser.getId()) && !UserConstant.ADMIN_ROLE.equals(loginUser.getUserRole())) {
+            throw new BusinessException(ErrorCode.NO_AUTH_ERROR);
+        }
+        return ResultUtils.success(vueBuildScheduler.getStatus(appId));
+    }
+
     /**
      * 部署应用程序
      *
@@ -428,10 +491,48 @@ public class AppController {
         User loginUser = userService.getLoginUser(request);
 
         // 调用服务执行应用部署
-        String deployUrl = appService.deployApp(appId, loginUser);
+        boolean forceRebuild = Boolean.TRUE.equals(appDeployRequest.getForceRebuild());
+        String deployUrl = appService.deployApp(appId, loginUser, forceRebuild);
+        return ResultUtils.success(deployUrl);
+    }
+
+    /**
+     * 回滚应用部署版本
+     *
+     * @param rollbackRequest 回滚请求参数，包含应用ID和目标版本
+     * @param request         HTTP请求对象，用于获取当前登录用户信息
+     * @return 应用访问地址
+     */
+    @PostMapping("/deploy/rollback")
+    @Operation(summary = "回滚部署", description = "将应用切换到保留的某个部署版本",
+            parameters = {
+                    @Parameter(name = "rollbackRequest", description = "回滚请求参数"),
+                    @Parameter(name = "request", description = "请求")})
+    public BaseResponse<String> rollbackDeploy(@RequestBody AppDeployRollbackRequest rollbackRequest,
+                                               HttpServletRequest request) {
+        ThrowUtils.throwIf(rollbackRequest == null, ErrorCode.PARAMS_ERROR);
+        User loginUser = userService.getLoginUser(request);
+        String deployUrl = appService.rollbackDeploy(rollbackRequest.getAppId(), rollbackRequest.getReleaseId(), loginUser);
         return ResultUtils.success(deployUrl);
     }
 
+    /**
+     * 查询应用保留的部署版本
+     *
+     * @param appId   应用ID
+     * @param request HTTP请求对象，用于获取当前登录用户信息
+     * @return 部署版本列表，按时间倒序
+     */
+    @GetMapping("/deploy/releases")
+    @Operation(summary = "查询部署版本", description = "查询应用保留的部署版本",
+            parameters = {
+                    @Parameter(name = "appId", description = "应用ID"),
+                    @Parameter(name = "request", description = "请求")})
+    public BaseResponse<List<DeployRelease>> listDeployReleases(@RequestParam Long appId, HttpServletRequest request) {
+        User loginUser = userService.getLoginUser(request);
+        return ResultUtils.success(appService.listDeployReleases(appId, loginUser));
+    }
+
     /**
      * 下载应用代码
      *
@@ -472,7 +573,16 @@ public class AppController {
         String downloadFileName = String.valueOf(appId);
 
         // 调用通用下载服务
-        projectDownloadService.downloadProjectAsZip(sourceDirPath, downloadFileName, response);
+        projectDownloadService.downloadProjectAsZip(sourceDirPath, downloadFileName, request, response);
     }
 
+    /**
+     * 是否为精选应用
+     *
+     * @param app 应用
+     * @return 优先级为精选优先级时返回true
+     */
+    private boolean isGoodApp(App app) {
+        return AppConstant.GOOD_APP_PRIORITY.equals(app.getPriority());
+    }
 }
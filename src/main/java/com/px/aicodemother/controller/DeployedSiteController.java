@@ -0,0 +1,57 @@
+package com.px.aicodemother.controller;
+
+import com.px.aicodemother.constants.AppConstant;
+import com.px.aicodemother.manager.StaticFileDelivery;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.annotation.Resource;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+/**
+ * packageName: com.px.aicodemother.controller
+ *
+ * @author: idpeng
+ * @version: 1.0
+ * @className: DeployedSiteController
+ * @date: 2026/10/18 17:00
+ * @description: 已部署站点访问控制器，与预览使用相同的路径规则和输出方式
+ */
+@RestController
+@RequestMapping("/deployed")
+@Tag(name = "已部署站点", description = "已部署站点访问接口")
+public class DeployedSiteController {
+
+    private static final Path DEPLOY_ROOT = Path.of(AppConstant.CODE_DEPLOY_ROOT_DIR).toAbsolutePath().normalize();
+
+    @Resource
+    private StaticFileDelivery staticFileDelivery;
+
+    /**
+     * 访问已部署站点的文件，支持目录重定向和默认页面返回
+     *
+     * @param deployKey 部署密钥
+     * @param request   HTTP请求对象
+     * @param response  HTTP响应对象，文件内容直接写入
+     */
+    @GetMapping("/{deployKey}/**")
+    @Operation(summary = "已部署站点访问接口", description = "访问已部署站点的文件，支持目录重定向",
+            parameters = @Parameter(name = "deployKey", description = "部署密钥", required = true))
+    public void serveDeployedSite(
+            @PathVariable String deployKey,
+            HttpServletRequest request,
+            HttpServletResponse response) throws IOException {
+        String resourcePath = (String) request.getAttribute(HandlerMapping.PATH_WITHIN_HANDLER_MAPPING_ATTRIBUTE);
+        resourcePath = resourcePath.substring(("/deployed/" + deployKey).length());
+        staticFileDelivery.serve(DEPLOY_ROOT, deployKey, resourcePath, request, response);
+    }
+}
@@ -0,0 +1,318 @@
+package com.px.aicodemother.controller;
+
+import com.px.aicodemother.ai.concurrency.LlmConcurrencyLimiter;
+import com.px.aicodemother.ai.concurrency.LlmConcurrencyStats;
+import com.px.aicodemother.ai.http.LlmHttpClientPool;
+import com.px.aicodemother.ai.http.LlmHttpClientPoolStats;
+import com.px.aicodemother.ai.memory.CompactChatMemoryStoreStats;
+import com.px.aicodemother.ai.memory.CompactRedisChatMemoryStore;
+import com.px.aicodemother.ai.telemetry.LlmStreamTelemetry;
+import com.px.aicodemother.ai.telemetry.LlmStreamTelemetryStats;
+import com.px.aicodemother.annotation.AuthCheck;
+import com.px.aicodemother.common.BaseResponse;
+import com.px.aicodemother.common.ResultUtils;
+import com.px.aicodemother.constants.UserConstant;
+import com.px.aicodemother.core.builder.NodeModulesCache;
+import com.px.aicodemother.core.builder.NodeModulesCacheStats;
+import com.px.aicodemother.core.builder.VueBuildScheduler;
+import com.px.aicodemother.core.builder.VueBuildSchedulerStats;
+import com.px.aicodemother.core.deploy.ReleaseDeployer;
+import com.px.aicodemother.core.deploy.ReleaseDeployerStats;
+import com.px.aicodemother.manager.BrowserPoolManager;
+import com.px.aicodemother.manager.BrowserPoolStats;
+import com.px.aicodemother.manager.ChatHistoryWriteBehindManager;
+import com.px.aicodemother.manager.ChatHistoryWriteBehindStats;
+import com.px.aicodemother.manager.ChatMemoryHydrator;
+import com.px.aicodemother.manager.ChatMemoryHydratorStats;
+import com.px.aicodemother.manager.LoginUserCache;
+import com.px.aicodemother.manager.LoginUserCacheStats;
+import com.px.aicodemother.manager.ProjectArchiveCache;
+import com.px.aicodemother.manager.ProjectArchiveCacheStats;
+import com.px.aicodemother.manager.StaticFileCache;
+import com.px.aicodemother.manager.StaticFileCacheStats;
+import com.px.aicodemother.manager.StaticFileDelivery;
+import com.px.aicodemother.manager.StaticFileDeliveryStats;
+import com.px.aicodemother.manager.UserVOLoader;
+import com.px.aicodemother.manager.UserVOLoaderStats;
+import com.px.aicodemother.manager.cache.TwoLevelCacheManager;
+import com.px.aicodemother.manager.cache.TwoLevelCacheStats;
+import com.px.aicodemother.ratelimiter.limiter.RateLimiterStats;
+import com.px.aicodemother.ratelimiter.limiter.RedisTokenBucketRateLimiter;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.annotation.Resource;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+/**
+ * packageName: com.px.aicodemother.controller
+ *
+ * @author: idpeng
+ * @version: 1.0
+ * @className: MonitorController
+ * @date: 2026/10/18 10:41
+ * @description: 运行监控接口（仅管理员）
+ */
+@RestController
+@RequestMapping("/monitor")
+@Tag(name = "运行监控", description = "运行监控接口")
+public class MonitorController {
+
+    @Resource
+    private LlmHttpClientPool llmHttpClientPool;
+
+    @Resource
+    private ChatHistoryWriteBehindManager chatHistoryWriteBehindManager;
+
+    @Resource
+    private VueBuildScheduler vueBuildScheduler;
+
+    @Resource
+    private NodeModulesCache nodeModulesCache;
+
+    @Resource
+    private BrowserPoolManager browserPoolManager;
+
+    @Resource
+    private StaticFileCache staticFileCache;
+
+    @Resource
+    private StaticFileDelivery staticFileDelivery;
+
+    @Resource
+    private ReleaseDeployer releaseDeployer;
+
+    @Resource
+    private ProjectArchiveCache projectArchiveCache;
+
+    @Resource
+    private TwoLevelCacheManager twoLevelCacheManager;
+
+    @Resource
+    private UserVOLoader userVOLoader;
+
+    @Resource
+    private LoginUserCache loginUserCache;
+
+    @Resource
+    private RedisTokenBucketRateLimiter redisTokenBucketRateLimiter;
+
+    @Resource
+    private LlmConcurrencyLimiter llmConcurrencyLimiter;
+
+    @Resource
+    private LlmStreamTelemetry llmStreamTelemetry;
+
+    @Resource
+    private ChatMemoryHydrator chatMemoryHydrator;
+
+    @Resource
+    private CompactRedisChatMemoryStore redisChatMemoryStore;
+
+    /**
+     * 获取模型 HTTP 连接池统计信息
+     *
+     * @return 每个 baseUrl 的连接池统计
+     */
+    @GetMapping("/llm/pool")
+    @AuthCheck(mustRole = UserConstant.ADMIN_ROLE)
+    @Operation(summary = "模型连接池统计", description = "获取模型 HTTP 连接池统计信息（管理员）")
+    public BaseResponse<List<LlmHttpClientPoolStats>> getLlmHttpClientPoolStats() {
+        return ResultUtils.success(llmHttpClientPool.getStats());
+    }
+
+    /**
+     * 获取对话历史异步批量写入统计信息
+     *
+     * @return 统计信息
+     */
+    @GetMapping("/chat-history/write-behind")
+    @AuthCheck(mustRole = UserConstant.ADMIN_ROLE)
+    @Operation(summary = "对话历史写入统计", description = "获取对话历史异步批量写入统计信息（管理员）")
+    public BaseResponse<ChatHistoryWriteBehindStats> getChatHistoryWriteBehindStats() {
+        return ResultUtils.success(chatHistoryWriteBehindManager.getStats());
+    }
+
+    /**
+     * 获取 Vue 工程构建调度统计信息
+     *
+     * @return 统计信息
+     */
+    @GetMapping("/vue/build")
+    @AuthCheck(mustRole = UserConstant.ADMIN_ROLE)
+    @Operation(summary = "Vue 构建调度统计", description = "获取 Vue 工程构建调度统计信息（管理员）")
+    public BaseResponse<VueBuildSchedulerStats> getVueBuildSchedulerStats() {
+        return ResultUtils.success(vueBuildScheduler.getStats());
+    }
+
+    /**
+     * 获取 Vue 工程共享依赖缓存统计信息
+     *
+     * @return 统计信息
+     */
+    @GetMapping("/vue/dependency-cache")
+    @AuthCheck(mustRole = UserConstant.ADMIN_ROLE)
+    @Operation(summary = "Vue 依赖缓存统计", description = "获取 Vue 工程共享依赖缓存统计信息（管理员）")
+    public BaseResponse<NodeModulesCacheStats> getNodeModulesCacheStats() {
+        return ResultUtils.success(nodeModulesCache.getStats());
+    }
+
+    /**
+     * 获取截图浏览器会话池统计信息
+     *
+     * @return 统计信息
+     */
+    @GetMapping("/screenshot/browser-pool")
+    @AuthCheck(mustRole = UserConstant.ADMIN_ROLE)
+    @Operation(summary = "截图浏览器池统计", description = "获取截图用无头浏览器会话池统计信息（管理员）")
+    public BaseResponse<BrowserPoolStats> getBrowserPoolStats() {
+        return ResultUtils.success(browserPoolManager.getStats());
+    }
+
+    /**
+     * 获取静态资源热点文件缓存统计信息
+     *
+     * @return 统计信息
+     */
+    @GetMapping("/static/cache")
+    @AuthCheck(mustRole = UserConstant.ADMIN_ROLE)
+    @Operation(summary = "静态资源缓存统计", description = "获取静态资源热点文件内存缓存统计信息（管理员）")
+    public BaseResponse<StaticFileCacheStats> getStaticFileCacheStats() {
+        return ResultUtils.success(staticFileCache.getStats());
+    }
+
+    /**
+     * 获取静态文件输出统计信息
+     *
+     * @return 统计信息
+     */
+    @GetMapping("/static/delivery")
+    @AuthCheck(mustRole = UserConstant.ADMIN_ROLE)
+    @Operation(summary = "静态文件输出统计", description = "获取静态文件内存、sendfile、transferTo 输出统计信息（管理员）")
+    public BaseResponse<StaticFileDeliveryStats> getStaticFileDeliveryStats() {
+        return ResultUtils.success(staticFileDelivery.getStats());
+    }
+
+    /**
+     * 获取版本化部署统计信息
+     *
+     * @return 统计信息
+     */
+    @GetMapping("/deploy")
+    @AuthCheck(mustRole = UserConstant.ADMIN_ROLE)
+    @Operation(summary = "部署统计", description = "获取版本化部署的复用、复制、回滚统计信息（管理员）")
+    public BaseResponse<ReleaseDeployerStats> getReleaseDeployerStats() {
+        return ResultUtils.success(releaseDeployer.getStats());
+    }
+
+    /**
+     * 获取项目下载 ZIP 缓存统计信息
+     *
+     * @return 统计信息
+     */
+    @GetMapping("/download/cache")
+    @AuthCheck(mustRole = UserConstant.ADMIN_ROLE)
+    @Operation(summary = "下载缓存统计", description = "获取项目下载 ZIP 缓存统计信息（管理员）")
+    public BaseResponse<ProjectArchiveCacheStats> getProjectArchiveCacheStats() {
+        return ResultUtils.success(projectArchiveCache.getStats());
+    }
+
+    /**
+     * 获取二级缓存统计信息
+     *
+     * @return 每个缓存的本地 / Redis 命中、加载耗时等统计
+     */
+    @GetMapping("/cache")
+    @AuthCheck(mustRole = UserConstant.ADMIN_ROLE)
+    @Operation(summary = "二级缓存统计", description = "获取各业务缓存的命中、未命中和加载耗时统计信息（管理员）")
+    public BaseResponse<List<TwoLevelCacheStats>> getTwoLevelCacheStats() {
+        return ResultUtils.success(twoLevelCacheManager.getStats());
+    }
+
+    /**
+     * 获取用户视图对象批量加载统计信息
+     *
+     * @return 请求内去重命中、缓存命中、批量查询次数等统计
+     */
+    @GetMapping("/user/vo-loader")
+    @AuthCheck(mustRole = UserConstant.ADMIN_ROLE)
+    @Operation(summary = "用户批量加载统计", description = "获取列表组装用户信息时的去重、缓存命中和批量查询统计信息（管理员）")
+    public BaseResponse<UserVOLoaderStats> getUserVOLoaderStats() {
+        return ResultUtils.success(userVOLoader.getStats());
+    }
+
+    /**
+     * 获取登录用户缓存统计信息
+     *
+     * @return 命中率、版本失效次数等统计
+     */
+    @GetMapping("/user/login-cache")
+    @AuthCheck(mustRole = UserConstant.ADMIN_ROLE)
+    @Operation(summary = "登录用户缓存统计", description = "获取鉴权时登录用户缓存的命中、版本失效统计信息（管理员）")
+    public BaseResponse<LoginUserCacheStats> getLoginUserCacheStats() {
+        return ResultUtils.success(loginUserCache.getStats());
+    }
+
+    /**
+     * 获取限流器统计信息
+     *
+     * @return 检查次数、拒绝次数、本地预取命中和 Redis 调用耗时等统计
+     */
+    @GetMapping("/rate-limit")
+    @AuthCheck(mustRole = UserConstant.ADMIN_ROLE)
+    @Operation(summary = "限流器统计", description = "获取限流检查、拒绝、本地预取命中和 Redis 脚本耗时统计信息（管理员）")
+    public BaseResponse<RateLimiterStats> getRateLimiterStats() {
+        return ResultUtils.success(redisTokenBucketRateLimiter.getStats());
+    }
+
+    /**
+     * 获取模型生成并发限制统计信息
+     *
+     * @return 各级并发上限、获得名额、排队、拒绝和等待时间等统计
+     */
+    @GetMapping("/llm/concurrency")
+    @AuthCheck(mustRole = UserConstant.ADMIN_ROLE)
+    @Operation(summary = "模型生成并发统计", description = "获取生成并发上限、排队、拒绝和租约续期统计信息（管理员）")
+    public BaseResponse<LlmConcurrencyStats> getLlmConcurrencyStats() {
+        return ResultUtils.success(llmConcurrencyLimiter.getStats());
+    }
+
+    /**
+     * 获取模型流式响应统计信息
+     *
+     * @return 首 token 耗时、token 间隔、工具调用增量和结束原因等统计
+     */
+    @GetMapping("/llm/stream")
+    @AuthCheck(mustRole = UserConstant.ADMIN_ROLE)
+    @Operation(summary = "模型流式响应统计", description = "获取首 token 耗时、token 间隔、工具调用增量和结束原因统计信息（管理员）")
+    public BaseResponse<LlmStreamTelemetryStats> getLlmStreamTelemetryStats() {
+        return ResultUtils.success(llmStreamTelemetry.getStats());
+    }
+
+    /**
+     * 获取对话记忆装载统计信息
+     *
+     * @return 复用记忆、增量加载、完整加载次数和读取消息数等统计
+     */
+    @GetMapping("/chat-memory/hydration")
+    @AuthCheck(mustRole = UserConstant.ADMIN_ROLE)
+    @Operation(summary = "对话记忆装载统计", description = "获取对话记忆复用、按高水位增量加载和完整加载的统计信息（管理员）")
+    public BaseResponse<ChatMemoryHydratorStats> getChatMemoryHydratorStats() {
+        return ResultUtils.success(chatMemoryHydrator.getStats());
+    }
+
+    /**
+     * 获取对话记忆存储统计信息
+     *
+     * @return 每轮写入字节数及与整体重写方式的对比等统计
+     */
+    @GetMapping("/chat-memory/store")
+    @AuthCheck(mustRole = UserConstant.ADMIN_ROLE)
+    @Operation(summary = "对话记忆存储统计", description = "获取对话记忆每轮写入字节数、增量写入与整体重写的统计信息（管理员）")
+    public BaseResponse<CompactChatMemoryStoreStats> getChatMemoryStoreStats() {
+        return ResultUtils.success(redisChatMemoryStore.getStats());
+    }
+}
@@ -1,22 +1,21 @@
 package com.px.aicodemother.controller;
 
 import com.px.aicodemother.constants.AppConstant;
+import com.px.aicodemother.manager.StaticFileDelivery;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.annotation.Resource;
 import jakarta.servlet.http.HttpServletRequest;
-import org.springframework.core.io.FileSystemResource;
-import org.springframework.core.io.Resource;
-import org.springframework.http.HttpHeaders;
-import org.springframework.http.HttpStatus;
-import org.springframework.http.ResponseEntity;
+import jakarta.servlet.http.HttpServletResponse;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 import org.springframework.web.servlet.HandlerMapping;
 
-import java.io.File;
+import java.io.IOException;
+import java.nio.file.Path;
 
 /**
  * packageName: com.px.aicodemother.controller
@@ -34,14 +33,19 @@ public class StaticResourceController {
     // 应用生成根目录（用于浏览）
     private static final String PREVIEW_ROOT_DIR = AppConstant.CODE_OUTPUT_ROOT_DIR;
 
+    private static final Path PREVIEW_ROOT = Path.of(PREVIEW_ROOT_DIR).toAbsolutePath().normalize();
 
+    @Resource
+    private StaticFileDelivery staticFileDelivery;
 
     /**
-     * 提供静态资源访问服务，支持目录重定向和默认页面返回
+     * 提供静态资源访问服务，支持目录重定向和默认页面返回。
+     * 响应带 ETag / Last-Modified，条件请求返回 304，Range 请求返回 206；
+     * 小文件从内存缓存输出，大文件通过 sendfile 零拷贝输出，客户端支持时优先返回预压缩的 .br / .gz 文件
      * 
      * @param deployKey 部署密钥，用于定位资源目录
      * @param request HTTP请求对象，包含请求路径等信息
-     * @return ResponseEntity<Resource> 包含资源内容和相应HTTP头的响应实体
+     * @param response HTTP响应对象，文件内容直接写入
      */
     @GetMapping("/{deployKey}/**")
     @Operation(summary = "静态资源访问接口", description = "提供静态资源访问，支持目录重定向",
@@ -49,66 +53,13 @@ public class StaticResourceController {
                     @Parameter(name = "deployKey", description = "部署密钥", required = true),
                     @Parameter(name = "fileName", description = "文件名", required = false)
             })
-    public ResponseEntity<Resource> serveStaticResource(
+    public void serveStaticResource(
             @PathVariable String deployKey,
-            HttpServletRequest request) {
-        try {
-            // 获取并处理资源路径
-            String resourcePath = (String) request.getAttribute(HandlerMapping.PATH_WITHIN_HANDLER_MAPPING_ATTRIBUTE);
-            resourcePath = resourcePath.substring(("/static/" + deployKey).length());
-            
-            // 如果是目录访问（不带斜杠），重定向到带斜杠的URL
-            if (resourcePath.isEmpty()) {
-                HttpHeaders headers = new HttpHeaders();
-                headers.add("Location", request.getRequestURI() + "/");
-                return new ResponseEntity<>(headers, HttpStatus.MOVED_PERMANENTLY);
-            }
-            
-            // 默认返回 index.html
-            if (resourcePath.equals("/")) {
-                resourcePath = "/index.html";
-            }
-            
-            // 构建文件路径并检查文件是否存在
-            String filePath = PREVIEW_ROOT_DIR + "/" + deployKey + resourcePath;
-            File file = new File(filePath);
-            // 检查文件是否存在
-            if (!file.exists()) {
-                return ResponseEntity.notFound().build();
-            }
-            
-            // 返回文件资源
-            Resource resource = new FileSystemResource(file);
-            return ResponseEntity.ok()
-                    .header("Content-Type", getContentTypeWithCharset(filePath))
-                    .body(resource);
-        } catch (Exception e) {
-            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
-        }
-    }
-
-    /**
-     * 根据文件扩展名返回带字符编码的 Content-Type
-     *
-     * @param filePath 文件路径
-     * @return 对应的 Content-Type 字符串，如果文件类型未知则返回默认的二进制流类型
-     */
-    private String getContentTypeWithCharset(String filePath) {
-        if (filePath.endsWith(".html")) {
-            return "text/html; charset=UTF-8";
-        }
-        if (filePath.endsWith(".css")) {
-            return "text/css; charset=UTF-8";
-        }
-        if (filePath.endsWith(".js")) {
-            return "application/javascript; charset=UTF-8";
-        }
-        if (filePath.endsWith(".png")) {
-            return "image/png";
-        }
-        if (filePath.endsWith(".jpg")) {
-            return "image/jpeg";
-        }
-        return "application/octet-stream";
+            HttpServletRequest request,
+            HttpServletResponse response) throws IOException {
+        // 获取并处理资源路径
+        String resourcePath = (String) request.getAttribute(HandlerMapping.PATH_WITHIN_HANDLER_MAPPING_ATTRIBUTE);
+        resourcePath = resourcePath.substring(("/static/" + deployKey).length());
+        staticFileDelivery.serve(PREVIEW_ROOT, deployKey, resourcePath, request, response);
     }
 }
@@ -1,16 +1,17 @@
 package com.px.aicodemother.core;
 
-import cn.hutool.json.JSONUtil;
 import com.px.aicodemother.ai.AiCodeGeneratorService;
 import com.px.aicodemother.ai.AiCodeGeneratorServiceFactory;
 import com.px.aicodemother.ai.model.HtmlCodeResult;
 import com.px.aicodemother.ai.model.MultiFileCodeResult;
 import com.px.aicodemother.ai.model.message.AiResponseMessage;
+import com.px.aicodemother.ai.model.message.BuildStatusMessage;
+import com.px.aicodemother.ai.model.message.StreamMessage;
 import com.px.aicodemother.ai.model.message.ToolExecutedMessage;
 import com.px.aicodemother.ai.model.message.ToolRequestMessage;
 import com.px.aicodemother.constants.AppConstant;
-import com.px.aicodemother.core.builder.VueProjectBuilder;
-import com.px.aicodemother.core.parser.CodeParserExecutor;
+import com.px.aicodemother.core.builder.VueBuildScheduler;
+import com.px.aicodemother.core.parser.StreamingCodeParser;
 import com.px.aicodemother.core.saver.CodeFileSaverExecutor;
 import com.px.aicodemother.exception.BusinessException;
 import com.px.aicodemother.exception.ErrorCode;
@@ -43,7 +44,7 @@ public class AiCodeGeneratorFacade {
     private AiCodeGeneratorServiceFactory aiCodeGeneratorServiceFactory;
 
     @Resource
-    private VueProjectBuilder vueProjectBuilder;
+    private VueBuildScheduler vueBuildScheduler;
 
     /**
      * 根据用户消息和代码生成类型生成并保存代码
@@ -79,9 +80,9 @@ public class AiCodeGeneratorFacade {
      *
      * @param userMessage 用户提供的生成要求消息
      * @param codeGenType 代码生成类型枚举
-     * @return 流式返回的代码片段
+     * @return 流式返回的消息对象，文本类型的片段包装为 AI 响应消息
      */
-    public Flux<String> generateAndSaveCodeStream(String userMessage, CodeGenTypeEnum codeGenType, Long appId) {
+    public Flux<StreamMessage> generateAndSaveCodeStream(String userMessage, CodeGenTypeEnum codeGenType, Long appId) {
         if (codeGenType == null) {
             throw new BusinessException(ErrorCode.SYSTEM_ERROR, "生成类型为空");
         }
@@ -89,11 +90,11 @@ public class AiCodeGeneratorFacade {
         return switch (codeGenType) {
             case HTML -> {
                 Flux<String> codeStream = aiCodeGeneratorService.generateHtmlCodeStream(userMessage);
-                yield processCodeStream(codeStream, codeGenType, appId);
+                yield processCodeStream(codeStream, codeGenType, appId).<StreamMessage>map(AiResponseMessage::new);
             }
             case MULTI_FILE -> {
                 Flux<String> codeStream = aiCodeGeneratorService.generateMultiFileCodeStream(userMessage);
-                yield processCodeStream(codeStream, codeGenType, appId);
+                yield processCodeStream(codeStream, codeGenType, appId).<StreamMessage>map(AiResponseMessage::new);
             }
             case VUE_PROJECT -> {
                 TokenStream codeStream = aiCodeGeneratorService.generateVueProjectCodeStream(appId, userMessage);
@@ -107,35 +108,27 @@ public class AiCodeGeneratorFacade {
     }
 
     /**
-     * 处理TokenStream流，将其转换为Flux<String>格式的响应流
+     * 处理TokenStream流，将其转换为Flux<StreamMessage>格式的响应流
      * <p>
-     * 该方法将TokenStream中的各种事件（AI响应、工具调用请求、工具执行结果等）转换为JSON字符串，
-     * 并通过Reactor的Flux进行流式传输。
+     * 该方法将TokenStream中的各种事件（AI响应、工具调用请求、工具执行结果等）包装为对应的消息对象，
+     * 并通过Reactor的Flux进行流式传输，进程内不做JSON序列化。
      * </p>
      *
      * @param tokenStream AI模型返回的Token流
      * @param appId 应用ID
-     * @return 包含处理后消息的Flux流，每个元素都是JSON格式的字符串
+     * @return 包含处理后消息的Flux流
      */
-    private Flux<String> processTokenStream(TokenStream tokenStream, Long appId) {
+    private Flux<StreamMessage> processTokenStream(TokenStream tokenStream, Long appId) {
         return Flux.create(sink -> {
-            tokenStream.onPartialResponse((String partialResponse) -> {
-                AiResponseMessage aiResponseMessage = new AiResponseMessage(partialResponse);
-                sink.next(JSONUtil.toJsonStr(aiResponseMessage));
-            })
-                    .onPartialToolExecutionRequest((index, toolExecutionRequest) -> {
-                        ToolRequestMessage toolRequestMessage = new ToolRequestMessage(toolExecutionRequest);
-                        sink.next(JSONUtil.toJsonStr(toolRequestMessage));
-                    })
-                    .onToolExecuted((ToolExecution toolExecution) -> {
-                        ToolExecutedMessage toolExecutedMessage = new ToolExecutedMessage(toolExecution);
-                        sink.next(JSONUtil.toJsonStr(toolExecutedMessage));
-                    })
+            tokenStream.onPartialResponse((String partialResponse) -> sink.next(new AiResponseMessage(partialResponse)))
+                    .onPartialToolExecutionRequest((index, toolExecutionRequest) -> sink.next(new ToolRequestMessage(toolExecutionRequest)))
+                    .onToolExecuted((ToolExecution toolExecution) -> sink.next(new ToolExecutedMessage(toolExecution)))
                     .onCompleteResponse((ChatResponse response) -> {
-                        // 执行 Vue 项目构建（同步执行，确保预览时项目已就绪）
+                        // 提交到构建调度器，不阻塞模型回调线程；构建状态以消息推送，构建结束后再结束流，确保预览时项目已就绪
                         String projectPath = AppConstant.CODE_OUTPUT_ROOT_DIR + "/vue_project_" + appId;
-                        vueProjectBuilder.buildProject(projectPath);
-                        sink.complete();
+                        vueBuildScheduler.submit(appId, projectPath, VueBuildScheduler.Priority.NORMAL, false,
+                                        buildStatus -> sink.next(new BuildStatusMessage(buildStatus)))
+                                .whenComplete((success, error) -> sink.complete());
                     })
                     .onError((Throwable error) -> {
                         error.printStackTrace();
@@ -146,7 +139,7 @@ public class AiCodeGeneratorFacade {
     }
 
     /**
-     * 处理代码流，在流完成时解析并保存代码
+     * 处理代码流，边接收边增量解析代码块并写入文件，代码块闭合后即可预览
      *
      * @param codeStream  代码流数据
      * @param codeGenType 代码生成类型枚举
@@ -154,22 +147,22 @@ public class AiCodeGeneratorFacade {
      * @return 原始代码流
      */
     private Flux<String> processCodeStream(Flux<String> codeStream, CodeGenTypeEnum codeGenType, Long appId) {
-        // 收集完整的代码内容
-        StringBuilder codeBuilder = new StringBuilder();
-        return codeStream
-                // 添加代码片段到代码内容中
-                .doOnNext(codeBuilder::append)
-                .doOnComplete(() -> {
-                    try {
-                        String completeCode = codeBuilder.toString();
-                        // 解析代码内容
-                        Object parserResult = CodeParserExecutor.executeParser(completeCode, codeGenType);
-                        // 保存解析后的代码
-                        File saveFile = CodeFileSaverExecutor.executeSaver(parserResult, codeGenType, appId);
-                        log.info("代码保存成功：{}", saveFile.getAbsolutePath());
-                    } catch (Exception e) {
-                        log.error("代码保存失败：{}", e.getMessage());
-                    }
-                });
+        // 每次订阅创建独立的解析器
+        return Flux.defer(() -> {
+            StreamingCodeParser streamingCodeParser = CodeFileSaverExecutor.openStream(codeGenType, appId);
+            return codeStream
+                    // 增量解析代码片段并写入文件
+                    .doOnNext(streamingCodeParser::accept)
+                    .doOnComplete(() -> {
+                        try {
+                            File saveFile = streamingCodeParser.finish();
+                            log.info("代码保存成功：{}", saveFile.getAbsolutePath());
+                        } catch (Exception e) {
+                            log.error("代码保存失败：{}", e.getMessage());
+                        }
+                    })
+                    .doOnError(e -> streamingCodeParser.abort())
+                    .doOnCancel(streamingCodeParser::abort);
+        });
     }
 }
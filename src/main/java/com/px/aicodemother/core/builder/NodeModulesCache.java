@@ -0,0 +1,491 @@
+package com.px.aicodemother.core.builder;
+
+import cn.hutool.core.io.FileUtil;
+import cn.hutool.core.util.IdUtil;
+import cn.hutool.crypto.digest.DigestUtil;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileSystemException;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.FileTime;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Stream;
+
+/**
+ * packageName: com.px.aicodemother.core.builder
+ *
+ * @author: idpeng
+ * @version: 1.0
+ * @className: NodeModulesCache
+ * @date: 2026/10/18 14:10
+ * @description: 共享 node_modules 依赖缓存。以 package.json + lock 文件内容的哈希为键，每组依赖只安装一次，
+ * 再以符号链接或硬链接的方式挂到各个 Vue 工程下；npm 下载缓存作为离线镜像，网络不可用时以离线模式安装。
+ * 以符号链接挂载的工程在条目下登记引用，淘汰时跳过仍被工程引用或刚被使用的条目；
+ * 登记引用与淘汰都持有缓存目录上的文件锁，多个进程共享同一缓存目录时也不会删掉正在挂载的条目
+ */
+@Slf4j
+public class NodeModulesCache {
+
+    /**
+     * node_modules 挂载方式
+     */
+    public enum LinkMode {
+        /**
+         * 工程内 node_modules 为指向缓存的符号链接，开销最小
+         */
+        SYMLINK,
+        /**
+         * 按缓存目录结构逐文件创建硬链接，工程目录可独立移动
+         */
+        HARDLINK
+    }
+
+    private static final String NODE_MODULES = "node_modules";
+
+    private static final String PACKAGE_JSON = "package.json";
+
+    /**
+     * 参与计算缓存键的 lock 文件，按优先级排列
+     */
+    private static final List<String> LOCK_FILES = List.of("package-lock.json", "npm-shrinkwrap.json");
+
+    /**
+     * 最近使用时间标记文件
+     */
+    private static final String LAST_USED_FILE = ".last-used";
+
+    /**
+     * 引用登记目录，每个以符号链接挂载该条目的工程一个文件，内容为工程目录
+     */
+    private static final String REFS_DIR = ".refs";
+
+    /**
+     * 缓存目录锁文件
+     */
+    private static final String LOCK_FILE = ".lock";
+
+    private static final String STAGING_MARK = ".staging-";
+
+    private static final String NPM_CACHE_DIR = "_npm_cache";
+
+    private final boolean enabled;
+
+    private final Path cacheRoot;
+
+    private final Path npmCacheDir;
+
+    private final LinkMode linkMode;
+
+    private final int maxEntries;
+
+    private final int installTimeoutSeconds;
+
+    /**
+     * 同一缓存键只允许一个安装过程
+     */
+    private final ConcurrentHashMap<String, Object> keyLocks = new ConcurrentHashMap<>();
+
+    /**
+     * 进程内的缓存目录锁，与锁文件配合使用（同一进程内重复获取文件锁会抛出异常）
+     */
+    private final ReentrantLock cacheLock = new ReentrantLock();
+
+    private final AtomicLong hits = new AtomicLong();
+
+    private final AtomicLong misses = new AtomicLong();
+
+    private final AtomicLong offlineInstalls = new AtomicLong();
+
+    private final AtomicLong installFailures = new AtomicLong();
+
+    /**
+     * 创建依赖缓存
+     *
+     * @param enabled               是否启用，关闭时由调用方直接在工程内安装
+     * @param cacheDir              缓存根目录
+     * @param npmCacheDir           npm 下载缓存（离线镜像）目录，为空时放在缓存根目录下
+     * @param linkMode              node_modules 挂载方式
+     * @param maxEntries            最多保留的依赖组数，超出后淘汰最久未使用的
+     * @param installTimeoutSeconds 单次安装超时时间（秒）
+     */
+    public NodeModulesCache(boolean enabled, String cacheDir, String npmCacheDir, LinkMode linkMode,
+                            int maxEntries, int installTimeoutSeconds) {
+        this.enabled = enabled;
+        this.cacheRoot = Path.of(cacheDir).toAbsolutePath();
+        this.npmCacheDir = npmCacheDir == null || npmCacheDir.isBlank()
+                ? cacheRoot.resolve(NPM_CACHE_DIR)
+                : Path.of(npmCacheDir).toAbsolutePath();
+        this.linkMode = linkMode;
+        this.maxEntries = Math.max(1, maxEntries);
+        this.installTimeoutSeconds = installTimeoutSeconds;
+    }
+
+    /**
+     * 为工程挂载缓存中的 node_modules，缓存未命中时先安装到缓存
+     *
+     * @param projectDir 工程目录，需包含 package.json
+     * @return 是否挂载成功，失败时调用方应回退为工程内安装
+     */
+    public boolean link(File projectDir) {
+        if (!enabled) {
+            return false;
+        }
+        try {
+            String key = computeKey(projectDir.toPath());
+            Path entry = null;
+            // 条目可能在安装完成到登记引用之间被其他进程淘汰，重新安装一次
+            for (int attempt = 0; attempt < 2 && entry == null; attempt++) {
+                Path candidate = ensureEntry(key, projectDir.toPath());
+                if (candidate == null) {
+                    return false;
+                }
+                if (acquire(candidate, projectDir.toPath())) {
+                    entry = candidate;
+                }
+            }
+            if (entry == null) {
+                return false;
+            }
+            linkInto(entry.resolve(NODE_MODULES), projectDir.toPath().resolve(NODE_MODULES));
+            log.info("已从依赖缓存挂载 node_modules，工程: {}, 缓存键: {}", projectDir.getName(), key);
+            return true;
+        } catch (IOException e) {
+            log.warn("依赖缓存挂载失败，工程: {}, 错误: {}", projectDir.getAbsolutePath(), e.getMessage());
+            return false;
+        }
+    }
+
+    /**
+     * 获取依赖缓存统计信息
+     *
+     * @return 统计信息
+     */
+    public NodeModulesCacheStats getStats() {
+        return NodeModulesCacheStats.builder()
+                .enabled(enabled)
+                .linkMode(linkMode.name())
+                .entries(listEntries().size())
+                .maxEntries(maxEntries)
+                .hits(hits.get())
+                .misses(misses.get())
+                .offlineInstalls(offlineInstalls.get())
+                .installFailures(installFailures.get())
+                .build();
+    }
+
+    /**
+     * 缓存键：平台 + package.json + lock 文件内容的 SHA-256，原生依赖随平台不同，因此平台也参与计算
+     */
+    private String computeKey(Path projectDir) throws IOException {
+        ByteArrayOutputStream content = new ByteArrayOutputStream();
+        String platform = System.getProperty("os.name") + "/" + System.getProperty("os.arch") + "\n";
+        content.writeBytes(platform.getBytes(StandardCharsets.UTF_8));
+        content.writeBytes(Files.readAllBytes(projectDir.resolve(PACKAGE_JSON)));
+        Path lockFile = findLockFile(projectDir);
+        if (lockFile != null) {
+            content.writeBytes(("\n" + lockFile.getFileName() + "\n").getBytes(StandardCharsets.UTF_8));
+            content.writeBytes(Files.readAllBytes(lockFile));
+        }
+        return DigestUtil.sha256Hex(content.toByteArray());
+    }
+
+    private Path findLockFile(Path projectDir) {
+        return LOCK_FILES.stream()
+                .map(projectDir::resolve)
+                .filter(Files::isRegularFile)
+                .findFirst()
+                .orElse(null);
+    }
+
+    /**
+     * 获取缓存条目，不存在时在临时目录安装后原子重命名为正式条目
+     *
+     * @return 缓存条目目录，安装失败时返回 null
+     */
+    private Path ensureEntry(String key, Path projectDir) throws IOException {
+        Path entry = cacheRoot.resolve(key);
+        if (Files.isDirectory(entry.resolve(NODE_MODULES))) {
+            hits.incrementAndGet();
+            return entry;
+        }
+        synchronized (keyLocks.computeIfAbsent(key, k -> new Object())) {
+            if (Files.isDirectory(entry.resolve(NODE_MODULES))) {
+                hits.incrementAndGet();
+                return entry;
+            }
+            misses.incrementAndGet();
+            Path staging = cacheRoot.resolve(key + STAGING_MARK + IdUtil.fastSimpleUUID());
+            try {
+                Files.createDirectories(staging);
+                Files.copy(projectDir.resolve(PACKAGE_JSON), staging.resolve(PACKAGE_JSON));
+                Path lockFile = findLockFile(projectDir);
+                if (lockFile != null) {
+                    Files.copy(lockFile, staging.resolve(lockFile.getFileName()));
+                }
+                if (!install(staging, lockFile != null)) {
+                    installFailures.incrementAndGet();
+                    return null;
+                }
+                try {
+                    Files.move(staging, entry, StandardCopyOption.ATOMIC_MOVE);
+                } catch (FileSystemException e) {
+                    // 目标已存在时 Linux 抛出 DirectoryNotEmptyException，其他平台为 FileAlreadyExistsException
+                    if (!Files.isDirectory(entry.resolve(NODE_MODULES))) {
+                        throw e;
+                    }
+                    // 其他进程已完成同一组依赖的安装
+                    log.info("依赖缓存条目已存在，使用已有条目: {}", key);
+                }
+            } finally {
+                if (Files.exists(staging)) {
+                    FileUtil.del(staging);
+                }
+            }
+            prune(key);
+            return entry;
+        }
+    }
+
+    /**
+     * 在缓存目录安装依赖：有 lock 文件时用 npm ci，优先使用本地下载缓存；
+     * 联网安装失败时以离线模式重试，只使用离线镜像中的包
+     */
+    private boolean install(Path dir, boolean hasLockFile) {
+        String command = hasLockFile ? "ci" : "install";
+        String cache = npmCacheDir.toString();
+        log.info("依赖缓存未命中，开始安装依赖: {}", dir.getFileName());
+        if (NpmCommandRunner.npm(dir.toFile(), installTimeoutSeconds,
+                command, "--no-audit", "--no-fund", "--prefer-offline", "--cache", cache)) {
+            return true;
+        }
+        log.warn("联网安装依赖失败，尝试使用离线镜像安装: {}", dir.getFileName());
+        if (NpmCommandRunner.npm(dir.toFile(), installTimeoutSeconds,
+                command, "--no-audit", "--no-fund", "--offline", "--cache", cache)) {
+            offlineInstalls.incrementAndGet();
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * 将缓存中的 node_modules 挂到工程下，替换工程中原有的 node_modules
+     */
+    private void linkInto(Path source, Path target) throws IOException {
+        if (Files.isSymbolicLink(target)) {
+            if (Files.readSymbolicLink(target).equals(source)) {
+                return;
+            }
+            Files.delete(target);
+        } else if (Files.exists(target)) {
+            // 旧的工程内安装结果
+            FileUtil.del(target);
+        }
+        if (linkMode == LinkMode.SYMLINK) {
+            try {
+                Files.createSymbolicLink(target, source);
+                return;
+            } catch (UnsupportedOperationException | IOException e) {
+                // Windows 未开启开发者模式时无法创建符号链接，退化为硬链接
+                log.warn("创建符号链接失败，改用硬链接: {}", e.getMessage());
+            }
+        }
+        Path linking = target.resolveSibling(NODE_MODULES + STAGING_MARK + IdUtil.fastSimpleUUID());
+        try {
+            hardLinkTree(source, linking);
+            Files.move(linking, target, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            if (Files.exists(linking)) {
+                FileUtil.del(linking);
+            }
+        }
+    }
+
+    /**
+     * 按源目录结构创建目录，文件创建硬链接（跨文件系统时复制），符号链接（如 .bin）原样复制
+     */
+    private void hardLinkTree(Path source, Path target) throws IOException {
+        Files.walkFileTree(source, new SimpleFileVisitor<>() {
+            @Override
+            public FileVisitResult preVisitDirectory(Path dir, BasicFileAttributes attrs) throws IOException {
+                Files.createDirectories(target.resolve(source.relativize(dir)));
+                return FileVisitResult.CONTINUE;
+            }
+
+            @Override
+            public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) throws IOException {
+                Path link = target.resolve(source.relativize(file));
+                if (attrs.isSymbolicLink()) {
+                    Files.createSymbolicLink(link, Files.readSymbolicLink(file));
+                    return FileVisitResult.CONTINUE;
+                }
+                try {
+                    Files.createLink(link, file);
+                } catch (UnsupportedOperationException | IOException e) {
+                    Files.copy(file, link, StandardCopyOption.COPY_ATTRIBUTES);
+                }
+                return FileVisitResult.CONTINUE;
+            }
+        });
+    }
+
+    /**
+     * 在缓存锁内确认条目仍然存在，刷新使用时间，并登记工程对条目的引用（符号链接模式）
+     *
+     * @return 条目是否仍然存在
+     */
+    private boolean acquire(Path entry, Path projectDir) throws IOException {
+        return withCacheLock(() -> {
+            if (!Files.isDirectory(entry.resolve(NODE_MODULES))) {
+                return false;
+            }
+            touch(entry);
+            if (linkMode == LinkMode.SYMLINK) {
+                Path refs = Files.createDirectories(entry.resolve(REFS_DIR));
+                String project = projectDir.toAbsolutePath().normalize().toString();
+                Files.writeString(refs.resolve(DigestUtil.sha256Hex(project)), project, StandardCharsets.UTF_8);
+            }
+            return true;
+        });
+    }
+
+    private void touch(Path entry) throws IOException {
+        Path marker = entry.resolve(LAST_USED_FILE);
+        if (!Files.exists(marker)) {
+            Files.createFile(marker);
+        }
+        Files.setLastModifiedTime(marker, FileTime.from(Instant.now()));
+    }
+
+    /**
+     * 条目是否正在使用：刚被使用过（可能还在挂载和构建中），或仍有工程的 node_modules 符号链接指向它。
+     * 顺带清理已失效的引用（工程已删除或已改为挂载其他条目）
+     */
+    private boolean inUse(Path entry, Instant recentAfter) {
+        if (lastUsed(entry).toInstant().isAfter(recentAfter)) {
+            return true;
+        }
+        Path refs = entry.resolve(REFS_DIR);
+        if (!Files.isDirectory(refs)) {
+            return false;
+        }
+        Path source = entry.resolve(NODE_MODULES);
+        boolean referenced = false;
+        try (Stream<Path> stream = Files.list(refs)) {
+            for (Path ref : stream.toList()) {
+                Path link = Path.of(Files.readString(ref, StandardCharsets.UTF_8)).resolve(NODE_MODULES);
+                if (Files.isSymbolicLink(link) && Files.readSymbolicLink(link).equals(source)) {
+                    referenced = true;
+                } else {
+                    Files.deleteIfExists(ref);
+                }
+            }
+        } catch (IOException e) {
+            // 无法确认时按正在使用处理
+            return true;
+        }
+        return referenced;
+    }
+
+    /**
+     * 淘汰最久未使用且不在使用中的条目，并清理异常退出遗留的临时目录。
+     * 在缓存锁内把被淘汰的条目重命名为临时目录，之后再在锁外删除，避免长时间持锁
+     */
+    private void prune(String currentKey) {
+        Instant recentAfter = Instant.now().minus(Duration.ofSeconds(installTimeoutSeconds * 2L));
+        List<Path> evicted;
+        try {
+            evicted = withCacheLock(() -> {
+                List<Path> entries = new ArrayList<>(listEntries());
+                entries.removeIf(entry -> entry.getFileName().toString().equals(currentKey));
+                entries.sort(Comparator.comparing(this::lastUsed));
+                List<Path> renamed = new ArrayList<>();
+                int excess = entries.size() + 1 - maxEntries;
+                for (int i = 0; i < entries.size() && renamed.size() < excess; i++) {
+                    Path entry = entries.get(i);
+                    if (inUse(entry, recentAfter)) {
+                        continue;
+                    }
+                    Path trash = entry.resolveSibling(entry.getFileName() + STAGING_MARK + IdUtil.fastSimpleUUID());
+                    Files.move(entry, trash, StandardCopyOption.ATOMIC_MOVE);
+                    log.info("淘汰依赖缓存条目: {}", entry.getFileName());
+                    renamed.add(trash);
+                }
+                return renamed;
+            });
+        } catch (IOException e) {
+            log.warn("淘汰依赖缓存条目失败: {}", e.getMessage());
+            evicted = List.of();
+        }
+        evicted.forEach(FileUtil::del);
+        Instant staleBefore = Instant.now().minus(Duration.ofSeconds(installTimeoutSeconds * 2L));
+        try (Stream<Path> stream = Files.list(cacheRoot)) {
+            stream.filter(path -> path.getFileName().toString().contains(STAGING_MARK))
+                    .filter(path -> lastUsed(path).toInstant().isBefore(staleBefore))
+                    .forEach(FileUtil::del);
+        } catch (IOException e) {
+            log.warn("清理依赖缓存临时目录失败: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * 持有缓存目录锁（进程内锁 + 锁文件上的排他锁）执行操作
+     */
+    private <T> T withCacheLock(CacheAction<T> action) throws IOException {
+        Files.createDirectories(cacheRoot);
+        cacheLock.lock();
+        try (FileChannel channel = FileChannel.open(cacheRoot.resolve(LOCK_FILE),
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+             FileLock ignored = channel.lock()) {
+            return action.run();
+        } finally {
+            cacheLock.unlock();
+        }
+    }
+
+    @FunctionalInterface
+    private interface CacheAction<T> {
+        T run() throws IOException;
+    }
+
+    private List<Path> listEntries() {
+        if (!Files.isDirectory(cacheRoot)) {
+            return List.of();
+        }
+        try (Stream<Path> stream = Files.list(cacheRoot)) {
+            return stream.filter(path -> Files.isDirectory(path.resolve(NODE_MODULES)))
+                    .filter(path -> !path.getFileName().toString().contains(STAGING_MARK))
+                    .toList();
+        } catch (IOException e) {
+            log.warn("读取依赖缓存目录失败: {}", e.getMessage());
+            return List.of();
+        }
+    }
+
+    private FileTime lastUsed(Path path) {
+        Path marker = path.resolve(LAST_USED_FILE);
+        try {
+            return Files.getLastModifiedTime(Files.exists(marker) ? marker : path);
+        } catch (IOException e) {
+            return FileTime.fromMillis(0);
+        }
+    }
+}
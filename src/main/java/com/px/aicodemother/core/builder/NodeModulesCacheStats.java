@@ -0,0 +1,50 @@
+package com.px.aicodemother.core.builder;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Builder;
+import lombok.Data;
+
+import java.io.Serial;
+import java.io.Serializable;
+
+/**
+ * packageName: com.px.aicodemother.core.builder
+ *
+ * @author: idpeng
+ * @version: 1.0
+ * @className: NodeModulesCacheStats
+ * @date: 2026/10/18 14:12
+ * @description: 共享 node_modules 依赖缓存统计信息
+ */
+@Data
+@Builder
+@Schema(description = "共享 node_modules 依赖缓存统计信息")
+public class NodeModulesCacheStats implements Serializable {
+
+    @Schema(description = "是否启用")
+    private boolean enabled;
+
+    @Schema(description = "挂载方式")
+    private String linkMode;
+
+    @Schema(description = "当前缓存的依赖组数")
+    private int entries;
+
+    @Schema(description = "最多保留的依赖组数")
+    private int maxEntries;
+
+    @Schema(description = "累计命中次数")
+    private long hits;
+
+    @Schema(description = "累计未命中（新安装）次数")
+    private long misses;
+
+    @Schema(description = "累计使用离线镜像安装次数")
+    private long offlineInstalls;
+
+    @Schema(description = "累计安装失败次数")
+    private long installFailures;
+
+    @Serial
+    private static final long serialVersionUID = 1L;
+}
@@ -0,0 +1,83 @@
+package com.px.aicodemother.core.builder;
+
+import cn.hutool.core.util.RuntimeUtil;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.File;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * packageName: com.px.aicodemother.core.builder
+ *
+ * @author: idpeng
+ * @version: 1.0
+ * @className: NpmCommandRunner
+ * @date: 2026/10/18 14:05
+ * @description: npm 命令执行工具，供项目构建和依赖缓存共用
+ */
+@Slf4j
+final class NpmCommandRunner {
+
+    private NpmCommandRunner() {
+    }
+
+    /**
+     * 执行 npm 命令
+     *
+     * @param workingDir     工作目录
+     * @param timeoutSeconds 超时时间（秒）
+     * @param args           npm 参数，如 "run", "build"
+     * @return 是否成功
+     */
+    static boolean npm(File workingDir, int timeoutSeconds, String... args) {
+        String[] command = new String[args.length + 1];
+        command[0] = buildCommand("npm");
+        System.arraycopy(args, 0, command, 1, args.length);
+        String commandText = String.join(" ", command);
+        try {
+            log.info("在目录 {} 中执行命令: {}", workingDir.getAbsolutePath(), commandText);
+            // 参数以数组传递，路径中含空格也不会被拆分
+            Process process = RuntimeUtil.exec(null, workingDir, command);
+            // 等待进程完成，设置超时
+            boolean finished = process.waitFor(timeoutSeconds, TimeUnit.SECONDS);
+            if (!finished) {
+                log.error("命令执行超时（{}秒），强制终止进程", timeoutSeconds);
+                process.destroyForcibly();
+                return false;
+            }
+            int exitCode = process.exitValue();
+            if (exitCode == 0) {
+                log.info("命令执行成功: {}", commandText);
+                return true;
+            } else {
+                log.error("命令执行失败，退出码: {}", exitCode);
+                return false;
+            }
+        } catch (Exception e) {
+            log.error("执行命令失败: {}, 错误信息: {}", commandText, e.getMessage());
+            return false;
+        }
+    }
+
+    /**
+     * 判断当前操作系统是否为Windows
+     *
+     * @return true表示Windows，false表示非Windows
+     */
+    static boolean isWindows() {
+        return System.getProperty("os.name").toLowerCase().startsWith("windows");
+    }
+
+    /**
+     * 构建适用于当前操作系统的命令
+     *
+     * @param baseCommand 基础命令名称
+     * @return 适用于当前操作系统的完整命令
+     */
+    private static String buildCommand(String baseCommand) {
+        if (isWindows()) {
+            return baseCommand + ".cmd";
+        }
+        return baseCommand;
+    }
+}
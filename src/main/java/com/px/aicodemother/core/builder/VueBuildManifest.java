@@ -0,0 +1,204 @@
+package com.px.aicodemother.core.builder;
+
+import cn.hutool.crypto.digest.DigestUtil;
+import cn.hutool.json.JSONUtil;
+import lombok.Data;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * packageName: com.px.aicodemother.core.builder
+ *
+ * @author: idpeng
+ * @version: 1.0
+ * @className: VueBuildManifest
+ * @date: 2026/10/18 14:40
+ * @description: Vue 工程构建清单，保存在工程根目录（与 dist 同级），记录上次成功构建时依赖声明和源文件的内容哈希，
+ * 用于判断能否跳过 npm install 和 npm run build
+ */
+@Slf4j
+@Data
+public class VueBuildManifest {
+
+    /**
+     * 清单文件名
+     */
+    public static final String FILE_NAME = ".build-manifest.json";
+
+    /**
+     * 决定依赖安装结果的文件
+     */
+    private static final List<String> DEPENDENCY_FILES = List.of("package.json", "package-lock.json", "npm-shrinkwrap.json");
+
+    /**
+     * 不参与源文件哈希的文件或目录
+     */
+    private static final Set<String> IGNORED_NAMES = Set.of(
+            "node_modules", "dist", ".git", ".DS_Store", ".idea", ".vscode", FILE_NAME
+    );
+
+    /**
+     * 修改时间的精度余量（毫秒），部分文件系统只精确到秒
+     */
+    private static final long MTIME_GRANULARITY_MILLIS = 2000;
+
+    /**
+     * 计算清单的时间
+     */
+    private long snapshotTime;
+
+    /**
+     * 依赖声明文件的内容哈希
+     */
+    private String dependencyHash;
+
+    /**
+     * 源文件相对路径 -> 文件指纹
+     */
+    private Map<String, FileFingerprint> sources = new TreeMap<>();
+
+    /**
+     * 单个文件的指纹。大小和修改时间未变时直接复用上次的哈希，避免重复读取文件；
+     * 修改时间与上次计算时间过于接近的文件仍重新计算，防止同一秒内的改动被漏掉
+     */
+    @Data
+    public static class FileFingerprint {
+
+        private long size;
+
+        private long lastModified;
+
+        private String hash;
+    }
+
+    /**
+     * 读取工程中的构建清单
+     *
+     * @param projectDir 工程目录
+     * @return 构建清单，不存在或无法解析时返回 null
+     */
+    public static VueBuildManifest load(Path projectDir) {
+        Path file = projectDir.resolve(FILE_NAME);
+        if (!Files.isRegularFile(file)) {
+            return null;
+        }
+        try {
+            return JSONUtil.toBean(Files.readString(file, StandardCharsets.UTF_8), VueBuildManifest.class);
+        } catch (Exception e) {
+            log.warn("构建清单解析失败，按首次构建处理: {}", file);
+            return null;
+        }
+    }
+
+    /**
+     * 删除工程中的构建清单，构建开始前调用，避免构建失败后残留旧清单
+     *
+     * @param projectDir 工程目录
+     */
+    public static void delete(Path projectDir) throws IOException {
+        Files.deleteIfExists(projectDir.resolve(FILE_NAME));
+    }
+
+    /**
+     * 计算工程当前的构建清单
+     *
+     * @param projectDir 工程目录
+     * @param previous   上次的构建清单，可为 null
+     * @return 当前构建清单
+     */
+    public static VueBuildManifest snapshot(Path projectDir, VueBuildManifest previous) throws IOException {
+        VueBuildManifest manifest = new VueBuildManifest();
+        manifest.snapshotTime = System.currentTimeMillis();
+        long trustedBefore = previous == null ? Long.MIN_VALUE : previous.snapshotTime - MTIME_GRANULARITY_MILLIS;
+        StringBuilder dependencyContent = new StringBuilder();
+        for (String name : DEPENDENCY_FILES) {
+            Path file = projectDir.resolve(name);
+            if (Files.isRegularFile(file)) {
+                dependencyContent.append(name).append('\n').append(Files.readString(file, StandardCharsets.UTF_8)).append('\n');
+            }
+        }
+        manifest.dependencyHash = DigestUtil.sha256Hex(dependencyContent.toString());
+        Map<String, FileFingerprint> previousSources = previous == null || previous.sources == null
+                ? Map.of() : previous.sources;
+        Files.walkFileTree(projectDir, new SimpleFileVisitor<>() {
+            @Override
+            public FileVisitResult preVisitDirectory(Path dir, BasicFileAttributes attrs) {
+                if (!dir.equals(projectDir) && IGNORED_NAMES.contains(dir.getFileName().toString())) {
+                    return FileVisitResult.SKIP_SUBTREE;
+                }
+                return FileVisitResult.CONTINUE;
+            }
+
+            @Override
+            public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) throws IOException {
+                if (!attrs.isRegularFile() || IGNORED_NAMES.contains(file.getFileName().toString())) {
+                    return FileVisitResult.CONTINUE;
+                }
+                String relativePath = projectDir.relativize(file).toString().replace('\\', '/');
+                FileFingerprint fingerprint = new FileFingerprint();
+                fingerprint.size = attrs.size();
+                fingerprint.lastModified = attrs.lastModifiedTime().toMillis();
+                FileFingerprint old = previousSources.get(relativePath);
+                if (old != null && old.size == fingerprint.size && old.lastModified == fingerprint.lastModified
+                        && fingerprint.lastModified < trustedBefore) {
+                    fingerprint.hash = old.hash;
+                } else {
+                    try (InputStream in = Files.newInputStream(file)) {
+                        fingerprint.hash = DigestUtil.sha256Hex(in);
+                    }
+                }
+                manifest.sources.put(relativePath, fingerprint);
+                return FileVisitResult.CONTINUE;
+            }
+        });
+        return manifest;
+    }
+
+    /**
+     * 写入工程目录，先写临时文件再替换，避免写入中断留下半个清单
+     *
+     * @param projectDir 工程目录
+     */
+    public void save(Path projectDir) throws IOException {
+        Path temp = projectDir.resolve(FILE_NAME + ".tmp");
+        Files.writeString(temp, JSONUtil.toJsonStr(this), StandardCharsets.UTF_8);
+        Files.move(temp, projectDir.resolve(FILE_NAME), StandardCopyOption.REPLACE_EXISTING);
+    }
+
+    /**
+     * 依赖声明是否与另一份清单一致
+     */
+    public boolean sameDependencies(VueBuildManifest other) {
+        return other != null && Objects.equals(dependencyHash, other.dependencyHash);
+    }
+
+    /**
+     * 源文件内容是否与另一份清单一致（比较路径集合和内容哈希，不比较修改时间）
+     */
+    public boolean sameSources(VueBuildManifest other) {
+        if (other == null || other.sources == null || sources.size() != other.sources.size()) {
+            return false;
+        }
+        for (Map.Entry<String, FileFingerprint> entry : sources.entrySet()) {
+            FileFingerprint otherFingerprint = other.sources.get(entry.getKey());
+            if (otherFingerprint == null || !Objects.equals(entry.getValue().hash, otherFingerprint.hash)) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,389 @@
+package com.px.aicodemother.core.builder;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.px.aicodemother.model.enums.VueBuildStatusEnum;
+import com.px.aicodemother.model.vo.app.VueBuildStatusVO;
+import lombok.extern.slf4j.Slf4j;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+/**
+ * packageName: com.px.aicodemother.core.builder
+ *
+ * @author: idpeng
+ * @version: 1.0
+ * @className: VueBuildScheduler
+ * @date: 2026/10/18 13:35
+ * @description: Vue 项目构建调度器。构建在虚拟线程中执行，并发数有上限；
+ * 排队任务按优先级 + 先进先出调度，同一应用的排队任务会被合并，后到的请求取代排队中的请求
+ */
+@Slf4j
+public class VueBuildScheduler {
+
+    /**
+     * 构建优先级
+     */
+    public enum Priority {
+        /**
+         * 用户正在等待结果（如部署）
+         */
+        HIGH,
+        /**
+         * 生成完成后的预览构建
+         */
+        NORMAL
+    }
+
+    private final VueProjectBuilder vueProjectBuilder;
+
+    private final int maxConcurrentBuilds;
+
+    private final int maxQueuedBuilds;
+
+    /**
+     * 执行构建的虚拟线程执行器，npm 进程等待期间不占用平台线程
+     */
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+
+    /**
+     * 排队中的任务：高优先级在前，同优先级先进先出
+     */
+    private final PriorityQueue<BuildTask> queue = new PriorityQueue<>(
+            Comparator.comparing((BuildTask task) -> task.priority).thenComparingLong(task -> task.sequence));
+
+    /**
+     * appId -> 排队中的任务，用于合并重复构建
+     */
+    private final Map<Long, BuildTask> queuedByAppId = new HashMap<>();
+
+    /**
+     * 正在构建的应用，同一应用同一时间只允许一个构建（共用项目目录）
+     */
+    private final Set<Long> runningAppIds = new HashSet<>();
+
+    /**
+     * appId -> 最近一次构建状态
+     */
+    private final Cache<Long, VueBuildStatusVO> statusCache;
+
+    private final Object lock = new Object();
+
+    private int runningBuilds;
+
+    private long sequence;
+
+    private boolean shutdown;
+
+    private final AtomicLong submittedBuilds = new AtomicLong();
+
+    private final AtomicLong mergedBuilds = new AtomicLong();
+
+    private final AtomicLong rejectedBuilds = new AtomicLong();
+
+    private final AtomicLong succeededBuilds = new AtomicLong();
+
+    private final AtomicLong failedBuilds = new AtomicLong();
+
+    private final AtomicLong totalDurationMillis = new AtomicLong();
+
+    private final AtomicLong totalWaitMillis = new AtomicLong();
+
+    public VueBuildScheduler(VueProjectBuilder vueProjectBuilder, int maxConcurrentBuilds, int maxQueuedBuilds,
+                             Duration statusRetention) {
+        this.vueProjectBuilder = vueProjectBuilder;
+        this.maxConcurrentBuilds = maxConcurrentBuilds;
+        this.maxQueuedBuilds = maxQueuedBuilds;
+        this.statusCache = Caffeine.newBuilder()
+                .maximumSize(10_000)
+                .expireAfterWrite(statusRetention)
+                .build();
+    }
+
+    /**
+     * 提交构建任务。同一应用已有排队任务时合并为一个（以最新的项目路径为准，优先级取较高者），
+     * 正在构建中的应用会再排一次，确保构建到最新代码
+     *
+     * @param appId        应用ID
+     * @param projectPath  项目路径
+     * @param priority     优先级
+     * @param forceRebuild 是否强制重建（忽略构建清单），合并的请求中任一强制即强制
+     * @param listener     状态变化监听器，可为 null
+     * @return 构建结果
+     */
+    public CompletableFuture<Boolean> submit(Long appId, String projectPath, Priority priority, boolean forceRebuild,
+                                             Consumer<VueBuildStatusVO> listener) {
+        submittedBuilds.incrementAndGet();
+        BuildTask task;
+        VueBuildStatusVO status;
+        synchronized (lock) {
+            if (shutdown) {
+                return reject(appId, listener, "构建调度器已关闭");
+            }
+            task = queuedByAppId.get(appId);
+            if (task != null) {
+                // 合并到排队中的任务
+                mergedBuilds.incrementAndGet();
+                task.projectPath = projectPath;
+                task.mergedRequests++;
+                task.forceRebuild |= forceRebuild;
+                if (priority.compareTo(task.priority) < 0) {
+                    queue.remove(task);
+                    task.priority = priority;
+                    queue.offer(task);
+                }
+            } else {
+                if (queue.size() >= maxQueuedBuilds) {
+                    return reject(appId, listener, "构建队列已满，请稍后再试");
+                }
+                task = new BuildTask(appId, projectPath, priority, sequence++);
+                task.forceRebuild = forceRebuild;
+                queue.offer(task);
+                queuedByAppId.put(appId, task);
+            }
+            if (listener != null) {
+                task.listeners.add(listener);
+            }
+            status = queuedStatus(task);
+            statusCache.put(appId, status);
+        }
+        notifyListener(listener, status);
+        dispatch();
+        return task.future;
+    }
+
+    /**
+     * 查询应用最近一次构建状态，排队中的任务会实时计算排队位置
+     *
+     * @param appId 应用ID
+     * @return 构建状态，没有构建记录时返回 null
+     */
+    public VueBuildStatusVO getStatus(Long appId) {
+        synchronized (lock) {
+            BuildTask task = queuedByAppId.get(appId);
+            if (task != null) {
+                return queuedStatus(task);
+            }
+        }
+        return statusCache.getIfPresent(appId);
+    }
+
+    /**
+     * 获取调度器统计信息
+     *
+     * @return 统计信息
+     */
+    public VueBuildSchedulerStats getStats() {
+        long finished = succeededBuilds.get() + failedBuilds.get();
+        synchronized (lock) {
+            return VueBuildSchedulerStats.builder()
+                    .maxConcurrentBuilds(maxConcurrentBuilds)
+                    .maxQueuedBuilds(maxQueuedBuilds)
+                    .runningBuilds(runningBuilds)
+                    .queuedBuilds(queue.size())
+                    .submittedBuilds(submittedBuilds.get())
+                    .mergedBuilds(mergedBuilds.get())
+                    .rejectedBuilds(rejectedBuilds.get())
+                    .succeededBuilds(succeededBuilds.get())
+                    .failedBuilds(failedBuilds.get())
+                    .avgDurationMillis(finished == 0 ? 0 : totalDurationMillis.get() / finished)
+                    .avgWaitMillis(finished == 0 ? 0 : totalWaitMillis.get() / finished)
+                    .build();
+        }
+    }
+
+    /**
+     * 停止调度，排队中的任务以失败结束，正在进行的构建继续完成
+     */
+    public void shutdown() {
+        List<BuildTask> pending;
+        synchronized (lock) {
+            shutdown = true;
+            pending = new ArrayList<>(queue);
+            queue.clear();
+            queuedByAppId.clear();
+        }
+        for (BuildTask task : pending) {
+            finish(task, false, "构建调度器已关闭");
+        }
+        executor.shutdown();
+    }
+
+    /**
+     * 在并发上限内取出排队任务执行，跳过仍在构建中的应用
+     */
+    private void dispatch() {
+        List<BuildTask> toStart = new ArrayList<>();
+        synchronized (lock) {
+            List<BuildTask> deferred = new ArrayList<>();
+            while (runningBuilds < maxConcurrentBuilds && !queue.isEmpty()) {
+                BuildTask task = queue.poll();
+                if (runningAppIds.contains(task.appId)) {
+                    deferred.add(task);
+                    continue;
+                }
+                queuedByAppId.remove(task.appId);
+                runningAppIds.add(task.appId);
+                runningBuilds++;
+                toStart.add(task);
+            }
+            queue.addAll(deferred);
+        }
+        for (BuildTask task : toStart) {
+            executor.execute(() -> runTask(task));
+        }
+    }
+
+    private void runTask(BuildTask task) {
+        LocalDateTime startTime = LocalDateTime.now();
+        long waitMillis = Duration.between(task.enqueueTime, startTime).toMillis();
+        totalWaitMillis.addAndGet(waitMillis);
+        VueBuildStatusVO running = VueBuildStatusVO.builder()
+                .appId(task.appId)
+                .status(VueBuildStatusEnum.RUNNING.getValue())
+                .mergedRequests(task.mergedRequests)
+                .enqueueTime(task.enqueueTime)
+                .startTime(startTime)
+                .waitMillis(waitMillis)
+                .message(VueBuildStatusEnum.RUNNING.getText())
+                .build();
+        task.startTime = startTime;
+        statusCache.put(task.appId, running);
+        task.listeners.forEach(listener -> notifyListener(listener, running));
+        boolean success = false;
+        String message;
+        try {
+            success = vueProjectBuilder.buildProject(task.projectPath, task.forceRebuild);
+            message = success ? VueBuildStatusEnum.DONE.getText() : "构建失败，请检查代码和依赖";
+        } catch (Exception e) {
+            log.error("Vue 项目构建异常，appId: {}, 错误: {}", task.appId, e.getMessage(), e);
+            message = "构建异常：" + e.getMessage();
+        } finally {
+            synchronized (lock) {
+                runningBuilds--;
+                runningAppIds.remove(task.appId);
+            }
+        }
+        finish(task, success, message);
+        dispatch();
+    }
+
+    /**
+     * 记录最终状态，通知监听器并完成结果
+     */
+    private void finish(BuildTask task, boolean success, String message) {
+        LocalDateTime finishTime = LocalDateTime.now();
+        long durationMillis = task.startTime == null ? 0 : Duration.between(task.startTime, finishTime).toMillis();
+        if (task.startTime != null) {
+            totalDurationMillis.addAndGet(durationMillis);
+            (success ? succeededBuilds : failedBuilds).incrementAndGet();
+        }
+        VueBuildStatusEnum statusEnum = success ? VueBuildStatusEnum.DONE : VueBuildStatusEnum.FAILED;
+        VueBuildStatusVO status = VueBuildStatusVO.builder()
+                .appId(task.appId)
+                .status(statusEnum.getValue())
+                .mergedRequests(task.mergedRequests)
+                .enqueueTime(task.enqueueTime)
+                .startTime(task.startTime)
+                .finishTime(finishTime)
+                .waitMillis(task.startTime == null ? null : Duration.between(task.enqueueTime, task.startTime).toMillis())
+                .durationMillis(durationMillis)
+                .message(message)
+                .build();
+        statusCache.put(task.appId, status);
+        log.info("Vue 项目构建结束，appId: {}, 状态: {}, 耗时: {}ms", task.appId, statusEnum.getValue(), durationMillis);
+        task.listeners.forEach(listener -> notifyListener(listener, status));
+        task.future.complete(success);
+    }
+
+    private CompletableFuture<Boolean> reject(Long appId, Consumer<VueBuildStatusVO> listener, String message) {
+        rejectedBuilds.incrementAndGet();
+        log.warn("拒绝 Vue 项目构建请求，appId: {}, 原因: {}", appId, message);
+        VueBuildStatusVO status = VueBuildStatusVO.builder()
+                .appId(appId)
+                .status(VueBuildStatusEnum.FAILED.getValue())
+                .finishTime(LocalDateTime.now())
+                .message(message)
+                .build();
+        notifyListener(listener, status);
+        return CompletableFuture.completedFuture(false);
+    }
+
+    /**
+     * 计算排队状态，需持有锁
+     */
+    private VueBuildStatusVO queuedStatus(BuildTask task) {
+        int position = 1;
+        for (BuildTask other : queue) {
+            if (queue.comparator().compare(other, task) < 0) {
+                position++;
+            }
+        }
+        return VueBuildStatusVO.builder()
+                .appId(task.appId)
+                .status(VueBuildStatusEnum.QUEUED.getValue())
+                .queuePosition(position)
+                .mergedRequests(task.mergedRequests)
+                .enqueueTime(task.enqueueTime)
+                .message(VueBuildStatusEnum.QUEUED.getText())
+                .build();
+    }
+
+    private void notifyListener(Consumer<VueBuildStatusVO> listener, VueBuildStatusVO status) {
+        if (listener == null) {
+            return;
+        }
+        try {
+            listener.accept(status);
+        } catch (Exception e) {
+            log.warn("构建状态监听器执行异常，appId: {}, 错误: {}", status.getAppId(), e.getMessage());
+        }
+    }
+
+    /**
+     * 构建任务
+     */
+    private static class BuildTask {
+
+        private final Long appId;
+
+        private final long sequence;
+
+        private final LocalDateTime enqueueTime = LocalDateTime.now();
+
+        private final List<Consumer<VueBuildStatusVO>> listeners = new ArrayList<>();
+
+        private final CompletableFuture<Boolean> future = new CompletableFuture<>();
+
+        private String projectPath;
+
+        private Priority priority;
+
+        private int mergedRequests;
+
+        private boolean forceRebuild;
+
+        private LocalDateTime startTime;
+
+        BuildTask(Long appId, String projectPath, Priority priority, long sequence) {
+            this.appId = appId;
+            this.projectPath = projectPath;
+            this.priority = priority;
+            this.sequence = sequence;
+        }
+    }
+}
@@ -0,0 +1,59 @@
+package com.px.aicodemother.core.builder;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Builder;
+import lombok.Data;
+
+import java.io.Serial;
+import java.io.Serializable;
+
+/**
+ * packageName: com.px.aicodemother.core.builder
+ *
+ * @author: idpeng
+ * @version: 1.0
+ * @className: VueBuildSchedulerStats
+ * @date: 2026/10/18 13:28
+ * @description: Vue 项目构建调度器统计信息
+ */
+@Data
+@Builder
+@Schema(description = "Vue 项目构建调度器统计信息")
+public class VueBuildSchedulerStats implements Serializable {
+
+    @Schema(description = "最大并发构建数")
+    private int maxConcurrentBuilds;
+
+    @Schema(description = "最大排队构建数")
+    private int maxQueuedBuilds;
+
+    @Schema(description = "当前构建中数量")
+    private int runningBuilds;
+
+    @Schema(description = "当前排队数量")
+    private int queuedBuilds;
+
+    @Schema(description = "累计提交的构建请求数")
+    private long submittedBuilds;
+
+    @Schema(description = "累计被合并（去重）的构建请求数")
+    private long mergedBuilds;
+
+    @Schema(description = "累计因队列已满被拒绝的构建请求数")
+    private long rejectedBuilds;
+
+    @Schema(description = "累计构建成功数")
+    private long succeededBuilds;
+
+    @Schema(description = "累计构建失败数")
+    private long failedBuilds;
+
+    @Schema(description = "平均构建耗时（毫秒）")
+    private long avgDurationMillis;
+
+    @Schema(description = "平均排队耗时（毫秒）")
+    private long avgWaitMillis;
+
+    @Serial
+    private static final long serialVersionUID = 1L;
+}
@@ -1,11 +1,12 @@
 package com.px.aicodemother.core.builder;
 
-import cn.hutool.core.util.RuntimeUtil;
+import jakarta.annotation.Resource;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Component;
 
 import java.io.File;
-import java.util.concurrent.TimeUnit;
+import java.io.IOException;
+import java.nio.file.Path;
 
 /**
  * packageName: com.px.aicodemother.core.builder
@@ -20,29 +21,28 @@ import java.util.concurrent.TimeUnit;
 @Component
 public class VueProjectBuilder {
 
+    @Resource
+    private NodeModulesCache nodeModulesCache;
+
     /**
-     * 异步构建 Vue 项目
+     * 构建 Vue 项目，依赖和源文件与上次成功构建一致时跳过
      *
      * @param projectPath 项目路径
+     * @return 构建是否成功
      */
-    public void buildProjectAsync(String projectPath) {
-        // 在单独的线程中执行构建，避免阻塞主流程
-        Thread.ofVirtual().name("vue-builder-" + System.currentTimeMillis()).start(() -> {
-            try {
-                buildProject(projectPath);
-            } catch (Exception e) {
-                log.error("异步构建 Vue 项目时发生异常: {}", e.getMessage(), e);
-            }
-        });
+    public boolean buildProject(String projectPath) {
+        return buildProject(projectPath, false);
     }
 
     /**
-     * 构建 Vue 项目
+     * 构建 Vue 项目。根据工程根目录下的构建清单判断：依赖声明未变化时跳过 npm install，
+     * 源文件也未变化且 dist 存在时跳过 npm run build
      *
-     * @param projectPath 项目路径
+     * @param projectPath  项目路径
+     * @param forceRebuild 是否强制重新安装依赖并构建
      * @return 构建是否成功
      */
-    public boolean buildProject(String projectPath) {
+    public boolean buildProject(String projectPath, boolean forceRebuild) {
         File projectDir = new File(projectPath);
         if (!projectDir.exists() || !projectDir.isDirectory()) {
             log.error("项目目录不存在: {}", projectPath);
@@ -54,76 +54,73 @@ public class VueProjectBuilder {
             log.error("package.json 文件不存在: {}", packageJson.getAbsolutePath());
             return false;
         }
-        log.info("开始构建 Vue 项目: {}", projectPath);
+        File distDir = new File(projectDir, "dist");
+        // 计算当前构建清单并与上次成功构建的清单比较
+        Path projectRoot = projectDir.toPath();
+        VueBuildManifest previous = forceRebuild ? null : VueBuildManifest.load(projectRoot);
+        VueBuildManifest current;
+        try {
+            current = VueBuildManifest.snapshot(projectRoot, previous);
+            VueBuildManifest.delete(projectRoot);
+        } catch (IOException e) {
+            log.error("计算构建清单失败: {}, 错误信息: {}", projectPath, e.getMessage());
+            return false;
+        }
+        // node_modules 为失效的符号链接时 exists 返回 false，同样需要重新安装
+        boolean needInstall = !current.sameDependencies(previous) || !new File(projectDir, "node_modules").exists();
+        if (!needInstall && current.sameSources(previous) && distDir.isDirectory()) {
+            saveManifest(current, projectRoot);
+            log.info("Vue 项目依赖和源文件均未变化，跳过构建: {}", projectPath);
+            return true;
+        }
+        log.info("开始构建 Vue 项目: {}, 强制重建: {}", projectPath, forceRebuild);
         // 执行 npm install
-        if (!executeNpmInstall(projectDir)) {
+        if (needInstall && !executeNpmInstall(projectDir)) {
             log.error("npm install 执行失败");
             return false;
         }
+        if (!needInstall) {
+            log.info("依赖未变化，跳过 npm install");
+        }
         // 执行 npm run build
         if (!executeNpmBuild(projectDir)) {
             log.error("npm run build 执行失败");
             return false;
         }
         // 验证 dist 目录是否生成
-        File distDir = new File(projectDir, "dist");
         if (!distDir.exists()) {
             log.error("构建完成但 dist 目录未生成: {}", distDir.getAbsolutePath());
             return false;
         }
+        saveManifest(current, projectRoot);
         log.info("Vue 项目构建成功，dist 目录: {}", distDir.getAbsolutePath());
         return true;
     }
 
     /**
-     * 执行命令
-     *
-     * @param workingDir 工作目录
-     * @param command    命令
-     * @param timeoutSeconds 超时时间（秒）
-     * @return 是否成功
+     * 保存构建清单，失败只影响下次能否跳过构建
      */
-    private boolean executeCommand(File workingDir, String command, int timeoutSeconds) {
+    private void saveManifest(VueBuildManifest manifest, Path projectRoot) {
         try {
-            log.info("在目录 {} 中执行命令: {}", workingDir.getAbsolutePath(), command);
-            Process process = RuntimeUtil.exec(
-                    null,
-                    workingDir,
-                    // 命令分割为数组
-                    command.split("\\s+")
-            );
-            // 等待进程完成，设置超时
-            boolean finished = process.waitFor(timeoutSeconds, TimeUnit.SECONDS);
-            if (!finished) {
-                log.error("命令执行超时（{}秒），强制终止进程", timeoutSeconds);
-                process.destroyForcibly();
-                return false;
-            }
-            int exitCode = process.exitValue();
-            if (exitCode == 0) {
-                log.info("命令执行成功: {}", command);
-                return true;
-            } else {
-                log.error("命令执行失败，退出码: {}", exitCode);
-                return false;
-            }
-        } catch (Exception e) {
-            log.error("执行命令失败: {}, 错误信息: {}", command, e.getMessage());
-            return false;
+            manifest.save(projectRoot);
+        } catch (IOException e) {
+            log.warn("保存构建清单失败: {}, 错误信息: {}", projectRoot, e.getMessage());
         }
     }
 
     /**
-     * 执行npm install命令
+     * 执行npm install命令，优先从共享依赖缓存挂载 node_modules
      *
      * @param projectDir 项目目录
      * @return 是否成功
      */
     private boolean executeNpmInstall(File projectDir) {
+        if (nodeModulesCache.link(projectDir)) {
+            return true;
+        }
         log.info("开始安装依赖...");
-        String command = String.format("%s install", buildCommand("npm"));
         // 5分钟超时
-        return executeCommand(projectDir, command, 300);
+        return NpmCommandRunner.npm(projectDir, 300, "install");
     }
 
     /**
@@ -134,32 +131,7 @@ public class VueProjectBuilder {
      */
     private boolean executeNpmBuild(File projectDir) {
         log.info("开始构建项目...");
-        String command = String.format("%s run build", buildCommand("npm"));
         // 3分钟超时
-        return executeCommand(projectDir, command, 180);
-    }
-
-    /**
-     * 判断当前操作系统是否为Windows
-     *
-     * @return true表示Windows，false表示非Windows
-     */
-    private boolean isWindows() {
-        return System.getProperty("os.name").toLowerCase().startsWith("windows");
-    }
-
-
-    /**
-     * 构建适用于当前操作系统的命令
-     *
-     * @param baseCommand 基础命令名称
-     * @return 适用于当前操作系统的完整命令
-     */
-    private String buildCommand(String baseCommand) {
-        if (isWindows()) {
-            return baseCommand + ".cmd";
-        }
-        return baseCommand;
+        return NpmCommandRunner.npm(projectDir, 180, "run", "build");
     }
-
 }
@@ -0,0 +1,47 @@
+package com.px.aicodemother.core.deploy;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Builder;
+import lombok.Data;
+
+import java.io.Serial;
+import java.io.Serializable;
+
+/**
+ * packageName: com.px.aicodemother.core.deploy
+ *
+ * @author: idpeng
+ * @version: 1.0
+ * @className: DeployRelease
+ * @date: 2026/10/18 17:20
+ * @description: 部署版本信息
+ */
+@Data
+@Builder
+@Schema(description = "部署版本信息")
+public class DeployRelease implements Serializable {
+
+    @Schema(description = "版本 id，按时间递增")
+    private String releaseId;
+
+    @Schema(description = "创建时间（毫秒时间戳）")
+    private long createdTime;
+
+    @Schema(description = "是否为当前线上版本")
+    private boolean current;
+
+    @Schema(description = "文件数")
+    private int fileCount;
+
+    @Schema(description = "与上一版本内容相同、以硬链接复用的文件数")
+    private int linkedFiles;
+
+    @Schema(description = "新增或变化后复制的文件数")
+    private int copiedFiles;
+
+    @Schema(description = "复制的字节数")
+    private long copiedBytes;
+
+    @Serial
+    private static final long serialVersionUID = 1L;
+}
@@ -0,0 +1,450 @@
+package com.px.aicodemother.core.deploy;
+
+import cn.hutool.core.io.FileUtil;
+import cn.hutool.core.util.IdUtil;
+import cn.hutool.crypto.digest.DigestUtil;
+import cn.hutool.json.JSONUtil;
+import lombok.Data;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+/**
+ * packageName: com.px.aicodemother.core.deploy
+ *
+ * @author: idpeng
+ * @version: 1.0
+ * @className: ReleaseDeployer
+ * @date: 2026/10/18 17:30
+ * @description: 版本化部署。每次部署在 {部署根目录}/.releases/{deployKey}/ 下生成一个新版本目录，
+ * 内容哈希与上一版本相同的文件以硬链接复用，只复制变化的文件；版本准备好后把 {部署根目录}/{deployKey}
+ * 这个符号链接原子替换为指向新版本，访问者不会看到写了一半的站点。保留最近若干个版本用于立即回滚
+ */
+@Slf4j
+public class ReleaseDeployer {
+
+    /**
+     * 版本目录所在的子目录，以 . 开头，不会被当作站点访问
+     */
+    public static final String RELEASES_DIR = ".releases";
+
+    private static final String MANIFEST_SUFFIX = ".json";
+
+    private static final String STAGING_MARK = ".staging-";
+
+    private static final DateTimeFormatter RELEASE_ID_FORMATTER = DateTimeFormatter.ofPattern("yyyyMMddHHmmssSSS");
+
+    /**
+     * 文件修改时间的精度余量，修改时间离上次部署过近的文件重新计算哈希
+     */
+    private static final long MTIME_GRANULARITY_MILLIS = 2000;
+
+    private final Path deployRoot;
+
+    private final Path releasesRoot;
+
+    private final int keepReleases;
+
+    /**
+     * 同一站点的部署、回滚串行执行
+     */
+    private final ConcurrentHashMap<String, Object> keyLocks = new ConcurrentHashMap<>();
+
+    private final AtomicLong deploys = new AtomicLong();
+
+    private final AtomicLong failedDeploys = new AtomicLong();
+
+    private final AtomicLong rollbacks = new AtomicLong();
+
+    private final AtomicLong linkedFiles = new AtomicLong();
+
+    private final AtomicLong copiedFiles = new AtomicLong();
+
+    private final AtomicLong copiedBytes = new AtomicLong();
+
+    private final AtomicLong prunedReleases = new AtomicLong();
+
+    /**
+     * 版本清单，与版本目录同名（加 .json 后缀），放在版本目录之外，不会被访问到
+     */
+    @Data
+    public static class ReleaseManifest {
+
+        private String releaseId;
+
+        private long createdTime;
+
+        private int linkedFiles;
+
+        private int copiedFiles;
+
+        private long copiedBytes;
+
+        /**
+         * 相对路径 -> 文件指纹
+         */
+        private Map<String, FileFingerprint> files = new TreeMap<>();
+    }
+
+    /**
+     * 单个文件的指纹，大小和修改时间记录的是部署源文件的值，未变化时直接复用哈希
+     */
+    @Data
+    public static class FileFingerprint {
+
+        private long size;
+
+        private long lastModified;
+
+        private String hash;
+    }
+
+    /**
+     * 创建版本化部署器
+     *
+     * @param deployRoot   部署根目录
+     * @param keepReleases 每个站点保留的版本数（包含当前版本）
+     */
+    public ReleaseDeployer(String deployRoot, int keepReleases) {
+        this.deployRoot = Path.of(deployRoot).toAbsolutePath().normalize();
+        this.releasesRoot = this.deployRoot.resolve(RELEASES_DIR);
+        this.keepReleases = Math.max(1, keepReleases);
+    }
+
+    /**
+     * 部署一个新版本并切换为线上版本
+     *
+     * @param deployKey 部署密钥
+     * @param sourceDir 部署源目录
+     * @return 新版本信息
+     */
+    public DeployRelease deploy(String deployKey, File sourceDir) throws IOException {
+        synchronized (keyLocks.computeIfAbsent(deployKey, key -> new Object())) {
+            try {
+                Path siteReleases = releasesRoot.resolve(deployKey);
+                Files.createDirectories(siteReleases);
+                ReleaseManifest previous = loadManifest(siteReleases, currentReleaseId(deployKey));
+                String releaseId = nextReleaseId(siteReleases);
+                Path staging = siteReleases.resolve(releaseId + STAGING_MARK + IdUtil.fastSimpleUUID());
+                ReleaseManifest manifest;
+                try {
+                    manifest = buildRelease(sourceDir.toPath().toAbsolutePath(), staging, siteReleases, previous);
+                    manifest.setReleaseId(releaseId);
+                    Files.move(staging, siteReleases.resolve(releaseId), StandardCopyOption.ATOMIC_MOVE);
+                } finally {
+                    if (Files.exists(staging)) {
+                        FileUtil.del(staging);
+                    }
+                }
+                saveManifest(siteReleases, manifest);
+                activate(deployKey, releaseId);
+                prune(deployKey, releaseId);
+                deploys.incrementAndGet();
+                linkedFiles.addAndGet(manifest.getLinkedFiles());
+                copiedFiles.addAndGet(manifest.getCopiedFiles());
+                copiedBytes.addAndGet(manifest.getCopiedBytes());
+                log.info("站点 {} 部署版本 {}：复用 {} 个文件，复制 {} 个文件（{} 字节）", deployKey, releaseId,
+                        manifest.getLinkedFiles(), manifest.getCopiedFiles(), manifest.getCopiedBytes());
+                return toRelease(manifest, true);
+            } catch (IOException | RuntimeException e) {
+                failedDeploys.incrementAndGet();
+                throw e;
+            }
+        }
+    }
+
+    /**
+     * 回滚到指定版本
+     *
+     * @param deployKey 部署密钥
+     * @param releaseId 目标版本 id，为空时回滚到当前版本的上一个版本
+     * @return 回滚后的线上版本，目标版本不存在时返回 null
+     */
+    public DeployRelease rollback(String deployKey, String releaseId) throws IOException {
+        synchronized (keyLocks.computeIfAbsent(deployKey, key -> new Object())) {
+            Path siteReleases = releasesRoot.resolve(deployKey);
+            List<String> releaseIds = listReleaseIds(siteReleases);
+            String currentId = currentReleaseId(deployKey);
+            String targetId = releaseId;
+            if (targetId == null || targetId.isBlank()) {
+                // 当前版本之前最近的一个版本
+                targetId = releaseIds.stream()
+                        .filter(id -> currentId == null || id.compareTo(currentId) < 0)
+                        .max(Comparator.naturalOrder())
+                        .orElse(null);
+            }
+            if (targetId == null || !releaseIds.contains(targetId)) {
+                return null;
+            }
+            if (!targetId.equals(currentId)) {
+                activate(deployKey, targetId);
+                rollbacks.incrementAndGet();
+                log.info("站点 {} 从版本 {} 回滚到 {}", deployKey, currentId, targetId);
+            }
+            ReleaseManifest manifest = loadManifest(siteReleases, targetId);
+            return manifest == null
+                    ? DeployRelease.builder().releaseId(targetId).current(true).build()
+                    : toRelease(manifest, true);
+        }
+    }
+
+    /**
+     * 列出站点保留的版本，按时间倒序
+     *
+     * @param deployKey 部署密钥
+     * @return 版本列表
+     */
+    public List<DeployRelease> listReleases(String deployKey) throws IOException {
+        Path siteReleases = releasesRoot.resolve(deployKey);
+        String currentId = currentReleaseId(deployKey);
+        List<DeployRelease> releases = new ArrayList<>();
+        for (String id : listReleaseIds(siteReleases).reversed()) {
+            ReleaseManifest manifest = loadManifest(siteReleases, id);
+            releases.add(manifest == null
+                    ? DeployRelease.builder().releaseId(id).current(id.equals(currentId)).build()
+                    : toRelease(manifest, id.equals(currentId)));
+        }
+        return releases;
+    }
+
+    /**
+     * 获取部署统计信息
+     *
+     * @return 统计信息
+     */
+    public ReleaseDeployerStats getStats() {
+        return ReleaseDeployerStats.builder()
+                .keepReleases(keepReleases)
+                .deploys(deploys.get())
+                .failedDeploys(failedDeploys.get())
+                .rollbacks(rollbacks.get())
+                .linkedFiles(linkedFiles.get())
+                .copiedFiles(copiedFiles.get())
+                .copiedBytes(copiedBytes.get())
+                .prunedReleases(prunedReleases.get())
+                .build();
+    }
+
+    /**
+     * 在临时目录中生成新版本：与上一版本哈希相同的文件创建硬链接，其余文件复制
+     */
+    private ReleaseManifest buildRelease(Path sourceDir, Path staging, Path siteReleases,
+                                         ReleaseManifest previous) throws IOException {
+        ReleaseManifest manifest = new ReleaseManifest();
+        manifest.setCreatedTime(System.currentTimeMillis());
+        long trustedBefore = previous == null ? Long.MIN_VALUE : previous.getCreatedTime() - MTIME_GRANULARITY_MILLIS;
+        Map<String, FileFingerprint> previousFiles = previous == null || previous.getFiles() == null
+                ? Map.of() : previous.getFiles();
+        Path previousDir = previous == null ? null : siteReleases.resolve(previous.getReleaseId());
+        Files.walkFileTree(sourceDir, new SimpleFileVisitor<>() {
+            @Override
+            public FileVisitResult preVisitDirectory(Path dir, BasicFileAttributes attrs) throws IOException {
+                Files.createDirectories(staging.resolve(sourceDir.relativize(dir).toString()));
+                return FileVisitResult.CONTINUE;
+            }
+
+            @Override
+            public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) throws IOException {
+                if (!attrs.isRegularFile()) {
+                    return FileVisitResult.CONTINUE;
+                }
+                String relativePath = sourceDir.relativize(file).toString().replace('\\', '/');
+                FileFingerprint fingerprint = new FileFingerprint();
+                fingerprint.setSize(attrs.size());
+                fingerprint.setLastModified(attrs.lastModifiedTime().toMillis());
+                FileFingerprint old = previousFiles.get(relativePath);
+                if (old != null && old.getSize() == fingerprint.getSize()
+                        && old.getLastModified() == fingerprint.getLastModified()
+                        && fingerprint.getLastModified() < trustedBefore) {
+                    fingerprint.setHash(old.getHash());
+                } else {
+                    try (InputStream in = Files.newInputStream(file)) {
+                        fingerprint.setHash(DigestUtil.sha256Hex(in));
+                    }
+                }
+                manifest.getFiles().put(relativePath, fingerprint);
+
+                Path target = staging.resolve(relativePath);
+                if (old != null && Objects.equals(old.getHash(), fingerprint.getHash())
+                        && tryLink(target, previousDir.resolve(relativePath))) {
+                    manifest.setLinkedFiles(manifest.getLinkedFiles() + 1);
+                } else {
+                    // 保留修改时间，内容未变的文件在不同版本间 ETag 保持一致
+                    Files.copy(file, target, StandardCopyOption.COPY_ATTRIBUTES);
+                    manifest.setCopiedFiles(manifest.getCopiedFiles() + 1);
+                    manifest.setCopiedBytes(manifest.getCopiedBytes() + attrs.size());
+                }
+                return FileVisitResult.CONTINUE;
+            }
+        });
+        return manifest;
+    }
+
+    /**
+     * 创建指向上一版本文件的硬链接，上一版本文件缺失或不支持硬链接（如跨文件系统）时返回 false
+     */
+    private boolean tryLink(Path link, Path existing) {
+        try {
+            Files.createLink(link, existing);
+            return true;
+        } catch (UnsupportedOperationException | IOException e) {
+            return false;
+        }
+    }
+
+    /**
+     * 把站点入口切换到指定版本：先创建临时符号链接，再通过 rename 原子替换旧链接
+     */
+    private void activate(String deployKey, String releaseId) throws IOException {
+        Path siteLink = deployRoot.resolve(deployKey);
+        Path target = deployRoot.relativize(releasesRoot.resolve(deployKey).resolve(releaseId));
+        if (Files.isDirectory(siteLink) && !Files.isSymbolicLink(siteLink)) {
+            // 旧的整目录复制部署，移到版本目录中，之后由清理逻辑回收
+            Path legacy = releasesRoot.resolve(deployKey).resolve("legacy-" + IdUtil.fastSimpleUUID());
+            Files.move(siteLink, legacy, StandardCopyOption.ATOMIC_MOVE);
+        }
+        Path tempLink = deployRoot.resolve(deployKey + STAGING_MARK + IdUtil.fastSimpleUUID());
+        try {
+            Files.createSymbolicLink(tempLink, target);
+        } catch (UnsupportedOperationException | IOException e) {
+            // Windows 未开启开发者模式时无法创建符号链接，退化为复制版本目录（非原子）
+            log.warn("创建符号链接失败，改为复制版本目录: {}", e.getMessage());
+            Files.deleteIfExists(tempLink);
+            FileUtil.del(siteLink);
+            FileUtil.copyContent(releasesRoot.resolve(deployKey).resolve(releaseId).toFile(), siteLink.toFile(), true);
+            return;
+        }
+        try {
+            Files.move(tempLink, siteLink, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(tempLink);
+        }
+    }
+
+    /**
+     * 当前线上版本 id，站点入口不是符号链接时返回 null
+     */
+    private String currentReleaseId(String deployKey) throws IOException {
+        Path siteLink = deployRoot.resolve(deployKey);
+        if (!Files.isSymbolicLink(siteLink)) {
+            return null;
+        }
+        return Files.readSymbolicLink(siteLink).getFileName().toString();
+    }
+
+    /**
+     * 生成按时间递增的版本 id
+     */
+    private String nextReleaseId(Path siteReleases) {
+        String base = LocalDateTime.now().format(RELEASE_ID_FORMATTER);
+        String releaseId = base;
+        for (int i = 1; Files.exists(siteReleases.resolve(releaseId)); i++) {
+            releaseId = base + "-" + i;
+        }
+        return releaseId;
+    }
+
+    /**
+     * 保留最近的若干个版本和当前版本，删除其余版本及其清单，并清理异常退出遗留的临时目录
+     */
+    private void prune(String deployKey, String currentId) {
+        Path siteReleases = releasesRoot.resolve(deployKey);
+        try {
+            List<String> releaseIds = listReleaseIds(siteReleases);
+            int removable = releaseIds.size() - keepReleases;
+            for (String id : releaseIds) {
+                if (removable <= 0) {
+                    break;
+                }
+                if (id.equals(currentId)) {
+                    continue;
+                }
+                FileUtil.del(siteReleases.resolve(id));
+                Files.deleteIfExists(siteReleases.resolve(id + MANIFEST_SUFFIX));
+                prunedReleases.incrementAndGet();
+                removable--;
+            }
+            try (Stream<Path> stream = Files.list(siteReleases)) {
+                stream.filter(path -> path.getFileName().toString().contains(STAGING_MARK)
+                                || path.getFileName().toString().startsWith("legacy-"))
+                        .forEach(FileUtil::del);
+            }
+        } catch (IOException e) {
+            log.warn("清理站点 {} 的旧版本失败: {}", deployKey, e.getMessage());
+        }
+    }
+
+    /**
+     * 列出已完成的版本 id，按时间升序
+     */
+    private List<String> listReleaseIds(Path siteReleases) throws IOException {
+        if (!Files.isDirectory(siteReleases)) {
+            return List.of();
+        }
+        try (Stream<Path> stream = Files.list(siteReleases)) {
+            return stream.filter(Files::isDirectory)
+                    .map(path -> path.getFileName().toString())
+                    .filter(name -> !name.contains(STAGING_MARK) && !name.startsWith("legacy-"))
+                    .sorted()
+                    .toList();
+        }
+    }
+
+    private ReleaseManifest loadManifest(Path siteReleases, String releaseId) {
+        if (releaseId == null) {
+            return null;
+        }
+        try {
+            String json = Files.readString(siteReleases.resolve(releaseId + MANIFEST_SUFFIX), StandardCharsets.UTF_8);
+            return JSONUtil.toBean(json, ReleaseManifest.class);
+        } catch (NoSuchFileException e) {
+            return null;
+        } catch (Exception e) {
+            log.warn("版本清单解析失败，按首次部署处理: {}/{}", siteReleases, releaseId);
+            return null;
+        }
+    }
+
+    /**
+     * 先写临时文件再替换，避免写入中断留下半个清单
+     */
+    private void saveManifest(Path siteReleases, ReleaseManifest manifest) throws IOException {
+        Path temp = siteReleases.resolve(manifest.getReleaseId() + MANIFEST_SUFFIX + ".tmp");
+        Files.writeString(temp, JSONUtil.toJsonStr(manifest), StandardCharsets.UTF_8);
+        Files.move(temp, siteReleases.resolve(manifest.getReleaseId() + MANIFEST_SUFFIX),
+                StandardCopyOption.REPLACE_EXISTING);
+    }
+
+    private DeployRelease toRelease(ReleaseManifest manifest, boolean current) {
+        return DeployRelease.builder()
+                .releaseId(manifest.getReleaseId())
+                .createdTime(manifest.getCreatedTime())
+                .current(current)
+                .fileCount(manifest.getFiles() == null ? 0 : manifest.getFiles().size())
+                .linkedFiles(manifest.getLinkedFiles())
+                .copiedFiles(manifest.getCopiedFiles())
+                .copiedBytes(manifest.getCopiedBytes())
+                .build();
+    }
+}
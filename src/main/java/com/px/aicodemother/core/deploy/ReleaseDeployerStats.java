@@ -0,0 +1,50 @@
+package com.px.aicodemother.core.deploy;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Builder;
+import lombok.Data;
+
+import java.io.Serial;
+import java.io.Serializable;
+
+/**
+ * packageName: com.px.aicodemother.core.deploy
+ *
+ * @author: idpeng
+ * @version: 1.0
+ * @className: ReleaseDeployerStats
+ * @date: 2026/10/18 17:22
+ * @description: 版本化部署统计信息
+ */
+@Data
+@Builder
+@Schema(description = "版本化部署统计信息")
+public class ReleaseDeployerStats implements Serializable {
+
+    @Schema(description = "每个站点保留的版本数")
+    private int keepReleases;
+
+    @Schema(description = "累计部署次数")
+    private long deploys;
+
+    @Schema(description = "累计部署失败次数")
+    private long failedDeploys;
+
+    @Schema(description = "累计回滚次数")
+    private long rollbacks;
+
+    @Schema(description = "累计以硬链接复用的文件数")
+    private long linkedFiles;
+
+    @Schema(description = "累计复制的文件数")
+    private long copiedFiles;
+
+    @Schema(description = "累计复制的字节数")
+    private long copiedBytes;
+
+    @Schema(description = "累计清理的旧版本数")
+    private long prunedReleases;
+
+    @Serial
+    private static final long serialVersionUID = 1L;
+}
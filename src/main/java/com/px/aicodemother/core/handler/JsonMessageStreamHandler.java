@@ -3,7 +3,12 @@ package com.px.aicodemother.core.handler;
 import cn.hutool.core.util.StrUtil;
 import cn.hutool.json.JSONObject;
 import cn.hutool.json.JSONUtil;
-import com.px.aicodemother.ai.model.message.*;
+import com.px.aicodemother.ai.model.message.AiResponseMessage;
+import com.px.aicodemother.ai.model.message.BuildStatusMessage;
+import com.px.aicodemother.ai.model.message.QueueStatusMessage;
+import com.px.aicodemother.ai.model.message.StreamMessage;
+import com.px.aicodemother.ai.model.message.ToolExecutedMessage;
+import com.px.aicodemother.ai.model.message.ToolRequestMessage;
 import com.px.aicodemother.ai.tools.BaseTool;
 import com.px.aicodemother.ai.tools.ToolManager;
 import com.px.aicodemother.model.entity.User;
@@ -24,7 +29,7 @@ import java.util.Set;
  * @version: 1.0
  * @className: JsonMessageStreamHandler
  * @date: 2025/9/23 11:17
- * @description: JSON消息流处理器，用于处理AI生成的JSON格式消息流并记录对话历史
+ * @description: 结构化消息流处理器，用于处理AI生成的工具调用消息流并记录对话历史
  */
 @Component
 @Slf4j
@@ -34,21 +39,22 @@ public class JsonMessageStreamHandler {
     private ToolManager toolManager;
 
     /**
-     * 处理原始JSON消息流，在流完成时记录AI回复到对话历史
+     * 处理原始消息流，在流完成时记录AI回复到对话历史
      * <p>
-     * 该方法会解析流中的JSON消息块，并根据消息类型进行不同处理：
+     * 该方法会根据流中消息对象的类型进行不同处理：
      * 1. AI响应消息：直接拼接响应内容
      * 2. 工具请求消息：记录工具调用信息
      * 3. 工具执行消息：格式化显示工具执行结果
+     * 4. 构建状态消息：原样输出，不计入对话历史
      * </p>
      *
-     * @param originFlux 原始JSON消息流
+     * @param originFlux 原始消息流
      * @param chatHistoryService 对话历史服务
      * @param appId 应用ID
      * @param loginUser 当前登录用户
-     * @return 处理后的文本流
+     * @return 处理后的消息流（展示文本包装为 AI 响应消息）
      */
-    public Flux<String> handle(Flux<String> originFlux,
+    public Flux<StreamMessage> handle(Flux<StreamMessage> originFlux,
                                ChatHistoryService chatHistoryService,
                                long appId, User loginUser) {
         // 收集数据用于生成后端记忆格式
@@ -56,12 +62,15 @@ public class JsonMessageStreamHandler {
         // 用于跟踪已经见过的工具ID，判断是否是第一次调用
         Set<String> seenToolIds = new HashSet<>();
         return originFlux
-                .map(chunk -> {
-                    // 解析每个 JSON 消息块
-                    return handleJsonMessageChunk(chunk, chatHistoryStringBuilder, seenToolIds);
+                .mapNotNull(message -> {
+                    // 构建状态直接交给 SSE 出口
+                    if (message instanceof BuildStatusMessage) {
+                        return message;
+                    }
+                    // 处理每个消息对象，过滤空字串
+                    String text = handleMessage(message, chatHistoryStringBuilder, seenToolIds);
+                    return StrUtil.isEmpty(text) ? null : new AiResponseMessage(text);
                 })
-                // 过滤空字串
-                .filter(StrUtil::isNotEmpty)
                 .doOnComplete(() -> {
                     // 流式响应完成后，添加 AI 消息到对话历史
                     String aiResponse = chatHistoryStringBuilder.toString();
@@ -75,27 +84,22 @@ public class JsonMessageStreamHandler {
     }
 
     /**
-     * 处理单个JSON消息块
+     * 处理单个消息对象
      *
-     * @param chunk JSON消息块
+     * @param message 消息对象
      * @param chatHistoryStringBuilder 用于收集对话历史
      * @param seenToolIds 用于记录已经见过的工具ID
      * @return 处理后的文本
      */
-    private String handleJsonMessageChunk(String chunk, StringBuilder chatHistoryStringBuilder, Set<String> seenToolIds) {
-        // 解析 JSON
-        StreamMessage streamMessage = JSONUtil.toBean(chunk, StreamMessage.class);
-        StreamMessageTypeEnum typeEnum = StreamMessageTypeEnum.getEnumByValue(streamMessage.getType());
-        switch (typeEnum) {
-            case AI_RESPONSE -> {
-                AiResponseMessage aiMessage = JSONUtil.toBean(chunk, AiResponseMessage.class);
+    private String handleMessage(StreamMessage message, StringBuilder chatHistoryStringBuilder, Set<String> seenToolIds) {
+        return switch (message) {
+            case AiResponseMessage aiMessage -> {
                 String data = aiMessage.getData();
                 // 直接拼接响应
                 chatHistoryStringBuilder.append(data);
-                return data;
+                yield data;
             }
-            case TOOL_REQUEST -> {
-                ToolRequestMessage toolRequestMessage = JSONUtil.toBean(chunk, ToolRequestMessage.class);
+            case ToolRequestMessage toolRequestMessage -> {
                 String toolId = toolRequestMessage.getId();
                 String toolName = toolRequestMessage.getName();
                 // 检查是否是第一次看到这个工具 ID
@@ -103,14 +107,13 @@ public class JsonMessageStreamHandler {
                     // 第一次调用这个工具，记录 ID 并完整返回工具信息
                     seenToolIds.add(toolId);
                     BaseTool tool = toolManager.getTool(toolName);
-                    return tool.generateToolRequestResponse();
+                    yield tool.generateToolRequestResponse();
                 } else {
                     // 不是第一次调用这个工具，直接返回空
-                    return "";
+                    yield "";
                 }
             }
-            case TOOL_EXECUTED -> {
-                ToolExecutedMessage toolExecutedMessage = JSONUtil.toBean(chunk, ToolExecutedMessage.class);
+            case ToolExecutedMessage toolExecutedMessage -> {
                 String toolName = toolExecutedMessage.getName();
                 JSONObject jsonObject = JSONUtil.parseObj(toolExecutedMessage.getArguments());
                 // 根据工具名称获取工具对象并生成工具调用结果
@@ -119,12 +122,11 @@ public class JsonMessageStreamHandler {
                 // 输出前端和要持久化的内容
                 String output = String.format("\n\n%s\n\n", result);
                 chatHistoryStringBuilder.append(output);
-                return output;
+                yield output;
             }
-            default -> {
-                log.error("不支持的消息类型: {}", typeEnum);
-                return "";
-            }
-        }
+            // 构建状态、排队状态不计入对话历史
+            case BuildStatusMessage buildStatusMessage -> "";
+            case QueueStatusMessage queueStatusMessage -> "";
+        };
     }
 }
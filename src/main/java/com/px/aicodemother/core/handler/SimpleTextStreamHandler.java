@@ -1,5 +1,7 @@
 package com.px.aicodemother.core.handler;
 
+import com.px.aicodemother.ai.model.message.AiResponseMessage;
+import com.px.aicodemother.ai.model.message.StreamMessage;
 import com.px.aicodemother.model.entity.User;
 import com.px.aicodemother.model.enums.ChatHistoryMessageTypeEnum;
 import com.px.aicodemother.service.ChatHistoryService;
@@ -21,21 +23,22 @@ public class SimpleTextStreamHandler {
     /**
      * 处理原始文本流，在流完成时记录AI回复到对话历史
      *
-     * @param originFlux 原始文本流
+     * @param originFlux 原始消息流（文本片段均为AI响应消息）
      * @param chatHistoryService 对话历史服务
      * @param appId 应用ID
      * @param loginUser 当前登录用户
-     * @return 处理后的文本流
+     * @return 处理后的消息流
      */
-    public Flux<String> handle(Flux<String> originFlux,
+    public Flux<StreamMessage> handle(Flux<StreamMessage> originFlux,
                                ChatHistoryService chatHistoryService,
                                long appId, User loginUser) {
         StringBuilder aiResponseBuilder = new StringBuilder();
         return originFlux
-                .map(chunk -> {
+                .ofType(AiResponseMessage.class)
+                .<StreamMessage>map(message -> {
                     // 收集AI响应内容
-                    aiResponseBuilder.append(chunk);
-                    return chunk;
+                    aiResponseBuilder.append(message.getData());
+                    return message;
                 })
                 .doOnComplete(() -> {
                     // 流式响应完成后，添加AI消息到对话历史
@@ -1,5 +1,6 @@
 package com.px.aicodemother.core.handler;
 
+import com.px.aicodemother.ai.model.message.StreamMessage;
 import com.px.aicodemother.model.entity.User;
 import com.px.aicodemother.model.enums.CodeGenTypeEnum;
 import com.px.aicodemother.service.ChatHistoryService;
@@ -18,8 +19,9 @@ import reactor.core.publisher.Flux;
  * @description:
  * 流处理器执行器
  * 根据代码生成类型创建合适的流处理器：
- * 1. 传统的 Flux<String> 流（HTML、MULTI_FILE） -> SimpleTextStreamHandler
+ * 1. 传统的文本流（HTML、MULTI_FILE） -> SimpleTextStreamHandler
  * 2. TokenStream 格式的复杂流（VUE_PROJECT） -> JsonMessageStreamHandler
+ * 两类流在进程内均以 StreamMessage 对象传递，输出展示文本（AI 响应消息）和构建状态消息，由 SSE 出口统一序列化
  */
 @Slf4j
 @Component
@@ -28,7 +30,7 @@ public class StreamHandlerExecutor {
     @Resource
     private JsonMessageStreamHandler jsonMessageStreamHandler;
 
-    public Flux<String> doExecute(Flux<String> originFlux,
+    public Flux<StreamMessage> doExecute(Flux<StreamMessage> originFlux,
                                   ChatHistoryService chatHistoryService,
                                   long appId, User loginUser, CodeGenTypeEnum codeGenType) {
         return switch (codeGenType) {
@@ -0,0 +1,442 @@
+package com.px.aicodemother.core.parser;
+
+import cn.hutool.core.util.CharUtil;
+import com.px.aicodemother.exception.BusinessException;
+import com.px.aicodemother.exception.ErrorCode;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.List;
+
+/**
+ * packageName: com.px.aicodemother.core.parser
+ *
+ * @author: idpeng
+ * @version: 1.0
+ * @className: StreamingCodeParser
+ * @date: 2026/10/18 12:40
+ * @description: 增量代码块解析器。逐段接收模型输出，用状态机识别 ```html / ```css / ```js 代码块，
+ * 代码块内容边到达边写入临时文件，代码块闭合后即原子替换为正式文件，无需缓存完整输出和正则扫描。
+ * 解析语义与 HtmlCodeParser、MultiFileCodeParser 完全一致：每种代码块独立取第一个完整匹配，内容去除首尾空白
+ */
+@Slf4j
+public class StreamingCodeParser {
+
+    /**
+     * 临时文件后缀
+     */
+    private static final String PART_SUFFIX = ".part";
+
+    /**
+     * 代码块对应的输出文件
+     *
+     * @param filename  文件名
+     * @param languages 代码块语言标识（小写）
+     * @param required  是否必需，必需文件缺失时整体保存失败
+     */
+    public record FenceFile(String filename, List<String> languages, boolean required) {
+    }
+
+    private final String baseDirPath;
+
+    private final List<FenceMatcher> matchers;
+
+    /**
+     * 未找到必需代码块时使用完整输出作为兜底（HTML 单文件模式），为 null 表示不兜底
+     */
+    private final TrimmedPartFile rawContent;
+
+    private boolean closed;
+
+    private IOException writeError;
+
+    /**
+     * 创建增量解析器
+     *
+     * @param files              代码块对应的输出文件
+     * @param rawContentFallback 必需代码块缺失时是否以完整输出作为第一个必需文件的内容
+     * @param baseDirPath        输出目录
+     */
+    public StreamingCodeParser(List<FenceFile> files, boolean rawContentFallback, String baseDirPath) {
+        this.baseDirPath = baseDirPath;
+        this.matchers = files.stream().map(file -> new FenceMatcher(file, baseDirPath)).toList();
+        this.rawContent = rawContentFallback
+                ? new TrimmedPartFile(Path.of(baseDirPath, "raw_output" + PART_SUFFIX))
+                : null;
+    }
+
+    /**
+     * 接收一段模型输出。写入失败不会中断流，失败原因在 finish 时抛出
+     *
+     * @param chunk 输出片段
+     */
+    public void accept(String chunk) {
+        if (closed || writeError != null || chunk == null) {
+            return;
+        }
+        try {
+            for (int i = 0; i < chunk.length(); i++) {
+                char c = chunk.charAt(i);
+                if (rawContent != null) {
+                    rawContent.write(c);
+                }
+                for (FenceMatcher matcher : matchers) {
+                    matcher.accept(c);
+                }
+            }
+            publishReady();
+        } catch (IOException e) {
+            log.error("代码块写入失败，目录: {}, 错误: {}", baseDirPath, e.getMessage());
+            writeError = e;
+            discardAll();
+        }
+    }
+
+    /**
+     * 输出结束，发布剩余文件
+     *
+     * @return 输出目录
+     */
+    public File finish() {
+        if (closed) {
+            return new File(baseDirPath);
+        }
+        if (writeError != null) {
+            closed = true;
+            throw new BusinessException(ErrorCode.SYSTEM_ERROR, "代码写入失败：" + writeError.getMessage());
+        }
+        try {
+            // 未闭合的代码块等同于未匹配
+            for (FenceMatcher matcher : matchers) {
+                if (matcher.state != State.DONE) {
+                    matcher.output.discard();
+                }
+            }
+            publishReady();
+            FenceMatcher missing = matchers.stream()
+                    .filter(matcher -> matcher.file.required() && !matcher.published)
+                    .findFirst()
+                    .orElse(null);
+            if (missing == null) {
+                if (rawContent != null) {
+                    rawContent.discard();
+                }
+            } else if (rawContent != null && !missing.found() && rawContent.nonBlank) {
+                // 未找到代码块，使用完整输出兜底
+                rawContent.commit(Path.of(baseDirPath, missing.file.filename()));
+                missing.published = true;
+            } else {
+                discardAll();
+                throw new BusinessException(ErrorCode.SYSTEM_ERROR, missing.file.filename() + " 代码内容不能为空");
+            }
+            return new File(baseDirPath);
+        } catch (IOException e) {
+            discardAll();
+            throw new BusinessException(ErrorCode.SYSTEM_ERROR, "代码写入失败：" + e.getMessage());
+        } finally {
+            closed = true;
+        }
+    }
+
+    /**
+     * 流异常或取消时丢弃尚未发布的临时文件
+     */
+    public void abort() {
+        if (!closed) {
+            closed = true;
+            discardAll();
+        }
+    }
+
+    /**
+     * 发布已闭合的代码块：必需文件闭合且非空白即发布；可选文件需等所有必需文件发布后再发布，
+     * 与原保存逻辑一致（必需文件校验失败时不写入任何文件）
+     */
+    private void publishReady() throws IOException {
+        boolean requiredPublished = true;
+        for (FenceMatcher matcher : matchers) {
+            if (matcher.file.required()) {
+                if (!matcher.published && matcher.state == State.DONE && matcher.output.nonBlank) {
+                    matcher.output.commit(Path.of(baseDirPath, matcher.file.filename()));
+                    matcher.published = true;
+                }
+                requiredPublished &= matcher.published;
+            }
+        }
+        if (!requiredPublished) {
+            return;
+        }
+        for (FenceMatcher matcher : matchers) {
+            if (!matcher.published && matcher.state == State.DONE) {
+                if (matcher.output.nonBlank) {
+                    matcher.output.commit(Path.of(baseDirPath, matcher.file.filename()));
+                } else {
+                    // 空白内容不写文件
+                    matcher.output.discard();
+                }
+                matcher.published = true;
+            }
+        }
+    }
+
+    private void discardAll() {
+        for (FenceMatcher matcher : matchers) {
+            if (!matcher.published) {
+                matcher.output.discard();
+            }
+        }
+        if (rawContent != null) {
+            rawContent.discard();
+        }
+    }
+
+    /**
+     * 正则 \s 对应的空白字符
+     */
+    private static boolean isRegexSpace(char c) {
+        return c == ' ' || c == '\t' || c == '\n' || c == 0x0B || c == '\f' || c == '\r';
+    }
+
+    private enum State {
+        /**
+         * 寻找代码块起始反引号
+         */
+        SEARCH,
+        /**
+         * 读取起始的三个反引号
+         */
+        TICKS,
+        /**
+         * 读取语言标识
+         */
+        LANGUAGE,
+        /**
+         * 语言标识后的空白，需包含换行
+         */
+        HEADER_SPACE,
+        /**
+         * 代码块内容
+         */
+        BODY,
+        /**
+         * 已找到第一个完整代码块
+         */
+        DONE
+    }
+
+    /**
+     * 单个代码块的匹配状态机，等价于正则 ```(lang)\s*\n([\s\S]*?)```（忽略大小写）的第一个匹配
+     */
+    private static class FenceMatcher {
+
+        private final FenceFile file;
+
+        private final TrimmedPartFile output;
+
+        /**
+         * 当前候选起始位置以来的字符，匹配失败时从下一个字符重新扫描
+         */
+        private final StringBuilder candidate = new StringBuilder();
+
+        private final StringBuilder language = new StringBuilder();
+
+        private State state = State.SEARCH;
+
+        private int ticks;
+
+        private boolean headerNewline;
+
+        private boolean published;
+
+        FenceMatcher(FenceFile file, String baseDirPath) {
+            this.file = file;
+            this.output = new TrimmedPartFile(Path.of(baseDirPath, file.filename() + PART_SUFFIX));
+        }
+
+        /**
+         * 是否找到去除首尾空白后非空的代码块（对应原解析器给结果字段赋值的条件）
+         */
+        boolean found() {
+            return state == State.DONE && output.hasContent;
+        }
+
+        void accept(char c) throws IOException {
+            switch (state) {
+                case SEARCH -> {
+                    if (c == '`') {
+                        candidate.setLength(0);
+                        candidate.append(c);
+                        ticks = 1;
+                        state = State.TICKS;
+                    }
+                }
+                case TICKS -> {
+                    candidate.append(c);
+                    if (c == '`' && ticks < 3) {
+                        ticks++;
+                    } else if (ticks == 3) {
+                        language.setLength(0);
+                        state = State.LANGUAGE;
+                        acceptLanguage(c);
+                    } else {
+                        restart();
+                    }
+                }
+                case LANGUAGE -> {
+                    candidate.append(c);
+                    acceptLanguage(c);
+                }
+                case HEADER_SPACE -> {
+                    candidate.append(c);
+                    if (isRegexSpace(c)) {
+                        headerNewline |= c == '\n';
+                    } else if (headerNewline) {
+                        candidate.setLength(0);
+                        ticks = 0;
+                        state = State.BODY;
+                        acceptBody(c);
+                    } else {
+                        restart();
+                    }
+                }
+                case BODY -> acceptBody(c);
+                case DONE -> {
+                }
+            }
+        }
+
+        private void acceptLanguage(char c) {
+            char lower = c < 128 ? Character.toLowerCase(c) : c;
+            String current = language.toString();
+            String next = current + lower;
+            if (file.languages().stream().anyMatch(lang -> lang.startsWith(next))) {
+                language.append(lower);
+            } else if (isRegexSpace(c) && file.languages().contains(current)) {
+                headerNewline = c == '\n';
+                state = State.HEADER_SPACE;
+            } else {
+                restart();
+            }
+        }
+
+        private void acceptBody(char c) throws IOException {
+            if (c == '`') {
+                if (++ticks == 3) {
+                    output.close();
+                    state = State.DONE;
+                }
+                return;
+            }
+            for (; ticks > 0; ticks--) {
+                output.write('`');
+            }
+            output.write(c);
+        }
+
+        /**
+         * 当前候选匹配失败，从候选起始的下一个字符重新扫描
+         */
+        private void restart() {
+            String replay = candidate.substring(1);
+            candidate.setLength(0);
+            state = State.SEARCH;
+            for (int i = 0; i < replay.length(); i++) {
+                try {
+                    accept(replay.charAt(i));
+                } catch (IOException e) {
+                    // 重新扫描只会发生在代码块开始之前，不会写文件
+                    throw new IllegalStateException(e);
+                }
+            }
+        }
+    }
+
+    /**
+     * 去除首尾空白后写入的临时文件，语义与 String.trim() 一致；
+     * 尾部空白先暂存，遇到后续非空白字符时再写出
+     */
+    private static class TrimmedPartFile {
+
+        private final Path path;
+
+        private Writer writer;
+
+        private final StringBuilder pendingSpace = new StringBuilder();
+
+        /**
+         * 去除首尾空白后是否非空
+         */
+        private boolean hasContent;
+
+        /**
+         * 去除首尾空白后是否包含非空白字符（与 StrUtil.isNotBlank 一致）
+         */
+        private boolean nonBlank;
+
+        TrimmedPartFile(Path path) {
+            this.path = path;
+        }
+
+        void write(char c) throws IOException {
+            if (c <= ' ') {
+                if (hasContent) {
+                    pendingSpace.append(c);
+                }
+                return;
+            }
+            if (writer == null) {
+                open();
+            }
+            for (int i = 0; i < pendingSpace.length(); i++) {
+                out(pendingSpace.charAt(i));
+            }
+            pendingSpace.setLength(0);
+            out(c);
+        }
+
+        private void out(char c) throws IOException {
+            writer.write(c);
+            hasContent = true;
+            if (!CharUtil.isBlankChar(c)) {
+                nonBlank = true;
+            }
+        }
+
+        private void open() throws IOException {
+            writer = new BufferedWriter(new OutputStreamWriter(Files.newOutputStream(path), StandardCharsets.UTF_8));
+        }
+
+        void close() throws IOException {
+            if (writer != null) {
+                writer.close();
+            }
+        }
+
+        void commit(Path target) throws IOException {
+            close();
+            try {
+                Files.move(path, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(path, target, StandardCopyOption.REPLACE_EXISTING);
+            }
+        }
+
+        void discard() {
+            try {
+                close();
+                Files.deleteIfExists(path);
+            } catch (IOException e) {
+                log.warn("删除临时文件失败: {}", path);
+            }
+        }
+    }
+}
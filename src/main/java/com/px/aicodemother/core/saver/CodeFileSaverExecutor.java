@@ -2,6 +2,7 @@ package com.px.aicodemother.core.saver;
 
 import com.px.aicodemother.ai.model.HtmlCodeResult;
 import com.px.aicodemother.ai.model.MultiFileCodeResult;
+import com.px.aicodemother.core.parser.StreamingCodeParser;
 import com.px.aicodemother.exception.BusinessException;
 import com.px.aicodemother.exception.ErrorCode;
 import com.px.aicodemother.model.enums.CodeGenTypeEnum;
@@ -37,4 +38,19 @@ public class CodeFileSaverExecutor {
             default -> throw new BusinessException(ErrorCode.SYSTEM_ERROR, "不支持的代码生成类型: " + codeGenType);
         };
     }
+
+    /**
+     * 创建流式保存的增量解析器
+     *
+     * @param codeGenType 代码生成类型
+     * @param appId       应用ID
+     * @return 增量解析器
+     */
+    public static StreamingCodeParser openStream(CodeGenTypeEnum codeGenType, Long appId) {
+        return switch (codeGenType) {
+            case HTML -> htmlCodeFileSaver.openStream(appId);
+            case MULTI_FILE -> multiFileCodeFileSaver.openStream(appId);
+            default -> throw new BusinessException(ErrorCode.SYSTEM_ERROR, "不支持的代码生成类型: " + codeGenType);
+        };
+    }
 }
@@ -3,12 +3,14 @@ package com.px.aicodemother.core.saver;
 import cn.hutool.core.io.FileUtil;
 import cn.hutool.core.util.StrUtil;
 import com.px.aicodemother.constants.AppConstant;
+import com.px.aicodemother.core.parser.StreamingCodeParser;
 import com.px.aicodemother.exception.BusinessException;
 import com.px.aicodemother.exception.ErrorCode;
 import com.px.aicodemother.model.enums.CodeGenTypeEnum;
 
 import java.io.File;
 import java.nio.charset.StandardCharsets;
+import java.util.List;
 
 /**
  * packageName: com.px.aicodemother.core.saver
@@ -34,16 +36,46 @@ public abstract class CodeFileSaverTemplate<T> {
      * @return 保存代码文件的目录File对象
      */
     public final File saveCode(T result, Long appId) {
+        // 构建唯一目录后保存
+        return saveCode(result, buildUniqueDir(appId));
+    }
+
+    /**
+     * 在指定目录保存代码文件
+     *
+     * @param result      代码生成结果对象
+     * @param baseDirPath 基础目录路径
+     * @return 保存代码文件的目录File对象
+     */
+    public final File saveCode(T result, String baseDirPath) {
         // 1. 验证输入
         validateInput(result);
-        // 2. 构建唯一目录
-        String baseDirPath = buildUniqueDir(appId);
-        // 3. 保存文件（具体实现由子类提供）
+        // 2. 保存文件（具体实现由子类提供）
         saveFiles(result, baseDirPath);
-        // 4. 返回目录文件对象
+        // 3. 返回目录文件对象
         return new File(baseDirPath);
     }
 
+    /**
+     * 流式保存：创建增量解析器，代码块内容随模型输出直接写入目录
+     *
+     * @param appId 应用ID
+     * @return 增量解析器
+     */
+    public final StreamingCodeParser openStream(Long appId) {
+        return openStream(buildUniqueDir(appId));
+    }
+
+    /**
+     * 在指定目录创建增量解析器
+     *
+     * @param baseDirPath 基础目录路径
+     * @return 增量解析器
+     */
+    public final StreamingCodeParser openStream(String baseDirPath) {
+        return new StreamingCodeParser(getStreamingFiles(), isRawContentFallback(), baseDirPath);
+    }
+
     /**
      * 验证输入参数
      *
@@ -100,4 +132,20 @@ public abstract class CodeFileSaverTemplate<T> {
      * @param baseDirPath 基础目录路径
      */
     protected abstract void saveFiles(T result, String baseDirPath);
+
+    /**
+     * 获取流式保存时代码块与文件的对应关系，需与 saveFiles 保持一致
+     *
+     * @return 代码块对应的输出文件
+     */
+    protected abstract List<StreamingCodeParser.FenceFile> getStreamingFiles();
+
+    /**
+     * 流式保存时未找到必需代码块，是否以完整输出兜底
+     *
+     * @return 默认不兜底
+     */
+    protected boolean isRawContentFallback() {
+        return false;
+    }
 }
\ No newline at end of file
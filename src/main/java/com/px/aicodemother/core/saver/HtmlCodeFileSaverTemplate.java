@@ -2,10 +2,13 @@ package com.px.aicodemother.core.saver;
 
 import cn.hutool.core.util.StrUtil;
 import com.px.aicodemother.ai.model.HtmlCodeResult;
+import com.px.aicodemother.core.parser.StreamingCodeParser;
 import com.px.aicodemother.exception.BusinessException;
 import com.px.aicodemother.exception.ErrorCode;
 import com.px.aicodemother.model.enums.CodeGenTypeEnum;
 
+import java.util.List;
+
 /**
  * packageName: com.px.aicodemother.core.saver
  *
@@ -39,6 +42,26 @@ public class HtmlCodeFileSaverTemplate extends CodeFileSaverTemplate<HtmlCodeRes
         writeToFile(baseDirPath, "index.html", result.getHtmlCode());
     }
 
+    /**
+     * 流式保存的代码块：html 代码块写入 index.html
+     *
+     * @return 代码块对应的输出文件
+     */
+    @Override
+    protected List<StreamingCodeParser.FenceFile> getStreamingFiles() {
+        return List.of(new StreamingCodeParser.FenceFile("index.html", List.of("html"), true));
+    }
+
+    /**
+     * 与 HtmlCodeParser 一致，未找到代码块时将整个内容作为 HTML
+     *
+     * @return true
+     */
+    @Override
+    protected boolean isRawContentFallback() {
+        return true;
+    }
+
     /**
      * 验证输入参数
      *
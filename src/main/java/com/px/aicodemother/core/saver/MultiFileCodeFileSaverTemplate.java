@@ -2,10 +2,13 @@ package com.px.aicodemother.core.saver;
 
 import cn.hutool.core.util.StrUtil;
 import com.px.aicodemother.ai.model.MultiFileCodeResult;
+import com.px.aicodemother.core.parser.StreamingCodeParser;
 import com.px.aicodemother.exception.BusinessException;
 import com.px.aicodemother.exception.ErrorCode;
 import com.px.aicodemother.model.enums.CodeGenTypeEnum;
 
+import java.util.List;
+
 /**
  * packageName: com.px.aicodemother.core.saver
  *
@@ -42,6 +45,20 @@ public class MultiFileCodeFileSaverTemplate extends CodeFileSaverTemplate<MultiF
         writeToFile(baseDirPath, "script.js", result.getJsCode());
     }
 
+    /**
+     * 流式保存的代码块：html 必需，css 和 js 可选
+     *
+     * @return 代码块对应的输出文件
+     */
+    @Override
+    protected List<StreamingCodeParser.FenceFile> getStreamingFiles() {
+        return List.of(
+                new StreamingCodeParser.FenceFile("index.html", List.of("html"), true),
+                new StreamingCodeParser.FenceFile("style.css", List.of("css"), false),
+                new StreamingCodeParser.FenceFile("script.js", List.of("js", "javascript"), false)
+        );
+    }
+
     /**
      * 验证输入参数
      *
@@ -0,0 +1,77 @@
+package com.px.aicodemother.event;
+
+import com.mybatisflex.core.paginate.Page;
+import com.px.aicodemother.common.BaseResponse;
+import com.px.aicodemother.constants.AppConstant;
+import com.px.aicodemother.manager.cache.TwoLevelCacheManager;
+import com.px.aicodemother.model.vo.app.AppVO;
+import com.px.aicodemother.utils.CacheKeyUtils;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.Resource;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Objects;
+import java.util.stream.Stream;
+
+/**
+ * packageName: com.px.aicodemother.event
+ *
+ * @author: idpeng
+ * @version: 1.0
+ * @className: AppCacheInvalidator
+ * @date: 2026/10/18 19:25
+ * @description: 应用缓存失效器。精选应用分页缓存按页内包含的应用ID和应用创建者ID打标签，
+ * 应用变更时只删除包含该应用的页，用户变更时只删除包含该用户应用的页（页内嵌有创建者信息）；
+ * 精选应用的增删改可能改变列表成员和排序，此时清空整个缓存。在事务提交后执行，没有事务时立即执行
+ */
+@Slf4j
+@Component
+public class AppCacheInvalidator {
+
+    @Resource
+    private TwoLevelCacheManager cacheManager;
+
+    @PostConstruct
+    public void init() {
+        cacheManager.registerTagExtractor(AppConstant.GOOD_APP_PAGE_CACHE, AppCacheInvalidator::extractAppTags);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onAppChange(AppChangeEvent event) {
+        if (event.featured() && event.type() != AppChangeEvent.Type.COVER_UPDATED
+                && event.type() != AppChangeEvent.Type.DEPLOYED) {
+            cacheManager.getCache(AppConstant.GOOD_APP_PAGE_CACHE).clear();
+            log.info("精选应用变更，清空精选应用缓存: appId={}, type={}", event.appId(), event.type());
+            return;
+        }
+        cacheManager.evictByTag(AppConstant.GOOD_APP_PAGE_CACHE, CacheKeyUtils.generateTag("app", event.appId()));
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onUserChange(UserChangeEvent event) {
+        cacheManager.evictByTag(AppConstant.GOOD_APP_PAGE_CACHE, CacheKeyUtils.generateTag("user", event.userId()));
+    }
+
+    /**
+     * 从精选应用分页结果中提取应用标签和创建者标签
+     */
+    private static Collection<String> extractAppTags(Object value) {
+        if (!(value instanceof BaseResponse<?> response) || !(response.getData() instanceof Page<?> page)
+                || page.getRecords() == null) {
+            return List.of();
+        }
+        return page.getRecords().stream()
+                .filter(AppVO.class::isInstance)
+                .map(AppVO.class::cast)
+                .flatMap(app -> Stream.of(
+                        app.getId() == null ? null : CacheKeyUtils.generateTag("app", app.getId()),
+                        app.getUserId() == null ? null : CacheKeyUtils.generateTag("user", app.getUserId())))
+                .filter(Objects::nonNull)
+                .distinct()
+                .toList();
+    }
+}
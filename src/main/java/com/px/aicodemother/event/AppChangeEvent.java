@@ -0,0 +1,39 @@
+package com.px.aicodemother.event;
+
+/**
+ * packageName: com.px.aicodemother.event
+ *
+ * @author: idpeng
+ * @version: 1.0
+ * @className: AppChangeEvent
+ * @date: 2026/10/18 19:20
+ * @description: 应用变更事件，应用写入后发布，由缓存失效器等订阅
+ *
+ * @param appId    应用ID
+ * @param type     变更类型
+ * @param featured 变更前或变更后是否为精选应用（精选列表的成员或排序可能因此变化）
+ */
+public record AppChangeEvent(Long appId, Type type, boolean featured) {
+
+    /**
+     * 变更类型
+     */
+    public enum Type {
+        /**
+         * 应用名称、优先级等基本信息更新
+         */
+        INFO_UPDATED,
+        /**
+         * 应用删除
+         */
+        DELETED,
+        /**
+         * 应用部署或回滚
+         */
+        DEPLOYED,
+        /**
+         * 应用封面更新
+         */
+        COVER_UPDATED
+    }
+}
@@ -0,0 +1,30 @@
+package com.px.aicodemother.event;
+
+/**
+ * packageName: com.px.aicodemother.event
+ *
+ * @author: idpeng
+ * @version: 1.0
+ * @className: UserChangeEvent
+ * @date: 2026/10/18 19:20
+ * @description: 用户变更事件，用户更新或删除后发布，由缓存失效器等订阅（精选应用分页中嵌有创建者信息）
+ *
+ * @param userId 用户ID
+ * @param type   变更类型
+ */
+public record UserChangeEvent(Long userId, Type type) {
+
+    /**
+     * 变更类型
+     */
+    public enum Type {
+        /**
+         * 用户名、头像等信息更新
+         */
+        UPDATED,
+        /**
+         * 用户删除
+         */
+        DELETED
+    }
+}
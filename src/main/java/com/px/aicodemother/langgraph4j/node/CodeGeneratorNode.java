@@ -1,5 +1,6 @@
 package com.px.aicodemother.langgraph4j.node;
 
+import com.px.aicodemother.ai.model.message.StreamMessage;
 import com.px.aicodemother.constants.AppConstant;
 import com.px.aicodemother.core.AiCodeGeneratorFacade;
 import com.px.aicodemother.langgraph4j.model.QualityResult;
@@ -45,7 +46,7 @@ public class CodeGeneratorNode {
 
             Long appId = 0L;
             // 调用AI代码生成服务生成代码流
-            Flux<String> codeStream = codeGeneratorFacade.generateAndSaveCodeStream(userMessage, generationType, appId);
+            Flux<StreamMessage> codeStream = codeGeneratorFacade.generateAndSaveCodeStream(userMessage, generationType, appId);
 
             // 阻塞等待代码生成完成，超时时间10分钟
             codeStream.blockLast(Duration.ofMinutes(10));
@@ -0,0 +1,71 @@
+package com.px.aicodemother.manager;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Builder;
+import lombok.Data;
+
+import java.io.Serial;
+import java.io.Serializable;
+
+/**
+ * packageName: com.px.aicodemother.manager
+ *
+ * @author: idpeng
+ * @version: 1.0
+ * @className: BrowserPoolStats
+ * @date: 2026/10/18 15:08
+ * @description: 无头浏览器会话池统计信息
+ */
+@Data
+@Builder
+@Schema(description = "无头浏览器会话池统计信息")
+public class BrowserPoolStats implements Serializable {
+
+    @Schema(description = "最大会话数")
+    private int maxSessions;
+
+    @Schema(description = "当前已打开的会话数")
+    private int openSessions;
+
+    @Schema(description = "当前空闲会话数")
+    private int idleSessions;
+
+    @Schema(description = "当前使用中的会话数")
+    private int activeSessions;
+
+    @Schema(description = "当前等待会话的任务数")
+    private int waiting;
+
+    @Schema(description = "最大等待任务数")
+    private int maxWaiting;
+
+    @Schema(description = "累计创建的会话数")
+    private long createdSessions;
+
+    @Schema(description = "累计因达到使用上限回收的会话数")
+    private long recycledSessions;
+
+    @Schema(description = "累计因崩溃、超时或健康检查失败销毁的会话数")
+    private long brokenSessions;
+
+    @Schema(description = "累计渲染次数")
+    private long renders;
+
+    @Schema(description = "累计渲染失败次数")
+    private long failedRenders;
+
+    @Schema(description = "累计因排队已满或等待超时被拒绝的任务数")
+    private long rejected;
+
+    @Schema(description = "平均渲染耗时（毫秒）")
+    private long avgRenderMillis;
+
+    @Schema(description = "最大渲染耗时（毫秒）")
+    private long maxRenderMillis;
+
+    @Schema(description = "平均等待会话耗时（毫秒）")
+    private long avgWaitMillis;
+
+    @Serial
+    private static final long serialVersionUID = 1L;
+}
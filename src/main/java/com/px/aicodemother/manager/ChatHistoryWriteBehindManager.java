@@ -0,0 +1,413 @@
+package com.px.aicodemother.manager;
+
+import cn.hutool.core.collection.CollUtil;
+import cn.hutool.core.io.FileUtil;
+import cn.hutool.json.JSONConfig;
+import cn.hutool.json.JSONUtil;
+import com.mybatisflex.core.keygen.KeyGeneratorFactory;
+import com.mybatisflex.core.keygen.KeyGenerators;
+import com.px.aicodemother.mapper.ChatHistoryMapper;
+import com.px.aicodemother.model.entity.ChatHistory;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DuplicateKeyException;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * packageName: com.px.aicodemother.manager
+ *
+ * @author: idpeng
+ * @version: 1.0
+ * @className: ChatHistoryWriteBehindManager
+ * @date: 2026/10/18 11:58
+ * @description: 对话历史异步批量写入管理器。消息先进入内存队列，由后台线程按数量或时间攒批后多行插入；
+ * 入库失败的批次落盘到本地溢写文件并定时重试，未入库的消息仍可被读取
+ */
+@Slf4j
+public class ChatHistoryWriteBehindManager {
+
+    /**
+     * 溢写文件中的日期格式，与数据库 datetime 精度一致
+     */
+    private static final JSONConfig SPILL_JSON_CONFIG = JSONConfig.create().setDateFormat("yyyy-MM-dd HH:mm:ss");
+
+    private final ChatHistoryMapper chatHistoryMapper;
+
+    private final int batchSize;
+
+    private final long flushIntervalMillis;
+
+    private final long spillRetryIntervalMillis;
+
+    /**
+     * 溢写文件
+     */
+    private final File spillFile;
+
+    /**
+     * 等待刷盘的消息队列
+     */
+    private final BlockingQueue<ChatHistory> queue;
+
+    /**
+     * 尚未确认入库的消息（包括队列中、刷盘中和已溢写的），appId -> (id -> 消息)，用于读取时合并
+     */
+    private final Map<Long, Map<Long, ChatHistory>> pendingByAppId = new ConcurrentHashMap<>();
+
+    /**
+     * 溢写文件读写锁
+     */
+    private final Object spillLock = new Object();
+
+    /**
+     * 入库锁：检查消息是否仍待入库与写入数据库在同一临界区内完成，丢弃应用消息时也持有该锁，
+     * 保证应用对话历史被删除后不会再有该应用的消息写入
+     */
+    private final Object insertLock = new Object();
+
+    private final AtomicLong flushedBatches = new AtomicLong();
+
+    private final AtomicLong flushedRows = new AtomicLong();
+
+    private final AtomicLong failedFlushes = new AtomicLong();
+
+    private final AtomicLong spilledRows = new AtomicLong();
+
+    private final AtomicLong syncFallbackRows = new AtomicLong();
+
+    private volatile long lastSpillRetryTime;
+
+    private volatile boolean running;
+
+    private Thread flushThread;
+
+    public ChatHistoryWriteBehindManager(ChatHistoryMapper chatHistoryMapper, int batchSize, long flushIntervalMillis,
+                                         long spillRetryIntervalMillis, int maxQueuedMessages, String spillDir) {
+        this.chatHistoryMapper = chatHistoryMapper;
+        this.batchSize = batchSize;
+        this.flushIntervalMillis = flushIntervalMillis;
+        this.spillRetryIntervalMillis = spillRetryIntervalMillis;
+        this.queue = new LinkedBlockingQueue<>(maxQueuedMessages);
+        this.spillFile = new File(spillDir, "chat_history_spill.jsonl");
+    }
+
+    /**
+     * 启动后台刷盘线程，并将上次未入库的溢写消息重新纳入待读取集合
+     */
+    public void start() {
+        List<ChatHistory> spilled = readSpillFile();
+        spilled.forEach(this::markPending);
+        if (!spilled.isEmpty()) {
+            log.warn("发现 {} 条未入库的对话历史溢写记录，将在后台重试写入", spilled.size());
+        }
+        running = true;
+        flushThread = Thread.ofPlatform()
+                .name("chat-history-flusher")
+                .daemon(true)
+                .start(this::runFlushLoop);
+    }
+
+    /**
+     * 停止后台线程，并同步刷出所有剩余消息，失败的消息写入溢写文件
+     */
+    public void shutdown() {
+        running = false;
+        if (flushThread != null) {
+            flushThread.interrupt();
+            try {
+                flushThread.join(TimeUnit.SECONDS.toMillis(10));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        retrySpillFile();
+        // running 已置为 false，之后提交的消息不会留在队列中（见 submit），排空到没有剩余为止
+        List<ChatHistory> remaining = new ArrayList<>();
+        while (queue.drainTo(remaining) > 0) {
+            for (List<ChatHistory> batch : CollUtil.split(remaining, batchSize)) {
+                flush(batch);
+            }
+            remaining.clear();
+        }
+        log.info("对话历史写入管理器已关闭，累计批次: {}, 累计消息: {}", flushedBatches.get(), flushedRows.get());
+    }
+
+    /**
+     * 提交一条对话历史，补全主键和时间后进入队列；队列已满时退化为同步写入
+     *
+     * @param chatHistory 对话历史
+     * @return 是否提交成功
+     */
+    public boolean submit(ChatHistory chatHistory) {
+        // 主键和时间在提交时确定，保证读取合并与最终入库的数据一致
+        if (chatHistory.getId() == null) {
+            Object id = KeyGeneratorFactory.getKeyGenerator(KeyGenerators.snowFlakeId).generate(chatHistory, "id");
+            chatHistory.setId((Long) id);
+        }
+        LocalDateTime now = LocalDateTime.now().truncatedTo(ChronoUnit.SECONDS);
+        chatHistory.setCreateTime(now);
+        chatHistory.setUpdateTime(now);
+        chatHistory.setIsDelete(0);
+        markPending(chatHistory);
+        if (running && queue.offer(chatHistory)) {
+            // 入队后再确认一次：若关闭已经开始且消息还没被最后一次排空取走，收回来同步写入
+            if (running || !queue.remove(chatHistory)) {
+                return true;
+            }
+        }
+        // 队列已满或已关闭，同步写入避免丢失
+        syncFallbackRows.incrementAndGet();
+        try {
+            return chatHistoryMapper.insert(chatHistory) > 0;
+        } finally {
+            unmarkPending(List.of(chatHistory));
+        }
+    }
+
+    /**
+     * 获取某个应用尚未入库的消息
+     *
+     * @param appId 应用ID
+     * @return 未入库的消息
+     */
+    public Collection<ChatHistory> getPending(Long appId) {
+        Map<Long, ChatHistory> pending = pendingByAppId.get(appId);
+        return pending == null ? List.of() : List.copyOf(pending.values());
+    }
+
+    /**
+     * 丢弃某个应用尚未入库的消息（应用对话历史被删除时调用）
+     *
+     * @param appId 应用ID
+     */
+    public void discard(Long appId) {
+        synchronized (insertLock) {
+            pendingByAppId.remove(appId);
+            queue.removeIf(chatHistory -> appId.equals(chatHistory.getAppId()));
+        }
+    }
+
+    /**
+     * 获取统计信息
+     *
+     * @return 统计信息
+     */
+    public ChatHistoryWriteBehindStats getStats() {
+        long pending = pendingByAppId.values().stream().mapToLong(Map::size).sum();
+        return ChatHistoryWriteBehindStats.builder()
+                .queuedMessages(queue.size())
+                .pendingMessages(pending)
+                .flushedBatches(flushedBatches.get())
+                .flushedRows(flushedRows.get())
+                .failedFlushes(failedFlushes.get())
+                .spilledRows(spilledRows.get())
+                .syncFallbackRows(syncFallbackRows.get())
+                .spillFileBytes(spillFile.exists() ? spillFile.length() : 0)
+                .build();
+    }
+
+    /**
+     * 后台刷盘循环：等到第一条消息后，在刷盘间隔内尽量攒满一批
+     */
+    private void runFlushLoop() {
+        List<ChatHistory> batch = new ArrayList<>(batchSize);
+        while (running) {
+            try {
+                ChatHistory first = queue.poll(flushIntervalMillis, TimeUnit.MILLISECONDS);
+                if (first != null) {
+                    batch.add(first);
+                    long deadline = System.currentTimeMillis() + flushIntervalMillis;
+                    while (batch.size() < batchSize) {
+                        queue.drainTo(batch, batchSize - batch.size());
+                        long waitMillis = deadline - System.currentTimeMillis();
+                        if (batch.size() >= batchSize || waitMillis <= 0) {
+                            break;
+                        }
+                        ChatHistory next = queue.poll(waitMillis, TimeUnit.MILLISECONDS);
+                        if (next == null) {
+                            break;
+                        }
+                        batch.add(next);
+                    }
+                }
+                if (System.currentTimeMillis() - lastSpillRetryTime >= spillRetryIntervalMillis) {
+                    retrySpillFile();
+                }
+                if (!batch.isEmpty()) {
+                    flush(batch);
+                    batch = new ArrayList<>(batchSize);
+                }
+            } catch (InterruptedException e) {
+                // 关闭时被中断，先刷出已取出的消息，队列中剩余的由 shutdown 统一刷出
+                if (!batch.isEmpty()) {
+                    flush(batch);
+                }
+                return;
+            } catch (Exception e) {
+                log.error("对话历史刷盘线程异常", e);
+            }
+        }
+    }
+
+    /**
+     * 多行插入一批消息，失败时写入溢写文件
+     *
+     * @param batch 消息批次
+     */
+    private void flush(List<ChatHistory> batch) {
+        List<ChatHistory> rows;
+        try {
+            rows = insertPending(batch);
+        } catch (PendingInsertException e) {
+            failedFlushes.incrementAndGet();
+            log.error("对话历史批量写入失败，{} 条消息写入溢写文件: {}", e.rows.size(), e.getCause().getMessage());
+            appendSpillFile(e.rows);
+            return;
+        }
+        if (!rows.isEmpty()) {
+            flushedBatches.incrementAndGet();
+            flushedRows.addAndGet(rows.size());
+        }
+    }
+
+    /**
+     * 在入库锁内过滤掉已被丢弃的消息并写入数据库，写入成功后移出待入库集合
+     *
+     * @param batch 消息批次
+     * @return 实际写入的消息
+     * @throws PendingInsertException 写入失败，携带本次尝试写入的消息
+     */
+    private List<ChatHistory> insertPending(List<ChatHistory> batch) {
+        synchronized (insertLock) {
+            List<ChatHistory> rows = batch.stream().filter(this::isPending).toList();
+            if (rows.isEmpty()) {
+                return rows;
+            }
+            try {
+                insertRows(rows);
+            } catch (Exception e) {
+                throw new PendingInsertException(rows, e);
+            }
+            unmarkPending(rows);
+            return rows;
+        }
+    }
+
+    /**
+     * 写入失败，携带尝试写入的消息
+     */
+    private static class PendingInsertException extends RuntimeException {
+
+        private final transient List<ChatHistory> rows;
+
+        PendingInsertException(List<ChatHistory> rows, Exception cause) {
+            super(cause);
+            this.rows = rows;
+        }
+    }
+
+    /**
+     * 重试写入溢写文件中的消息，全部成功后删除溢写文件
+     */
+    private void retrySpillFile() {
+        lastSpillRetryTime = System.currentTimeMillis();
+        synchronized (spillLock) {
+            if (!spillFile.exists()) {
+                return;
+            }
+            // 只重试仍处于待入库状态的消息，已被删除的应用消息直接丢弃（写入前在入库锁内再检查一次）
+            List<ChatHistory> rows = readSpillFile().stream().filter(this::isPending).toList();
+            try {
+                for (List<ChatHistory> batch : CollUtil.split(rows, batchSize)) {
+                    List<ChatHistory> inserted = insertPending(batch);
+                    if (!inserted.isEmpty()) {
+                        flushedBatches.incrementAndGet();
+                        flushedRows.addAndGet(inserted.size());
+                    }
+                }
+                FileUtil.del(spillFile);
+                if (!rows.isEmpty()) {
+                    log.info("溢写文件中的 {} 条对话历史已重新写入数据库", rows.size());
+                }
+            } catch (Exception e) {
+                // 已成功写入的批次已从待入库集合移除，下次重试时会被过滤
+                log.warn("重试写入溢写文件失败，稍后再试: {}", e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * 多行插入；若批次中有消息已经入库（如上次提交成功但响应丢失），逐条插入并跳过重复主键
+     *
+     * @param rows 消息列表
+     */
+    private void insertRows(List<ChatHistory> rows) {
+        try {
+            chatHistoryMapper.insertBatch(rows);
+        } catch (DuplicateKeyException e) {
+            for (ChatHistory row : rows) {
+                try {
+                    chatHistoryMapper.insert(row);
+                } catch (DuplicateKeyException ignored) {
+                    // 已入库，跳过
+                }
+            }
+        }
+    }
+
+    private void appendSpillFile(List<ChatHistory> rows) {
+        List<String> lines = rows.stream()
+                .map(row -> JSONUtil.toJsonStr(row, SPILL_JSON_CONFIG))
+                .toList();
+        synchronized (spillLock) {
+            FileUtil.appendLines(lines, spillFile, StandardCharsets.UTF_8);
+        }
+        spilledRows.addAndGet(rows.size());
+    }
+
+    private List<ChatHistory> readSpillFile() {
+        synchronized (spillLock) {
+            if (!spillFile.exists()) {
+                return List.of();
+            }
+            List<ChatHistory> rows = new ArrayList<>();
+            for (String line : FileUtil.readLines(spillFile, StandardCharsets.UTF_8)) {
+                if (!line.isBlank()) {
+                    rows.add(JSONUtil.parseObj(line, SPILL_JSON_CONFIG).toBean(ChatHistory.class));
+                }
+            }
+            return rows;
+        }
+    }
+
+    private void markPending(ChatHistory chatHistory) {
+        pendingByAppId.computeIfAbsent(chatHistory.getAppId(), key -> new ConcurrentHashMap<>())
+                .put(chatHistory.getId(), chatHistory);
+    }
+
+    private boolean isPending(ChatHistory chatHistory) {
+        Map<Long, ChatHistory> pending = pendingByAppId.get(chatHistory.getAppId());
+        return pending != null && pending.containsKey(chatHistory.getId());
+    }
+
+    private void unmarkPending(List<ChatHistory> rows) {
+        for (ChatHistory row : rows) {
+            pendingByAppId.computeIfPresent(row.getAppId(), (appId, pending) -> {
+                pending.remove(row.getId());
+                return pending.isEmpty() ? null : pending;
+            });
+        }
+    }
+}
@@ -0,0 +1,50 @@
+package com.px.aicodemother.manager;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Builder;
+import lombok.Data;
+
+import java.io.Serial;
+import java.io.Serializable;
+
+/**
+ * packageName: com.px.aicodemother.manager
+ *
+ * @author: idpeng
+ * @version: 1.0
+ * @className: ChatHistoryWriteBehindStats
+ * @date: 2026/10/18 12:10
+ * @description: 对话历史异步批量写入统计信息
+ */
+@Data
+@Builder
+@Schema(description = "对话历史异步批量写入统计信息")
+public class ChatHistoryWriteBehindStats implements Serializable {
+
+    @Schema(description = "队列中等待刷盘的消息数")
+    private int queuedMessages;
+
+    @Schema(description = "尚未确认入库的消息数（含刷盘中和已溢写）")
+    private long pendingMessages;
+
+    @Schema(description = "累计成功写入的批次数")
+    private long flushedBatches;
+
+    @Schema(description = "累计成功写入的消息数")
+    private long flushedRows;
+
+    @Schema(description = "累计失败的批次数")
+    private long failedFlushes;
+
+    @Schema(description = "累计写入溢写文件的消息数")
+    private long spilledRows;
+
+    @Schema(description = "队列已满时同步写入的消息数")
+    private long syncFallbackRows;
+
+    @Schema(description = "溢写文件大小（字节）")
+    private long spillFileBytes;
+
+    @Serial
+    private static final long serialVersionUID = 1L;
+}
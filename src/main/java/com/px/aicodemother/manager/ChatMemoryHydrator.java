@@ -0,0 +1,220 @@
+package com.px.aicodemother.manager;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.px.aicodemother.model.entity.ChatHistory;
+import com.px.aicodemother.model.enums.ChatHistoryMessageTypeEnum;
+import dev.langchain4j.data.message.AiMessage;
+import dev.langchain4j.data.message.ChatMessage;
+import dev.langchain4j.data.message.UserMessage;
+import dev.langchain4j.store.memory.chat.ChatMemoryStore;
+import lombok.extern.slf4j.Slf4j;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * packageName: com.px.aicodemother.manager
+ *
+ * @author: idpeng
+ * @version: 1.0
+ * @className: ChatMemoryHydrator
+ * @date: 2026/10/18 22:30
+ * @description: 对话记忆装载器。创建 AI 服务时，Redis 中的对话记忆仍在有效期内则直接复用，不再查询数据库；
+ * 记忆已过期时把最近的对话窗口一次性写入记忆存储。本地保留上次装载的窗口和其中最大的消息 id（高水位），
+ * 再次装载时只查询高水位之后的新消息
+ */
+@Slf4j
+public class ChatMemoryHydrator {
+
+    /**
+     * 查询对话历史
+     */
+    @FunctionalInterface
+    public interface HistoryLoader {
+
+        /**
+         * 查询应用最近的对话历史（含尚未入库的消息）
+         *
+         * @param appId   应用ID
+         * @param afterId 只查询 id 大于该值的消息，为 null 时不限制
+         * @param limit   最大数量
+         * @return 对话历史，按创建时间倒序
+         */
+        List<ChatHistory> load(Long appId, Long afterId, int limit);
+    }
+
+    /**
+     * 上次装载的窗口
+     *
+     * @param rows          窗口内的消息（含当时的最新一条），按创建时间、id 正序
+     * @param highWaterMark 窗口内最大的消息 id
+     */
+    private record Snapshot(List<ChatHistory> rows, long highWaterMark) {
+    }
+
+    private static final Comparator<ChatHistory> CREATE_ORDER =
+            Comparator.comparing(ChatHistory::getCreateTime).thenComparing(ChatHistory::getId);
+
+    private final ChatMemoryStore chatMemoryStore;
+
+    private final HistoryLoader historyLoader;
+
+    private final int windowSize;
+
+    private final Cache<Long, Snapshot> snapshots;
+
+    private final LongAdder warmSkips = new LongAdder();
+
+    private final LongAdder incrementalLoads = new LongAdder();
+
+    private final LongAdder fullLoads = new LongAdder();
+
+    private final LongAdder fetchedRows = new LongAdder();
+
+    private final LongAdder hydratedMessages = new LongAdder();
+
+    private final LongAdder failures = new LongAdder();
+
+    /**
+     * 创建对话记忆装载器
+     *
+     * @param chatMemoryStore 对话记忆存储
+     * @param historyLoader   对话历史查询
+     * @param windowSize      记忆窗口大小（消息条数）
+     * @param snapshotTtl     本地窗口保留时间
+     * @param maxSize         本地最多保留的窗口数
+     */
+    public ChatMemoryHydrator(ChatMemoryStore chatMemoryStore, HistoryLoader historyLoader, int windowSize,
+                              Duration snapshotTtl, long maxSize) {
+        this.chatMemoryStore = chatMemoryStore;
+        this.historyLoader = historyLoader;
+        this.windowSize = windowSize;
+        this.snapshots = Caffeine.newBuilder()
+                .expireAfterWrite(snapshotTtl)
+                .maximumSize(maxSize)
+                .build();
+    }
+
+    /**
+     * 为应用装载对话记忆。记忆仍有效时不做任何事；否则把最近的窗口（不含最新一条，即当前会话的输入，
+     * 由 AI 服务自己写入）一次写入记忆存储
+     *
+     * @param appId 应用ID，同时是对话记忆 id
+     * @return 写入记忆的消息条数，复用已有记忆或加载失败时为 0
+     */
+    public int hydrate(Long appId) {
+        try {
+            if (!chatMemoryStore.getMessages(appId).isEmpty()) {
+                warmSkips.increment();
+                return 0;
+            }
+            List<ChatHistory> window = loadWindow(appId);
+            if (window.size() <= 1) {
+                return 0;
+            }
+            List<ChatMessage> messages = toMessages(window.subList(0, window.size() - 1));
+            if (messages.isEmpty()) {
+                return 0;
+            }
+            // 一次写入整个窗口，代替逐条 add 时每次重写整个列表
+            chatMemoryStore.updateMessages(appId, messages);
+            hydratedMessages.add(messages.size());
+            log.info("成功为 appId: {} 加载 {} 条历史消息", appId, messages.size());
+            return messages.size();
+        } catch (Exception e) {
+            failures.increment();
+            log.error("加载历史对话失败，appId: {}, error: {}", appId, e.getMessage(), e);
+            // 加载失败不影响系统运行，只是没有历史上下文
+            return 0;
+        }
+    }
+
+    /**
+     * 丢弃应用的本地窗口，应用的对话历史被删除时调用
+     *
+     * @param appId 应用ID
+     */
+    public void invalidate(Long appId) {
+        snapshots.invalidate(appId);
+    }
+
+    /**
+     * 记忆窗口大小
+     *
+     * @return 消息条数
+     */
+    public int getWindowSize() {
+        return windowSize;
+    }
+
+    /**
+     * 获取装载统计信息
+     *
+     * @return 统计信息
+     */
+    public ChatMemoryHydratorStats getStats() {
+        return ChatMemoryHydratorStats.builder()
+                .windowSize(windowSize)
+                .snapshots(snapshots.estimatedSize())
+                .warmSkips(warmSkips.sum())
+                .incrementalLoads(incrementalLoads.sum())
+                .fullLoads(fullLoads.sum())
+                .fetchedRows(fetchedRows.sum())
+                .hydratedMessages(hydratedMessages.sum())
+                .failures(failures.sum())
+                .build();
+    }
+
+    /**
+     * 最近的 windowSize + 1 条消息（多一条是当前会话的输入），按创建时间、id 正序
+     */
+    private List<ChatHistory> loadWindow(Long appId) {
+        int limit = windowSize + 1;
+        Snapshot snapshot = snapshots.getIfPresent(appId);
+        List<ChatHistory> window;
+        if (snapshot == null) {
+            List<ChatHistory> rows = historyLoader.load(appId, null, limit);
+            fullLoads.increment();
+            fetchedRows.add(rows.size());
+            window = new ArrayList<>(rows);
+        } else {
+            List<ChatHistory> newRows = historyLoader.load(appId, snapshot.highWaterMark(), limit);
+            incrementalLoads.increment();
+            fetchedRows.add(newRows.size());
+            window = new ArrayList<>(snapshot.rows());
+            Set<Long> ids = new HashSet<>();
+            window.forEach(history -> ids.add(history.getId()));
+            newRows.stream()
+                    .filter(history -> ids.add(history.getId()))
+                    .forEach(window::add);
+        }
+        // 不依赖查询结果的顺序：创建时间只精确到秒，同一秒内的用户消息和 AI 回复按 id 区分先后
+        window.sort(CREATE_ORDER);
+        if (window.size() > limit) {
+            window = new ArrayList<>(window.subList(window.size() - limit, window.size()));
+        }
+        if (!window.isEmpty()) {
+            long highWaterMark = window.stream().mapToLong(ChatHistory::getId).max().orElse(0);
+            snapshots.put(appId, new Snapshot(List.copyOf(window), highWaterMark));
+        }
+        return window;
+    }
+
+    private List<ChatMessage> toMessages(List<ChatHistory> rows) {
+        List<ChatMessage> messages = new ArrayList<>(rows.size());
+        for (ChatHistory history : rows) {
+            if (ChatHistoryMessageTypeEnum.USER.getValue().equals(history.getMessageType())) {
+                messages.add(UserMessage.from(history.getMessage()));
+            } else if (ChatHistoryMessageTypeEnum.AI.getValue().equals(history.getMessageType())) {
+                messages.add(AiMessage.from(history.getMessage()));
+            }
+        }
+        return messages;
+    }
+}
@@ -0,0 +1,50 @@
+package com.px.aicodemother.manager;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Builder;
+import lombok.Data;
+
+import java.io.Serial;
+import java.io.Serializable;
+
+/**
+ * packageName: com.px.aicodemother.manager
+ *
+ * @author: idpeng
+ * @version: 1.0
+ * @className: ChatMemoryHydratorStats
+ * @date: 2026/10/18 22:35
+ * @description: 对话记忆装载统计信息
+ */
+@Data
+@Builder
+@Schema(description = "对话记忆装载统计信息")
+public class ChatMemoryHydratorStats implements Serializable {
+
+    @Schema(description = "记忆窗口大小（消息条数）")
+    private int windowSize;
+
+    @Schema(description = "本地保留的窗口数")
+    private long snapshots;
+
+    @Schema(description = "记忆仍有效、跳过数据库查询的次数")
+    private long warmSkips;
+
+    @Schema(description = "只查询高水位之后新消息的次数")
+    private long incrementalLoads;
+
+    @Schema(description = "查询完整窗口的次数")
+    private long fullLoads;
+
+    @Schema(description = "累计从数据库读取的消息数")
+    private long fetchedRows;
+
+    @Schema(description = "累计写入记忆的消息数")
+    private long hydratedMessages;
+
+    @Schema(description = "装载失败次数")
+    private long failures;
+
+    @Serial
+    private static final long serialVersionUID = 1L;
+}
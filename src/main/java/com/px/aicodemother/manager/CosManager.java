@@ -2,13 +2,16 @@ package com.px.aicodemother.manager;
 
 import com.px.aicodemother.config.CosClientConfig;
 import com.qcloud.cos.COSClient;
+import com.qcloud.cos.model.ObjectMetadata;
 import com.qcloud.cos.model.PutObjectRequest;
 import com.qcloud.cos.model.PutObjectResult;
 import jakarta.annotation.Resource;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Component;
 
+import java.io.ByteArrayInputStream;
 import java.io.File;
+import java.io.InputStream;
 
 /**
  * packageName: com.px.aicodemother.manager
@@ -41,6 +44,26 @@ public class CosManager {
         return cosClient.putObject(putObjectRequest);
     }
 
+    /**
+     * 以流的方式上传对象
+     *
+     * @param key           唯一键
+     * @param inputStream   数据流
+     * @param contentLength 数据长度
+     * @param contentType   内容类型，可为 null
+     * @return 上传结果
+     */
+    public PutObjectResult putObject(String key, InputStream inputStream, long contentLength, String contentType) {
+        ObjectMetadata metadata = new ObjectMetadata();
+        // 指定长度，避免 SDK 为计算长度把整个流缓存到内存
+        metadata.setContentLength(contentLength);
+        if (contentType != null) {
+            metadata.setContentType(contentType);
+        }
+        PutObjectRequest putObjectRequest = new PutObjectRequest(cosClientConfig.getBucket(), key, inputStream, metadata);
+        return cosClient.putObject(putObjectRequest);
+    }
+
     /**
      * 上传文件到 COS 并返回访问 URL
      *
@@ -51,10 +74,43 @@ public class CosManager {
     public String uploadFile(String key, File file) {
         // 上传文件
         PutObjectResult result = putObject(key, file);
+        return buildAccessUrl(result, key, file.getName());
+    }
+
+    /**
+     * 上传数据流到 COS 并返回访问 URL
+     *
+     * @param key           COS对象键（完整路径）
+     * @param inputStream   数据流，由调用方关闭
+     * @param contentLength 数据长度
+     * @param contentType   内容类型，可为 null
+     * @return 文件的访问URL，失败返回null
+     */
+    public String uploadStream(String key, InputStream inputStream, long contentLength, String contentType) {
+        PutObjectResult result = putObject(key, inputStream, contentLength, contentType);
+        return buildAccessUrl(result, key, key);
+    }
+
+    /**
+     * 上传内存中的数据到 COS 并返回访问 URL
+     *
+     * @param key         COS对象键（完整路径）
+     * @param bytes       数据
+     * @param contentType 内容类型，可为 null
+     * @return 文件的访问URL，失败返回null
+     */
+    public String uploadBytes(String key, byte[] bytes, String contentType) {
+        return uploadStream(key, new ByteArrayInputStream(bytes), bytes.length, contentType);
+    }
+
+    /**
+     * 根据上传结果构建访问 URL
+     */
+    private String buildAccessUrl(PutObjectResult result, String key, String name) {
         if (result != null) {
             // 构建访问URL
             String url = String.format("%s%s", cosClientConfig.getHost(), key);
-            log.info("文件上传COS成功: {} -> {}", file.getName(), url);
+            log.info("文件上传COS成功: {} -> {}", name, url);
             return url;
         } else {
             log.error("文件上传COS失败，返回结果为空");
@@ -0,0 +1,185 @@
+package com.px.aicodemother.manager;
+
+import cn.hutool.core.util.IdUtil;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.px.aicodemother.model.entity.User;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+/**
+ * packageName: com.px.aicodemother.manager
+ *
+ * @author: idpeng
+ * @version: 1.0
+ * @className: LoginUserCache
+ * @date: 2026/10/18 20:05
+ * @description: 登录用户缓存，按用户ID缓存最新的用户信息，避免每次鉴权都查询数据库。
+ * 每个缓存条目记录加载开始时的版本号，用户信息更新时递增版本号并通过 Redis 发布订阅通知其他节点，
+ * 版本号不一致的条目视为失效；加载期间发生的更新同样会让加载结果失效，不会把旧数据写回缓存
+ */
+@Slf4j
+public class LoginUserCache implements MessageListener {
+
+    /**
+     * 缓存条目
+     *
+     * @param user    用户
+     * @param version 加载开始时的版本号
+     */
+    private record Entry(User user, long version) {
+    }
+
+    /**
+     * 当前节点 id，忽略自己发出的通知
+     */
+    private final String nodeId = IdUtil.fastSimpleUUID();
+
+    private final Cache<Long, Entry> cache;
+
+    /**
+     * 用户ID -> 版本号，只记录发生过更新的用户
+     */
+    private final ConcurrentHashMap<Long, Long> versions = new ConcurrentHashMap<>();
+
+    /**
+     * 版本号序列，保证递增后的版本号不会与任何旧条目相同
+     */
+    private final AtomicLong versionSequence = new AtomicLong();
+
+    private final StringRedisTemplate stringRedisTemplate;
+
+    private final String channel;
+
+    private final LongAdder hits = new LongAdder();
+
+    private final LongAdder misses = new LongAdder();
+
+    private final LongAdder staleRejects = new LongAdder();
+
+    private final LongAdder versionBumps = new LongAdder();
+
+    private final LongAdder bumpsReceived = new LongAdder();
+
+    /**
+     * 创建登录用户缓存
+     *
+     * @param stringRedisTemplate Redis 访问模板，用于发布版本变更通知
+     * @param channel             版本变更通知频道
+     * @param ttl                 缓存过期时间，通知丢失时的最长不一致时间
+     * @param maxSize             缓存最大条目数
+     */
+    public LoginUserCache(StringRedisTemplate stringRedisTemplate, String channel, Duration ttl, long maxSize) {
+        this.stringRedisTemplate = stringRedisTemplate;
+        this.channel = channel;
+        this.cache = Caffeine.newBuilder()
+                .expireAfterWrite(ttl)
+                .maximumSize(maxSize)
+                .build();
+    }
+
+    /**
+     * 获取用户，缓存未命中或已失效时加载
+     *
+     * @param userId 用户ID
+     * @param loader 加载函数，用户不存在时返回null
+     * @return 用户，不存在时返回null
+     */
+    public User get(Long userId, Function<Long, User> loader) {
+        long version = currentVersion(userId);
+        Entry entry = cache.getIfPresent(userId);
+        if (entry != null) {
+            if (entry.version() == version) {
+                hits.increment();
+                return entry.user();
+            }
+            staleRejects.increment();
+        }
+        misses.increment();
+        User user = loader.apply(userId);
+        if (user != null) {
+            // 记录加载开始时的版本号，加载期间被更新的结果下次读取时会被拒绝
+            cache.put(userId, new Entry(user, version));
+        }
+        return user;
+    }
+
+    /**
+     * 用户信息更新后递增版本号，并通知其他节点
+     *
+     * @param userId 用户ID
+     */
+    public void bumpVersion(Long userId) {
+        if (userId == null) {
+            return;
+        }
+        bumpLocal(userId);
+        versionBumps.increment();
+        try {
+            stringRedisTemplate.convertAndSend(channel, nodeId + "|" + userId);
+        } catch (Exception e) {
+            log.warn("发送登录用户版本变更通知失败: userId={}", userId, e);
+        }
+    }
+
+    /**
+     * 版本变更通知频道
+     *
+     * @return 频道名
+     */
+    public String getChannel() {
+        return channel;
+    }
+
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        String[] parts = new String(message.getBody(), StandardCharsets.UTF_8).split("\\|", 2);
+        if (parts.length != 2 || nodeId.equals(parts[0])) {
+            return;
+        }
+        try {
+            bumpLocal(Long.valueOf(parts[1]));
+            bumpsReceived.increment();
+        } catch (NumberFormatException e) {
+            log.warn("忽略无效的登录用户版本变更通知: {}", parts[1]);
+        }
+    }
+
+    /**
+     * 获取缓存统计信息
+     *
+     * @return 统计信息
+     */
+    public LoginUserCacheStats getStats() {
+        long hitCount = hits.sum();
+        long missCount = misses.sum();
+        long total = hitCount + missCount;
+        return LoginUserCacheStats.builder()
+                .size(cache.estimatedSize())
+                .hits(hitCount)
+                .misses(missCount)
+                .hitRate(total == 0 ? 0 : (double) hitCount / total)
+                .staleRejects(staleRejects.sum())
+                .versionBumps(versionBumps.sum())
+                .bumpsReceived(bumpsReceived.sum())
+                .build();
+    }
+
+    private long currentVersion(Long userId) {
+        return versions.getOrDefault(userId, 0L);
+    }
+
+    private void bumpLocal(Long userId) {
+        versions.put(userId, versionSequence.incrementAndGet());
+        cache.invalidate(userId);
+    }
+}
@@ -0,0 +1,47 @@
+package com.px.aicodemother.manager;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Builder;
+import lombok.Data;
+
+import java.io.Serial;
+import java.io.Serializable;
+
+/**
+ * packageName: com.px.aicodemother.manager
+ *
+ * @author: idpeng
+ * @version: 1.0
+ * @className: LoginUserCacheStats
+ * @date: 2026/10/18 20:08
+ * @description: 登录用户缓存统计信息
+ */
+@Data
+@Builder
+@Schema(description = "登录用户缓存统计信息")
+public class LoginUserCacheStats implements Serializable {
+
+    @Schema(description = "当前缓存条目数（估算）")
+    private long size;
+
+    @Schema(description = "命中次数")
+    private long hits;
+
+    @Schema(description = "未命中次数（含失效后重新加载）")
+    private long misses;
+
+    @Schema(description = "命中率")
+    private double hitRate;
+
+    @Schema(description = "因版本号变化被拒绝的条目数")
+    private long staleRejects;
+
+    @Schema(description = "本节点递增版本号次数")
+    private long versionBumps;
+
+    @Schema(description = "收到其他节点版本变更通知次数")
+    private long bumpsReceived;
+
+    @Serial
+    private static final long serialVersionUID = 1L;
+}
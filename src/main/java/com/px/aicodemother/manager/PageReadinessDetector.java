@@ -0,0 +1,133 @@
+package com.px.aicodemother.manager;
+
+import lombok.extern.slf4j.Slf4j;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.support.ui.WebDriverWait;
+
+import java.time.Duration;
+
+/**
+ * packageName: com.px.aicodemother.manager
+ *
+ * @author: idpeng
+ * @version: 1.0
+ * @className: PageReadinessDetector
+ * @date: 2026/10/18 15:40
+ * @description: 页面就绪检测器，替代截图前固定等待。在 document.readyState 为 complete 后，
+ * 在页面内等待字体加载完成、图片加载完成、网络空闲（无新资源完成、无进行中的 fetch/XHR）且 DOM 在静默期内无变化，
+ * 再等两帧确保已绘制；任何条件迟迟不满足时在上限时间后照常返回
+ */
+@Slf4j
+public class PageReadinessDetector {
+
+    /**
+     * 页面内就绪检测脚本，参数：静默期毫秒数、剩余上限毫秒数；回调值为 "ready" 或 "timeout"
+     */
+    private static final String READINESS_SCRIPT = """
+            const done = arguments[arguments.length - 1];
+            const quietMs = arguments[0];
+            const ceilingMs = arguments[1];
+            const start = performance.now();
+            let lastChange = start;
+            let pending = 0;
+            const track = promise => {
+                pending++;
+                lastChange = performance.now();
+                const settle = () => { pending--; lastChange = performance.now(); };
+                promise.then(settle, settle);
+            };
+            if (window.fetch) {
+                const originalFetch = window.fetch;
+                window.fetch = function () {
+                    const result = originalFetch.apply(this, arguments);
+                    track(result);
+                    return result;
+                };
+            }
+            const originalSend = XMLHttpRequest.prototype.send;
+            XMLHttpRequest.prototype.send = function () {
+                track(new Promise(resolve => this.addEventListener('loadend', resolve)));
+                return originalSend.apply(this, arguments);
+            };
+            const observer = new MutationObserver(() => { lastChange = performance.now(); });
+            observer.observe(document.documentElement, {subtree: true, childList: true, attributes: true, characterData: true});
+            let fontsReady = !document.fonts;
+            if (document.fonts) {
+                document.fonts.ready.then(() => { fontsReady = true; }, () => { fontsReady = true; });
+            }
+            let resourceCount = performance.getEntriesByType('resource').length;
+            const imagesReady = () => Array.from(document.images).every(img => img.complete);
+            const finish = result => {
+                observer.disconnect();
+                requestAnimationFrame(() => requestAnimationFrame(() => done(result)));
+            };
+            const tick = () => {
+                const now = performance.now();
+                const count = performance.getEntriesByType('resource').length;
+                if (count !== resourceCount) {
+                    resourceCount = count;
+                    lastChange = now;
+                }
+                if (fontsReady && pending === 0 && imagesReady() && now - lastChange >= quietMs) {
+                    finish('ready');
+                } else if (now - start >= ceilingMs) {
+                    finish('timeout');
+                } else {
+                    setTimeout(tick, 50);
+                }
+            };
+            tick();
+            """;
+
+    /**
+     * 脚本回调的额外余量（等待两帧绘制等）
+     */
+    private static final long SCRIPT_TIMEOUT_MARGIN_MILLIS = 2000;
+
+    private final long quietPeriodMillis;
+
+    private final long ceilingMillis;
+
+    /**
+     * 创建页面就绪检测器
+     *
+     * @param quietPeriodMillis 网络和 DOM 需要保持静默的时间
+     * @param ceilingMillis     从开始等待到截图的最长时间
+     */
+    public PageReadinessDetector(long quietPeriodMillis, long ceilingMillis) {
+        this.quietPeriodMillis = quietPeriodMillis;
+        this.ceilingMillis = ceilingMillis;
+    }
+
+    /**
+     * 等待页面就绪，超过上限时间也会返回，不抛出异常
+     *
+     * @param webDriver 已打开目标页面的浏览器
+     * @return 是否在上限时间内就绪
+     */
+    public boolean awaitReady(WebDriver webDriver) {
+        long start = System.currentTimeMillis();
+        try {
+            // 等待 document.readyState 为 complete
+            new WebDriverWait(webDriver, Duration.ofMillis(ceilingMillis))
+                    .until(driver -> "complete".equals(((JavascriptExecutor) driver)
+                            .executeScript("return document.readyState")));
+            long remaining = Math.max(0, ceilingMillis - (System.currentTimeMillis() - start));
+            webDriver.manage().timeouts().scriptTimeout(Duration.ofMillis(remaining + SCRIPT_TIMEOUT_MARGIN_MILLIS));
+            Object result = ((JavascriptExecutor) webDriver)
+                    .executeAsyncScript(READINESS_SCRIPT, quietPeriodMillis, remaining);
+            boolean ready = "ready".equals(result);
+            long elapsed = System.currentTimeMillis() - start;
+            if (ready) {
+                log.info("页面加载完成，耗时 {}ms", elapsed);
+            } else {
+                log.warn("页面在 {}ms 内未达到就绪条件，继续执行截图", elapsed);
+            }
+            return ready;
+        } catch (Exception e) {
+            log.error("等待页面加载时出现异常，继续执行截图", e);
+            return false;
+        }
+    }
+}
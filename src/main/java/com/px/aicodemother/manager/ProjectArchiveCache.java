@@ -0,0 +1,295 @@
+package com.px.aicodemother.manager;
+
+import cn.hutool.core.io.FileUtil;
+import cn.hutool.core.util.IdUtil;
+import com.px.aicodemother.core.builder.VueBuildManifest;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.FileTime;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+/**
+ * packageName: com.px.aicodemother.manager
+ *
+ * @author: idpeng
+ * @version: 1.0
+ * @className: ProjectArchiveCache
+ * @date: 2026/10/18 18:05
+ * @description: 项目下载 ZIP 缓存。以项目目录和允许下载的文件集合的摘要（相对路径、大小、修改时间）为键，
+ * 文件没有变化时直接复用已生成的压缩包，任何文件变化都会得到新的键并重新打包；
+ * 遍历时整体跳过被忽略的目录，不再逐个检查 node_modules 下的文件。
+ * 最近被使用的压缩包可能仍在发送中，淘汰时跳过
+ */
+@Slf4j
+public class ProjectArchiveCache {
+
+    /**
+     * 缓存目录中的压缩包文件名，每个键一个子目录
+     */
+    public static final String ARCHIVE_FILE_NAME = "project.zip";
+
+    private static final String STAGING_MARK = ".staging-";
+
+    /**
+     * 最近使用过的压缩包在这段时间内不淘汰，保证已经开始（包括交给 sendfile 异步发送）的下载能读完
+     */
+    private static final Duration IN_USE_GRACE = Duration.ofMinutes(10);
+
+    /**
+     * 忽略的文件夹名称
+     */
+    private static final Set<String> IGNORED_NAMES = Set.of(
+            "node_modules",
+            ".git",
+            "dist",
+            "build",
+            ".DS_Store",
+            ".env",
+            "target",
+            ".mvn",
+            ".idea",
+            ".vscode",
+            VueBuildManifest.FILE_NAME
+    );
+
+    private static final Set<String> IGNORED_EXTENSIONS = Set.of(
+            ".log",
+            ".tmp",
+            ".cache"
+    );
+
+    /**
+     * 允许下载的文件
+     */
+    private record ArchiveFile(String relativePath, Path path, long size, long lastModified) {
+    }
+
+    private final Path cacheRoot;
+
+    private final int maxEntries;
+
+    /**
+     * 分段锁，同一键只允许一个打包过程；键随内容变化不断产生，不按键保存锁对象
+     */
+    private final Object[] keyLocks = new Object[64];
+
+    private final AtomicLong hits = new AtomicLong();
+
+    private final AtomicLong misses = new AtomicLong();
+
+    private final AtomicLong builtBytes = new AtomicLong();
+
+    /**
+     * 创建项目下载 ZIP 缓存
+     *
+     * @param cacheDir   缓存目录
+     * @param maxEntries 最多保留的压缩包数，超出后淘汰最久未使用的
+     */
+    public ProjectArchiveCache(String cacheDir, int maxEntries) {
+        this.cacheRoot = Path.of(cacheDir).toAbsolutePath().normalize();
+        this.maxEntries = Math.max(1, maxEntries);
+        for (int i = 0; i < keyLocks.length; i++) {
+            keyLocks[i] = new Object();
+        }
+    }
+
+    /**
+     * 获取项目当前内容对应的压缩包，不存在时生成
+     *
+     * @param projectDir 项目目录
+     * @return 压缩包路径，内容不变时路径和文件属性保持不变
+     */
+    public Path getArchive(Path projectDir) throws IOException {
+        List<ArchiveFile> files = listFiles(projectDir);
+        String key = digest(projectDir, files);
+        Path entryDir = cacheRoot.resolve(key);
+        Path archive = entryDir.resolve(ARCHIVE_FILE_NAME);
+        synchronized (keyLocks[Math.floorMod(key.hashCode(), keyLocks.length)]) {
+            if (Files.isRegularFile(archive)) {
+                hits.incrementAndGet();
+            } else {
+                misses.incrementAndGet();
+                build(files, entryDir);
+                prune(key);
+            }
+            try {
+                // 以目录修改时间记录最近使用，不改动压缩包本身，ETag 保持不变
+                Files.setLastModifiedTime(entryDir, FileTime.from(Instant.now()));
+            } catch (NoSuchFileException e) {
+                // 命中后被其他打包过程淘汰，按未命中重新生成
+                misses.incrementAndGet();
+                build(files, entryDir);
+                Files.setLastModifiedTime(entryDir, FileTime.from(Instant.now()));
+            }
+        }
+        return archive;
+    }
+
+    /**
+     * 获取缓存统计信息
+     *
+     * @return 统计信息
+     */
+    public ProjectArchiveCacheStats getStats() {
+        List<Path> entries = listEntries();
+        long totalBytes = 0;
+        for (Path entry : entries) {
+            totalBytes += FileUtil.size(entry.resolve(ARCHIVE_FILE_NAME).toFile());
+        }
+        return ProjectArchiveCacheStats.builder()
+                .entries(entries.size())
+                .maxEntries(maxEntries)
+                .totalBytes(totalBytes)
+                .hits(hits.get())
+                .misses(misses.get())
+                .builtBytes(builtBytes.get())
+                .build();
+    }
+
+    /**
+     * 列出允许下载的文件，被忽略的目录直接跳过整棵子树，结果按相对路径排序
+     */
+    private List<ArchiveFile> listFiles(Path projectDir) throws IOException {
+        List<ArchiveFile> files = new ArrayList<>();
+        Files.walkFileTree(projectDir, new SimpleFileVisitor<>() {
+            @Override
+            public FileVisitResult preVisitDirectory(Path dir, BasicFileAttributes attrs) {
+                if (!dir.equals(projectDir) && isIgnored(dir.getFileName().toString())) {
+                    return FileVisitResult.SKIP_SUBTREE;
+                }
+                return FileVisitResult.CONTINUE;
+            }
+
+            @Override
+            public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) {
+                String name = file.getFileName().toString();
+                if (attrs.isRegularFile() && !isIgnored(name)) {
+                    String relativePath = projectDir.relativize(file).toString().replace('\\', '/');
+                    files.add(new ArchiveFile(relativePath, file, attrs.size(), attrs.lastModifiedTime().toMillis()));
+                }
+                return FileVisitResult.CONTINUE;
+            }
+        });
+        files.sort(Comparator.comparing(ArchiveFile::relativePath));
+        return files;
+    }
+
+    private boolean isIgnored(String name) {
+        return IGNORED_NAMES.contains(name) || IGNORED_EXTENSIONS.stream().anyMatch(name::endsWith);
+    }
+
+    /**
+     * 文件集合摘要：项目目录的真实路径 + 每个文件的相对路径、大小、修改时间。
+     * 文件增删改都会改变摘要；包含项目目录，文件元数据恰好相同的不同应用不会共用压缩包
+     */
+    private String digest(Path projectDir, List<ArchiveFile> files) throws IOException {
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+        digest.update(projectDir.toRealPath().toString().getBytes(StandardCharsets.UTF_8));
+        digest.update((byte) '\n');
+        for (ArchiveFile file : files) {
+            digest.update(file.relativePath().getBytes(StandardCharsets.UTF_8));
+            digest.update((byte) 0);
+            digest.update((file.size() + ":" + file.lastModified() + "\n").getBytes(StandardCharsets.UTF_8));
+        }
+        return HexFormat.of().formatHex(digest.digest());
+    }
+
+    /**
+     * 先写到临时目录再整体改名，下载方不会读到写了一半的压缩包
+     */
+    private void build(List<ArchiveFile> files, Path entryDir) throws IOException {
+        Files.createDirectories(cacheRoot);
+        Path staging = cacheRoot.resolve(entryDir.getFileName() + STAGING_MARK + IdUtil.fastSimpleUUID());
+        try {
+            Files.createDirectories(staging);
+            Path archive = staging.resolve(ARCHIVE_FILE_NAME);
+            try (OutputStream out = Files.newOutputStream(archive);
+                 ZipOutputStream zip = new ZipOutputStream(out, StandardCharsets.UTF_8)) {
+                for (ArchiveFile file : files) {
+                    ZipEntry entry = new ZipEntry(file.relativePath());
+                    entry.setTime(file.lastModified());
+                    zip.putNextEntry(entry);
+                    Files.copy(file.path(), zip);
+                    zip.closeEntry();
+                }
+            }
+            builtBytes.addAndGet(Files.size(archive));
+            Files.move(staging, entryDir, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            if (Files.exists(staging)) {
+                FileUtil.del(staging);
+            }
+        }
+    }
+
+    /**
+     * 淘汰最久未使用的压缩包（跳过最近使用、可能仍在发送的），并清理异常退出遗留的临时目录
+     */
+    private void prune(String currentKey) {
+        long inUseAfter = System.currentTimeMillis() - IN_USE_GRACE.toMillis();
+        List<Path> entries = new ArrayList<>(listEntries());
+        int excess = entries.size() - maxEntries;
+        entries.removeIf(entry -> entry.getFileName().toString().equals(currentKey)
+                || lastUsed(entry).toMillis() > inUseAfter);
+        entries.sort(Comparator.comparing(this::lastUsed));
+        int removable = Math.min(entries.size(), excess);
+        for (int i = 0; i < removable; i++) {
+            FileUtil.del(entries.get(i));
+        }
+        try (Stream<Path> stream = Files.list(cacheRoot)) {
+            stream.filter(path -> path.getFileName().toString().contains(STAGING_MARK)
+                            && lastUsed(path).toMillis() < System.currentTimeMillis() - 3_600_000)
+                    .forEach(FileUtil::del);
+        } catch (IOException e) {
+            log.warn("清理下载缓存临时目录失败: {}", e.getMessage());
+        }
+    }
+
+    private List<Path> listEntries() {
+        if (!Files.isDirectory(cacheRoot)) {
+            return List.of();
+        }
+        try (Stream<Path> stream = Files.list(cacheRoot)) {
+            return stream.filter(Files::isDirectory)
+                    .filter(path -> !path.getFileName().toString().contains(STAGING_MARK))
+                    .toList();
+        } catch (IOException e) {
+            return List.of();
+        }
+    }
+
+    private FileTime lastUsed(Path path) {
+        try {
+            return Files.getLastModifiedTime(path);
+        } catch (IOException e) {
+            return FileTime.fromMillis(0);
+        }
+    }
+}
@@ -0,0 +1,44 @@
+package com.px.aicodemother.manager;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Builder;
+import lombok.Data;
+
+import java.io.Serial;
+import java.io.Serializable;
+
+/**
+ * packageName: com.px.aicodemother.manager
+ *
+ * @author: idpeng
+ * @version: 1.0
+ * @className: ProjectArchiveCacheStats
+ * @date: 2026/10/18 18:10
+ * @description: 项目下载 ZIP 缓存统计信息
+ */
+@Data
+@Builder
+@Schema(description = "项目下载 ZIP 缓存统计信息")
+public class ProjectArchiveCacheStats implements Serializable {
+
+    @Schema(description = "当前缓存的压缩包数")
+    private int entries;
+
+    @Schema(description = "最多保留的压缩包数")
+    private int maxEntries;
+
+    @Schema(description = "缓存占用的字节数")
+    private long totalBytes;
+
+    @Schema(description = "命中次数")
+    private long hits;
+
+    @Schema(description = "未命中（重新打包）次数")
+    private long misses;
+
+    @Schema(description = "累计生成的压缩包字节数")
+    private long builtBytes;
+
+    @Serial
+    private static final long serialVersionUID = 1L;
+}
@@ -0,0 +1,107 @@
+package com.px.aicodemother.manager;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+
+/**
+ * packageName: com.px.aicodemother.manager
+ *
+ * @author: idpeng
+ * @version: 1.0
+ * @className: StaticFileCache
+ * @date: 2026/10/18 16:20
+ * @description: 静态资源热点文件内存缓存。以路径 + 修改时间 + 大小为键，文件一旦变化旧条目自然失效；
+ * 只缓存不超过单文件上限的小文件，总容量按字节数限制
+ */
+@Slf4j
+public class StaticFileCache {
+
+    /**
+     * 缓存键，修改时间或大小变化即视为新文件
+     */
+    private record FileKey(Path path, long lastModified, long size) {
+    }
+
+    private final boolean enabled;
+
+    private final long maxFileBytes;
+
+    private final long maxTotalBytes;
+
+    private final Cache<FileKey, byte[]> cache;
+
+    /**
+     * 创建热点文件缓存
+     *
+     * @param enabled       是否启用
+     * @param maxFileBytes  单个文件大小上限
+     * @param maxTotalBytes 缓存总字节数上限
+     */
+    public StaticFileCache(boolean enabled, long maxFileBytes, long maxTotalBytes) {
+        this.enabled = enabled;
+        this.maxFileBytes = maxFileBytes;
+        this.maxTotalBytes = maxTotalBytes;
+        this.cache = Caffeine.newBuilder()
+                .maximumWeight(maxTotalBytes)
+                .weigher((FileKey key, byte[] bytes) -> bytes.length)
+                // 文件修改后旧版本不会再被访问，闲置一段时间后清除
+                .expireAfterAccess(Duration.ofMinutes(30))
+                .recordStats()
+                .build();
+    }
+
+    /**
+     * 读取文件内容，命中缓存时不访问磁盘
+     *
+     * @param path         文件路径
+     * @param lastModified 文件修改时间
+     * @param size         文件大小
+     * @return 文件内容；未启用或文件超过单文件上限时返回 null，由调用方直接从磁盘输出
+     */
+    public byte[] get(Path path, long lastModified, long size) throws IOException {
+        if (!enabled || size > maxFileBytes) {
+            return null;
+        }
+        try {
+            return cache.get(new FileKey(path, lastModified, size), key -> {
+                try {
+                    return Files.readAllBytes(key.path());
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    /**
+     * 获取缓存统计信息
+     *
+     * @return 统计信息
+     */
+    public StaticFileCacheStats getStats() {
+        CacheStats stats = cache.stats();
+        return StaticFileCacheStats.builder()
+                .enabled(enabled)
+                .entries(cache.estimatedSize())
+                .maxFileBytes(maxFileBytes)
+                .maxTotalBytes(maxTotalBytes)
+                .totalBytes(cache.policy().eviction()
+                        .map(eviction -> eviction.weightedSize().orElse(0))
+                        .orElse(0L))
+                .hits(stats.hitCount())
+                .misses(stats.missCount())
+                .evictions(stats.evictionCount())
+                .hitRate(stats.hitRate())
+                .build();
+    }
+}
@@ -0,0 +1,53 @@
+package com.px.aicodemother.manager;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Builder;
+import lombok.Data;
+
+import java.io.Serial;
+import java.io.Serializable;
+
+/**
+ * packageName: com.px.aicodemother.manager
+ *
+ * @author: idpeng
+ * @version: 1.0
+ * @className: StaticFileCacheStats
+ * @date: 2026/10/18 16:22
+ * @description: 静态资源热点文件缓存统计信息
+ */
+@Data
+@Builder
+@Schema(description = "静态资源热点文件缓存统计信息")
+public class StaticFileCacheStats implements Serializable {
+
+    @Schema(description = "是否启用")
+    private boolean enabled;
+
+    @Schema(description = "当前缓存文件数（估算）")
+    private long entries;
+
+    @Schema(description = "单个文件大小上限（字节）")
+    private long maxFileBytes;
+
+    @Schema(description = "缓存总字节数上限")
+    private long maxTotalBytes;
+
+    @Schema(description = "当前缓存总字节数")
+    private long totalBytes;
+
+    @Schema(description = "累计命中次数")
+    private long hits;
+
+    @Schema(description = "累计未命中次数")
+    private long misses;
+
+    @Schema(description = "累计淘汰次数")
+    private long evictions;
+
+    @Schema(description = "命中率")
+    private double hitRate;
+
+    @Serial
+    private static final long serialVersionUID = 1L;
+}
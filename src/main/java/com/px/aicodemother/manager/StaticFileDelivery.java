@@ -0,0 +1,360 @@
+package com.px.aicodemother.manager;
+
+import cn.hutool.core.util.StrUtil;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpRange;
+import org.springframework.http.MediaType;
+import org.springframework.http.MediaTypeFactory;
+import org.springframework.web.context.request.ServletWebRequest;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.regex.Pattern;
+
+/**
+ * packageName: com.px.aicodemother.manager
+ *
+ * @author: idpeng
+ * @version: 1.0
+ * @className: StaticFileDelivery
+ * @date: 2026/10/18 16:50
+ * @description: 静态文件输出（预览与部署站点共用）。直接写 HttpServletResponse，不经过消息转换器：
+ * 小文件从内存缓存输出；大文件在 Tomcat 支持 sendfile 时交给连接器通过 FileChannel.transferTo 由内核直接写入 socket，
+ * Servlet 线程设置好响应头即返回，文件体由 Poller 线程异步发送；不支持时退回到当前线程上的 FileChannel.transferTo
+ */
+@Slf4j
+public class StaticFileDelivery {
+
+    /**
+     * Tomcat sendfile 相关请求属性（org.apache.coyote.Constants）
+     */
+    private static final String SENDFILE_SUPPORTED_ATTR = "org.apache.tomcat.sendfile.support";
+
+    private static final String SENDFILE_FILENAME_ATTR = "org.apache.tomcat.sendfile.filename";
+
+    private static final String SENDFILE_FILE_START_ATTR = "org.apache.tomcat.sendfile.start";
+
+    private static final String SENDFILE_FILE_END_ATTR = "org.apache.tomcat.sendfile.end";
+
+    /**
+     * Vite 构建产物中带内容哈希的文件名，如 dist/assets/index-BQx3k2Lm.js；
+     * 哈希段至少包含一个大写字母或数字，避免把 photo-portrait.jpg 这类普通文件名当成不可变资源
+     */
+    private static final Pattern HASHED_ASSET_PATTERN = Pattern.compile(
+            ".*/assets/[^/]+-(?=[A-Za-z0-9_-]{0,7}[A-Z0-9])[A-Za-z0-9_-]{8}\\.(js|css|png|jpe?g|gif|svg|webp|ico|woff2?|ttf)$");
+
+    private final StaticFileCache staticFileCache;
+
+    private final boolean precompressed;
+
+    private final Duration hashedAssetMaxAge;
+
+    private final long sendfileMinBytes;
+
+    private final LongAdder memoryResponses = new LongAdder();
+
+    private final LongAdder sendfileResponses = new LongAdder();
+
+    private final LongAdder transferToResponses = new LongAdder();
+
+    private final LongAdder notModifiedResponses = new LongAdder();
+
+    private final LongAdder partialResponses = new LongAdder();
+
+    private final LongAdder bodyBytes = new LongAdder();
+
+    /**
+     * 创建静态文件输出器
+     *
+     * @param staticFileCache   热点文件缓存
+     * @param precompressed     是否优先返回预压缩的 .br / .gz 文件
+     * @param hashedAssetMaxAge 带内容哈希的构建产物缓存时间
+     * @param sendfileMinBytes  使用 sendfile 的最小文件大小，更小的文件直接在当前线程写出
+     */
+    public StaticFileDelivery(StaticFileCache staticFileCache, boolean precompressed,
+                              Duration hashedAssetMaxAge, long sendfileMinBytes) {
+        this.staticFileCache = staticFileCache;
+        this.precompressed = precompressed;
+        this.hashedAssetMaxAge = hashedAssetMaxAge;
+        this.sendfileMinBytes = sendfileMinBytes;
+    }
+
+    /**
+     * 输出站点下的静态文件，支持目录重定向和默认页面。
+     * 响应带 ETag / Last-Modified，条件请求返回 304，单个 Range 请求返回 206
+     *
+     * @param root         站点根目录（已规范化的绝对路径）
+     * @param siteKey      站点目录名
+     * @param resourcePath 站点内的资源路径，以 / 开头；为空表示访问站点目录本身
+     * @param request      请求
+     * @param response     响应
+     */
+    public void serve(Path root, String siteKey, String resourcePath,
+                      HttpServletRequest request, HttpServletResponse response) throws IOException {
+        // 如果是目录访问（不带斜杠），重定向到带斜杠的URL
+        if (resourcePath.isEmpty()) {
+            response.setStatus(HttpServletResponse.SC_MOVED_PERMANENTLY);
+            response.setHeader(HttpHeaders.LOCATION, request.getRequestURI() + "/");
+            return;
+        }
+        // 默认返回 index.html
+        if (resourcePath.equals("/")) {
+            resourcePath = "/index.html";
+        }
+
+        // 构建文件路径，禁止越出站点根目录；以 . 开头的目录（如部署版本目录）不对外提供
+        if (siteKey.startsWith(".")) {
+            response.setStatus(HttpServletResponse.SC_NOT_FOUND);
+            return;
+        }
+        Path siteRoot = root.resolve(siteKey).normalize();
+        Path file = root.resolve(siteKey + resourcePath).normalize();
+        if (!siteRoot.startsWith(root) || !file.startsWith(siteRoot)) {
+            response.setStatus(HttpServletResponse.SC_NOT_FOUND);
+            return;
+        }
+        serveFile(file, getCacheControl(resourcePath), request, response);
+    }
+
+    /**
+     * 输出单个文件，文件不存在时返回 404。
+     * 响应带 ETag / Last-Modified，条件请求返回 304，单个 Range 请求返回 206
+     *
+     * @param file         文件路径
+     * @param cacheControl 缓存策略
+     * @param request      请求
+     * @param response     响应
+     */
+    public void serveFile(Path file, CacheControl cacheControl,
+                          HttpServletRequest request, HttpServletResponse response) throws IOException {
+        // 一次 stat 同时完成存在性检查和获取修改时间、大小
+        BasicFileAttributes attributes = readAttributes(file);
+        if (attributes == null || !attributes.isRegularFile()) {
+            response.setStatus(HttpServletResponse.SC_NOT_FOUND);
+            return;
+        }
+        long lastModified = attributes.lastModifiedTime().toMillis();
+
+        // 选择预压缩文件
+        String contentEncoding = null;
+        Path bodyFile = file;
+        BasicFileAttributes bodyAttributes = attributes;
+        if (precompressed) {
+            String acceptEncoding = StrUtil.nullToEmpty(request.getHeader(HttpHeaders.ACCEPT_ENCODING));
+            for (String encoding : List.of("br", "gzip")) {
+                if (!acceptEncoding.contains(encoding)) {
+                    continue;
+                }
+                Path compressed = file.resolveSibling(file.getFileName() + ("br".equals(encoding) ? ".br" : ".gz"));
+                BasicFileAttributes compressedAttributes = readAttributes(compressed);
+                // 预压缩文件早于原文件时视为过期
+                if (compressedAttributes != null && compressedAttributes.isRegularFile()
+                        && compressedAttributes.lastModifiedTime().toMillis() >= lastModified) {
+                    contentEncoding = encoding;
+                    bodyFile = compressed;
+                    bodyAttributes = compressedAttributes;
+                    break;
+                }
+            }
+        }
+        long length = bodyAttributes.size();
+
+        // 强 ETag：修改时间 + 大小，不同编码的内容使用不同 ETag
+        String eTag = "\"" + Long.toHexString(lastModified) + "-" + Long.toHexString(length)
+                + (contentEncoding == null ? "" : "-" + contentEncoding) + "\"";
+        response.setHeader(HttpHeaders.CACHE_CONTROL, cacheControl.getHeaderValue());
+        response.setHeader(HttpHeaders.ACCEPT_RANGES, "bytes");
+        if (precompressed) {
+            response.setHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        }
+        // 条件请求（If-None-Match / If-Modified-Since）命中时设置 304 并写入 ETag、Last-Modified
+        if (new ServletWebRequest(request, response).checkNotModified(eTag, lastModified)) {
+            notModifiedResponses.increment();
+            return;
+        }
+        response.setContentType(getContentTypeWithCharset(file.toString()));
+        if (contentEncoding != null) {
+            response.setHeader(HttpHeaders.CONTENT_ENCODING, contentEncoding);
+        }
+
+        // 单个 Range 返回 206；多段 Range 或 If-Range 不匹配时返回完整内容
+        long start = 0;
+        long end = length - 1;
+        String rangeHeader = request.getHeader(HttpHeaders.RANGE);
+        if (rangeHeader != null && length > 0 && ifRangeMatches(request, eTag, lastModified)) {
+            List<HttpRange> ranges;
+            try {
+                ranges = HttpRange.parseRanges(rangeHeader);
+            } catch (IllegalArgumentException e) {
+                ranges = List.of();
+            }
+            if (ranges.size() == 1) {
+                HttpRange range = ranges.get(0);
+                start = range.getRangeStart(length);
+                end = Math.min(range.getRangeEnd(length), length - 1);
+                if (start > end) {
+                    response.setStatus(HttpServletResponse.SC_REQUESTED_RANGE_NOT_SATISFIABLE);
+                    response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes */" + length);
+                    return;
+                }
+                response.setStatus(HttpServletResponse.SC_PARTIAL_CONTENT);
+                response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes " + start + "-" + end + "/" + length);
+                partialResponses.increment();
+            }
+        }
+        long count = end - start + 1;
+        response.setContentLengthLong(count);
+        if ("HEAD".equals(request.getMethod()) || count <= 0) {
+            return;
+        }
+        writeBody(bodyFile, bodyAttributes, start, count, request, response);
+    }
+
+    /**
+     * 输出文件体：小文件走内存缓存，大文件走 sendfile，不支持 sendfile 时在当前线程 transferTo
+     */
+    private void writeBody(Path bodyFile, BasicFileAttributes bodyAttributes, long start, long count,
+                           HttpServletRequest request, HttpServletResponse response) throws IOException {
+        long length = bodyAttributes.size();
+        byte[] cached = staticFileCache.get(bodyFile, bodyAttributes.lastModifiedTime().toMillis(), length);
+        if (cached != null) {
+            response.getOutputStream().write(cached, (int) start, (int) count);
+            memoryResponses.increment();
+            bodyBytes.add(count);
+            return;
+        }
+        if (count >= sendfileMinBytes && Boolean.TRUE.equals(request.getAttribute(SENDFILE_SUPPORTED_ATTR))) {
+            // 由 Tomcat 在 Servlet 返回后通过 FileChannel.transferTo 发送，Servlet 线程不再等待慢客户端
+            request.setAttribute(SENDFILE_FILENAME_ATTR, bodyFile.toString());
+            request.setAttribute(SENDFILE_FILE_START_ATTR, start);
+            request.setAttribute(SENDFILE_FILE_END_ATTR, start + count);
+            sendfileResponses.increment();
+            bodyBytes.add(count);
+            return;
+        }
+        try (FileChannel channel = FileChannel.open(bodyFile, StandardOpenOption.READ)) {
+            OutputStream outputStream = response.getOutputStream();
+            WritableByteChannel target = Channels.newChannel(outputStream);
+            long position = start;
+            long remaining = count;
+            while (remaining > 0) {
+                long transferred = channel.transferTo(position, remaining, target);
+                if (transferred <= 0) {
+                    // 文件在输出过程中被截断
+                    log.warn("静态文件输出提前结束: {}", bodyFile);
+                    break;
+                }
+                position += transferred;
+                remaining -= transferred;
+            }
+            outputStream.flush();
+        }
+        transferToResponses.increment();
+        bodyBytes.add(count);
+    }
+
+    /**
+     * If-Range 为空或与当前 ETag / 修改时间一致时才处理 Range
+     */
+    private boolean ifRangeMatches(HttpServletRequest request, String eTag, long lastModified) {
+        String ifRange = request.getHeader(HttpHeaders.IF_RANGE);
+        if (ifRange == null) {
+            return true;
+        }
+        if (ifRange.startsWith("\"") || ifRange.startsWith("W/")) {
+            return ifRange.equals(eTag);
+        }
+        try {
+            return request.getDateHeader(HttpHeaders.IF_RANGE) / 1000 == lastModified / 1000;
+        } catch (IllegalArgumentException e) {
+            return false;
+        }
+    }
+
+    /**
+     * 读取文件属性
+     *
+     * @param path 文件路径
+     * @return 文件属性，文件不存在时返回 null
+     */
+    private BasicFileAttributes readAttributes(Path path) throws IOException {
+        try {
+            return Files.readAttributes(path, BasicFileAttributes.class);
+        } catch (NoSuchFileException e) {
+            return null;
+        }
+    }
+
+    /**
+     * 带内容哈希的构建产物内容不会变化，允许长期缓存；其他文件（如 index.html）每次向服务端协商
+     *
+     * @param resourcePath 资源路径
+     * @return 缓存策略
+     */
+    private CacheControl getCacheControl(String resourcePath) {
+        if (HASHED_ASSET_PATTERN.matcher(resourcePath).matches()) {
+            return CacheControl.maxAge(hashedAssetMaxAge).cachePublic().immutable();
+        }
+        return CacheControl.noCache();
+    }
+
+    /**
+     * 根据文件扩展名返回带字符编码的 Content-Type
+     *
+     * @param filePath 文件路径
+     * @return 对应的 Content-Type 字符串，如果文件类型未知则返回默认的二进制流类型
+     */
+    private String getContentTypeWithCharset(String filePath) {
+        if (filePath.endsWith(".html")) {
+            return "text/html; charset=UTF-8";
+        }
+        if (filePath.endsWith(".css")) {
+            return "text/css; charset=UTF-8";
+        }
+        if (filePath.endsWith(".js")) {
+            return "application/javascript; charset=UTF-8";
+        }
+        if (filePath.endsWith(".png")) {
+            return "image/png";
+        }
+        if (filePath.endsWith(".jpg")) {
+            return "image/jpeg";
+        }
+        // 其他类型（svg、字体、json 等）按扩展名推断
+        return MediaTypeFactory.getMediaType(filePath)
+                .map(MediaType::toString)
+                .orElse("application/octet-stream");
+    }
+
+    /**
+     * 获取输出统计信息
+     *
+     * @return 统计信息
+     */
+    public StaticFileDeliveryStats getStats() {
+        return StaticFileDeliveryStats.builder()
+                .memoryResponses(memoryResponses.sum())
+                .sendfileResponses(sendfileResponses.sum())
+                .transferToResponses(transferToResponses.sum())
+                .notModifiedResponses(notModifiedResponses.sum())
+                .partialResponses(partialResponses.sum())
+                .bodyBytes(bodyBytes.sum())
+                .sendfileMinBytes(sendfileMinBytes)
+                .build();
+    }
+}
@@ -0,0 +1,47 @@
+package com.px.aicodemother.manager;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Builder;
+import lombok.Data;
+
+import java.io.Serial;
+import java.io.Serializable;
+
+/**
+ * packageName: com.px.aicodemother.manager
+ *
+ * @author: idpeng
+ * @version: 1.0
+ * @className: StaticFileDeliveryStats
+ * @date: 2026/10/18 16:55
+ * @description: 静态文件输出统计信息
+ */
+@Data
+@Builder
+@Schema(description = "静态文件输出统计信息")
+public class StaticFileDeliveryStats implements Serializable {
+
+    @Schema(description = "从内存缓存输出的响应数")
+    private long memoryResponses;
+
+    @Schema(description = "交给 Tomcat sendfile 零拷贝输出的响应数")
+    private long sendfileResponses;
+
+    @Schema(description = "不支持 sendfile 时在请求线程上 transferTo 输出的响应数")
+    private long transferToResponses;
+
+    @Schema(description = "304 响应数")
+    private long notModifiedResponses;
+
+    @Schema(description = "206 响应数")
+    private long partialResponses;
+
+    @Schema(description = "累计输出的文件体字节数")
+    private long bodyBytes;
+
+    @Schema(description = "使用 sendfile 的最小文件大小（字节）")
+    private long sendfileMinBytes;
+
+    @Serial
+    private static final long serialVersionUID = 1L;
+}
@@ -0,0 +1,44 @@
+package com.px.aicodemother.manager;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Builder;
+import lombok.Data;
+
+import java.io.Serial;
+import java.io.Serializable;
+
+/**
+ * packageName: com.px.aicodemother.manager
+ *
+ * @author: idpeng
+ * @version: 1.0
+ * @className: UserVOLoaderStats
+ * @date: 2026/10/18 19:42
+ * @description: 用户视图对象批量加载统计信息
+ */
+@Data
+@Builder
+@Schema(description = "用户视图对象批量加载统计信息")
+public class UserVOLoaderStats implements Serializable {
+
+    @Schema(description = "本地缓存条目数（估算）")
+    private long cacheSize;
+
+    @Schema(description = "请求内去重命中次数")
+    private long requestHits;
+
+    @Schema(description = "本地缓存命中次数")
+    private long cacheHits;
+
+    @Schema(description = "批量查询次数")
+    private long batches;
+
+    @Schema(description = "批量查询的用户ID总数")
+    private long loadedIds;
+
+    @Schema(description = "平均每次批量查询的用户ID数")
+    private double avgBatchSize;
+
+    @Serial
+    private static final long serialVersionUID = 1L;
+}
@@ -0,0 +1,62 @@
+package com.px.aicodemother.manager.cache;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonTypeInfo;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.jsontype.BasicPolymorphicTypeValidator;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+
+import java.io.IOException;
+
+/**
+ * packageName: com.px.aicodemother.manager.cache
+ *
+ * @author: idpeng
+ * @version: 1.0
+ * @className: CacheValueCodec
+ * @date: 2026/10/18 18:40
+ * @description: 二级缓存值编解码器。使用 JSON 代替 JDK 序列化，体积更小、反序列化更快；
+ * 非 final 类型写入 @class 以便还原泛型容器中的对象，只允许反序列化本项目和常用基础库的类型
+ */
+public class CacheValueCodec {
+
+    private final ObjectMapper objectMapper;
+
+    public CacheValueCodec() {
+        BasicPolymorphicTypeValidator validator = BasicPolymorphicTypeValidator.builder()
+                .allowIfSubType("com.px.aicodemother.")
+                .allowIfSubType("com.mybatisflex.core.paginate.")
+                .allowIfSubType("java.util.")
+                .allowIfSubType("java.time.")
+                .allowIfSubType("java.lang.")
+                .build();
+        this.objectMapper = new ObjectMapper()
+                .registerModule(new JavaTimeModule())
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES)
+                .setSerializationInclusion(JsonInclude.Include.NON_NULL)
+                .activateDefaultTyping(validator, ObjectMapper.DefaultTyping.NON_FINAL, JsonTypeInfo.As.PROPERTY);
+    }
+
+    /**
+     * 编码
+     *
+     * @param value 缓存值
+     * @return JSON 字节
+     */
+    public byte[] encode(Object value) throws IOException {
+        return objectMapper.writeValueAsBytes(value);
+    }
+
+    /**
+     * 解码
+     *
+     * @param bytes JSON 字节
+     * @return 缓存值
+     */
+    public Object decode(byte[] bytes) throws IOException {
+        return objectMapper.readValue(bytes, Object.class);
+    }
+}
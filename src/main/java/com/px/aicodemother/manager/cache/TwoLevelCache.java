@@ -0,0 +1,468 @@
+package com.px.aicodemother.manager.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.support.AbstractValueAdaptingCache;
+import org.springframework.data.redis.connection.RedisStringCommands;
+import org.springframework.data.redis.core.Cursor;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.ScanOptions;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.data.redis.core.types.Expiration;
+import org.springframework.data.redis.serializer.GenericToStringSerializer;
+import org.springframework.data.redis.serializer.RedisSerializer;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+/**
+ * packageName: com.px.aicodemother.manager.cache
+ *
+ * @author: idpeng
+ * @version: 1.0
+ * @className: TwoLevelCache
+ * @date: 2026/10/18 18:45
+ * @description: 二级缓存。本地 Caffeine 作为一级缓存（短过期时间），Redis 作为二级缓存；
+ * 写入和删除先更新 Redis，再通知其他节点清除本地副本。Redis 不可用时退化为本地缓存 + 直接加载。
+ * 配置了标签提取函数时，写入 Redis 的同时把键加入每个标签对应的集合，可按标签删除所有相关的键。
+ * 每个缓存有一个失效代数，删除时递增；加载前读取代数，回填 Redis 时代数已变化则放弃写入，
+ * 避免加载期间发生的删除被加载到的旧值覆盖
+ */
+@Slf4j
+public class TwoLevelCache extends AbstractValueAdaptingCache {
+
+    /**
+     * 回填：失效代数与 ARGV[1] 一致时写入值（ARGV[2]，过期时间 ARGV[3] 毫秒），
+     * 并把键（ARGV[4]）加入 KEYS[3..] 的标签集合；代数不一致返回 0
+     */
+    private static final RedisScript<Long> REFILL_SCRIPT = new DefaultRedisScript<>("""
+            local generation = redis.call('GET', KEYS[1]) or '0'
+            if generation ~= ARGV[1] then
+                return 0
+            end
+            redis.call('SET', KEYS[2], ARGV[2], 'PX', ARGV[3])
+            for i = 3, #KEYS do
+                redis.call('SADD', KEYS[i], ARGV[4])
+                redis.call('PEXPIRE', KEYS[i], ARGV[3])
+            end
+            return 1
+            """, Long.class);
+
+    private final String name;
+
+    private final Cache<String, Object> localCache;
+
+    private final RedisTemplate<String, byte[]> redisTemplate;
+
+    private final CacheValueCodec codec;
+
+    private final Duration remoteTtl;
+
+    private final String remoteKeyPrefix;
+
+    /**
+     * 失效代数键，不在 remoteKeyPrefix 之下，clear 时不会被删除
+     */
+    private final String generationKey;
+
+    private final TwoLevelCacheManager cacheManager;
+
+    /**
+     * 从缓存值中提取标签，为 null 时不记录标签
+     */
+    private volatile Function<Object, Collection<String>> tagExtractor;
+
+    private final LongAdder localHits = new LongAdder();
+
+    private final LongAdder remoteHits = new LongAdder();
+
+    private final LongAdder misses = new LongAdder();
+
+    private final LongAdder loads = new LongAdder();
+
+    private final LongAdder loadNanos = new LongAdder();
+
+    private final AtomicLong maxLoadNanos = new AtomicLong();
+
+    private final LongAdder remoteGets = new LongAdder();
+
+    private final LongAdder remoteGetNanos = new LongAdder();
+
+    private final LongAdder remoteErrors = new LongAdder();
+
+    private final LongAdder puts = new LongAdder();
+
+    private final LongAdder evictions = new LongAdder();
+
+    private final LongAdder staleRefillsSkipped = new LongAdder();
+
+    private final LongAdder invalidationsReceived = new LongAdder();
+
+    /**
+     * 创建二级缓存
+     *
+     * @param name            缓存名称
+     * @param localTtl        本地缓存过期时间
+     * @param localMaxSize    本地缓存最大条目数
+     * @param remoteTtl       Redis 缓存过期时间
+     * @param remoteKeyPrefix Redis 键前缀
+     * @param redisTemplate   Redis 访问模板
+     * @param codec           缓存值编解码器
+     * @param cacheManager    所属缓存管理器，用于广播失效通知
+     */
+    public TwoLevelCache(String name, Duration localTtl, long localMaxSize, Duration remoteTtl, String remoteKeyPrefix,
+                         RedisTemplate<String, byte[]> redisTemplate, CacheValueCodec codec,
+                         TwoLevelCacheManager cacheManager) {
+        // 与原 Redis 缓存一致，不缓存 null
+        super(false);
+        this.name = name;
+        this.localCache = Caffeine.newBuilder()
+                .expireAfterWrite(localTtl)
+                .maximumSize(localMaxSize)
+                .build();
+        this.remoteTtl = remoteTtl;
+        this.remoteKeyPrefix = remoteKeyPrefix + name + "::";
+        this.generationKey = remoteKeyPrefix + name + "#generation";
+        this.redisTemplate = redisTemplate;
+        this.codec = codec;
+        this.cacheManager = cacheManager;
+    }
+
+    @Override
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public Object getNativeCache() {
+        return localCache;
+    }
+
+    @Override
+    protected Object lookup(Object key) {
+        String cacheKey = String.valueOf(key);
+        Object value = localCache.getIfPresent(cacheKey);
+        if (value != null) {
+            localHits.increment();
+            return value;
+        }
+        value = getRemote(cacheKey);
+        if (value != null) {
+            remoteHits.increment();
+            localCache.put(cacheKey, value);
+            return value;
+        }
+        misses.increment();
+        return null;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(Object key, Callable<T> valueLoader) {
+        String cacheKey = String.valueOf(key);
+        boolean[] computed = new boolean[1];
+        boolean[] stale = new boolean[1];
+        // 同一节点上同一键的并发加载只执行一次
+        Object value = localCache.get(cacheKey, k -> {
+            computed[0] = true;
+            // 先读代数再读 Redis 和加载，期间的任何删除都会让回填失效
+            String generation = readGeneration();
+            Object remote = getRemote(k);
+            if (remote != null) {
+                remoteHits.increment();
+                return remote;
+            }
+            misses.increment();
+            long start = System.nanoTime();
+            T loaded;
+            try {
+                loaded = valueLoader.call();
+            } catch (Exception e) {
+                throw new ValueRetrievalException(key, valueLoader, e);
+            } finally {
+                recordLoad(System.nanoTime() - start);
+            }
+            if (loaded == null) {
+                return null;
+            }
+            stale[0] = !refillRemote(k, loaded, generation);
+            return loaded;
+        });
+        if (stale[0]) {
+            // 加载期间发生过删除，值可能已过期：本次照常返回，但不留在本地缓存
+            localCache.invalidate(cacheKey);
+        } else if (!computed[0] && value != null) {
+            localHits.increment();
+        }
+        return (T) value;
+    }
+
+    @Override
+    public void put(Object key, Object value) {
+        String cacheKey = String.valueOf(key);
+        Object storeValue = toStoreValue(value);
+        putRemote(cacheKey, storeValue);
+        localCache.put(cacheKey, storeValue);
+        puts.increment();
+        // 其他节点的本地副本可能是旧值
+        cacheManager.publishInvalidation(name, cacheKey);
+    }
+
+    @Override
+    public void evict(Object key) {
+        bumpGeneration();
+        evictKey(String.valueOf(key));
+    }
+
+    private void evictKey(String cacheKey) {
+        try {
+            redisTemplate.delete(remoteKeyPrefix + cacheKey);
+        } catch (Exception e) {
+            remoteErrors.increment();
+            log.warn("删除 Redis 缓存失败: {}::{}", name, cacheKey, e);
+        }
+        localCache.invalidate(cacheKey);
+        evictions.increment();
+        cacheManager.publishInvalidation(name, cacheKey);
+    }
+
+    @Override
+    public void clear() {
+        bumpGeneration();
+        try {
+            redisTemplate.execute((RedisCallback<Void>) connection -> {
+                List<byte[]> keys = new ArrayList<>();
+                ScanOptions options = ScanOptions.scanOptions().match(remoteKeyPrefix + "*").count(500).build();
+                try (Cursor<byte[]> cursor = connection.keyCommands().scan(options)) {
+                    while (cursor.hasNext()) {
+                        keys.add(cursor.next());
+                        if (keys.size() == 500) {
+                            connection.keyCommands().del(keys.toArray(new byte[0][]));
+                            keys.clear();
+                        }
+                    }
+                }
+                if (!keys.isEmpty()) {
+                    connection.keyCommands().del(keys.toArray(new byte[0][]));
+                }
+                return null;
+            });
+        } catch (Exception e) {
+            remoteErrors.increment();
+            log.warn("清空 Redis 缓存失败: {}", name, e);
+        }
+        localCache.invalidateAll();
+        evictions.increment();
+        cacheManager.publishInvalidation(name, null);
+    }
+
+    /**
+     * 按标签删除：删除标签集合中记录的所有键，并通知其他节点
+     *
+     * @param tag 标签
+     */
+    public void evictByTag(String tag) {
+        byte[] tagKey = tagKey(tag);
+        Set<byte[]> members;
+        // 先递增代数，读取集合之后才回填的加载不会再写入
+        bumpGeneration();
+        try {
+            members = redisTemplate.execute((RedisCallback<Set<byte[]>>) connection -> {
+                Set<byte[]> keys = connection.setCommands().sMembers(tagKey);
+                // 只移除读到的成员，期间新加入的键保留在集合中
+                if (keys != null && !keys.isEmpty()) {
+                    connection.setCommands().sRem(tagKey, keys.toArray(new byte[0][]));
+                }
+                return keys;
+            });
+        } catch (Exception e) {
+            remoteErrors.increment();
+            log.warn("读取缓存标签失败，清空本地缓存: {}#{}", name, tag, e);
+            localCache.invalidateAll();
+            return;
+        }
+        if (members == null) {
+            return;
+        }
+        for (byte[] member : members) {
+            evictKey(new String(member, StandardCharsets.UTF_8));
+        }
+    }
+
+    /**
+     * 设置标签提取函数
+     *
+     * @param tagExtractor 从缓存值中提取标签的函数
+     */
+    void setTagExtractor(Function<Object, Collection<String>> tagExtractor) {
+        this.tagExtractor = tagExtractor;
+    }
+
+    /**
+     * 处理其他节点的失效通知，只清除本地副本
+     *
+     * @param key 缓存键，为 null 时清空本地缓存
+     */
+    void invalidateLocal(String key) {
+        if (key == null) {
+            localCache.invalidateAll();
+        } else {
+            localCache.invalidate(key);
+        }
+        invalidationsReceived.increment();
+    }
+
+    /**
+     * 获取缓存统计信息
+     *
+     * @return 统计信息
+     */
+    public TwoLevelCacheStats getStats() {
+        long localHitCount = localHits.sum();
+        long remoteHitCount = remoteHits.sum();
+        long missCount = misses.sum();
+        long total = localHitCount + remoteHitCount + missCount;
+        long loadCount = loads.sum();
+        long remoteGetCount = remoteGets.sum();
+        return TwoLevelCacheStats.builder()
+                .name(name)
+                .localSize(localCache.estimatedSize())
+                .localHits(localHitCount)
+                .remoteHits(remoteHitCount)
+                .misses(missCount)
+                .hitRate(total == 0 ? 0 : (double) (localHitCount + remoteHitCount) / total)
+                .loads(loadCount)
+                .avgLoadMillis(loadCount == 0 ? 0 : loadNanos.sum() / 1_000_000.0 / loadCount)
+                .maxLoadMillis(maxLoadNanos.get() / 1_000_000)
+                .avgRemoteGetMillis(remoteGetCount == 0 ? 0 : remoteGetNanos.sum() / 1_000_000.0 / remoteGetCount)
+                .remoteErrors(remoteErrors.sum())
+                .puts(puts.sum())
+                .evictions(evictions.sum())
+                .staleRefillsSkipped(staleRefillsSkipped.sum())
+                .invalidationsReceived(invalidationsReceived.sum())
+                .build();
+    }
+
+    private Object getRemote(String cacheKey) {
+        long start = System.nanoTime();
+        try {
+            byte[] bytes = redisTemplate.opsForValue().get(remoteKeyPrefix + cacheKey);
+            return bytes == null ? null : codec.decode(bytes);
+        } catch (Exception e) {
+            remoteErrors.increment();
+            log.warn("读取 Redis 缓存失败，按未命中处理: {}::{}", name, cacheKey, e);
+            return null;
+        } finally {
+            remoteGets.increment();
+            remoteGetNanos.add(System.nanoTime() - start);
+        }
+    }
+
+    private void putRemote(String cacheKey, Object value) {
+        try {
+            byte[] bytes = codec.encode(value);
+            Function<Object, Collection<String>> extractor = tagExtractor;
+            Collection<String> tags = extractor == null ? List.of() : extractor.apply(value);
+            if (tags.isEmpty()) {
+                redisTemplate.opsForValue().set(remoteKeyPrefix + cacheKey, bytes, remoteTtl);
+                return;
+            }
+            byte[] key = (remoteKeyPrefix + cacheKey).getBytes(StandardCharsets.UTF_8);
+            byte[] member = cacheKey.getBytes(StandardCharsets.UTF_8);
+            // 值和标签集合在一次往返中写入，标签集合的过期时间随每次写入顺延
+            redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+                connection.stringCommands().set(key, bytes, Expiration.from(remoteTtl),
+                        RedisStringCommands.SetOption.upsert());
+                for (String tag : tags) {
+                    byte[] tagKey = tagKey(tag);
+                    connection.setCommands().sAdd(tagKey, member);
+                    connection.keyCommands().pExpire(tagKey, remoteTtl.toMillis());
+                }
+                return null;
+            });
+        } catch (Exception e) {
+            remoteErrors.increment();
+            log.warn("写入 Redis 缓存失败: {}::{}", name, cacheKey, e);
+        }
+    }
+
+    /**
+     * 读取当前失效代数，从未删除过为 "0"；Redis 不可用时返回 null，此时不回填
+     */
+    private String readGeneration() {
+        try {
+            byte[] bytes = redisTemplate.opsForValue().get(generationKey);
+            return bytes == null ? "0" : new String(bytes, StandardCharsets.UTF_8);
+        } catch (Exception e) {
+            remoteErrors.increment();
+            log.warn("读取缓存失效代数失败: {}", name, e);
+            return null;
+        }
+    }
+
+    private void bumpGeneration() {
+        try {
+            redisTemplate.opsForValue().increment(generationKey);
+        } catch (Exception e) {
+            remoteErrors.increment();
+            log.warn("递增缓存失效代数失败: {}", name, e);
+        }
+    }
+
+    /**
+     * 加载后回填 Redis，读取代数之后发生过删除时放弃写入
+     *
+     * @return 是否写入（Redis 写入失败也视为已写入，值本身不是过期的）
+     */
+    private boolean refillRemote(String cacheKey, Object value, String generation) {
+        if (generation == null) {
+            return true;
+        }
+        try {
+            Function<Object, Collection<String>> extractor = tagExtractor;
+            Collection<String> tags = extractor == null ? List.of() : extractor.apply(value);
+            List<String> keys = new ArrayList<>(2 + tags.size());
+            keys.add(generationKey);
+            keys.add(remoteKeyPrefix + cacheKey);
+            for (String tag : tags) {
+                keys.add(new String(tagKey(tag), StandardCharsets.UTF_8));
+            }
+            Long written = redisTemplate.execute(REFILL_SCRIPT, RedisSerializer.byteArray(),
+                    new GenericToStringSerializer<>(Long.class), keys,
+                    generation.getBytes(StandardCharsets.UTF_8), codec.encode(value),
+                    String.valueOf(remoteTtl.toMillis()).getBytes(StandardCharsets.UTF_8),
+                    cacheKey.getBytes(StandardCharsets.UTF_8));
+            if (written != null && written == 0) {
+                staleRefillsSkipped.increment();
+                log.info("加载期间缓存已失效，放弃回填: {}::{}", name, cacheKey);
+                return false;
+            }
+            return true;
+        } catch (Exception e) {
+            remoteErrors.increment();
+            log.warn("写入 Redis 缓存失败: {}::{}", name, cacheKey, e);
+            return true;
+        }
+    }
+
+    private void recordLoad(long nanos) {
+        loads.increment();
+        loadNanos.add(nanos);
+        maxLoadNanos.accumulateAndGet(nanos, Math::max);
+    }
+
+    private byte[] tagKey(String tag) {
+        return (remoteKeyPrefix + "#tag:" + tag).getBytes(StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,171 @@
+package com.px.aicodemother.manager.cache;
+
+import cn.hutool.core.util.IdUtil;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.RedisTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+/**
+ * packageName: com.px.aicodemother.manager.cache
+ *
+ * @author: idpeng
+ * @version: 1.0
+ * @className: TwoLevelCacheManager
+ * @date: 2026/10/18 18:50
+ * @description: 二级缓存管理器（Caffeine + Redis）。每个缓存的本地、Redis 过期时间可单独配置；
+ * 写入或删除时通过 Redis 发布订阅通知其他节点清除本地副本，消息格式为 "节点id|缓存名|键"，键为空表示清空
+ */
+@Slf4j
+public class TwoLevelCacheManager implements CacheManager, MessageListener {
+
+    /**
+     * 单个缓存的过期时间与容量
+     *
+     * @param localTtl     本地缓存过期时间
+     * @param localMaxSize 本地缓存最大条目数
+     * @param remoteTtl    Redis 缓存过期时间
+     */
+    public record CacheSpec(Duration localTtl, long localMaxSize, Duration remoteTtl) {
+    }
+
+    /**
+     * 当前节点 id，忽略自己发出的失效通知
+     */
+    private final String nodeId = IdUtil.fastSimpleUUID();
+
+    private final RedisTemplate<String, byte[]> redisTemplate;
+
+    private final CacheValueCodec codec;
+
+    private final String keyPrefix;
+
+    private final String channel;
+
+    private final CacheSpec defaultSpec;
+
+    private final Map<String, CacheSpec> cacheSpecs;
+
+    private final ConcurrentHashMap<String, TwoLevelCache> caches = new ConcurrentHashMap<>();
+
+    private final ConcurrentHashMap<String, Function<Object, Collection<String>>> tagExtractors = new ConcurrentHashMap<>();
+
+    /**
+     * 创建二级缓存管理器
+     *
+     * @param redisTemplate Redis 访问模板（值为字节数组）
+     * @param codec         缓存值编解码器
+     * @param keyPrefix     Redis 键前缀
+     * @param channel       失效通知频道
+     * @param defaultSpec   默认过期时间与容量
+     * @param cacheSpecs    按缓存名配置的过期时间与容量
+     */
+    public TwoLevelCacheManager(RedisTemplate<String, byte[]> redisTemplate, CacheValueCodec codec, String keyPrefix,
+                                String channel, CacheSpec defaultSpec, Map<String, CacheSpec> cacheSpecs) {
+        this.redisTemplate = redisTemplate;
+        this.codec = codec;
+        this.keyPrefix = keyPrefix;
+        this.channel = channel;
+        this.defaultSpec = defaultSpec;
+        this.cacheSpecs = cacheSpecs;
+    }
+
+    @Override
+    public Cache getCache(String name) {
+        return caches.computeIfAbsent(name, cacheName -> {
+            CacheSpec spec = cacheSpecs.getOrDefault(cacheName, defaultSpec);
+            TwoLevelCache cache = new TwoLevelCache(cacheName, spec.localTtl(), spec.localMaxSize(), spec.remoteTtl(),
+                    keyPrefix, redisTemplate, codec, this);
+            cache.setTagExtractor(tagExtractors.get(cacheName));
+            return cache;
+        });
+    }
+
+    /**
+     * 为缓存注册标签提取函数，之后写入的值会按标签建立索引
+     *
+     * @param cacheName    缓存名
+     * @param tagExtractor 从缓存值中提取标签的函数
+     */
+    public void registerTagExtractor(String cacheName, Function<Object, Collection<String>> tagExtractor) {
+        tagExtractors.put(cacheName, tagExtractor);
+        TwoLevelCache cache = caches.get(cacheName);
+        if (cache != null) {
+            cache.setTagExtractor(tagExtractor);
+        }
+    }
+
+    /**
+     * 按标签删除缓存
+     *
+     * @param cacheName 缓存名
+     * @param tag       标签
+     */
+    public void evictByTag(String cacheName, String tag) {
+        ((TwoLevelCache) getCache(cacheName)).evictByTag(tag);
+    }
+
+    @Override
+    public Collection<String> getCacheNames() {
+        return List.copyOf(caches.keySet());
+    }
+
+    /**
+     * 失效通知频道
+     *
+     * @return 频道名
+     */
+    public String getChannel() {
+        return channel;
+    }
+
+    /**
+     * 通知其他节点清除本地副本，发送失败只影响其他节点本地副本的新鲜度（最长为本地过期时间）
+     *
+     * @param cacheName 缓存名
+     * @param key       缓存键，为 null 时表示清空
+     */
+    void publishInvalidation(String cacheName, String key) {
+        String message = nodeId + "|" + cacheName + "|" + (key == null ? "" : key);
+        try {
+            redisTemplate.convertAndSend(channel, message.getBytes(StandardCharsets.UTF_8));
+        } catch (Exception e) {
+            log.warn("发送缓存失效通知失败: {}", message, e);
+        }
+    }
+
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        String[] parts = new String(message.getBody(), StandardCharsets.UTF_8).split("\\|", 3);
+        if (parts.length != 3 || nodeId.equals(parts[0])) {
+            return;
+        }
+        TwoLevelCache cache = caches.get(parts[1]);
+        if (cache != null) {
+            cache.invalidateLocal(parts[2].isEmpty() ? null : parts[2]);
+        }
+    }
+
+    /**
+     * 获取各缓存的统计信息
+     *
+     * @return 统计信息，按缓存名排序
+     */
+    public List<TwoLevelCacheStats> getStats() {
+        return caches.values().stream()
+                .map(TwoLevelCache::getStats)
+                .sorted(Comparator.comparing(TwoLevelCacheStats::getName))
+                .toList();
+    }
+}
@@ -0,0 +1,71 @@
+package com.px.aicodemother.manager.cache;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Builder;
+import lombok.Data;
+
+import java.io.Serial;
+import java.io.Serializable;
+
+/**
+ * packageName: com.px.aicodemother.manager.cache
+ *
+ * @author: idpeng
+ * @version: 1.0
+ * @className: TwoLevelCacheStats
+ * @date: 2026/10/18 18:42
+ * @description: 二级缓存统计信息（单个缓存）
+ */
+@Data
+@Builder
+@Schema(description = "二级缓存统计信息")
+public class TwoLevelCacheStats implements Serializable {
+
+    @Schema(description = "缓存名称")
+    private String name;
+
+    @Schema(description = "本地缓存条目数")
+    private long localSize;
+
+    @Schema(description = "本地缓存命中次数")
+    private long localHits;
+
+    @Schema(description = "Redis 命中次数")
+    private long remoteHits;
+
+    @Schema(description = "未命中次数")
+    private long misses;
+
+    @Schema(description = "命中率（本地 + Redis）")
+    private double hitRate;
+
+    @Schema(description = "通过加载函数加载的次数")
+    private long loads;
+
+    @Schema(description = "平均加载耗时（毫秒）")
+    private double avgLoadMillis;
+
+    @Schema(description = "最大加载耗时（毫秒）")
+    private long maxLoadMillis;
+
+    @Schema(description = "平均 Redis 读取耗时（毫秒）")
+    private double avgRemoteGetMillis;
+
+    @Schema(description = "Redis 访问失败次数")
+    private long remoteErrors;
+
+    @Schema(description = "写入次数")
+    private long puts;
+
+    @Schema(description = "删除次数")
+    private long evictions;
+
+    @Schema(description = "加载期间缓存被删除而放弃回填 Redis 的次数")
+    private long staleRefillsSkipped;
+
+    @Schema(description = "收到其他节点失效通知的次数")
+    private long invalidationsReceived;
+
+    @Serial
+    private static final long serialVersionUID = 1L;
+}
@@ -25,6 +25,12 @@ public class AppDeployRequest implements Serializable {
     @Schema(description = "应用 id")
     private Long appId;
 
+    /**
+     * 是否强制重新构建（仅 Vue 工程），默认代码未变化时跳过构建
+     */
+    @Schema(description = "是否强制重新构建")
+    private Boolean forceRebuild;
+
     @Serial
     private static final long serialVersionUID = 1L;
 }
@@ -0,0 +1,36 @@
+package com.px.aicodemother.model.dto.app;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Data;
+
+import java.io.Serial;
+import java.io.Serializable;
+
+/**
+ * packageName: com.px.aicodemother.model.dto.app
+ *
+ * @author: idpeng
+ * @version: 1.0
+ * @className: AppDeployRollbackRequest
+ * @date: 2026/10/18 17:40
+ * @description: 应用部署回滚请求参数
+ */
+@Data
+@Schema(description = "应用部署回滚请求参数")
+public class AppDeployRollbackRequest implements Serializable {
+
+    /**
+     * 应用 id
+     */
+    @Schema(description = "应用 id")
+    private Long appId;
+
+    /**
+     * 目标版本 id，为空时回滚到上一个版本
+     */
+    @Schema(description = "目标版本 id，为空时回滚到上一个版本")
+    private String releaseId;
+
+    @Serial
+    private static final long serialVersionUID = 1L;
+}
@@ -0,0 +1,49 @@
+package com.px.aicodemother.model.enums;
+
+import cn.hutool.core.util.StrUtil;
+import lombok.Getter;
+
+/**
+ * packageName: com.px.aicodemother.model.enums
+ *
+ * @author: idpeng
+ * @version: 1.0
+ * @enumName: VueBuildStatusEnum
+ * @date: 2026/10/18 13:20
+ * @description: Vue 项目构建状态枚举
+ */
+@Getter
+public enum VueBuildStatusEnum {
+
+    QUEUED("排队中", "queued"),
+    RUNNING("构建中", "running"),
+    DONE("构建成功", "done"),
+    FAILED("构建失败", "failed");
+
+    private final String text;
+
+    private final String value;
+
+    VueBuildStatusEnum(String text, String value) {
+        this.text = text;
+        this.value = value;
+    }
+
+    /**
+     * 根据value获取枚举
+     *
+     * @param value 枚举值的value
+     * @return 枚举值
+     */
+    public static VueBuildStatusEnum getEnumByValue(String value) {
+        if (StrUtil.isEmpty(value)) {
+            return null;
+        }
+        for (VueBuildStatusEnum anEnum : VueBuildStatusEnum.values()) {
+            if (anEnum.value.equals(value)) {
+                return anEnum;
+            }
+        }
+        return null;
+    }
+}
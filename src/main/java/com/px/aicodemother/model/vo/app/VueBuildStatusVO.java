@@ -0,0 +1,61 @@
+package com.px.aicodemother.model.vo.app;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serial;
+import java.io.Serializable;
+import java.time.LocalDateTime;
+
+/**
+ * packageName: com.px.aicodemother.model.vo.app
+ *
+ * @author: idpeng
+ * @version: 1.0
+ * @className: VueBuildStatusVO
+ * @date: 2026/10/18 13:24
+ * @description: Vue 项目构建状态视图对象
+ */
+@Data
+@Builder(toBuilder = true)
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Vue 项目构建状态视图对象")
+public class VueBuildStatusVO implements Serializable {
+
+    @Schema(description = "应用id")
+    private Long appId;
+
+    @Schema(description = "构建状态：queued/running/done/failed")
+    private String status;
+
+    @Schema(description = "排队位置（从1开始，仅排队中有效）")
+    private Integer queuePosition;
+
+    @Schema(description = "被合并的重复构建请求数")
+    private Integer mergedRequests;
+
+    @Schema(description = "入队时间")
+    private LocalDateTime enqueueTime;
+
+    @Schema(description = "开始构建时间")
+    private LocalDateTime startTime;
+
+    @Schema(description = "结束时间")
+    private LocalDateTime finishTime;
+
+    @Schema(description = "排队耗时（毫秒）")
+    private Long waitMillis;
+
+    @Schema(description = "构建耗时（毫秒）")
+    private Long durationMillis;
+
+    @Schema(description = "说明信息")
+    private String message;
+
+    @Serial
+    private static final long serialVersionUID = 1L;
+}
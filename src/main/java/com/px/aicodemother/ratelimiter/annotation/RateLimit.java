@@ -44,6 +44,12 @@ public @interface RateLimit {
      */
     RateLimitType rateLimitType() default RateLimitType.USER;
 
+    /**
+     * 是否在本地预取令牌，适合调用量很大的 API 级别限流；一次领取一批令牌，在同步间隔内于本地扣减
+     * @return 是否本地预取
+     */
+    boolean localPrefetch() default false;
+
     /**
      * 错误信息
      * @return 错误信息
@@ -4,6 +4,7 @@ import com.px.aicodemother.exception.BusinessException;
 import com.px.aicodemother.exception.ErrorCode;
 import com.px.aicodemother.model.entity.User;
 import com.px.aicodemother.ratelimiter.annotation.RateLimit;
+import com.px.aicodemother.ratelimiter.limiter.RedisTokenBucketRateLimiter;
 import com.px.aicodemother.service.UserService;
 import jakarta.annotation.Resource;
 import jakarta.servlet.http.HttpServletRequest;
@@ -12,16 +13,11 @@ import org.aspectj.lang.JoinPoint;
 import org.aspectj.lang.annotation.Aspect;
 import org.aspectj.lang.annotation.Before;
 import org.aspectj.lang.reflect.MethodSignature;
-import org.redisson.api.RRateLimiter;
-import org.redisson.api.RateIntervalUnit;
-import org.redisson.api.RateType;
-import org.redisson.api.RedissonClient;
 import org.springframework.stereotype.Component;
 import org.springframework.web.context.request.RequestContextHolder;
 import org.springframework.web.context.request.ServletRequestAttributes;
 
 import java.lang.reflect.Method;
-import java.time.Duration;
 
 /**
  * packageName: com.px.aicodemother.ratelimiter.aspect
@@ -38,7 +34,7 @@ import java.time.Duration;
 public class RateLimitAspect {
 
     @Resource
-    private RedissonClient redissonClient;
+    private RedisTokenBucketRateLimiter redisTokenBucketRateLimiter;
 
     @Resource
     private UserService userService;
@@ -46,8 +42,8 @@ public class RateLimitAspect {
     /**
      * 前置通知方法，在被@RateLimit注解标记的方法执行前进行限流检查
      * 
-     * 该方法会根据限流注解配置创建或获取Redisson分布式限流器，
-     * 并尝试获取执行许可。如果超出限流配置则抛出业务异常。
+     * 该方法会根据限流注解配置，通过一次 Lua 脚本调用在 Redis 令牌桶中获取执行许可
+     * （限流键自带过期时间，无需单独设置）。如果超出限流配置则抛出业务异常。
      * 
      * @param point 切点信息，包含被拦截的方法信息
      * @param rateLimit 限流注解，包含具体的限流配置参数
@@ -55,14 +51,10 @@ public class RateLimitAspect {
     @Before("@annotation(rateLimit)")
     public void doBefore(JoinPoint point, RateLimit rateLimit) {
         String key = generateRateLimitKey(point, rateLimit);
-        // 获取Redisson分布式限流器实例
-        RRateLimiter rateLimiter = redissonClient.getRateLimiter(key);
-        // 设置限流器1小时后过期，避免Redis中存储过多无用数据
-        rateLimiter.expire(Duration.ofHours(1));
-        // 设置限流器参数：每个时间窗口允许的请求数和时间窗口
-        rateLimiter.trySetRate(RateType.OVERALL, rateLimit.rate(), rateLimit.rateInterval(), RateIntervalUnit.SECONDS);
         // 尝试获取令牌，如果获取失败则抛出异常
-        if (!rateLimiter.tryAcquire(1)) {
+        boolean allowed = redisTokenBucketRateLimiter.tryAcquire(key, rateLimit.rate(),
+                rateLimit.rateInterval() * 1000L, rateLimit.localPrefetch());
+        if (!allowed) {
             throw new BusinessException(ErrorCode.TOO_MANY_REQUEST, rateLimit.message());
         }
     }
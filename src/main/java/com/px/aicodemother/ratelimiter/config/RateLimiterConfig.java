@@ -0,0 +1,46 @@
+package com.px.aicodemother.ratelimiter.config;
+
+import com.px.aicodemother.ratelimiter.limiter.RedisTokenBucketRateLimiter;
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+import java.time.Duration;
+
+/**
+ * packageName: com.px.aicodemother.ratelimiter.config
+ *
+ * @author: idpeng
+ * @version: 1.0
+ * @className: RateLimiterConfig
+ * @date: 2026/10/18 20:40
+ * @description: 限流器配置
+ */
+@Data
+@Configuration
+@ConfigurationProperties(prefix = "rate-limit")
+public class RateLimiterConfig {
+
+    /**
+     * 本地预取时每次领取的令牌数占容量的比例
+     */
+    private Double localBatchRatio = 0.1;
+
+    /**
+     * 本地预取令牌的有效期，过期后未用完的令牌作废并重新领取
+     */
+    private Duration localSyncInterval = Duration.ofMillis(100);
+
+    /**
+     * 创建令牌桶限流器
+     *
+     * @param stringRedisTemplate Redis 访问模板
+     * @return 令牌桶限流器
+     */
+    @Bean
+    public RedisTokenBucketRateLimiter redisTokenBucketRateLimiter(StringRedisTemplate stringRedisTemplate) {
+        return new RedisTokenBucketRateLimiter(stringRedisTemplate, localBatchRatio, localSyncInterval.toMillis());
+    }
+}
@@ -0,0 +1,47 @@
+package com.px.aicodemother.ratelimiter.limiter;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Builder;
+import lombok.Data;
+
+import java.io.Serial;
+import java.io.Serializable;
+
+/**
+ * packageName: com.px.aicodemother.ratelimiter.limiter
+ *
+ * @author: idpeng
+ * @version: 1.0
+ * @className: RateLimiterStats
+ * @date: 2026/10/18 20:35
+ * @description: 限流器统计信息
+ */
+@Data
+@Builder
+@Schema(description = "限流器统计信息")
+public class RateLimiterStats implements Serializable {
+
+    @Schema(description = "限流检查次数")
+    private long checks;
+
+    @Schema(description = "被拒绝次数")
+    private long rejected;
+
+    @Schema(description = "本地预取令牌放行次数")
+    private long localHits;
+
+    @Schema(description = "当前本地预取的键数")
+    private long localLeases;
+
+    @Schema(description = "Redis 脚本调用次数")
+    private long redisCalls;
+
+    @Schema(description = "Redis 脚本平均耗时（微秒）")
+    private double avgRedisMicros;
+
+    @Schema(description = "Redis 调用失败次数（失败时放行）")
+    private long redisErrors;
+
+    @Serial
+    private static final long serialVersionUID = 1L;
+}
@@ -0,0 +1,215 @@
+package com.px.aicodemother.ratelimiter.limiter;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * packageName: com.px.aicodemother.ratelimiter.limiter
+ *
+ * @author: idpeng
+ * @version: 1.0
+ * @className: RedisTokenBucketRateLimiter
+ * @date: 2026/10/18 20:30
+ * @description: 基于 Redis Lua 脚本的令牌桶限流器。补充令牌、扣减和设置过期时间在一个脚本内完成，
+ * 每次检查只有一次往返；脚本以 EVALSHA 执行，服务端未缓存时自动回退为 EVAL。
+ * 对调用量很大的键可启用本地预取：一次从 Redis 领取一批令牌在本地扣减，用完或超过同步间隔后再领取，
+ * 同步间隔内未用完的令牌作废，全局放行数不会超过 Redis 中的配额
+ */
+@Slf4j
+public class RedisTokenBucketRateLimiter {
+
+    /**
+     * 令牌桶脚本。KEYS[1]: 桶；ARGV: 容量、补满间隔毫秒、请求令牌数、是否允许部分领取。
+     * 使用 Redis 服务器时间，避免各节点时钟不一致；返回 {领取到的令牌数, 剩余令牌数}
+     */
+    private static final RedisScript<List> TOKEN_BUCKET_SCRIPT = new DefaultRedisScript<>("""
+            local capacity = tonumber(ARGV[1])
+            local interval = tonumber(ARGV[2])
+            local requested = tonumber(ARGV[3])
+            local partial = ARGV[4] == '1'
+            local time = redis.call('TIME')
+            local now = tonumber(time[1]) * 1000 + math.floor(tonumber(time[2]) / 1000)
+            local bucket = redis.call('HMGET', KEYS[1], 'tokens', 'ts')
+            local tokens = tonumber(bucket[1])
+            local ts = tonumber(bucket[2])
+            if tokens == nil or ts == nil then
+                tokens = capacity
+                ts = now
+            end
+            if now > ts then
+                tokens = math.min(capacity, tokens + (now - ts) * capacity / interval)
+            end
+            local granted = 0
+            if tokens >= requested then
+                granted = requested
+            elseif partial then
+                granted = math.floor(tokens)
+            end
+            tokens = tokens - granted
+            redis.call('HSET', KEYS[1], 'tokens', tostring(tokens), 'ts', tostring(now))
+            redis.call('PEXPIRE', KEYS[1], interval * 2)
+            return {granted, math.floor(tokens)}
+            """, List.class);
+
+    /**
+     * 本地预取的令牌
+     *
+     * @param remaining   剩余令牌数
+     * @param granted     领取到的令牌数
+     * @param expireNanos 作废时间（System.nanoTime）
+     */
+    private record LocalLease(AtomicLong remaining, long granted, long expireNanos) {
+    }
+
+    private final StringRedisTemplate stringRedisTemplate;
+
+    /**
+     * 本地预取时每次领取的令牌数占容量的比例
+     */
+    private final double localBatchRatio;
+
+    /**
+     * 本地预取令牌的有效期（纳秒）
+     */
+    private final long localSyncNanos;
+
+    private final ConcurrentHashMap<String, LocalLease> localLeases = new ConcurrentHashMap<>();
+
+    /**
+     * 正在向 Redis 领取令牌的键，同一键的其他线程等待同一次领取
+     */
+    private final ConcurrentHashMap<String, CompletableFuture<LocalLease>> localRefreshes = new ConcurrentHashMap<>();
+
+    private final LongAdder checks = new LongAdder();
+
+    private final LongAdder rejected = new LongAdder();
+
+    private final LongAdder localHits = new LongAdder();
+
+    private final LongAdder redisCalls = new LongAdder();
+
+    private final LongAdder redisNanos = new LongAdder();
+
+    private final LongAdder redisErrors = new LongAdder();
+
+    /**
+     * 创建令牌桶限流器
+     *
+     * @param stringRedisTemplate Redis 访问模板
+     * @param localBatchRatio     本地预取时每次领取的令牌数占容量的比例
+     * @param localSyncMillis     本地预取令牌的有效期（毫秒）
+     */
+    public RedisTokenBucketRateLimiter(StringRedisTemplate stringRedisTemplate, double localBatchRatio,
+                                       long localSyncMillis) {
+        this.stringRedisTemplate = stringRedisTemplate;
+        this.localBatchRatio = localBatchRatio;
+        this.localSyncNanos = localSyncMillis * 1_000_000;
+    }
+
+    /**
+     * 尝试获取一个令牌
+     *
+     * @param key            限流键
+     * @param rate           每个时间窗口允许的请求数（桶容量）
+     * @param intervalMillis 时间窗口（毫秒），令牌在该时间内补满
+     * @param localPrefetch  是否启用本地预取
+     * @return 是否放行
+     */
+    public boolean tryAcquire(String key, int rate, long intervalMillis, boolean localPrefetch) {
+        checks.increment();
+        boolean allowed = localPrefetch
+                ? tryAcquireLocal(key, rate, intervalMillis)
+                : acquireRemote(key, rate, intervalMillis, 1, false) > 0;
+        if (!allowed) {
+            rejected.increment();
+        }
+        return allowed;
+    }
+
+    /**
+     * 获取统计信息
+     *
+     * @return 统计信息
+     */
+    public RateLimiterStats getStats() {
+        long redisCallCount = redisCalls.sum();
+        return RateLimiterStats.builder()
+                .checks(checks.sum())
+                .rejected(rejected.sum())
+                .localHits(localHits.sum())
+                .localLeases(localLeases.size())
+                .redisCalls(redisCallCount)
+                .avgRedisMicros(redisCallCount == 0 ? 0 : redisNanos.sum() / 1000.0 / redisCallCount)
+                .redisErrors(redisErrors.sum())
+                .build();
+    }
+
+    private boolean tryAcquireLocal(String key, int rate, long intervalMillis) {
+        LocalLease lease = localLeases.get(key);
+        if (lease != null && System.nanoTime() < lease.expireNanos() && lease.remaining().getAndDecrement() > 0) {
+            localHits.increment();
+            return true;
+        }
+        // 其他线程刚领取过，或上次没有领取到令牌（配额已用完，同步间隔内直接拒绝）
+        LocalLease latest = localLeases.get(key);
+        if (latest != null && System.nanoTime() < latest.expireNanos() && (latest != lease || latest.granted() == 0)) {
+            return latest.remaining().getAndDecrement() > 0;
+        }
+        // 同一键只由一个线程去 Redis 领取，其余线程等待它的结果；Redis 调用不持有任何锁，不影响其他键
+        CompletableFuture<LocalLease> refresh = new CompletableFuture<>();
+        CompletableFuture<LocalLease> inflight = localRefreshes.putIfAbsent(key, refresh);
+        if (inflight != null) {
+            return inflight.join().remaining().getAndDecrement() > 0;
+        }
+        LocalLease fresh = null;
+        try {
+            // 上一次领取可能在本线程检查之后刚刚完成
+            LocalLease current = localLeases.get(key);
+            if (current != null && current != lease && System.nanoTime() < current.expireNanos()) {
+                fresh = current;
+                return fresh.remaining().getAndDecrement() > 0;
+            }
+            int batch = Math.max(1, (int) (rate * localBatchRatio));
+            long granted = acquireRemote(key, rate, intervalMillis, batch, true);
+            fresh = new LocalLease(new AtomicLong(granted), granted, System.nanoTime() + localSyncNanos);
+            localLeases.put(key, fresh);
+        } finally {
+            localRefreshes.remove(key, refresh);
+            if (fresh != null) {
+                refresh.complete(fresh);
+            } else {
+                refresh.completeExceptionally(new IllegalStateException("领取令牌失败: " + key));
+            }
+        }
+        return fresh.remaining().getAndDecrement() > 0;
+    }
+
+    /**
+     * 从 Redis 领取令牌，Redis 不可用时放行，避免限流组件故障导致业务不可用
+     *
+     * @return 领取到的令牌数
+     */
+    private long acquireRemote(String key, int rate, long intervalMillis, int requested, boolean partial) {
+        long start = System.nanoTime();
+        try {
+            List<?> result = stringRedisTemplate.execute(TOKEN_BUCKET_SCRIPT, List.of(key),
+                    String.valueOf(rate), String.valueOf(intervalMillis), String.valueOf(requested), partial ? "1" : "0");
+            return result == null || result.isEmpty() ? 0 : ((Number) result.get(0)).longValue();
+        } catch (Exception e) {
+            redisErrors.increment();
+            log.warn("限流检查失败，放行请求: {}", key, e);
+            return requested;
+        } finally {
+            redisCalls.increment();
+            redisNanos.add(System.nanoTime() - start);
+        }
+    }
+}
@@ -2,6 +2,8 @@ package com.px.aicodemother.service;
 
 import com.mybatisflex.core.query.QueryWrapper;
 import com.mybatisflex.core.service.IService;
+import com.px.aicodemother.ai.model.message.StreamMessage;
+import com.px.aicodemother.core.deploy.DeployRelease;
 import com.px.aicodemother.model.dto.app.AppAddRequest;
 import com.px.aicodemother.model.dto.app.AppQueryRequest;
 import com.px.aicodemother.model.entity.App;
@@ -59,16 +61,36 @@ public interface AppService extends IService<App> {
      * @param loginUser 登录用户
      * @return ai响应流
      */
-    Flux<String> chatToGenCode(Long appId, String message, User loginUser);
+    Flux<StreamMessage> chatToGenCode(Long appId, String message, User loginUser);
 
     /**
      * 应用部署。
      *
+     * @param appId        应用ID
+     * @param loginUser    登录用户
+     * @param forceRebuild 是否强制重新构建（仅 Vue 工程）
+     * @return 应用部署结果
+     */
+    String deployApp(Long appId, User loginUser, boolean forceRebuild);
+
+    /**
+     * 将已部署的应用回滚到保留的某个部署版本。
+     *
      * @param appId     应用ID
+     * @param releaseId 目标版本 id，为空时回滚到上一个版本
      * @param loginUser 登录用户
-     * @return 应用部署结果
+     * @return 应用访问地址
+     */
+    String rollbackDeploy(Long appId, String releaseId, User loginUser);
+
+    /**
+     * 查询应用保留的部署版本。
+     *
+     * @param appId     应用ID
+     * @param loginUser 登录用户
+     * @return 部署版本列表，按时间倒序
      */
-    String deployApp(Long appId, User loginUser);
+    List<DeployRelease> listDeployReleases(Long appId, User loginUser);
 
     void generateAppScreenshotAsync(Long appId, String appUrl);
 }
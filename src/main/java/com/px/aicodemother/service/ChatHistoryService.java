@@ -6,9 +6,9 @@ import com.mybatisflex.core.service.IService;
 import com.px.aicodemother.model.dto.chathistory.ChatHistoryQueryRequest;
 import com.px.aicodemother.model.entity.ChatHistory;
 import com.px.aicodemother.model.entity.User;
-import dev.langchain4j.memory.chat.MessageWindowChatMemory;
 
 import java.time.LocalDateTime;
+import java.util.List;
 
 /**
  * 对话历史 服务层。
@@ -58,12 +58,12 @@ public interface ChatHistoryService extends IService<ChatHistory> {
                                                User loginUser);
 
     /**
-     * 加载应用对话历史到内存
+     * 查询应用最近的对话历史用于装载对话记忆，合并尚未入库的消息
      *
-     * @param appId 应用id
-     * @param chatMemory 对话历史内存
-     * @param maxCount 最大数量
-     * @return 加载数量
+     * @param appId   应用id
+     * @param afterId 只查询 id 大于该值的消息，为 null 时不限制
+     * @param limit   最大数量
+     * @return 对话历史，按创建时间倒序
      */
-    int loadChatHistoryToMemory(Long appId, MessageWindowChatMemory chatMemory, int maxCount);
+    List<ChatHistory> listChatHistoryForMemory(Long appId, Long afterId, int limit);
 }
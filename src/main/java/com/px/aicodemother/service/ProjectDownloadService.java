@@ -1,5 +1,6 @@
 package com.px.aicodemother.service;
 
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 
 /**
@@ -17,7 +18,9 @@ public interface ProjectDownloadService {
      *
      * @param projectPath 项目路径
      * @param downloadFileName 下载文件名
+     * @param request HttpServletRequest对象，用于条件请求和断点续传
      * @param response HttpServletResponse对象
      */
-    void downloadProjectAsZip(String projectPath, String downloadFileName, HttpServletResponse response);
+    void downloadProjectAsZip(String projectPath, String downloadFileName, HttpServletRequest request,
+                              HttpServletResponse response);
 }
@@ -2,17 +2,22 @@ package com.px.aicodemother.service.impl;
 
 import cn.hutool.core.bean.BeanUtil;
 import cn.hutool.core.collection.CollUtil;
-import cn.hutool.core.io.FileUtil;
 import cn.hutool.core.util.RandomUtil;
 import cn.hutool.core.util.StrUtil;
 import com.mybatisflex.core.query.QueryWrapper;
 import com.mybatisflex.spring.service.impl.ServiceImpl;
 import com.px.aicodemother.ai.AiCodeGenTypeRoutingService;
 import com.px.aicodemother.ai.AiCodeGenTypeRoutingServiceFactory;
+import com.px.aicodemother.ai.concurrency.LlmConcurrencyLimiter;
+import com.px.aicodemother.ai.model.message.StreamMessage;
 import com.px.aicodemother.constants.AppConstant;
 import com.px.aicodemother.core.AiCodeGeneratorFacade;
-import com.px.aicodemother.core.builder.VueProjectBuilder;
+import com.px.aicodemother.core.builder.VueBuildScheduler;
+import com.px.aicodemother.core.deploy.DeployRelease;
+import com.px.aicodemother.core.deploy.ReleaseDeployer;
 import com.px.aicodemother.core.handler.StreamHandlerExecutor;
+import com.px.aicodemother.event.AppChangeEvent;
+import com.px.aicodemother.manager.UserVOLoader;
 import com.px.aicodemother.exception.BusinessException;
 import com.px.aicodemother.exception.ErrorCode;
 import com.px.aicodemother.exception.ThrowUtils;
@@ -28,9 +33,9 @@ import com.px.aicodemother.model.vo.user.UserVO;
 import com.px.aicodemother.service.AppService;
 import com.px.aicodemother.service.ChatHistoryService;
 import com.px.aicodemother.service.ScreenshotService;
-import com.px.aicodemother.service.UserService;
 import jakarta.annotation.Resource;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import reactor.core.publisher.Flux;
 
@@ -40,7 +45,6 @@ import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
-import java.util.Set;
 import java.util.stream.Collectors;
 
 /**
@@ -52,9 +56,6 @@ import java.util.stream.Collectors;
 @Slf4j
 public class AppServiceImpl extends ServiceImpl<AppMapper, App>  implements AppService{
 
-    @Resource
-    private UserService userService;
-
     @Resource
     private AiCodeGeneratorFacade aiCodeGeneratorFacade;
 
@@ -65,14 +66,26 @@ public class AppServiceImpl extends ServiceImpl<AppMapper, App>  implements AppS
     private StreamHandlerExecutor streamHandlerExecutor;
 
     @Resource
-    private VueProjectBuilder vueProjectBuilder;
+    private VueBuildScheduler vueBuildScheduler;
 
     @Resource
     private ScreenshotService screenshotService;
 
+    @Resource
+    private ReleaseDeployer releaseDeployer;
+
     @Resource
     private AiCodeGenTypeRoutingServiceFactory aiCodeGenTypeRoutingServiceFactory;
 
+    @Resource
+    private ApplicationEventPublisher eventPublisher;
+
+    @Resource
+    private UserVOLoader userVOLoader;
+
+    @Resource
+    private LlmConcurrencyLimiter llmConcurrencyLimiter;
+
     @Override
     public Long createApp(AppAddRequest appAddRequest, User loginUser) {
         // 检查初始化提示词是否为空
@@ -111,15 +124,21 @@ public class AppServiceImpl extends ServiceImpl<AppMapper, App>  implements AppS
         if (app == null) {
             return null;
         }
+        // 获取关联的 User
+        return toAppVO(app, userVOLoader.load(app.getUserId()));
+    }
+
+    /**
+     * 组装应用VO，用户信息由调用方预先加载
+     *
+     * @param app    实体
+     * @param userVO 关联的用户
+     * @return VO
+     */
+    private AppVO toAppVO(App app, UserVO userVO) {
         AppVO appVO = new AppVO();
         BeanUtil.copyProperties(app, appVO);
-        Long userId = app.getUserId();
-        // 获取关联的 User
-        if (userId != null) {
-            User user = userService.getById(userId);
-            UserVO userVO = userService.getUserVO(user);
-            appVO.setUser(userVO);
-        }
+        appVO.setUser(userVO);
         return appVO;
     }
 
@@ -173,21 +192,13 @@ public class AppServiceImpl extends ServiceImpl<AppMapper, App>  implements AppS
             return new ArrayList<>();
         }
 
-        // 提取应用列表中所有用户ID
-        Set<Long> userIds = appList.stream()
-                .map(App::getUserId)
-                .collect(Collectors.toSet());
-        // 批量获取用户信息并转换为用户VO映射
-        Map<Long, UserVO> userVOMap = userService.listByIds(userIds).stream()
-                .collect(Collectors.toMap(User::getId, userService::getUserVO));
-        
+        // 一次性批量加载所有用户（请求内去重、缓存命中的不再查询）
+        Map<Long, UserVO> userVOMap = userVOLoader.loadMany(appList.stream().map(App::getUserId).toList());
+
         // 将应用实体转换为应用VO，并设置对应的用户信息
-        return appList.stream().map(app -> {
-            AppVO appVO = getAppVO(app);
-            UserVO userVO = userVOMap.get(app.getUserId());
-            appVO.setUser(userVO);
-            return appVO;
-        }).collect(Collectors.toList());
+        return appList.stream()
+                .map(app -> toAppVO(app, userVOMap.get(app.getUserId())))
+                .collect(Collectors.toList());
     }
 
     /**
@@ -196,10 +207,10 @@ public class AppServiceImpl extends ServiceImpl<AppMapper, App>  implements AppS
      * @param appId 应用ID，不能为空且必须大于0
      * @param message 用户输入的对话消息，不能为空
      * @param loginUser 当前登录用户信息
-     * @return 生成的代码内容流
+     * @return 生成的内容流（展示文本与构建状态消息）
      */
     @Override
-    public Flux<String> chatToGenCode(Long appId, String message, User loginUser) {
+    public Flux<StreamMessage> chatToGenCode(Long appId, String message, User loginUser) {
         // 参数校验
         ThrowUtils.throwIf(appId == null || appId <= 0, ErrorCode.PARAMS_ERROR, "appId错误");
         ThrowUtils.throwIf(StrUtil.isBlank(message), ErrorCode.PARAMS_ERROR, "用户消息不能为空");
@@ -219,24 +230,27 @@ public class AppServiceImpl extends ServiceImpl<AppMapper, App>  implements AppS
             throw new BusinessException(ErrorCode.SYSTEM_ERROR, "不支持的生成类型：" + codeGenType);
         }
 
-        // 调用AI代码生成器生成并保存代码
-        boolean result = chatHistoryService.addChatMessage(appId, message, ChatHistoryMessageTypeEnum.USER.getValue(), loginUser.getId());
-        ThrowUtils.throwIf(!result, ErrorCode.SYSTEM_ERROR, "添加用户消息失败");
+        // 进行中的生成数达到上限时先排队，获得名额后再记录用户消息并调用模型，流结束时释放名额
+        return llmConcurrencyLimiter.withLease(loginUser.getId(), codeGenTypeEnum, () -> {
+            boolean result = chatHistoryService.addChatMessage(appId, message, ChatHistoryMessageTypeEnum.USER.getValue(), loginUser.getId());
+            ThrowUtils.throwIf(!result, ErrorCode.SYSTEM_ERROR, "添加用户消息失败");
 
-        // 调用AI代码生成器生成代码
-        Flux<String> codeStream = aiCodeGeneratorFacade.generateAndSaveCodeStream(message, codeGenTypeEnum, appId);
-        return streamHandlerExecutor.doExecute(codeStream, chatHistoryService, appId, loginUser, codeGenTypeEnum);
+            // 调用AI代码生成器生成代码
+            Flux<StreamMessage> codeStream = aiCodeGeneratorFacade.generateAndSaveCodeStream(message, codeGenTypeEnum, appId);
+            return streamHandlerExecutor.doExecute(codeStream, chatHistoryService, appId, loginUser, codeGenTypeEnum);
+        });
     }
 
     /**
      * 部署应用
      *
-     * @param appId     应用ID
-     * @param loginUser 当前登录用户
+     * @param appId        应用ID
+     * @param loginUser    当前登录用户
+     * @param forceRebuild 是否强制重新构建（仅 Vue 工程），否则代码未变化时跳过构建
      * @return 部署后的访问地址
      */
     @Override
-    public String deployApp(Long appId, User loginUser) {
+    public String deployApp(Long appId, User loginUser, boolean forceRebuild) {
         // 参数校验
         ThrowUtils.throwIf(appId == null || appId <= 0, ErrorCode.PARAMS_ERROR, "appId错误");
         ThrowUtils.throwIf(loginUser == null, ErrorCode.NOT_LOGIN_ERROR, "用户未登录");
@@ -271,8 +285,9 @@ public class AppServiceImpl extends ServiceImpl<AppMapper, App>  implements AppS
         // Vue 项目特殊处理：执行构建
         CodeGenTypeEnum codeGenTypeEnum = CodeGenTypeEnum.getEnumByValue(codeGenType);
         if (codeGenTypeEnum == CodeGenTypeEnum.VUE_PROJECT) {
-            // Vue 项目需要构建
-            boolean buildSuccess = vueProjectBuilder.buildProject(sourceDirPath);
+            // Vue 项目需要构建，交给构建调度器并等待结果（高优先级，与生成触发的构建合并去重）
+            boolean buildSuccess = vueBuildScheduler.submit(appId, sourceDirPath, VueBuildScheduler.Priority.HIGH,
+                    forceRebuild, null).join();
             ThrowUtils.throwIf(!buildSuccess, ErrorCode.SYSTEM_ERROR, "Vue 项目构建失败，请检查代码和依赖");
             // 检查 dist 目录是否存在
             File distDir = new File(sourceDirPath, "dist");
@@ -282,10 +297,9 @@ public class AppServiceImpl extends ServiceImpl<AppMapper, App>  implements AppS
             log.info("Vue 项目构建成功，将部署 dist 目录: {}", distDir.getAbsolutePath());
         }
 
-        // 构建应用部署目录
-        String deployDirPath = AppConstant.CODE_DEPLOY_ROOT_DIR + File.separator + deployKey;
+        // 生成新的部署版本（未变化的文件以硬链接复用），再原子切换站点入口
         try {
-            FileUtil.copyContent(sourceDir, new File(deployDirPath), true);
+            releaseDeployer.deploy(deployKey, sourceDir);
         } catch (Exception e) {
             throw new BusinessException(ErrorCode.SYSTEM_ERROR, "部署失败" + e.getMessage());
         }
@@ -299,6 +313,7 @@ public class AppServiceImpl extends ServiceImpl<AppMapper, App>  implements AppS
         
         boolean result = this.updateById(updateApp);
         ThrowUtils.throwIf(!result, ErrorCode.OPERATION_ERROR, "更新应用部署信息失败");
+        eventPublisher.publishEvent(new AppChangeEvent(appId, AppChangeEvent.Type.DEPLOYED, false));
 
         // 返回应用访问地址
         String appDeployUrl = String.format("%s/%s/", AppConstant.CODE_DEPLOY_HOST, deployKey);
@@ -306,6 +321,50 @@ public class AppServiceImpl extends ServiceImpl<AppMapper, App>  implements AppS
         return appDeployUrl;
     }
 
+    @Override
+    public String rollbackDeploy(Long appId, String releaseId, User loginUser) {
+        String deployKey = getDeployKeyForOwner(appId, loginUser);
+        DeployRelease release;
+        try {
+            release = releaseDeployer.rollback(deployKey, releaseId);
+        } catch (Exception e) {
+            throw new BusinessException(ErrorCode.SYSTEM_ERROR, "回滚失败" + e.getMessage());
+        }
+        ThrowUtils.throwIf(release == null, ErrorCode.NOT_FOUND_ERROR, "部署版本不存在");
+        String appDeployUrl = String.format("%s/%s/", AppConstant.CODE_DEPLOY_HOST, deployKey);
+        this.generateAppScreenshotAsync(appId, appDeployUrl);
+        return appDeployUrl;
+    }
+
+    @Override
+    public List<DeployRelease> listDeployReleases(Long appId, User loginUser) {
+        String deployKey = getDeployKeyForOwner(appId, loginUser);
+        try {
+            return releaseDeployer.listReleases(deployKey);
+        } catch (Exception e) {
+            throw new BusinessException(ErrorCode.SYSTEM_ERROR, "获取部署版本失败" + e.getMessage());
+        }
+    }
+
+    /**
+     * 校验应用归属并返回部署密钥
+     *
+     * @param appId     应用ID
+     * @param loginUser 登录用户
+     * @return 部署密钥
+     */
+    private String getDeployKeyForOwner(Long appId, User loginUser) {
+        ThrowUtils.throwIf(appId == null || appId <= 0, ErrorCode.PARAMS_ERROR, "appId错误");
+        ThrowUtils.throwIf(loginUser == null, ErrorCode.NOT_LOGIN_ERROR, "用户未登录");
+        App app = this.getById(appId);
+        ThrowUtils.throwIf(app == null, ErrorCode.NOT_FOUND_ERROR, "应用不存在");
+        if (!app.getUserId().equals(loginUser.getId())) {
+            throw new BusinessException(ErrorCode.NO_AUTH_ERROR, "无权限操作该应用");
+        }
+        ThrowUtils.throwIf(StrUtil.isBlank(app.getDeployKey()), ErrorCode.OPERATION_ERROR, "应用尚未部署");
+        return app.getDeployKey();
+    }
+
     /**
      * 根据应用ID删除应用
      * <p>
@@ -355,6 +414,7 @@ public class AppServiceImpl extends ServiceImpl<AppMapper, App>  implements AppS
             updateApp.setCover(screenshotUrl);
             boolean updated = this.updateById(updateApp);
             ThrowUtils.throwIf(!updated, ErrorCode.OPERATION_ERROR, "更新应用封面字段失败");
+            eventPublisher.publishEvent(new AppChangeEvent(appId, AppChangeEvent.Type.COVER_UPDATED, false));
         });
     }
 }
@@ -1,13 +1,15 @@
 package com.px.aicodemother.service.impl;
 
-import cn.hutool.core.collection.CollUtil;
 import cn.hutool.core.util.StrUtil;
 import com.mybatisflex.core.paginate.Page;
 import com.mybatisflex.core.query.QueryWrapper;
 import com.mybatisflex.spring.service.impl.ServiceImpl;
+import com.px.aicodemother.config.ChatHistoryWriteBehindConfig;
 import com.px.aicodemother.constants.UserConstant;
 import com.px.aicodemother.exception.ErrorCode;
 import com.px.aicodemother.exception.ThrowUtils;
+import com.px.aicodemother.manager.ChatHistoryWriteBehindManager;
+import com.px.aicodemother.manager.ChatMemoryHydrator;
 import com.px.aicodemother.mapper.ChatHistoryMapper;
 import com.px.aicodemother.model.dto.chathistory.ChatHistoryQueryRequest;
 import com.px.aicodemother.model.entity.App;
@@ -16,16 +18,17 @@ import com.px.aicodemother.model.entity.User;
 import com.px.aicodemother.model.enums.ChatHistoryMessageTypeEnum;
 import com.px.aicodemother.service.AppService;
 import com.px.aicodemother.service.ChatHistoryService;
-import dev.langchain4j.data.message.AiMessage;
-import dev.langchain4j.data.message.UserMessage;
-import dev.langchain4j.memory.chat.MessageWindowChatMemory;
 import jakarta.annotation.Resource;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.context.annotation.Lazy;
 import org.springframework.stereotype.Service;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 
 /**
  * 对话历史 服务层实现。
@@ -40,6 +43,16 @@ public class ChatHistoryServiceImpl extends ServiceImpl<ChatHistoryMapper, ChatH
     @Lazy
     private AppService appService;
 
+    @Resource
+    private ChatHistoryWriteBehindManager chatHistoryWriteBehindManager;
+
+    @Resource
+    private ChatHistoryWriteBehindConfig chatHistoryWriteBehindConfig;
+
+    @Resource
+    @Lazy
+    private ChatMemoryHydrator chatMemoryHydrator;
+
     /**
      * 添加聊天消息
      *
@@ -68,7 +81,11 @@ public class ChatHistoryServiceImpl extends ServiceImpl<ChatHistoryMapper, ChatH
                 .messageType(messageType)
                 .userId(userId)
                 .build();
-        return this.save(chatHistory);
+        if (!chatHistoryWriteBehindConfig.getEnabled()) {
+            return this.save(chatHistory);
+        }
+        // 交给异步批量写入，不在请求链路上等待数据库
+        return chatHistoryWriteBehindManager.submit(chatHistory);
     }
 
     /**
@@ -81,6 +98,9 @@ public class ChatHistoryServiceImpl extends ServiceImpl<ChatHistoryMapper, ChatH
     public boolean deleteByAppId(Long appId) {
         // 参数校验
         ThrowUtils.throwIf(appId == null || appId <= 0, ErrorCode.PARAMS_ERROR, "appId错误");
+        // 丢弃尚未入库的消息，避免删除后再被写入
+        chatHistoryWriteBehindManager.discard(appId);
+        chatMemoryHydrator.invalidate(appId);
         // 构造删除条件
         QueryWrapper queryWrapper = QueryWrapper.create()
                 .eq(ChatHistory::getAppId, appId);
@@ -123,7 +143,9 @@ public class ChatHistoryServiceImpl extends ServiceImpl<ChatHistoryMapper, ChatH
         if (StrUtil.isNotBlank(sortField)) {
             queryWrapper.orderBy(sortField, "ascend".equals(sortOrder));
         } else {
-            queryWrapper.orderBy(ChatHistory::getCreateTime, false);
+            // 创建时间只精确到秒，同一秒内按雪花 id 区分先后
+            queryWrapper.orderBy(ChatHistory::getCreateTime, false)
+                    .orderBy(ChatHistory::getId, false);
         }
         return queryWrapper;
     }
@@ -156,49 +178,77 @@ public class ChatHistoryServiceImpl extends ServiceImpl<ChatHistoryMapper, ChatH
         queryRequest.setLastCreateTime(lastCreateTime);
         QueryWrapper queryWrapper = this.getQueryWrapper(queryRequest);
         // 查询数据
-        return this.page(Page.of(1, pageSize), queryWrapper);
+        Page<ChatHistory> page = this.page(Page.of(1, pageSize), queryWrapper);
+        // 合并尚未入库的消息，保证刚写入的消息立即可见
+        List<ChatHistory> pendingList = chatHistoryWriteBehindManager.getPending(appId).stream()
+                .filter(history -> lastCreateTime == null || history.getCreateTime().isBefore(lastCreateTime))
+                .toList();
+        pendingList = excludeExisting(page.getRecords(), pendingList);
+        if (!pendingList.isEmpty()) {
+            // 已经刷盘、出现在查询结果中的消息不重复计数
+            page.setTotalRow(page.getTotalRow() + pendingList.size());
+            page.setRecords(mergePending(page.getRecords(), pendingList, pageSize));
+        }
+        return page;
     }
 
     /**
-     * 将聊天历史记录加载到内存中的聊天记忆中
-     * 
-     * @param appId 应用ID，用于标识不同的聊天历史记录
-     * @param chatMemory 消息窗口聊天记忆对象，用于存储聊天历史
-     * @param maxCount 最大加载记录数，限制加载的历史消息数量
-     * @return 实际加载到内存中的历史消息条数
+     * 去掉已经出现在数据库记录中的待入库消息（刷盘过程中同一条消息可能同时出现在两边）
+     *
+     * @param dbList      数据库记录
+     * @param pendingList 尚未入库的消息
+     * @return 数据库记录中没有的消息
      */
-    @Override
-    public int loadChatHistoryToMemory(Long appId, MessageWindowChatMemory chatMemory, int maxCount) {
-        try {
-            // 构造查询条件,起点为1而不是0，排除第一条记录，因为第一条记录是当前会话的输入
-            QueryWrapper queryWrapper = QueryWrapper.create()
-                    .eq(ChatHistory::getAppId, appId)
-                    .orderBy(ChatHistory::getCreateTime, false)
-                    .limit(1, maxCount);
-            List<ChatHistory> historyList = this.list(queryWrapper);
-            if (CollUtil.isEmpty(historyList)) {
-                return 0;
-            }
-            // 翻转列表，保证时间顺序正确（老的放在前面，新的在后面）
-            historyList = historyList.reversed();
-            // 遍历列表，将聊天记录添加到聊天记忆中
-            int loadedCount = 0;
-            // 清空聊天记忆,防止重复加载
-            chatMemory.clear();
-            for (ChatHistory history : historyList) {
-                if (ChatHistoryMessageTypeEnum.USER.getValue().equals(history.getMessageType())) {
-                    chatMemory.add(UserMessage.from(history.getMessage()));
-                } else if (ChatHistoryMessageTypeEnum.AI.getValue().equals(history.getMessageType())){
-                    chatMemory.add(AiMessage.from(history.getMessage()));
-                }
-                loadedCount++;
-            }
-            log.info("成功为 appId: {} 加载 {} 条历史消息", appId, loadedCount);
-            return loadedCount;
-        } catch (Exception e) {
-            log.error("加载历史对话失败，appId: {}, error: {}", appId, e.getMessage(), e);
-            // 加载失败不影响系统运行，只是没有历史上下文
-            return 0;
+    private List<ChatHistory> excludeExisting(List<ChatHistory> dbList, List<ChatHistory> pendingList) {
+        if (pendingList.isEmpty()) {
+            return pendingList;
         }
+        Set<Long> ids = new HashSet<>();
+        dbList.forEach(history -> ids.add(history.getId()));
+        return pendingList.stream()
+                .filter(history -> !ids.contains(history.getId()))
+                .toList();
+    }
+
+    /**
+     * 合并数据库记录与尚未入库的消息，按创建时间、id 倒序并截取指定数量
+     *
+     * @param dbList      数据库记录（按创建时间倒序）
+     * @param pendingList 数据库记录中没有的待入库消息
+     * @param limit       最大数量
+     * @return 合并后的记录
+     */
+    private List<ChatHistory> mergePending(List<ChatHistory> dbList, List<ChatHistory> pendingList, int limit) {
+        List<ChatHistory> merged = new ArrayList<>(dbList);
+        merged.addAll(pendingList);
+        // 创建时间只精确到秒，同一秒内的用户消息和 AI 回复按雪花 id 区分先后
+        merged.sort(Comparator.comparing(ChatHistory::getCreateTime)
+                .thenComparing(ChatHistory::getId)
+                .reversed());
+        return merged.size() > limit ? new ArrayList<>(merged.subList(0, limit)) : merged;
+    }
+
+    /**
+     * 查询应用最近的对话历史用于装载对话记忆，合并尚未入库的消息
+     *
+     * @param appId   应用ID
+     * @param afterId 只查询 id 大于该值的消息，为 null 时不限制
+     * @param limit   最大数量
+     * @return 对话历史，按创建时间倒序
+     */
+    @Override
+    public List<ChatHistory> listChatHistoryForMemory(Long appId, Long afterId, int limit) {
+        QueryWrapper queryWrapper = QueryWrapper.create()
+                .eq(ChatHistory::getAppId, appId)
+                .gt(ChatHistory::getId, afterId)
+                .orderBy(ChatHistory::getCreateTime, false)
+                .orderBy(ChatHistory::getId, false)
+                .limit(0, limit);
+        List<ChatHistory> historyList = this.list(queryWrapper);
+        // 合并尚未入库的消息（当前会话的输入通常还在写入队列中）
+        List<ChatHistory> pendingList = chatHistoryWriteBehindManager.getPending(appId).stream()
+                .filter(history -> afterId == null || history.getId() > afterId)
+                .toList();
+        return mergePending(historyList, excludeExisting(historyList, pendingList), limit);
     }
 }
@@ -1,21 +1,22 @@
 package com.px.aicodemother.service.impl;
 
 import cn.hutool.core.util.StrUtil;
-import cn.hutool.core.util.ZipUtil;
 import com.px.aicodemother.exception.BusinessException;
 import com.px.aicodemother.exception.ErrorCode;
 import com.px.aicodemother.exception.ThrowUtils;
+import com.px.aicodemother.manager.ProjectArchiveCache;
+import com.px.aicodemother.manager.StaticFileDelivery;
 import com.px.aicodemother.service.ProjectDownloadService;
+import jakarta.annotation.Resource;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.CacheControl;
 import org.springframework.stereotype.Service;
 
 import java.io.File;
-import java.io.FileFilter;
 import java.io.IOException;
-import java.nio.charset.StandardCharsets;
 import java.nio.file.Path;
-import java.util.Set;
 
 /**
  * packageName: com.px.aicodemother.service.impl
@@ -30,15 +31,24 @@ import java.util.Set;
 @Service
 public class ProjectDownloadServiceImpl implements ProjectDownloadService {
 
+    @Resource
+    private ProjectArchiveCache projectArchiveCache;
+
+    @Resource
+    private StaticFileDelivery staticFileDelivery;
+
     /**
-     * 将项目目录打包成ZIP文件并提供下载
+     * 将项目目录打包成ZIP文件并提供下载。
+     * 文件未变化时复用已生成的压缩包，响应带 Content-Length 和 ETag，支持条件请求和断点续传
      *
      * @param projectPath      项目路径
      * @param downloadFileName 下载文件名
+     * @param request          HTTP请求对象
      * @param response         HTTP响应对象
      */
     @Override
-    public void downloadProjectAsZip(String projectPath, String downloadFileName, HttpServletResponse response) {
+    public void downloadProjectAsZip(String projectPath, String downloadFileName,
+                                     HttpServletRequest request, HttpServletResponse response) {
         // 参数校验
         ThrowUtils.throwIf(StrUtil.isBlank(projectPath), ErrorCode.PARAMS_ERROR, "项目路径不能为空");
         ThrowUtils.throwIf(StrUtil.isBlank(downloadFileName), ErrorCode.PARAMS_ERROR, "下载文件名不能为空");
@@ -47,61 +57,15 @@ public class ProjectDownloadServiceImpl implements ProjectDownloadService {
         ThrowUtils.throwIf(!projectDir.isDirectory(), ErrorCode.PARAMS_ERROR, "项目路径不是目录");
         log.info("开始打包下载项目: {} -> {}.zip", projectPath, downloadFileName);
 
-        // 设置响应头
-        response.setStatus(HttpServletResponse.SC_OK);
-        response.setContentType("application/zip");
-        response.addHeader("Content-Disposition", String.format("attachment; filename=\"%s.zip\"", downloadFileName));
-
-        // 创建文件过滤器
-        FileFilter filter = file -> isPathAllowed(projectDir.toPath(), file.toPath());
         try {
-            // 打包并写入响应流
-            ZipUtil.zip(response.getOutputStream(), StandardCharsets.UTF_8, false, filter, projectDir);
+            // 获取（必要时生成）压缩包
+            Path archive = projectArchiveCache.getArchive(projectDir.toPath());
+            // 设置响应头，文件内容、长度、ETag 和 Range 由静态文件输出处理
+            response.addHeader("Content-Disposition", String.format("attachment; filename=\"%s.zip\"", downloadFileName));
+            staticFileDelivery.serveFile(archive, CacheControl.noCache().cachePrivate(), request, response);
             log.info("项目打包下载成功: {} -> {}.zip", projectPath, downloadFileName);
         } catch (IOException e) {
             throw new BusinessException(ErrorCode.SYSTEM_ERROR, "项目打包下载失败");
         }
     }
-
-    /**
-     * 忽略的文件夹名称
-     */
-    private static final Set<String> IGNORED_NAMES = Set.of(
-            "node_modules",
-            ".git",
-            "dist",
-            "build",
-            ".DS_Store",
-            ".env",
-            "target",
-            ".mvn",
-            ".idea",
-            ".vscode"
-    );
-
-    private static final Set<String> IGNORED_EXTENSIONS = Set.of(
-            ".log",
-            ".tmp",
-            ".cache"
-    );
-
-    private boolean isPathAllowed(Path projectRoot, Path fullPath) {
-        // 获取相对路径
-        Path relativePath = projectRoot.relativize(fullPath);
-        // 遍历路径，检查是否包含被忽略的文件夹或文件
-        for (Path part : relativePath) {
-            String partName = part.toString();
-            // 检查文件夹名称是否在忽略名称列表中
-            if (IGNORED_NAMES.contains(partName)) {
-                return false;
-            }
-            // 检查文件扩展名是否在忽略扩展名列表中
-            if (IGNORED_EXTENSIONS.stream().anyMatch(partName::endsWith)) {
-                return false;
-            }
-        }
-        return true;
-    }
-
-
 }
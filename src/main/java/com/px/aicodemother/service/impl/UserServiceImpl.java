@@ -7,17 +7,24 @@ import cn.hutool.core.util.StrUtil;
 import com.mybatisflex.core.query.QueryWrapper;
 import com.mybatisflex.spring.service.impl.ServiceImpl;
 import com.px.aicodemother.exception.BusinessException;
+import com.px.aicodemother.event.UserChangeEvent;
 import com.px.aicodemother.exception.ErrorCode;
+import com.px.aicodemother.manager.LoginUserCache;
+import com.px.aicodemother.manager.UserVOLoader;
 import com.px.aicodemother.mapper.UserMapper;
 import com.px.aicodemother.model.dto.user.UserQueryRequest;
 import com.px.aicodemother.model.entity.User;
 import com.px.aicodemother.model.enums.UserRoleEnum;
 import com.px.aicodemother.model.vo.user.UserVO;
 import com.px.aicodemother.service.UserService;
+import jakarta.annotation.Resource;
 import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.annotation.Lazy;
 import org.springframework.stereotype.Service;
 import org.springframework.util.DigestUtils;
 
+import java.io.Serializable;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.stream.Collectors;
@@ -33,6 +40,24 @@ import static com.px.aicodemother.constants.UserConstant.USER_SATT;
 @Service
 public class UserServiceImpl extends ServiceImpl<UserMapper, User>  implements UserService{
 
+    /**
+     * 请求内已解析的登录用户在请求属性中的名称，同一请求内鉴权、限流、业务代码只解析一次
+     */
+    private static final String LOGIN_USER_ATTRIBUTE = UserServiceImpl.class.getName() + ".LOGIN_USER";
+
+    @Resource
+    private LoginUserCache loginUserCache;
+
+    /**
+     * 用户视图对象加载器由本服务构造，延迟注入避免循环依赖
+     */
+    @Resource
+    @Lazy
+    private UserVOLoader userVOLoader;
+
+    @Resource
+    private ApplicationEventPublisher eventPublisher;
+
     /**
      * 用户注册
      *
@@ -159,6 +184,10 @@ public class UserServiceImpl extends ServiceImpl<UserMapper, User>  implements U
      */
     @Override
     public User getLoginUser(HttpServletRequest request) {
+        // 同一请求内已解析过则直接返回
+        if (request.getAttribute(LOGIN_USER_ATTRIBUTE) instanceof User loginUser) {
+            return loginUser;
+        }
         // 从Session中获取用户信息
         Object userObj = request.getSession().getAttribute(USER_LOGIN_STATE);
         User currentUser = (User) userObj;
@@ -166,16 +195,53 @@ public class UserServiceImpl extends ServiceImpl<UserMapper, User>  implements U
             throw new BusinessException(ErrorCode.NOT_LOGIN_ERROR);
         }
 
-        // 查询最新用户信息
+        // 获取最新用户信息（缓存按版本号失效，用户信息更新后立即生效）
         Long userId = currentUser.getId();
-        currentUser = this.getById(userId);
+        currentUser = loginUserCache.get(userId, this::getById);
         
         if (currentUser == null) {
             throw new BusinessException(ErrorCode.NOT_LOGIN_ERROR);
         }
+        request.setAttribute(LOGIN_USER_ATTRIBUTE, currentUser);
         return currentUser;
     }
 
+    /**
+     * 更新用户，使登录用户缓存和用户视图对象缓存失效，并发布用户变更事件
+     *
+     * @param entity      用户
+     * @param ignoreNulls 是否忽略空值
+     * @return 是否更新成功
+     */
+    @Override
+    public boolean updateById(User entity, boolean ignoreNulls) {
+        boolean result = super.updateById(entity, ignoreNulls);
+        if (entity != null) {
+            loginUserCache.bumpVersion(entity.getId());
+            userVOLoader.invalidate(entity.getId());
+            eventPublisher.publishEvent(new UserChangeEvent(entity.getId(), UserChangeEvent.Type.UPDATED));
+        }
+        return result;
+    }
+
+    /**
+     * 删除用户，使登录用户缓存和用户视图对象缓存失效，并发布用户变更事件
+     *
+     * @param id 用户ID
+     * @return 是否删除成功
+     */
+    @Override
+    public boolean removeById(Serializable id) {
+        boolean result = super.removeById(id);
+        if (id != null) {
+            Long userId = Long.valueOf(id.toString());
+            loginUserCache.bumpVersion(userId);
+            userVOLoader.invalidate(userId);
+            eventPublisher.publishEvent(new UserChangeEvent(userId, UserChangeEvent.Type.DELETED));
+        }
+        return result;
+    }
+
     /**
      * 用户退出登录
      *
@@ -27,4 +27,15 @@ public class CacheKeyUtils {
         String jsonStr = JSONUtil.toJsonStr(object);
         return DigestUtil.md5Hex(jsonStr);
     }
-}
\ No newline at end of file
+
+    /**
+     * 生成缓存标签，用于按标签批量删除缓存
+     *
+     * @param type 标签类型，如 app
+     * @param id   对象ID
+     * @return 形如 app:1 的标签
+     */
+    public static String generateTag(String type, Object id) {
+        return type + ":" + id;
+    }
+}
@@ -10,23 +10,31 @@ package com.px.aicodemother.utils;
  * @description: 截图工具类
  */
 
-import cn.hutool.core.img.ImgUtil;
 import cn.hutool.core.io.FileUtil;
 import cn.hutool.core.util.RandomUtil;
 import cn.hutool.core.util.StrUtil;
 import com.px.aicodemother.exception.BusinessException;
 import com.px.aicodemother.exception.ErrorCode;
+import com.px.aicodemother.manager.BrowserPoolManager;
+import com.px.aicodemother.manager.PageReadinessDetector;
 import io.github.bonigarcia.wdm.WebDriverManager;
-import jakarta.annotation.PreDestroy;
 import lombok.extern.slf4j.Slf4j;
-import org.openqa.selenium.JavascriptExecutor;
 import org.openqa.selenium.OutputType;
 import org.openqa.selenium.TakesScreenshot;
 import org.openqa.selenium.WebDriver;
 import org.openqa.selenium.chrome.ChromeDriver;
 import org.openqa.selenium.chrome.ChromeOptions;
-import org.openqa.selenium.support.ui.WebDriverWait;
 
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageOutputStream;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.File;
 import java.time.Duration;
 import java.util.UUID;
@@ -34,59 +42,58 @@ import java.util.UUID;
 @Slf4j
 public class WebScreenshotUtils {
 
-    private static final WebDriver webDriver;
-
-    // 全局静态初始化，避免重复初始化驱动程序：
-    static {
-        final int DEFAULT_WIDTH = 1600;
-        final int DEFAULT_HEIGHT = 900;
-        webDriver = initChromeDriver(DEFAULT_WIDTH, DEFAULT_HEIGHT);
-    }
+    /**
+     * 截图压缩质量（0.1 = 10% 质量）
+     */
+    private static final float COMPRESSION_QUALITY = 0.3f;
 
     /**
-     * 退出时销毁
+     * 生成网页截图，整个过程在内存中完成，不写临时文件
+     *
+     * @param webUrl 要截图的网址
+     * @return 压缩后的 JPEG 图片数据，失败返回 null
      */
-    @PreDestroy
-    public void destroy() {
-        webDriver.quit();
+    public static byte[] captureWebPageScreenshot(String webUrl) {
+        // 非空校验
+        if (StrUtil.isBlank(webUrl)) {
+            log.error("网页截图失败，url为空");
+            return null;
+        }
+        try {
+            // 从会话池借出浏览器，访问网页并截图
+            byte[] screenshotBytes = SpringContextUtil.getBean(BrowserPoolManager.class).execute(webDriver -> {
+                webDriver.get(webUrl);
+                // 等待网页加载
+                waitForPageLoad(webDriver);
+                return ((TakesScreenshot) webDriver).getScreenshotAs(OutputType.BYTES);
+            });
+            // 压缩图片
+            byte[] compressedBytes = compressImage(screenshotBytes);
+            log.info("截图压缩完成：{}，{} -> {} 字节", webUrl, screenshotBytes.length, compressedBytes.length);
+            return compressedBytes;
+        } catch (Exception e) {
+            log.error("网页截图失败：{}", webUrl, e);
+            return null;
+        }
     }
 
     /**
-     * 生成网页截图
+     * 生成网页截图并保存为本地文件
      *
      * @param webUrl 要截图的网址
      * @return 压缩后的截图文件路径，失败返回 null
      */
     public static String saveWebPageScreenshot(String webUrl) {
-        // 非空校验
-        if (StrUtil.isBlank(webUrl)) {
-            log.error("网页截图失败，url为空");
+        byte[] compressedBytes = captureWebPageScreenshot(webUrl);
+        if (compressedBytes == null) {
             return null;
         }
-        // 创建临时目录
         try {
             String rootPath = System.getProperty("user.dir") + "/tmp/screenshots/" + UUID.randomUUID().toString().substring(0, 8);
-            FileUtil.mkdir(rootPath);
-            // 图片后缀
-            final String IMAGE_SUFFIX = ".png";
-            // 原始图片保存路径
-            String imageSavePath = rootPath + File.separator + RandomUtil.randomNumbers(5) + IMAGE_SUFFIX;
-            // 访问网页
-            webDriver.get(webUrl);
-            // 等待网页加载
-            waitForPageLoad(webDriver);
-            // 截图
-            byte[] screenshotBytes = ((TakesScreenshot) webDriver).getScreenshotAs(OutputType.BYTES);
-            // 保存原始图片
-            saveImage(screenshotBytes, imageSavePath);
-            log.info("原始截图保存成功：{}", imageSavePath);
-            // 压缩图片
             final String COMPRESS_SUFFIX = "_compressed.jpg";
             String compressedImagePath = rootPath + File.separator + RandomUtil.randomNumbers(5) + COMPRESS_SUFFIX;
-            compressImage(imageSavePath, compressedImagePath);
+            saveImage(compressedBytes, compressedImagePath);
             log.info("压缩图片保存成功：{}", compressedImagePath);
-            // 删除原始图片
-            FileUtil.del(imageSavePath);
             return compressedImagePath;
         } catch (Exception e) {
             log.error("网页截图失败：{}", webUrl, e);
@@ -95,9 +102,13 @@ public class WebScreenshotUtils {
     }
 
     /**
-     * 初始化 Chrome 浏览器驱动
+     * 初始化 Chrome 浏览器驱动，由浏览器会话池调用
+     *
+     * @param width  窗口宽度
+     * @param height 窗口高度
+     * @return 浏览器驱动
      */
-    private static WebDriver initChromeDriver(int width, int height) {
+    public static WebDriver initChromeDriver(int width, int height) {
         try {
             // 手动指定 ChromeDriver 路径，避免网络下载问题
             String chromeDriverPath = System.getProperty("webdriver.chrome.driver");
@@ -187,45 +198,46 @@ public class WebScreenshotUtils {
     }
 
     /**
-     * 压缩图片
+     * 在内存中将截图转为 JPEG 并压缩
      *
-     * @param originImagePath
-     * @param compressedImagePath
+     * @param imageBytes 原始截图（PNG）
+     * @return 压缩后的 JPEG 数据
      */
-    private static void compressImage(String originImagePath, String compressedImagePath) {
-        // 压缩图片质量（0.1 = 10% 质量）
-        final float COMPRESSION_QUALITY = 0.3f;
+    private static byte[] compressImage(byte[] imageBytes) {
         try {
-            ImgUtil.compress(
-                    FileUtil.file(originImagePath),
-                    FileUtil.file(compressedImagePath),
-                    COMPRESSION_QUALITY
-            );
+            BufferedImage source = ImageIO.read(new ByteArrayInputStream(imageBytes));
+            // JPEG 不支持透明通道，先绘制到白底 RGB 图像上
+            BufferedImage rgbImage = new BufferedImage(source.getWidth(), source.getHeight(), BufferedImage.TYPE_INT_RGB);
+            Graphics2D graphics = rgbImage.createGraphics();
+            try {
+                graphics.drawImage(source, 0, 0, Color.WHITE, null);
+            } finally {
+                graphics.dispose();
+            }
+            ImageWriter writer = ImageIO.getImageWritersByFormatName("jpg").next();
+            ImageWriteParam param = writer.getDefaultWriteParam();
+            param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+            param.setCompressionQuality(COMPRESSION_QUALITY);
+            ByteArrayOutputStream out = new ByteArrayOutputStream(imageBytes.length / 4);
+            try (ImageOutputStream imageOutputStream = ImageIO.createImageOutputStream(out)) {
+                writer.setOutput(imageOutputStream);
+                writer.write(null, new IIOImage(rgbImage, null, null), param);
+            } finally {
+                writer.dispose();
+            }
+            return out.toByteArray();
         } catch (Exception e) {
-            log.error("压缩图片失败：{} -> {}", originImagePath, compressedImagePath, e);
+            log.error("压缩图片失败", e);
             throw new BusinessException(ErrorCode.SYSTEM_ERROR, "压缩图片失败");
         }
     }
 
     /**
-     * 等待页面加载完成
+     * 等待页面加载完成，由页面就绪检测器判断网络、字体、图片和 DOM 均已稳定
      *
      * @param webDriver
      */
     private static void waitForPageLoad(WebDriver webDriver) {
-        try {
-            // 创建等待页面加载对象
-            WebDriverWait wait = new WebDriverWait(webDriver, Duration.ofSeconds(10));
-            // 等待 document.readyState 为 complete
-            wait.until(driver -> ((JavascriptExecutor) driver)
-                    .executeScript("return document.readyState").
-                    equals("complete")
-            );
-            // 额外等待一段时间，确保动态内容加载完成
-            Thread.sleep(2000);
-            log.info("页面加载完成");
-        } catch (Exception e) {
-            log.error("等待页面加载时出现异常，继续执行截图", e);
-        }
+        SpringContextUtil.getBean(PageReadinessDetector.class).awaitReady(webDriver);
     }
-}
\ No newline at end of file
+}
@@ -11,65 +11,112 @@ import dev.langchain4j.model.openai.internal.shared.Usage;
 import dev.langchain4j.model.output.FinishReason;
 import dev.langchain4j.model.output.TokenUsage;
 
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
-import java.util.Map;
-import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.atomic.AtomicReference;
 
 import static dev.langchain4j.internal.Utils.isNullOrBlank;
 import static dev.langchain4j.internal.Utils.isNullOrEmpty;
 import static dev.langchain4j.model.openai.internal.OpenAiUtils.finishReasonFrom;
 import static dev.langchain4j.model.openai.internal.OpenAiUtils.tokenUsageFrom;
 import static java.util.Collections.singletonList;
-import static java.util.stream.Collectors.toList;
 
 /**
- * This class needs to be thread safe because it is called when a streaming result comes back
- * and there is no guarantee that this thread will be the same as the one that initiated the request,
- * in fact it almost certainly won't be.
+ * Accumulates the partial responses of one streamed completion.
+ * <p>
+ * A stream is consumed by a single reader: partial responses are appended serially, never concurrently,
+ * so all accumulators are plain fields ({@link StringBuilder}s and an index-addressed array of tool-call builders)
+ * instead of synchronized buffers, a concurrent map and atomic references.
+ * The completion callback may run on a different thread, so every append ends with a release store
+ * that {@link #build()} pairs with an acquiring read-and-mark; this publishes the accumulated state to the
+ * completing thread exactly once, and a second {@code build()} is rejected.
  */
 @Internal
 public class OpenAiStreamingResponseBuilder {
 
-    private final StringBuffer contentBuilder = new StringBuffer();
+    private static final VarHandle APPENDED;
 
-    private final StringBuffer toolNameBuilder = new StringBuffer();
-    private final StringBuffer toolArgumentsBuilder = new StringBuffer();
+    static {
+        try {
+            APPENDED = MethodHandles.lookup().findVarHandle(OpenAiStreamingResponseBuilder.class, "appended", int.class);
+        } catch (ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    private static final int BUILT = -1;
+
+    private static final ToolExecutionRequestBuilder[] NO_TOOL_BUILDERS = new ToolExecutionRequestBuilder[0];
+
+    private final StringBuilder contentBuilder = new StringBuilder();
+
+    private final StringBuilder toolNameBuilder = new StringBuilder();
+    private final StringBuilder toolArgumentsBuilder = new StringBuilder();
 
-    private final Map<Integer, ToolExecutionRequestBuilder> indexToToolExecutionRequestBuilder = new ConcurrentHashMap<>();
+    // indexed by ToolCall.index(), grown on demand; toolBuilderCount is the highest index seen + 1
+    private ToolExecutionRequestBuilder[] toolBuilders = NO_TOOL_BUILDERS;
+    private int toolBuilderCount;
+
+    private String id;
+    private Long created;
+    private String model;
+    private String serviceTier;
+    private String systemFingerprint;
+    private TokenUsage tokenUsage;
+    private FinishReason finishReason;
+
+    // number of appended partial responses, written with release semantics by the reader;
+    // set to BUILT by build()
+    @SuppressWarnings("unused")
+    private int appended;
+
+    // telemetry state, untouched when no listener is installed
+    private final OpenAiStreamingTelemetry.Listener telemetry;
+    private final long startNanos;
+    private long lastDeltaNanos;
+
+    public OpenAiStreamingResponseBuilder() {
+        this(null);
+    }
 
-    private final AtomicReference<String> id = new AtomicReference<>();
-    private final AtomicReference<Long> created = new AtomicReference<>();
-    private final AtomicReference<String> model = new AtomicReference<>();
-    private final AtomicReference<String> serviceTier = new AtomicReference<>();
-    private final AtomicReference<String> systemFingerprint = new AtomicReference<>();
-    private final AtomicReference<TokenUsage> tokenUsage = new AtomicReference<>();
-    private final AtomicReference<FinishReason> finishReason = new AtomicReference<>();
+    /**
+     * @param telemetry listener receiving per-stream telemetry, or {@code null} to disable it
+     */
+    public OpenAiStreamingResponseBuilder(OpenAiStreamingTelemetry.Listener telemetry) {
+        this.telemetry = telemetry;
+        this.startNanos = telemetry == null ? 0 : System.nanoTime();
+    }
 
     public void append(ChatCompletionResponse partialResponse) {
-        if (partialResponse == null) {
+        if (partialResponse == null || appended == BUILT) {
             return;
         }
+        appendChat(partialResponse);
+        publish();
+    }
 
+    private void appendChat(ChatCompletionResponse partialResponse) {
         if (!isNullOrBlank(partialResponse.id())) {
-            this.id.set(partialResponse.id());
+            this.id = partialResponse.id();
         }
         if (partialResponse.created() != null) {
-            this.created.set(partialResponse.created());
+            this.created = partialResponse.created();
         }
         if (!isNullOrBlank(partialResponse.model())) {
-            this.model.set(partialResponse.model());
+            this.model = partialResponse.model();
         }
         if (!isNullOrBlank(partialResponse.serviceTier())) {
-            this.serviceTier.set(partialResponse.serviceTier());
+            this.serviceTier = partialResponse.serviceTier();
         }
         if (!isNullOrBlank(partialResponse.systemFingerprint())) {
-            this.systemFingerprint.set(partialResponse.systemFingerprint());
+            this.systemFingerprint = partialResponse.systemFingerprint();
         }
 
         Usage usage = partialResponse.usage();
         if (usage != null) {
-            this.tokenUsage.set(tokenUsageFrom(usage));
+            this.tokenUsage = tokenUsageFrom(usage);
         }
 
         List<ChatCompletionChoice> choices = partialResponse.choices();
@@ -84,7 +131,7 @@ public class OpenAiStreamingResponseBuilder {
 
         String finishReason = chatCompletionChoice.finishReason();
         if (finishReason != null) {
-            this.finishReason.set(finishReasonFrom(finishReason));
+            this.finishReason = finishReasonFrom(finishReason);
         }
 
         Delta delta = chatCompletionChoice.delta();
@@ -97,6 +144,10 @@ public class OpenAiStreamingResponseBuilder {
             this.contentBuilder.append(content);
         }
 
+        if (telemetry != null && (!isNullOrEmpty(content) || delta.functionCall() != null || delta.toolCalls() != null)) {
+            recordDelta();
+        }
+
         if (delta.functionCall() != null) {
             FunctionCall functionCall = delta.functionCall();
 
@@ -110,14 +161,9 @@ public class OpenAiStreamingResponseBuilder {
         }
 
         if (delta.toolCalls() != null) {
-            System.out.println("OLOLO " + delta.toolCalls()); // TODO
-
             for (ToolCall toolCall : delta.toolCalls()) {
 
-                ToolExecutionRequestBuilder builder = this.indexToToolExecutionRequestBuilder.computeIfAbsent(
-                        toolCall.index(),
-                        idx -> new ToolExecutionRequestBuilder()
-                );
+                ToolExecutionRequestBuilder builder = toolBuilder(toolCall.index());
 
                 if (toolCall.id() != null) {
                     builder.idBuilder.append(toolCall.id());
@@ -131,18 +177,26 @@ public class OpenAiStreamingResponseBuilder {
                 if (functionCall.arguments() != null) {
                     builder.argumentsBuilder.append(functionCall.arguments());
                 }
+
+                if (telemetry != null) {
+                    telemetry.onToolCallDelta(utf8Length(functionCall.arguments()));
+                }
             }
         }
     }
 
     public void append(CompletionResponse partialResponse) {
-        if (partialResponse == null) {
+        if (partialResponse == null || appended == BUILT) {
             return;
         }
+        appendCompletion(partialResponse);
+        publish();
+    }
 
+    private void appendCompletion(CompletionResponse partialResponse) {
         Usage usage = partialResponse.usage();
         if (usage != null) {
-            this.tokenUsage.set(tokenUsageFrom(usage));
+            this.tokenUsage = tokenUsageFrom(usage);
         }
 
         List<CompletionChoice> choices = partialResponse.choices();
@@ -157,25 +211,107 @@ public class OpenAiStreamingResponseBuilder {
 
         String finishReason = completionChoice.finishReason();
         if (finishReason != null) {
-            this.finishReason.set(finishReasonFrom(finishReason));
+            this.finishReason = finishReasonFrom(finishReason);
         }
 
         String token = completionChoice.text();
         if (token != null) {
             this.contentBuilder.append(token);
+            if (telemetry != null) {
+                recordDelta();
+            }
+        }
+    }
+
+    /**
+     * Reports the end of a successfully completed stream to the telemetry listener, if any.
+     */
+    public void complete() {
+        if (telemetry != null) {
+            telemetry.onStreamCompleted(finishReason, System.nanoTime() - startNanos);
+        }
+    }
+
+    /**
+     * Reports the end of a failed stream to the telemetry listener, if any.
+     */
+    public void fail() {
+        if (telemetry != null) {
+            telemetry.onStreamFailed(System.nanoTime() - startNanos);
+        }
+    }
+
+    private ToolExecutionRequestBuilder toolBuilder(Integer index) {
+        int i = index == null ? 0 : index;
+        if (i >= toolBuilders.length) {
+            toolBuilders = Arrays.copyOf(toolBuilders, Math.max(i + 1, Math.max(4, toolBuilders.length * 2)));
+        }
+        ToolExecutionRequestBuilder builder = toolBuilders[i];
+        if (builder == null) {
+            builder = new ToolExecutionRequestBuilder();
+            toolBuilders[i] = builder;
+            toolBuilderCount = Math.max(toolBuilderCount, i + 1);
+        }
+        return builder;
+    }
+
+    private void publish() {
+        // single writer: a plain read of our own counter, then a release store that build() acquires
+        APPENDED.setRelease(this, appended + 1);
+    }
+
+    private void recordDelta() {
+        long now = System.nanoTime();
+        if (lastDeltaNanos == 0) {
+            telemetry.onFirstToken(now - startNanos);
+        } else {
+            telemetry.onInterTokenGap(now - lastDeltaNanos);
         }
+        lastDeltaNanos = now;
     }
 
+    private static int utf8Length(String s) {
+        if (s == null) {
+            return 0;
+        }
+        int length = s.length();
+        int bytes = length;
+        for (int i = 0; i < length; i++) {
+            char c = s.charAt(i);
+            if (c >= 0x80) {
+                if (c < 0x800) {
+                    bytes += 1;
+                } else if (Character.isHighSurrogate(c)) {
+                    // surrogate pair: 4 bytes for 2 chars
+                    bytes += 2;
+                    i++;
+                } else {
+                    bytes += 2;
+                }
+            }
+        }
+        return bytes;
+    }
+
+    /**
+     * Builds the final response. Must be called once, after the last partial response has been appended;
+     * the acquiring read-and-mark makes every append visible to the calling thread and rejects later appends.
+     *
+     * @throws IllegalStateException if the response has already been built
+     */
     public ChatResponse build() {
+        if ((int) APPENDED.getAndSet(this, BUILT) == BUILT) {
+            throw new IllegalStateException("Streaming response has already been built");
+        }
 
         OpenAiChatResponseMetadata chatResponseMetadata = OpenAiChatResponseMetadata.builder()
-                .id(id.get())
-                .modelName(model.get())
-                .tokenUsage(tokenUsage.get())
-                .finishReason(finishReason.get())
-                .created(created.get())
-                .serviceTier(serviceTier.get())
-                .systemFingerprint(systemFingerprint.get())
+                .id(id)
+                .modelName(model)
+                .tokenUsage(tokenUsage)
+                .finishReason(finishReason)
+                .created(created)
+                .serviceTier(serviceTier)
+                .systemFingerprint(systemFingerprint)
                 .build();
 
         String text = contentBuilder.toString();
@@ -197,14 +333,19 @@ public class OpenAiStreamingResponseBuilder {
                     .build();
         }
 
-        if (!indexToToolExecutionRequestBuilder.isEmpty()) {
-            List<ToolExecutionRequest> toolExecutionRequests = indexToToolExecutionRequestBuilder.values().stream()
-                    .map(it -> ToolExecutionRequest.builder()
-                            .id(it.idBuilder.toString())
-                            .name(it.nameBuilder.toString())
-                            .arguments(it.argumentsBuilder.toString())
-                            .build())
-                    .collect(toList());
+        if (toolBuilderCount > 0) {
+            List<ToolExecutionRequest> toolExecutionRequests = new ArrayList<>(toolBuilderCount);
+            for (int i = 0; i < toolBuilderCount; i++) {
+                ToolExecutionRequestBuilder it = toolBuilders[i];
+                if (it == null) {
+                    continue;
+                }
+                toolExecutionRequests.add(ToolExecutionRequest.builder()
+                        .id(it.idBuilder.toString())
+                        .name(it.nameBuilder.toString())
+                        .arguments(it.argumentsBuilder.toString())
+                        .build());
+            }
 
             AiMessage aiMessage = isNullOrBlank(text) ?
                     AiMessage.from(toolExecutionRequests) :
@@ -229,8 +370,8 @@ public class OpenAiStreamingResponseBuilder {
 
     private static class ToolExecutionRequestBuilder {
 
-        private final StringBuffer idBuilder = new StringBuffer();
-        private final StringBuffer nameBuilder = new StringBuffer();
-        private final StringBuffer argumentsBuilder = new StringBuffer();
+        private final StringBuilder idBuilder = new StringBuilder();
+        private final StringBuilder nameBuilder = new StringBuilder();
+        private final StringBuilder argumentsBuilder = new StringBuilder();
     }
 }
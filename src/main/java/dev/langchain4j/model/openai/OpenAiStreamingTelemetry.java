@@ -0,0 +1,77 @@
+package dev.langchain4j.model.openai;
+
+import dev.langchain4j.model.output.FinishReason;
+
+/**
+ * Optional instrumentation hook for {@link OpenAiStreamingChatModel}.
+ * <p>
+ * A single process-wide {@link Listener} can be installed; when none is installed the streaming path
+ * performs no timing and no extra work. All callbacks take primitives or enum constants only,
+ * so recording does not allocate.
+ */
+public final class OpenAiStreamingTelemetry {
+
+    private static volatile Listener listener;
+
+    private OpenAiStreamingTelemetry() {
+    }
+
+    /**
+     * Installs the listener that receives streaming telemetry, replacing any previous one.
+     *
+     * @param listener the listener, or {@code null} to disable telemetry
+     */
+    public static void install(Listener listener) {
+        OpenAiStreamingTelemetry.listener = listener;
+    }
+
+    /**
+     * @return the installed listener, or {@code null} when telemetry is disabled
+     */
+    public static Listener listener() {
+        return listener;
+    }
+
+    /**
+     * Receives telemetry for each streamed chat completion. Callbacks for one stream are invoked
+     * on the thread that delivers its partial responses and must not block.
+     */
+    public interface Listener {
+
+        /**
+         * Called once per stream, when the first content or tool-call delta arrives.
+         *
+         * @param nanos time between sending the request and receiving the first delta
+         */
+        void onFirstToken(long nanos);
+
+        /**
+         * Called for every content or tool-call delta after the first one.
+         *
+         * @param nanos time since the previous delta of the same stream
+         */
+        void onInterTokenGap(long nanos);
+
+        /**
+         * Called for every streamed tool-call delta.
+         *
+         * @param argumentBytes UTF-8 length of the argument fragment carried by the delta
+         */
+        void onToolCallDelta(int argumentBytes);
+
+        /**
+         * Called when the stream completes normally.
+         *
+         * @param finishReason finish reason reported by the model, {@code null} if none was reported
+         * @param nanos        total duration of the stream
+         */
+        void onStreamCompleted(FinishReason finishReason, long nanos);
+
+        /**
+         * Called when the stream fails.
+         *
+         * @param nanos total duration of the stream
+         */
+        void onStreamFailed(long nanos);
+    }
+}
@@ -117,22 +117,21 @@ class AiServiceStreamingResponseHandler implements StreamingChatResponseHandler
         addToMemory(aiMessage);
 
         if (aiMessage.hasToolExecutionRequests()) {
-            for (ToolExecutionRequest toolExecutionRequest : aiMessage.toolExecutionRequests()) {
-                String toolName = toolExecutionRequest.name();
-                ToolExecutor toolExecutor = toolExecutors.get(toolName);
-                String toolExecutionResult = toolExecutor.execute(toolExecutionRequest, memoryId);
-                ToolExecutionResultMessage toolExecutionResultMessage =
-                        ToolExecutionResultMessage.from(toolExecutionRequest, toolExecutionResult);
-                addToMemory(toolExecutionResultMessage);
-
-                if (toolExecutionHandler != null) {
-                    ToolExecution toolExecution = ToolExecution.builder()
-                            .request(toolExecutionRequest)
-                            .result(toolExecutionResult)
-                            .build();
-                    toolExecutionHandler.accept(toolExecution);
-                }
-            }
+            // independent requests run concurrently; results are added to memory in request order
+            ToolExecutionScheduler.execute(aiMessage.toolExecutionRequests(), toolExecutors, memoryId,
+                    (toolExecutionRequest, toolExecutionResult) -> {
+                        ToolExecutionResultMessage toolExecutionResultMessage =
+                                ToolExecutionResultMessage.from(toolExecutionRequest, toolExecutionResult);
+                        addToMemory(toolExecutionResultMessage);
+
+                        if (toolExecutionHandler != null) {
+                            ToolExecution toolExecution = ToolExecution.builder()
+                                    .request(toolExecutionRequest)
+                                    .result(toolExecutionResult)
+                                    .build();
+                            toolExecutionHandler.accept(toolExecution);
+                        }
+                    });
 
             ChatRequest chatRequest = ChatRequest.builder()
                     .messages(messagesToSend(memoryId))
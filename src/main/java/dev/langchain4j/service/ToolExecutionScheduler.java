@@ -0,0 +1,167 @@
+package dev.langchain4j.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import dev.langchain4j.Internal;
+import dev.langchain4j.agent.tool.ToolExecutionRequest;
+import dev.langchain4j.service.tool.ToolExecutor;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.BiConsumer;
+
+/**
+ * Executes the tool requests of one model turn concurrently on virtual threads while keeping conflicting
+ * requests in the order the model issued them.
+ * <p>
+ * Conflict rules: every top-level string argument whose name ends with {@code Path}
+ * (e.g. {@code relativeFilePath}, {@code relativeDirPath}) is a path the request touches. Two requests conflict
+ * when one of their paths is equal to, or an ancestor directory of, a path of the other; a blank path means the
+ * whole project. A request without any path argument, or whose arguments cannot be parsed, is exclusive and
+ * conflicts with every other request. A request starts only after all earlier requests it conflicts with
+ * have finished.
+ * <p>
+ * Results are delivered in request order, each one as soon as it and all earlier results are available.
+ */
+@Internal
+class ToolExecutionScheduler {
+
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+
+    private static final ExecutorService EXECUTOR = Executors.newVirtualThreadPerTaskExecutor();
+
+    private static final String PATH_ARGUMENT_SUFFIX = "Path";
+
+    private ToolExecutionScheduler() {
+    }
+
+    /**
+     * Executes the requests and hands each result to {@code resultConsumer} in request order,
+     * on the calling thread.
+     * <p>
+     * If a request fails, requests that conflict with it are not started, the remaining ones are awaited,
+     * and the first failure in request order is rethrown.
+     *
+     * @param requests       tool requests of one model turn, in the order the model issued them
+     * @param toolExecutors  executors by tool name
+     * @param memoryId       memory id passed to the tools
+     * @param resultConsumer receives each request with its result
+     */
+    static void execute(List<ToolExecutionRequest> requests,
+                        Map<String, ToolExecutor> toolExecutors,
+                        Object memoryId,
+                        BiConsumer<ToolExecutionRequest, String> resultConsumer) {
+        if (requests.size() == 1) {
+            // nothing to overlap, run on the calling thread
+            ToolExecutionRequest request = requests.get(0);
+            resultConsumer.accept(request, toolExecutors.get(request.name()).execute(request, memoryId));
+            return;
+        }
+
+        List<List<String>> paths = new ArrayList<>(requests.size());
+        List<CompletableFuture<String>> results = new ArrayList<>(requests.size());
+        for (int i = 0; i < requests.size(); i++) {
+            ToolExecutionRequest request = requests.get(i);
+            List<String> requestPaths = pathsOf(request);
+            List<CompletableFuture<String>> dependencies = new ArrayList<>();
+            for (int j = 0; j < i; j++) {
+                if (conflict(paths.get(j), requestPaths)) {
+                    dependencies.add(results.get(j));
+                }
+            }
+            ToolExecutor toolExecutor = toolExecutors.get(request.name());
+            CompletableFuture<String> result = CompletableFuture
+                    .allOf(dependencies.toArray(new CompletableFuture[0]))
+                    .thenApplyAsync(ignored -> toolExecutor.execute(request, memoryId), EXECUTOR);
+            paths.add(requestPaths);
+            results.add(result);
+        }
+
+        Iterator<CompletableFuture<String>> iterator = results.iterator();
+        for (ToolExecutionRequest request : requests) {
+            String result;
+            try {
+                result = iterator.next().join();
+            } catch (CompletionException e) {
+                // let the requests already running finish before reporting the failure
+                CompletableFuture.allOf(results.toArray(new CompletableFuture[0])).exceptionally(t -> null).join();
+                throw unwrap(e);
+            }
+            resultConsumer.accept(request, result);
+        }
+    }
+
+    /**
+     * @return normalized paths the request touches, or {@code null} if the request is exclusive
+     */
+    private static List<String> pathsOf(ToolExecutionRequest request) {
+        JsonNode arguments;
+        try {
+            arguments = OBJECT_MAPPER.readTree(request.arguments() == null ? "{}" : request.arguments());
+        } catch (Exception e) {
+            return null;
+        }
+        if (arguments == null || !arguments.isObject()) {
+            return null;
+        }
+        List<String> paths = new ArrayList<>(1);
+        arguments.fields().forEachRemaining(field -> {
+            if (field.getKey().endsWith(PATH_ARGUMENT_SUFFIX) && (field.getValue().isTextual() || field.getValue().isNull())) {
+                paths.add(normalize(field.getValue().isNull() ? "" : field.getValue().asText()));
+            }
+        });
+        return paths.isEmpty() ? null : paths;
+    }
+
+    private static String normalize(String path) {
+        String normalized = path.trim().replace('\\', '/');
+        while (normalized.startsWith("./")) {
+            normalized = normalized.substring(2);
+        }
+        while (normalized.startsWith("/")) {
+            normalized = normalized.substring(1);
+        }
+        while (normalized.endsWith("/")) {
+            normalized = normalized.substring(0, normalized.length() - 1);
+        }
+        return normalized.equals(".") ? "" : normalized;
+    }
+
+    private static boolean conflict(List<String> first, List<String> second) {
+        if (first == null || second == null) {
+            return true;
+        }
+        for (String a : first) {
+            for (String b : second) {
+                if (overlap(a, b)) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    private static boolean overlap(String a, String b) {
+        if (a.isEmpty() || b.isEmpty() || a.equals(b)) {
+            return true;
+        }
+        return a.startsWith(b + "/") || b.startsWith(a + "/");
+    }
+
+    private static RuntimeException unwrap(CompletionException e) {
+        Throwable cause = e.getCause();
+        if (cause instanceof RuntimeException runtimeException) {
+            return runtimeException;
+        }
+        if (cause instanceof Error error) {
+            throw error;
+        }
+        return e;
+    }
+}
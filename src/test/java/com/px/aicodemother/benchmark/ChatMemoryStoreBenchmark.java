@@ -0,0 +1,153 @@
+package com.px.aicodemother.benchmark;
+
+import cn.hutool.core.util.IdUtil;
+import com.px.aicodemother.ai.memory.CompactRedisChatMemoryStore;
+import dev.langchain4j.agent.tool.ToolExecutionRequest;
+import dev.langchain4j.community.store.memory.chat.redis.RedisChatMemoryStore;
+import dev.langchain4j.data.message.AiMessage;
+import dev.langchain4j.data.message.SystemMessage;
+import dev.langchain4j.data.message.ToolExecutionResultMessage;
+import dev.langchain4j.data.message.UserMessage;
+import dev.langchain4j.memory.chat.MessageWindowChatMemory;
+import dev.langchain4j.store.memory.chat.ChatMemoryStore;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.data.redis.connection.RedisConnection;
+import org.springframework.data.redis.connection.RedisStandaloneConfiguration;
+import org.springframework.data.redis.connection.jedis.JedisConnectionFactory;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.serializer.RedisSerializer;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.Objects;
+import java.util.Properties;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * packageName: com.px.aicodemother.benchmark
+ *
+ * @author: idpeng
+ * @version: 1.0
+ * @className: ChatMemoryStoreBenchmark
+ * @date: 2026/10/18 19:45
+ * @description: 对话记忆存储基准测试，通过 50 条消息的窗口记忆回放 Vue 工程生成对话，每轮 8 条消息（用户消息、
+ * 3 次写文件工具调用及结果、总结），对比原 JSON 整体存储与紧凑记录存储每轮的耗时，
+ * 并在结束时按 Redis INFO stats 输出每轮收发的字节数（需要本机 6379 端口的 Redis）
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ChatMemoryStoreBenchmark {
+
+    private static final int WINDOW_SIZE = 50;
+
+    private static final int FILES_PER_TURN = 3;
+
+    @Param({"json", "compact"})
+    private String store;
+
+    private JedisConnectionFactory connectionFactory;
+
+    private ChatMemoryStore chatMemoryStore;
+
+    private MessageWindowChatMemory chatMemory;
+
+    private long turns;
+
+    private long netInputBytes;
+
+    private long netOutputBytes;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        connectionFactory = new JedisConnectionFactory(new RedisStandaloneConfiguration("127.0.0.1", 6379));
+        connectionFactory.afterPropertiesSet();
+        connectionFactory.start();
+        // 与 application.yml 默认值一致
+        if ("json".equals(store)) {
+            chatMemoryStore = RedisChatMemoryStore.builder().host("127.0.0.1").port(6379).ttl(3600L).build();
+        } else {
+            RedisTemplate<String, byte[]> redisTemplate = new RedisTemplate<>();
+            redisTemplate.setConnectionFactory(connectionFactory);
+            redisTemplate.setKeySerializer(RedisSerializer.string());
+            redisTemplate.setValueSerializer(RedisSerializer.byteArray());
+            redisTemplate.afterPropertiesSet();
+            chatMemoryStore = new CompactRedisChatMemoryStore(redisTemplate, "chat_memory:", Duration.ofHours(1),
+                    512, 2000, Duration.ofMinutes(10));
+        }
+        chatMemory = MessageWindowChatMemory.builder()
+                .id("bench:" + IdUtil.fastSimpleUUID())
+                .maxMessages(WINDOW_SIZE)
+                .chatMemoryStore(chatMemoryStore)
+                .build();
+        try (InputStream in = Objects.requireNonNull(
+                getClass().getResourceAsStream("/prompt/codegen-vue-project-system-prompt.txt"))) {
+            chatMemory.add(SystemMessage.from(new String(in.readAllBytes(), StandardCharsets.UTF_8)));
+        }
+        Properties stats = stats();
+        netInputBytes = Long.parseLong(stats.getProperty("total_net_input_bytes"));
+        netOutputBytes = Long.parseLong(stats.getProperty("total_net_output_bytes"));
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        Properties stats = stats();
+        long input = Long.parseLong(stats.getProperty("total_net_input_bytes")) - netInputBytes;
+        long output = Long.parseLong(stats.getProperty("total_net_output_bytes")) - netOutputBytes;
+        System.out.printf("%n[%s] %d turns, bytes/turn sent to Redis: %d, received from Redis: %d%n",
+                store, turns, input / turns, output / turns);
+        chatMemory.clear();
+        connectionFactory.destroy();
+    }
+
+    /**
+     * 一轮对话：每条消息都经过窗口记忆的读取和写回，与 AI 服务的调用方式一致
+     */
+    @Benchmark
+    public void turn() {
+        long turn = turns++;
+        chatMemory.add(UserMessage.from("第 " + turn + " 轮：在首页增加一个展示最新文章的卡片列表，并调整导航栏样式"));
+        for (int i = 0; i < FILES_PER_TURN; i++) {
+            String path = "src/pages/Page" + turn + "_" + i + ".vue";
+            ToolExecutionRequest request = ToolExecutionRequest.builder()
+                    .id("call_" + turn + "_" + i)
+                    .name("writeFile")
+                    .arguments("{\"relativeFilePath\":\"" + path + "\",\"content\":\"" + vueFile(turn, i) + "\"}")
+                    .build();
+            chatMemory.add(AiMessage.from(List.of(request)));
+            chatMemory.add(ToolExecutionResultMessage.from(request, "文件写入成功: " + path));
+        }
+        chatMemory.add(AiMessage.from("已完成第 " + turn + " 轮修改：新增文章卡片列表组件，首页引入该组件，"
+                + "导航栏改为吸顶并调整了间距和配色。"));
+    }
+
+    private static String vueFile(long turn, int index) {
+        String block = "<template>\\n  <div class=\\\"card-" + index + "\\\">\\n    <h2>{{ title }}</h2>\\n"
+                + "    <p>{{ summary }}</p>\\n  </div>\\n</template>\\n";
+        return "<!-- turn " + turn + " -->\\n" + block.repeat(20)
+                + "<script setup>\\nconst title = '文章 " + turn + "'\\n</script>\\n";
+    }
+
+    private Properties stats() {
+        try (RedisConnection connection = connectionFactory.getConnection()) {
+            return connection.serverCommands().info("stats");
+        }
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+                .include(ChatMemoryStoreBenchmark.class.getSimpleName())
+                .build();
+        new Runner(options).run();
+    }
+}
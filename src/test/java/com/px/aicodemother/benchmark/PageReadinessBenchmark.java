@@ -0,0 +1,95 @@
+package com.px.aicodemother.benchmark;
+
+import com.px.aicodemother.manager.PageReadinessDetector;
+import com.px.aicodemother.utils.WebScreenshotUtils;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.OutputType;
+import org.openqa.selenium.TakesScreenshot;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.support.ui.WebDriverWait;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.net.URISyntaxException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * packageName: com.px.aicodemother.benchmark
+ *
+ * @author: idpeng
+ * @version: 1.0
+ * @className: PageReadinessBenchmark
+ * @date: 2026/10/18 15:55
+ * @description: 截图前等待策略基准测试，对比“readyState + 固定等待 2 秒”与页面就绪检测器，
+ * 在一组典型生成页面上测量从打开页面到截图完成的耗时（需要本机可用的 Chrome 和 ChromeDriver）
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 1, time = 5)
+@Measurement(iterations = 3, time = 10)
+@Fork(1)
+@State(Scope.Benchmark)
+public class PageReadinessBenchmark {
+
+    /**
+     * src/test/resources/screenshot-fixtures 下的生成页面
+     */
+    @Param({"static-landing.html", "multi-file-script.html", "async-content.html", "inline-images.html"})
+    private String fixture;
+
+    private WebDriver webDriver;
+
+    private PageReadinessDetector detector;
+
+    private String fixtureUrl;
+
+    @Setup(Level.Trial)
+    public void setUp() throws URISyntaxException {
+        webDriver = WebScreenshotUtils.initChromeDriver(1600, 900);
+        // 与 application.yml 默认值一致
+        detector = new PageReadinessDetector(300, 8000);
+        fixtureUrl = Path.of(Objects.requireNonNull(getClass().getResource("/screenshot-fixtures/" + fixture)).toURI())
+                .toUri().toString();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        webDriver.quit();
+    }
+
+    /**
+     * 原逻辑：等待 readyState 为 complete 后固定等待 2 秒
+     */
+    @Benchmark
+    public void fixedSleep(Blackhole blackhole) throws InterruptedException {
+        webDriver.get(fixtureUrl);
+        new WebDriverWait(webDriver, Duration.ofSeconds(10))
+                .until(driver -> "complete".equals(((JavascriptExecutor) driver).executeScript("return document.readyState")));
+        Thread.sleep(2000);
+        blackhole.consume(((TakesScreenshot) webDriver).getScreenshotAs(OutputType.BYTES));
+    }
+
+    /**
+     * 新逻辑：网络、字体、图片和 DOM 稳定后立即截图
+     */
+    @Benchmark
+    public void readinessDetector(Blackhole blackhole) {
+        webDriver.get(fixtureUrl);
+        blackhole.consume(detector.awaitReady(webDriver));
+        blackhole.consume(((TakesScreenshot) webDriver).getScreenshotAs(OutputType.BYTES));
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+                .include(PageReadinessBenchmark.class.getSimpleName())
+                .build();
+        new Runner(options).run();
+    }
+}
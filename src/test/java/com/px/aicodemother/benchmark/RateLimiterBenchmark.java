@@ -0,0 +1,102 @@
+package com.px.aicodemother.benchmark;
+
+import com.px.aicodemother.ratelimiter.limiter.RedisTokenBucketRateLimiter;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.redisson.Redisson;
+import org.redisson.api.RRateLimiter;
+import org.redisson.api.RateIntervalUnit;
+import org.redisson.api.RateType;
+import org.redisson.api.RedissonClient;
+import org.redisson.config.Config;
+import org.springframework.data.redis.connection.RedisStandaloneConfiguration;
+import org.springframework.data.redis.connection.jedis.JedisConnectionFactory;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * packageName: com.px.aicodemother.benchmark
+ *
+ * @author: idpeng
+ * @version: 1.0
+ * @className: RateLimiterBenchmark
+ * @date: 2026/10/18 20:45
+ * @description: 限流检查耗时基准测试，对比原 Redisson 实现（expire、trySetRate、tryAcquire 三次调用）、
+ * Lua 令牌桶（一次 EVALSHA）和 Lua 令牌桶 + 本地预取，测量每个请求增加的延迟分布（需要本机 6379 端口的 Redis）。
+ * 配额设置得足够大，测量的是放行路径的耗时
+ */
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 3)
+@Fork(1)
+@State(Scope.Benchmark)
+public class RateLimiterBenchmark {
+
+    private static final int RATE = 1_000_000;
+
+    private RedissonClient redissonClient;
+
+    private JedisConnectionFactory connectionFactory;
+
+    private RedisTokenBucketRateLimiter rateLimiter;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        Config config = new Config();
+        config.useSingleServer().setAddress("redis://127.0.0.1:6379");
+        redissonClient = Redisson.create(config);
+        connectionFactory = new JedisConnectionFactory(new RedisStandaloneConfiguration("127.0.0.1", 6379));
+        connectionFactory.afterPropertiesSet();
+        connectionFactory.start();
+        StringRedisTemplate stringRedisTemplate = new StringRedisTemplate(connectionFactory);
+        // 与 application.yml 默认值一致
+        rateLimiter = new RedisTokenBucketRateLimiter(stringRedisTemplate, 0.1, 100);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        redissonClient.shutdown();
+        connectionFactory.destroy();
+    }
+
+    /**
+     * 原逻辑：每次请求三次 Redis 调用
+     */
+    @Benchmark
+    public void redisson(Blackhole blackhole) {
+        RRateLimiter limiter = redissonClient.getRateLimiter("rate_limit:bench:redisson");
+        limiter.expire(Duration.ofHours(1));
+        limiter.trySetRate(RateType.OVERALL, RATE, 1, RateIntervalUnit.SECONDS);
+        blackhole.consume(limiter.tryAcquire(1));
+    }
+
+    /**
+     * Lua 令牌桶：每次请求一次 EVALSHA
+     */
+    @Benchmark
+    public void luaTokenBucket(Blackhole blackhole) {
+        blackhole.consume(rateLimiter.tryAcquire("rate_limit:bench:lua", RATE, 1000, false));
+    }
+
+    /**
+     * Lua 令牌桶 + 本地预取：大部分请求在本地扣减
+     */
+    @Benchmark
+    public void luaTokenBucketLocalPrefetch(Blackhole blackhole) {
+        blackhole.consume(rateLimiter.tryAcquire("rate_limit:bench:local", RATE, 1000, true));
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+                .include(RateLimiterBenchmark.class.getSimpleName())
+                .build();
+        new Runner(options).run();
+    }
+}
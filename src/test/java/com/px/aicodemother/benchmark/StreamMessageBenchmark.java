@@ -0,0 +1,123 @@
+package com.px.aicodemother.benchmark;
+
+import cn.hutool.json.JSONObject;
+import cn.hutool.json.JSONUtil;
+import com.px.aicodemother.ai.model.message.AiResponseMessage;
+import com.px.aicodemother.ai.model.message.BuildStatusMessage;
+import com.px.aicodemother.ai.model.message.QueueStatusMessage;
+import com.px.aicodemother.ai.model.message.StreamMessage;
+import com.px.aicodemother.ai.model.message.StreamMessageTypeEnum;
+import com.px.aicodemother.ai.model.message.ToolExecutedMessage;
+import com.px.aicodemother.ai.model.message.ToolRequestMessage;
+import dev.langchain4j.agent.tool.ToolExecutionRequest;
+import dev.langchain4j.service.tool.ToolExecution;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * packageName: com.px.aicodemother.benchmark
+ *
+ * @author: idpeng
+ * @version: 1.0
+ * @className: StreamMessageBenchmark
+ * @date: 2026/10/18 11:32
+ * @description: 流式消息传递基准测试，对比“门面序列化为 JSON、处理器再反序列化”与“直接传递消息对象”两种方式，
+ * 两者最终都在 SSE 出口生成一次 {"d": ...} JSON
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class StreamMessageBenchmark {
+
+    /**
+     * 一次 Vue 工程生成中的典型消息序列：大量 AI 文本片段，夹杂工具调用
+     */
+    private List<StreamMessage> messages;
+
+    @Setup
+    public void setUp() {
+        messages = new ArrayList<>();
+        String arguments = JSONUtil.toJsonStr(Map.of(
+                "relativeFilePath", "src/App.vue",
+                "content", "<template>\n  <div id=\"app\">Hello</div>\n</template>\n".repeat(20)));
+        ToolExecutionRequest request = ToolExecutionRequest.builder()
+                .id("call_1")
+                .name("writeFile")
+                .arguments(arguments)
+                .build();
+        for (int i = 0; i < 200; i++) {
+            messages.add(new AiResponseMessage("生成第 " + i + " 个片段，"));
+            if (i % 20 == 0) {
+                messages.add(new ToolRequestMessage(request));
+                messages.add(new ToolExecutedMessage(ToolExecution.builder()
+                        .request(request)
+                        .result("文件写入成功")
+                        .build()));
+            }
+        }
+    }
+
+    /**
+     * 旧链路：门面序列化为 JSON 字符串，处理器先解析类型、再反序列化为具体类型
+     */
+    @Benchmark
+    public void jsonRoundTrip(Blackhole blackhole) {
+        for (StreamMessage message : messages) {
+            String chunk = JSONUtil.toJsonStr(message);
+            JSONObject jsonObject = JSONUtil.parseObj(chunk);
+            StreamMessageTypeEnum typeEnum = StreamMessageTypeEnum.getEnumByValue(jsonObject.getStr("type"));
+            String display = switch (typeEnum) {
+                case AI_RESPONSE -> JSONUtil.toBean(chunk, AiResponseMessage.class).getData();
+                case TOOL_REQUEST -> JSONUtil.toBean(chunk, ToolRequestMessage.class).getName();
+                case TOOL_EXECUTED -> JSONUtil.parseObj(JSONUtil.toBean(chunk, ToolExecutedMessage.class).getArguments())
+                        .getStr("relativeFilePath");
+                case BUILD_STATUS, QUEUE_STATUS -> "";
+            };
+            blackhole.consume(toSseData(display));
+        }
+    }
+
+    /**
+     * 新链路：直接传递消息对象，按密封类型匹配，仅在 SSE 出口序列化
+     */
+    @Benchmark
+    public void typedMessages(Blackhole blackhole) {
+        for (StreamMessage message : messages) {
+            String display = switch (message) {
+                case AiResponseMessage aiMessage -> aiMessage.getData();
+                case ToolRequestMessage toolRequestMessage -> toolRequestMessage.getName();
+                case ToolExecutedMessage toolExecutedMessage -> JSONUtil.parseObj(toolExecutedMessage.getArguments())
+                        .getStr("relativeFilePath");
+                case BuildStatusMessage buildStatusMessage -> "";
+                case QueueStatusMessage queueStatusMessage -> "";
+            };
+            blackhole.consume(toSseData(display));
+        }
+    }
+
+    /**
+     * SSE 出口的 JSON 包装，与 AppController 保持一致
+     */
+    private static String toSseData(String chunk) {
+        return JSONUtil.toJsonStr(Map.of("d", chunk));
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+                .include(StreamMessageBenchmark.class.getSimpleName())
+                .build();
+        new Runner(options).run();
+    }
+}
@@ -0,0 +1,221 @@
+package com.px.aicodemother.benchmark;
+
+import dev.langchain4j.agent.tool.ToolExecutionRequest;
+import dev.langchain4j.data.message.AiMessage;
+import dev.langchain4j.model.chat.response.ChatResponse;
+import dev.langchain4j.model.openai.OpenAiChatResponseMetadata;
+import dev.langchain4j.model.openai.OpenAiStreamingResponseBuilder;
+import dev.langchain4j.model.openai.internal.chat.ChatCompletionChoice;
+import dev.langchain4j.model.openai.internal.chat.ChatCompletionResponse;
+import dev.langchain4j.model.openai.internal.chat.Delta;
+import dev.langchain4j.model.openai.internal.chat.FunctionCall;
+import dev.langchain4j.model.openai.internal.chat.ToolCall;
+import dev.langchain4j.model.openai.internal.chat.ToolType;
+import dev.langchain4j.model.output.FinishReason;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static dev.langchain4j.model.openai.internal.OpenAiUtils.finishReasonFrom;
+
+/**
+ * packageName: com.px.aicodemother.benchmark
+ *
+ * @author: idpeng
+ * @version: 1.0
+ * @className: StreamingResponseBuilderBenchmark
+ * @date: 2026/10/18 22:05
+ * @description: 流式响应累加基准测试，回放一次包含 30 个工具调用的 Vue 工程生成（约 4000 个增量），
+ * 对比原实现（StringBuffer + ConcurrentHashMap + AtomicReference）与单写者实现（StringBuilder + 按下标数组）
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class StreamingResponseBuilderBenchmark {
+
+    private static final int TOOL_CALLS = 30;
+
+    /**
+     * 模型每个增量携带的参数片段长度
+     */
+    private static final int FRAGMENT_LENGTH = 16;
+
+    private List<ChatCompletionResponse> replay;
+
+    @Setup
+    public void setUp() {
+        replay = new ArrayList<>();
+        for (int i = 0; i < 40; i++) {
+            replay.add(chunk(Delta.builder().content("正在生成项目结构，第 " + i + " 步。").build(), null));
+        }
+        String file = "<template>\n  <div class=\"page\">\n    <h1>{{ title }}</h1>\n  </div>\n</template>\n".repeat(25);
+        for (int call = 0; call < TOOL_CALLS; call++) {
+            String arguments = "{\"relativeFilePath\":\"src/pages/Page" + call + ".vue\",\"content\":\""
+                    + file.replace("\"", "\\\"").replace("\n", "\\n") + "\"}";
+            replay.add(chunk(Delta.builder()
+                    .toolCalls(List.of(toolCall(call, "call_" + call, "writeFile", "")))
+                    .build(), null));
+            for (int offset = 0; offset < arguments.length(); offset += FRAGMENT_LENGTH) {
+                String fragment = arguments.substring(offset, Math.min(arguments.length(), offset + FRAGMENT_LENGTH));
+                replay.add(chunk(Delta.builder()
+                        .toolCalls(List.of(toolCall(call, null, null, fragment)))
+                        .build(), null));
+            }
+        }
+        replay.add(chunk(Delta.builder().build(), "tool_calls"));
+    }
+
+    /**
+     * 原实现：同步的 StringBuffer、ConcurrentHashMap 和多个 AtomicReference
+     */
+    @Benchmark
+    public void synchronizedAccumulators(Blackhole blackhole) {
+        LegacyStreamingResponseBuilder builder = new LegacyStreamingResponseBuilder();
+        for (ChatCompletionResponse partialResponse : replay) {
+            builder.append(partialResponse);
+        }
+        blackhole.consume(builder.build());
+    }
+
+    /**
+     * 新实现：单写者的普通字段，build 时一次获取语义读取
+     */
+    @Benchmark
+    public void singleWriterAccumulators(Blackhole blackhole) {
+        OpenAiStreamingResponseBuilder builder = new OpenAiStreamingResponseBuilder();
+        for (ChatCompletionResponse partialResponse : replay) {
+            builder.append(partialResponse);
+        }
+        blackhole.consume(builder.build());
+    }
+
+    private static ChatCompletionResponse chunk(Delta delta, String finishReason) {
+        return ChatCompletionResponse.builder()
+                .id("chatcmpl-replay")
+                .created(1_760_000_000L)
+                .model("deepseek-chat")
+                .systemFingerprint("fp_replay")
+                .choices(List.of(ChatCompletionChoice.builder()
+                        .index(0)
+                        .delta(delta)
+                        .finishReason(finishReason)
+                        .build()))
+                .build();
+    }
+
+    private static ToolCall toolCall(int index, String id, String name, String arguments) {
+        return ToolCall.builder()
+                .index(index)
+                .id(id)
+                .type(id == null ? null : ToolType.FUNCTION)
+                .function(FunctionCall.builder().name(name).arguments(arguments).build())
+                .build();
+    }
+
+    /**
+     * 原 OpenAiStreamingResponseBuilder 中与对话流相关的部分
+     */
+    private static class LegacyStreamingResponseBuilder {
+
+        private final StringBuffer contentBuilder = new StringBuffer();
+
+        private final Map<Integer, ToolBuilder> indexToToolExecutionRequestBuilder = new ConcurrentHashMap<>();
+
+        private final AtomicReference<String> id = new AtomicReference<>();
+
+        private final AtomicReference<Long> created = new AtomicReference<>();
+
+        private final AtomicReference<String> model = new AtomicReference<>();
+
+        private final AtomicReference<String> systemFingerprint = new AtomicReference<>();
+
+        private final AtomicReference<FinishReason> finishReason = new AtomicReference<>();
+
+        void append(ChatCompletionResponse partialResponse) {
+            if (partialResponse.id() != null) {
+                id.set(partialResponse.id());
+            }
+            if (partialResponse.created() != null) {
+                created.set(partialResponse.created());
+            }
+            if (partialResponse.model() != null) {
+                model.set(partialResponse.model());
+            }
+            if (partialResponse.systemFingerprint() != null) {
+                systemFingerprint.set(partialResponse.systemFingerprint());
+            }
+            ChatCompletionChoice choice = partialResponse.choices().get(0);
+            if (choice.finishReason() != null) {
+                finishReason.set(finishReasonFrom(choice.finishReason()));
+            }
+            Delta delta = choice.delta();
+            if (delta.content() != null) {
+                contentBuilder.append(delta.content());
+            }
+            if (delta.toolCalls() != null) {
+                for (ToolCall toolCall : delta.toolCalls()) {
+                    ToolBuilder builder = indexToToolExecutionRequestBuilder.computeIfAbsent(toolCall.index(),
+                            idx -> new ToolBuilder());
+                    if (toolCall.id() != null) {
+                        builder.idBuilder.append(toolCall.id());
+                    }
+                    if (toolCall.function().name() != null) {
+                        builder.nameBuilder.append(toolCall.function().name());
+                    }
+                    if (toolCall.function().arguments() != null) {
+                        builder.argumentsBuilder.append(toolCall.function().arguments());
+                    }
+                }
+            }
+        }
+
+        ChatResponse build() {
+            List<ToolExecutionRequest> requests = indexToToolExecutionRequestBuilder.values().stream()
+                    .map(it -> ToolExecutionRequest.builder()
+                            .id(it.idBuilder.toString())
+                            .name(it.nameBuilder.toString())
+                            .arguments(it.argumentsBuilder.toString())
+                            .build())
+                    .toList();
+            return ChatResponse.builder()
+                    .aiMessage(AiMessage.from(contentBuilder.toString(), requests))
+                    .metadata(OpenAiChatResponseMetadata.builder()
+                            .id(id.get())
+                            .modelName(model.get())
+                            .created(created.get())
+                            .systemFingerprint(systemFingerprint.get())
+                            .finishReason(finishReason.get())
+                            .build())
+                    .build();
+        }
+
+        private static class ToolBuilder {
+
+            private final StringBuffer idBuilder = new StringBuffer();
+
+            private final StringBuffer nameBuilder = new StringBuffer();
+
+            private final StringBuffer argumentsBuilder = new StringBuffer();
+        }
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+                .include(StreamingResponseBuilderBenchmark.class.getSimpleName())
+                .build();
+        new Runner(options).run();
+    }
+}
@@ -0,0 +1,137 @@
+package com.px.aicodemother.core.parser;
+
+import com.px.aicodemother.core.saver.CodeFileSaverTemplate;
+import com.px.aicodemother.core.saver.HtmlCodeFileSaverTemplate;
+import com.px.aicodemother.core.saver.MultiFileCodeFileSaverTemplate;
+import com.px.aicodemother.model.enums.CodeGenTypeEnum;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * 增量代码块解析器语料测试：对同一语料按不同分片大小流式写入，输出文件需与原正则解析 + 保存逻辑逐字节一致
+ */
+class StreamingCodeParserTest {
+
+    private static final int[] CHUNK_SIZES = {1, 2, 3, 7, 64, Integer.MAX_VALUE};
+
+    private static final List<String> CORPUS = List.of(
+            // 常规单文件输出
+            """
+                    好的，下面是页面代码：
+                    ```html
+                    <!DOCTYPE html>
+                    <html>
+                    <head><title>测试页面</title></head>
+                    <body><h1>Hello World!</h1></body>
+                    </html>
+                    ```
+                    以上就是完整代码。
+                    """,
+            // 常规多文件输出
+            """
+                    创建一个完整的网页：
+                    ```html
+                    <!DOCTYPE html>
+                    <html>
+                    <head><link rel="stylesheet" href="style.css"></head>
+                    <body><h1>欢迎使用</h1><script src="script.js"></script></body>
+                    </html>
+                    ```
+                    ```css
+                    h1 {
+                        color: blue;
+                    }
+                    ```
+                    ```javascript
+                    console.log(`模板字符串 ${1 + 1}`);
+                    ```
+                    文件创建完成！
+                    """,
+            // 语言标识大小写、标识后带空格、CRLF 换行
+            "```HTML  \r\n<p>a</p>\r\n```\r\n```Css\n\n  p { margin: 0 }\n```\n```JS\t\nlet a = 1;\n```",
+            // 代码块中出现单个和两个反引号
+            "```html\n<code>`a`</code> ``b``\n```\n```js\nconst s = `x`;\n```",
+            // 标识与换行之间有非空白字符的伪代码块、四个反引号
+            "```html <b>\n```\n````html\n<i>真正的代码块</i>\n```",
+            // 空代码块、仅空白的代码块
+            "```html\n```\n```css\n   \n```\n```js\n　\n```\n```html\n<p>第二个不会被采用</p>\n```",
+            // 未闭合的代码块
+            "说明文字\n```html\n<div>没有结束标记",
+            // 没有任何代码块
+            "  <html><body>直接输出</body></html>  \n",
+            // 只有 css 和 js，没有 html
+            "```css\nbody {}\n```\n```js\nalert(1)\n```",
+            // 全空白输出
+            " \n\t ",
+            // emoji 等代理对字符
+            "```html\n<p>😀 中文</p>\n```\n```js\nconsole.log('😀')\n```"
+    );
+
+    @Test
+    void htmlStreamingMatchesRegexParser(@TempDir Path tempDir) throws IOException {
+        assertCorpus(new HtmlCodeFileSaverTemplate(), CodeGenTypeEnum.HTML, tempDir);
+    }
+
+    @Test
+    void multiFileStreamingMatchesRegexParser(@TempDir Path tempDir) throws IOException {
+        assertCorpus(new MultiFileCodeFileSaverTemplate(), CodeGenTypeEnum.MULTI_FILE, tempDir);
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T> void assertCorpus(CodeFileSaverTemplate<T> template, CodeGenTypeEnum codeGenType, Path tempDir) throws IOException {
+        for (int i = 0; i < CORPUS.size(); i++) {
+            String content = CORPUS.get(i);
+            // 原逻辑：完整输出 -> 正则解析 -> 校验 -> 保存
+            Path expectedDir = Files.createDirectories(tempDir.resolve("expected_" + i));
+            boolean expectedError = false;
+            try {
+                T result = (T) CodeParserExecutor.executeParser(content, codeGenType);
+                template.saveCode(result, expectedDir.toString());
+            } catch (RuntimeException e) {
+                expectedError = true;
+            }
+            Map<String, byte[]> expected = readDir(expectedDir);
+            for (int chunkSize : CHUNK_SIZES) {
+                Path actualDir = Files.createDirectories(tempDir.resolve("actual_" + i + "_" + chunkSize));
+                StreamingCodeParser parser = template.openStream(actualDir.toString());
+                for (int start = 0; start < content.length(); start += chunkSize) {
+                    parser.accept(content.substring(start, (int) Math.min(content.length(), (long) start + chunkSize)));
+                }
+                boolean actualError = false;
+                try {
+                    parser.finish();
+                } catch (RuntimeException e) {
+                    actualError = true;
+                }
+                String message = "语料 " + i + "，分片大小 " + chunkSize;
+                assertEquals(expectedError, actualError, message);
+                Map<String, byte[]> actual = readDir(actualDir);
+                assertEquals(expected.keySet(), actual.keySet(), message);
+                for (String filename : expected.keySet()) {
+                    assertArrayEquals(expected.get(filename), actual.get(filename), message + "，文件 " + filename);
+                }
+            }
+        }
+    }
+
+    private Map<String, byte[]> readDir(Path dir) throws IOException {
+        Map<String, byte[]> files = new TreeMap<>();
+        try (Stream<Path> stream = Files.list(dir)) {
+            for (Path path : stream.toList()) {
+                files.put(path.getFileName().toString(), Files.readAllBytes(path));
+            }
+        }
+        return files;
+    }
+}
@@ -0,0 +1,118 @@
+package dev.langchain4j.service;
+
+import dev.langchain4j.agent.tool.ToolExecutionRequest;
+import dev.langchain4j.service.tool.ToolExecutor;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 工具并行执行测试：互不冲突的请求并发执行，同一路径的请求保持顺序，结果按请求顺序返回
+ */
+class ToolExecutionSchedulerTest {
+
+    @Test
+    void independentRequestsRunConcurrentlyAndResultsKeepRequestOrder() {
+        // 两个写入互相等待对方开始，串行执行时会超时
+        CountDownLatch bothStarted = new CountDownLatch(2);
+        ToolExecutor writeFile = (request, memoryId) -> {
+            bothStarted.countDown();
+            try {
+                assertTrue(bothStarted.await(5, TimeUnit.SECONDS), "写入请求没有并发执行");
+            } catch (InterruptedException e) {
+                throw new IllegalStateException(e);
+            }
+            return "写入 " + request.id();
+        };
+        List<String> results = new ArrayList<>();
+        ToolExecutionScheduler.execute(
+                List.of(request("1", "writeFile", "{\"relativeFilePath\":\"src/App.vue\"}"),
+                        request("2", "writeFile", "{\"relativeFilePath\":\"src/main.js\"}")),
+                Map.of("writeFile", writeFile), 1L,
+                (request, result) -> results.add(result));
+        assertEquals(List.of("写入 1", "写入 2"), results);
+    }
+
+    @Test
+    void requestsOnSamePathStayOrdered() {
+        List<String> executionOrder = Collections.synchronizedList(new ArrayList<>());
+        ToolExecutor slowWrite = (request, memoryId) -> {
+            sleep(200);
+            executionOrder.add(request.id());
+            return request.id();
+        };
+        ToolExecutor fastModify = (request, memoryId) -> {
+            executionOrder.add(request.id());
+            return request.id();
+        };
+        List<String> results = new ArrayList<>();
+        ToolExecutionScheduler.execute(
+                List.of(request("write", "writeFile", "{\"relativeFilePath\":\"./src/App.vue\"}"),
+                        request("modify", "modifyFile", "{\"relativeFilePath\":\"src/App.vue\"}"),
+                        request("readDir", "readDir", "{\"relativeDirPath\":\"src\"}")),
+                Map.of("writeFile", slowWrite, "modifyFile", fastModify, "readDir", fastModify), 1L,
+                (request, result) -> results.add(result));
+        assertEquals(List.of("write", "modify", "readDir"), executionOrder);
+        assertEquals(List.of("write", "modify", "readDir"), results);
+    }
+
+    @Test
+    void requestWithoutPathIsExclusive() {
+        List<String> executionOrder = Collections.synchronizedList(new ArrayList<>());
+        ToolExecutor slowWrite = (request, memoryId) -> {
+            sleep(200);
+            executionOrder.add(request.id());
+            return request.id();
+        };
+        ToolExecutor exit = (request, memoryId) -> {
+            executionOrder.add(request.id());
+            return request.id();
+        };
+        ToolExecutionScheduler.execute(
+                List.of(request("write", "writeFile", "{\"relativeFilePath\":\"src/App.vue\"}"),
+                        request("exit", "exit", "{}")),
+                Map.of("writeFile", slowWrite, "exit", exit), 1L,
+                (request, result) -> {
+                });
+        assertEquals(List.of("write", "exit"), executionOrder);
+    }
+
+    @Test
+    void failureIsRethrownAfterEarlierResults() {
+        ToolExecutor failing = (request, memoryId) -> {
+            throw new IllegalArgumentException("写入失败");
+        };
+        ToolExecutor ok = (request, memoryId) -> request.id();
+        List<String> results = new ArrayList<>();
+        IllegalArgumentException exception = assertThrows(IllegalArgumentException.class, () ->
+                ToolExecutionScheduler.execute(
+                        List.of(request("1", "readFile", "{\"relativeFilePath\":\"a.vue\"}"),
+                                request("2", "writeFile", "{\"relativeFilePath\":\"b.vue\"}"),
+                                request("3", "readFile", "{\"relativeFilePath\":\"c.vue\"}")),
+                        Map.of("readFile", ok, "writeFile", failing), 1L,
+                        (request, result) -> results.add(result)));
+        assertEquals("写入失败", exception.getMessage());
+        assertEquals(List.of("1"), results);
+    }
+
+    private static ToolExecutionRequest request(String id, String name, String arguments) {
+        return ToolExecutionRequest.builder().id(id).name(name).arguments(arguments).build();
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}